@@ -21,6 +21,7 @@ import net.tangly.app.services.AppsBoundedDomain;
 import net.tangly.app.services.AppsBusinessLogic;
 import net.tangly.core.domain.BoundedDomain;
 import net.tangly.core.domain.TenantDirectory;
+import net.tangly.core.events.EventBus;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.NotNull;
@@ -48,6 +49,7 @@ public class Tenant implements TenantDirectory {
     private final Properties properties;
     private final Map<String, BoundedDomain<?, ?, ?>> boundedDomains;
     private final Map<String, BoundedDomainRest> boundedDomainRests;
+    private final EventBus eventBus;
 
     public Tenant(@NotNull Properties properties) {
         Objects.requireNonNull(properties.get(TENANT_ID_PROPERTY), "The tenant id is mandatory");
@@ -55,6 +57,7 @@ public class Tenant implements TenantDirectory {
         this.properties = properties;
         boundedDomains = new HashMap<>();
         boundedDomainRests = new HashMap<>();
+        eventBus = EventBus.of();
         ofAppDomain();
     }
 
@@ -70,6 +73,11 @@ public class Tenant implements TenantDirectory {
         return properties.getProperty(property);
     }
 
+    @Override
+    public EventBus eventBus() {
+        return eventBus;
+    }
+
     @Override
     public Collection<BoundedDomain<?, ?, ?>> boundedDomains() {
         return boundedDomains.values();
@@ -120,6 +128,7 @@ public class Tenant implements TenantDirectory {
      */
     public void shutdown() {
         boundedDomains.values().forEach(BoundedDomain::shutdown);
+        eventBus.close();
     }
 
     public Map<String, BoundedDomainRest> boundedDomainRests() {
@@ -0,0 +1,294 @@
+/*
+ * Copyright 2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+
+package net.tangly.benchmarks;
+
+import net.tangly.fsm.Event;
+import net.tangly.fsm.actors.ActorFsm;
+import net.tangly.fsm.actors.ActorImp;
+import net.tangly.fsm.actors.ActorTimerMgr;
+import net.tangly.fsm.actors.Channel;
+import net.tangly.fsm.dsl.FsmBuilder;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Benchmarks of the actor runtime: the round trip latency between two state machine actors, the fan-out throughput of a channel, and the scheduling of timers
+ * by the timer manager. Actors are executed on platform threads or on virtual threads. Each benchmark has its own state, so the parameters of one benchmark
+ * do not multiply the runs of the others.
+ * <p>The timer benchmark creates the timers with a one-hour delay and a marker timer expiring at the next tick. The timer manager processes its messages in
+ * order, so the expiry of the marker proves that all timers were scheduled. The timers are canceled after each invocation to keep the timing wheel size
+ * constant.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ActorsBenchmark {
+    private static final int ROUNDS = 1_000;
+    private static final int MESSAGES = 10_000;
+    private static final long ONE_HOUR = TimeUnit.HOURS.toNanos(1);
+
+    enum PlayerStates {
+        Root, Playing
+    }
+
+    enum PlayerEvents {
+        Ball, Stop
+    }
+
+    /**
+     * Player of the ping-pong benchmark. The ball is returned to the peer until the number of rounds is reached. The stop event is not handled and terminates
+     * the actor.
+     */
+    static final class Player extends ActorFsm<Player, PlayerStates, PlayerEvents> {
+        private static final Event<PlayerEvents> BALL = Event.of(PlayerEvents.Ball);
+        private Player peer;
+        private int remaining;
+        private CountDownLatch done;
+
+        Player(@NotNull FsmBuilder<Player, PlayerStates, PlayerEvents> builder, @NotNull String name, @NotNull ExecutorService executor) {
+            super(builder, name, executor);
+        }
+
+        static FsmBuilder<Player, PlayerStates, PlayerEvents> build() {
+            FsmBuilder<Player, PlayerStates, PlayerEvents> builder = FsmBuilder.of(PlayerStates.Root);
+            builder.addToRoot(PlayerStates.Playing).isInitial();
+            builder.in(PlayerStates.Playing).onLocal(PlayerEvents.Ball).execute(Player::hit).build();
+            return builder;
+        }
+
+        void serve(int rounds, CountDownLatch done) {
+            this.remaining = rounds;
+            this.done = done;
+            peer.receive(BALL);
+        }
+
+        private void hit() {
+            if ((done != null) && (--remaining <= 0)) {
+                done.countDown();
+            } else {
+                peer.receive(BALL);
+            }
+        }
+    }
+
+    /**
+     * Subscriber of the channel counting the received messages. A negative message terminates the actor.
+     */
+    static final class Counter extends ActorImp<Integer> {
+        private volatile CountDownLatch received;
+
+        Counter(@NotNull String name, @NotNull ExecutorService executor) {
+            super(name, executor);
+        }
+
+        @Override
+        protected boolean process(@NotNull Integer msg) {
+            if (msg < 0) {
+                return false;
+            }
+            received.countDown();
+            return true;
+        }
+    }
+
+    record TimerMessage(ActorTimerMgr.TimerCmd<TimerMessage> command, ActorTimerMgr.Timer<TimerMessage> timeout, boolean stop) {
+        static TimerMessage of(ActorTimerMgr.TimerCmd<TimerMessage> command) {
+            return new TimerMessage(command, null, false);
+        }
+    }
+
+    /**
+     * Client of the timers signaling the expiry of the marker timer.
+     */
+    static final class TimerClient extends ActorImp<TimerMessage> {
+        private volatile CountDownLatch expired;
+
+        TimerClient(@NotNull String name, @NotNull ExecutorService executor) {
+            super(name, executor);
+        }
+
+        @Override
+        protected boolean process(@NotNull TimerMessage msg) {
+            if (msg.stop()) {
+                return false;
+            }
+            expired.countDown();
+            return true;
+        }
+    }
+
+    /**
+     * Two players exchanging a ball.
+     */
+    @State(Scope.Benchmark)
+    public static class PingPongState {
+        @Param({"platform", "virtual"})
+        private String executorKind;
+
+        private ExecutorService executor;
+        private Player ping;
+        private Player pong;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            executor = executor(executorKind);
+            var builder = Player.build();
+            ping = new Player(builder, "ping", executor);
+            pong = new Player(builder, "pong", executor);
+            ping.peer = pong;
+            pong.peer = ping;
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            ping.receive(Event.of(PlayerEvents.Stop));
+            pong.receive(Event.of(PlayerEvents.Stop));
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Channel with counting subscribers.
+     */
+    @State(Scope.Benchmark)
+    public static class ChannelState {
+        @Param({"platform", "virtual"})
+        private String executorKind;
+
+        @Param({"1", "16"})
+        private int subscribers;
+
+        private ExecutorService executor;
+        private Channel<Integer> channel;
+        private List<Counter> counters;
+        private List<Integer> messages;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            executor = executor(executorKind);
+            channel = new Channel<>("benchmark");
+            counters = new ArrayList<>();
+            for (int i = 0; i < subscribers; i++) {
+                var counter = new Counter("counter-" + i, executor);
+                channel.subscribe(counter);
+                counters.add(counter);
+            }
+            messages = IntStream.range(0, MESSAGES).boxed().toList();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            counters.forEach(o -> o.receive(-1));
+            channel.close();
+            executor.shutdownNow();
+        }
+
+        CountDownLatch prepareCounters() {
+            var received = new CountDownLatch(MESSAGES * subscribers);
+            counters.forEach(o -> o.received = received);
+            return received;
+        }
+    }
+
+    /**
+     * Timer manager with one client.
+     */
+    @State(Scope.Benchmark)
+    public static class TimerState {
+        @Param({"platform", "virtual"})
+        private String executorKind;
+
+        @Param({"1000", "100000"})
+        private int timers;
+
+        private ExecutorService executor;
+        private ActorTimerMgr<TimerMessage> timerMgr;
+        private TimerClient client;
+        private String[] names;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            executor = executor(executorKind);
+            timerMgr = new ActorTimerMgr<>("timers", executor, TimerMessage::command, timer -> new TimerMessage(null, timer, false));
+            client = new TimerClient("timer-client", executor);
+            names = IntStream.range(0, timers).mapToObj(o -> "timer-" + o).toArray(String[]::new);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            client.receive(new TimerMessage(null, null, true));
+            executor.shutdownNow();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROUNDS)
+    public void pingPong(PingPongState state) throws InterruptedException {
+        var done = new CountDownLatch(1);
+        state.ping.serve(ROUNDS, done);
+        done.await();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public void channelFanOut(ChannelState state) throws InterruptedException {
+        var received = state.prepareCounters();
+        state.messages.forEach(state.channel::publish);
+        received.await();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public void channelFanOutBatched(ChannelState state) throws InterruptedException {
+        var received = state.prepareCounters();
+        state.channel.publishAll(state.messages);
+        received.await();
+    }
+
+    @Benchmark
+    public void scheduleTimers(TimerState state) throws InterruptedException {
+        var expired = new CountDownLatch(1);
+        state.client.expired = expired;
+        for (String name : state.names) {
+            state.timerMgr.createTimer(new ActorTimerMgr.Timer<>(state.client, name, 0, false, ONE_HOUR), TimerMessage::of);
+        }
+        state.timerMgr.createTimer(new ActorTimerMgr.Timer<>(state.client, "marker", 0, false, 0), TimerMessage::of);
+        expired.await();
+        for (String name : state.names) {
+            state.timerMgr.cancelTimer(state.client, name, TimerMessage::of);
+        }
+    }
+
+    private static ExecutorService executor(String kind) {
+        return "virtual".equals(kind) ? Executors.newVirtualThreadPerTaskExecutor() : Executors.newCachedThreadPool();
+    }
+}
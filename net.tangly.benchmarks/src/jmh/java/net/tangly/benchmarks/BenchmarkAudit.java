@@ -0,0 +1,50 @@
+/*
+ * Copyright 2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+
+package net.tangly.benchmarks;
+
+import net.tangly.commons.logger.EventData;
+import net.tangly.core.domain.DomainAudit;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Domain audit discarding all events. Benchmarks measure the processing of entities and not the audit trail.
+ */
+final class BenchmarkAudit implements DomainAudit {
+    static final DomainAudit INSTANCE = new BenchmarkAudit();
+
+    private BenchmarkAudit() {
+    }
+
+    @Override
+    public String name() {
+        return "benchmarks";
+    }
+
+    @Override
+    public void log(@NotNull EventData auditEvent) {
+    }
+
+    @Override
+    public void entityImported(@NotNull String entityName) {
+    }
+
+    @Override
+    public void submitInterally(@NotNull Object event) {
+    }
+
+    @Override
+    public void submit(@NotNull Object event) {
+    }
+}
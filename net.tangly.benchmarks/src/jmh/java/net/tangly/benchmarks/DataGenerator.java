@@ -0,0 +1,110 @@
+/*
+ * Copyright 2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+
+package net.tangly.benchmarks;
+
+import net.tangly.core.Address;
+import net.tangly.erp.invoices.domain.Article;
+import net.tangly.erp.invoices.domain.ArticleCode;
+import net.tangly.erp.ledger.domain.Account;
+import net.tangly.erp.ledger.domain.AccountEntry;
+import net.tangly.erp.ledger.domain.Transaction;
+import net.tangly.erp.ledger.domain.VatCode;
+import net.tangly.erp.ledger.services.LedgerRealm;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * Generator of synthetic tenants for benchmarks. The generator uses a fixed seed. The same size always produces the same entities, and results of runs on
+ * different commits are comparable. Sizes from one thousand to one million entities are supported.
+ */
+final class DataGenerator {
+    static final long SEED = 42L;
+    static final int NR_OF_ACCOUNTS = 200;
+    static final int NR_OF_YEARS = 5;
+    static final LocalDate START = LocalDate.of(2020, 1, 1);
+    static final VatCode VAT_CODE = new VatCode(1, "N", new BigDecimal("0.081"), new BigDecimal("0.081"), true);
+
+    private final Random random;
+
+    DataGenerator() {
+        random = new Random(SEED);
+    }
+
+    List<Article> articles(int size) {
+        ArticleCode[] codes = ArticleCode.values();
+        return IntStream.range(0, size).mapToObj(
+            i -> new Article("A-%07d".formatted(i), "article %d".formatted(i), "synthetic article %d".formatted(i), codes[random.nextInt(codes.length)],
+                amount(1000), "hour")).toList();
+    }
+
+    List<Address> addresses(int size) {
+        return IntStream.range(0, size).mapToObj(
+            i -> Address.builder().street("Bahnhofstrasse %d".formatted(i)).postcode("%04d".formatted(1000 + random.nextInt(9000))).locality("Zug").region("ZG")
+                .country("CH").build()).toList();
+    }
+
+    /**
+     * Returns the leaf accounts used by the generated transactions and the VAT account.
+     *
+     * @return chart of accounts
+     */
+    List<Account> accounts() {
+        List<Account> accounts = new ArrayList<>(NR_OF_ACCOUNTS + 1);
+        IntStream.range(0, NR_OF_ACCOUNTS).mapToObj(i -> Account.of(1000 + i, (i % 2 == 0) ? Account.AccountKind.ASSET : Account.AccountKind.INCOME, "CHF",
+            "account %d".formatted(i), null)).forEach(accounts::add);
+        accounts.add(Account.of(Integer.parseInt(LedgerRealm.VAT_ACCOUNT), Account.AccountKind.LIABILITY, "CHF", "VAT", null));
+        return accounts;
+    }
+
+    /**
+     * Returns transactions spread over several years sorted by date. One transaction out of ten has a VAT code.
+     *
+     * @param size number of transactions
+     * @return list of transactions
+     */
+    List<Transaction> transactions(int size) {
+        int days = (int) (START.plusYears(NR_OF_YEARS).toEpochDay() - START.toEpochDay());
+        List<Transaction> transactions = new ArrayList<>(size);
+        IntStream.range(0, size).forEach(i -> {
+            LocalDate date = START.plusDays(random.nextInt(days));
+            String debit = Integer.toString(1000 + random.nextInt(NR_OF_ACCOUNTS));
+            String credit = Integer.toString(1000 + random.nextInt(NR_OF_ACCOUNTS));
+            BigDecimal amount = amount(10_000);
+            VatCode vatCode = (random.nextInt(10) == 0) ? VAT_CODE : null;
+            transactions.add(Transaction.of(date, "T-%07d".formatted(i), "transaction %d".formatted(i), AccountEntry.debit(debit, date, amount, null, null, vatCode),
+                AccountEntry.credit(credit, date, amount, null, null, vatCode), null, Collections.emptyList()));
+        });
+        transactions.sort((a, b) -> a.date().compareTo(b.date()));
+        return transactions;
+    }
+
+    LocalDate date() {
+        return START.plusDays(random.nextInt(NR_OF_YEARS * 365));
+    }
+
+    int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+
+    private BigDecimal amount(int maximum) {
+        return BigDecimal.valueOf(random.nextInt(maximum * 100) + 1, 2);
+    }
+}
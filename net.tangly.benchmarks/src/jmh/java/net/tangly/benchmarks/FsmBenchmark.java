@@ -0,0 +1,115 @@
+/*
+ * Copyright 2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+
+package net.tangly.benchmarks;
+
+import net.tangly.fsm.Event;
+import net.tangly.fsm.StateMachine;
+import net.tangly.fsm.dsl.FsmBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the event dispatch of finite state machines. The machine has two chains of nested states, and each event moves the machine from the deepest
+ * state of one chain to the other chain. The depth of the chains selects between a flat machine and a deeply nested one; each transition exits and enters all
+ * the states of a chain.
+ * <p>The composite states optionally have history, and the transitions of the deepest states are optionally preceded by guarded transitions which guards are
+ * always false. Interpreted and compiled machines are measured with the same definition.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FsmBenchmark {
+    private static final int BATCH = 64;
+
+    public enum States {
+        Root, A1, A2, A3, A4, A5, A6, A7, A8, B1, B2, B3, B4, B5, B6, B7, B8
+    }
+
+    public enum Events {
+        Next
+    }
+
+    private static final States[] CHAIN_A = {States.A1, States.A2, States.A3, States.A4, States.A5, States.A6, States.A7, States.A8};
+    private static final States[] CHAIN_B = {States.B1, States.B2, States.B3, States.B4, States.B5, States.B6, States.B7, States.B8};
+
+    @Param({"1", "4", "8"})
+    private int depth;
+
+    @Param({"0", "8"})
+    private int guards;
+
+    @Param({"false", "true"})
+    private boolean history;
+
+    @Param({"false", "true"})
+    private boolean compiled;
+
+    private StateMachine<Object, States, Events> machine;
+    private Event<Events> next;
+    private List<Event<Events>> batch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        FsmBuilder<Object, States, Events> builder = FsmBuilder.of(States.Root);
+        chain(builder, CHAIN_A, true);
+        chain(builder, CHAIN_B, false);
+        transition(builder, CHAIN_A[depth - 1], CHAIN_B[0]);
+        transition(builder, CHAIN_B[depth - 1], CHAIN_A[0]);
+        machine = compiled ? builder.compiledMachine("benchmark", null) : builder.machine("benchmark", null);
+        next = Event.of(Events.Next);
+        batch = Collections.nCopies(BATCH, next);
+    }
+
+    @Benchmark
+    public boolean fire() {
+        return machine.fire(next);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int fireAll() {
+        return machine.fireAll(batch);
+    }
+
+    /**
+     * Add a chain of nested states to the root. Each state of the chain is the initial state of its parent. Entering the top state of the chain enters all
+     * states down to the deepest one, either through initial states or through history.
+     */
+    private void chain(FsmBuilder<Object, States, Events> builder, States[] chain, boolean initial) {
+        builder.addToRoot(chain[0]).isInitial(initial).hasHistory(history && (depth > 1));
+        for (int i = 1; i < depth; i++) {
+            builder.in(chain[i - 1]).add(chain[i]).isInitial().hasHistory(history && (i < depth - 1));
+        }
+    }
+
+    private void transition(FsmBuilder<Object, States, Events> builder, States from, States to) {
+        for (int i = 0; i < guards; i++) {
+            builder.in(from).on(Events.Next).to(to).onlyIf(_ -> false).build();
+        }
+        builder.in(from).on(Events.Next).to(to).build();
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+
+package net.tangly.benchmarks;
+
+import net.tangly.core.Address;
+import net.tangly.erp.invoices.artifacts.InvoiceJson;
+import net.tangly.gleam.model.JsonEntity;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the import and export of entities with {@link JsonEntity}. The entities are synthetic addresses serialized as a JSON array.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JsonEntityBenchmark {
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int size;
+    private JsonEntity<Address> entity;
+    private List<Address> addresses;
+    private String json;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        entity = InvoiceJson.createJsonAddress();
+        addresses = new DataGenerator().addresses(size);
+        json = exports().toString();
+    }
+
+    @Benchmark
+    public JSONArray exports() {
+        var array = new JSONArray();
+        addresses.forEach(o -> array.put(entity.exports(o)));
+        return array;
+    }
+
+    @Benchmark
+    public List<Address> imports() {
+        var array = new JSONArray(json);
+        List<Address> result = new ArrayList<>(array.length());
+        for (int i = 0; i < array.length(); ++i) {
+            result.add(entity.imports((JSONObject) array.get(i)));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+
+package net.tangly.benchmarks;
+
+import net.tangly.erp.ledger.domain.Account;
+import net.tangly.erp.ledger.domain.Transaction;
+import net.tangly.erp.ledger.ports.LedgerEntities;
+import net.tangly.erp.ledger.services.LedgerRealm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the booking of transactions and of the balance and VAT computations of a ledger. The ledger is booked with synthetic transactions spread over
+ * several years.
+ */
+public class LedgerBenchmark {
+    /**
+     * Ledger with all generated transactions booked.
+     */
+    @State(Scope.Benchmark)
+    public static class BookedLedger {
+        @Param({"1000", "10000", "100000", "1000000"})
+        int size;
+        LedgerRealm realm;
+        Account account;
+        DataGenerator generator;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            generator = new DataGenerator();
+            realm = ledger(generator);
+            realm.bookAll(generator.transactions(size));
+            account = realm.accountBy("1000").orElseThrow();
+        }
+    }
+
+    /**
+     * Empty ledger with a chart of accounts and the transactions to book. A new ledger is created for each iteration.
+     */
+    @State(Scope.Benchmark)
+    public static class EmptyLedger {
+        @Param({"1000", "10000", "100000"})
+        int size;
+        LedgerRealm realm;
+        List<Transaction> transactions;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            var generator = new DataGenerator();
+            transactions = generator.transactions(size);
+            realm = ledger(generator);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public LedgerRealm book(EmptyLedger ledger) {
+        ledger.transactions.forEach(ledger.realm::book);
+        return ledger.realm;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public LedgerRealm bookAll(EmptyLedger ledger) {
+        ledger.realm.bookAll(ledger.transactions);
+        return ledger.realm;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public BigDecimal balance(BookedLedger ledger) {
+        return ledger.account.balance(ledger.generator.date());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public BigDecimal balanceOfPeriod(BookedLedger ledger) {
+        LocalDate from = ledger.generator.date();
+        return ledger.account.balance(from, from.plusMonths(3));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public BigDecimal computeVat(BookedLedger ledger) {
+        LocalDate from = ledger.generator.date();
+        return ledger.realm.computeVat(from, from.plusMonths(6), null);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<Transaction> transactionsOfQuarter(BookedLedger ledger) {
+        LocalDate from = ledger.generator.date();
+        return ledger.realm.transactions(from, from.plusMonths(3));
+    }
+
+    private static LedgerRealm ledger(DataGenerator generator) {
+        var realm = new LedgerEntities();
+        generator.accounts().forEach(realm::update);
+        return realm;
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+
+package net.tangly.benchmarks;
+
+import net.tangly.core.providers.Provider;
+import net.tangly.core.providers.ProviderInMemory;
+import net.tangly.core.providers.ProviderIndexed;
+import net.tangly.core.providers.ProviderPersistence;
+import net.tangly.erp.invoices.domain.Article;
+import org.eclipse.store.storage.embedded.types.EmbeddedStorage;
+import org.eclipse.store.storage.embedded.types.EmbeddedStorageManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Benchmarks of the update and lookup operations of the in-memory, indexed and persistent providers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProviderBenchmark {
+    /**
+     * In-memory and indexed providers. Loading a provider backed by an in-memory list checks the membership of each item with a linear scan, so the loading
+     * time is quadratic and the sizes stop at one hundred thousand items.
+     */
+    @State(Scope.Benchmark)
+    public static class InMemoryProviders {
+        @Param({"1000", "10000", "100000"})
+        int size;
+        List<Article> articles;
+        Provider<Article> inMemory;
+        Provider<Article> indexed;
+        DataGenerator generator;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            generator = new DataGenerator();
+            articles = generator.articles(size);
+            inMemory = ProviderInMemory.of(articles);
+            indexed = ProviderIndexed.ofId(ProviderInMemory.of(articles));
+        }
+
+        Article randomArticle() {
+            return articles.get(generator.nextInt(size));
+        }
+    }
+
+    /**
+     * Persistent provider. Membership is checked with a hash map, so the provider is loaded in linear time.
+     */
+    @State(Scope.Benchmark)
+    public static class PersistentProvider {
+        @Param({"1000", "10000", "100000", "1000000"})
+        int size;
+        List<Article> articles;
+        Provider<Article> persistent;
+        EmbeddedStorageManager storageManager;
+        Path storage;
+        DataGenerator generator;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            generator = new DataGenerator();
+            articles = generator.articles(size);
+            storage = Files.createTempDirectory("tangly-benchmarks");
+            List<Article> root = new ArrayList<>();
+            storageManager = EmbeddedStorage.start(root, storage);
+            persistent = ProviderPersistence.of(storageManager, root);
+            persistent.updateAll(articles);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            storageManager.shutdown();
+            try (Stream<Path> files = Files.walk(storage)) {
+                files.sorted(Comparator.reverseOrder()).forEach(o -> o.toFile().delete());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        Article randomArticle() {
+            return articles.get(generator.nextInt(size));
+        }
+    }
+
+    @Benchmark
+    public Optional<Article> inMemoryFindById(InMemoryProviders state) {
+        return Provider.findById(state.inMemory, state.randomArticle().id());
+    }
+
+    @Benchmark
+    public Optional<Article> indexedFindById(InMemoryProviders state) {
+        return Provider.findById(state.indexed, state.randomArticle().id());
+    }
+
+    @Benchmark
+    public Optional<Article> persistentFindById(PersistentProvider state) {
+        return Provider.findById(state.persistent, state.randomArticle().id());
+    }
+
+    @Benchmark
+    public Provider<Article> inMemoryUpdate(InMemoryProviders state) {
+        state.inMemory.update(state.randomArticle());
+        return state.inMemory;
+    }
+
+    @Benchmark
+    public Provider<Article> indexedUpdate(InMemoryProviders state) {
+        state.indexed.update(state.randomArticle());
+        return state.indexed;
+    }
+
+    @Benchmark
+    public Provider<Article> persistentUpdate(PersistentProvider state) {
+        state.persistent.update(state.randomArticle());
+        return state.persistent;
+    }
+
+    @Benchmark
+    public Provider<Article> persistentBatchUpdate(PersistentProvider state) {
+        state.persistent.batch(() -> {
+            for (int i = 0; i < 100; ++i) {
+                state.persistent.update(state.randomArticle());
+            }
+        });
+        return state.persistent;
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+
+package net.tangly.benchmarks;
+
+import net.tangly.erp.invoices.ports.InvoicesEntities;
+import net.tangly.erp.invoices.ports.InvoicesTsvJsonHdl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the import of entities from a TSV file through {@link net.tangly.core.domain.TsvHdl#importEntities}. The file contains synthetic articles.
+ * <p>The articles are imported into an in-memory realm. Its provider checks the membership of each imported item with a linear scan, so the import time is
+ * quadratic and the sizes stop at one hundred thousand articles.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TsvHdlBenchmark {
+    @Param({"1000", "10000", "100000"})
+    private int size;
+    private Path file;
+    private InvoicesEntities realm;
+
+    @Setup(Level.Trial)
+    public void createFile() throws IOException {
+        file = Files.createTempFile("articles", ".tsv");
+        var source = new InvoicesEntities();
+        source.articles().updateAll(new DataGenerator().articles(size));
+        new InvoicesTsvJsonHdl(source).exportArticles(BenchmarkAudit.INSTANCE, file);
+    }
+
+    @Setup(Level.Iteration)
+    public void createRealm() {
+        realm = new InvoicesEntities();
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public InvoicesEntities importEntities() {
+        new InvoicesTsvJsonHdl(realm).importArticles(BenchmarkAudit.INSTANCE, file);
+        return realm;
+    }
+}
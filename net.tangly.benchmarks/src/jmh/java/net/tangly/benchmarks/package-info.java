@@ -0,0 +1,19 @@
+/*
+ * Copyright 2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+
+/**
+ * JMH benchmarks of the hot paths of the libraries: providers, ledger bookings and balances, TSV and JSON import and export, finite state machine dispatch, and
+ * actor messaging. The synthetic data is generated with a fixed seed to make the results comparable across commits.
+ */
+package net.tangly.benchmarks;
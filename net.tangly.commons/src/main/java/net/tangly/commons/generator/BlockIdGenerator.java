@@ -0,0 +1,71 @@
+/*
+ * Copyright 2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+
+package net.tangly.commons.generator;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free generator reserving blocks of identifiers per thread. A thread reserves a block of consecutive identifiers with one atomic operation and assigns
+ * them without any synchronization. Threads creating entities concurrently, for example parallel imports or user interface sessions, do not contend on the
+ * generator.
+ * <p>Identifiers are unique but not consecutive across threads. The unused identifiers of a block are lost when the generator is discarded. Setting an
+ * external identifier discards the identifiers of reserved blocks lower than the external identifier.</p>
+ */
+public class BlockIdGenerator implements IdGenerator {
+    public static final int DEFAULT_BLOCK_SIZE = 64;
+
+    /**
+     * Block of identifiers reserved by a thread. The next identifier is assigned if it is lower than the limit.
+     */
+    private static final class Block {
+        private long next;
+        private long limit;
+    }
+
+    private final AtomicLong next;
+    private final AtomicLong floor;
+    private final int blockSize;
+    private final ThreadLocal<Block> blocks;
+
+    public BlockIdGenerator(long initialValue, int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Block size must be positive %d".formatted(blockSize));
+        }
+        this.next = new AtomicLong(initialValue);
+        this.floor = new AtomicLong(initialValue);
+        this.blockSize = blockSize;
+        this.blocks = ThreadLocal.withInitial(Block::new);
+    }
+
+    public BlockIdGenerator(long initialValue) {
+        this(initialValue, DEFAULT_BLOCK_SIZE);
+    }
+
+    @Override
+    public long id() {
+        Block block = blocks.get();
+        if ((block.next >= block.limit) || (block.next < floor.get())) {
+            block.next = next.getAndAdd(blockSize);
+            block.limit = block.next + blockSize;
+        }
+        return block.next++;
+    }
+
+    @Override
+    public void set(long externalId) {
+        next.accumulateAndGet(externalId, Math::max);
+        floor.accumulateAndGet(externalId, Math::max);
+    }
+}
@@ -12,34 +12,27 @@
 
 package net.tangly.commons.generator;
 
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Lock-free generator of consecutive identifiers.
+ *
+ * @see BlockIdGenerator
+ */
 public class LongIdGenerator implements IdGenerator {
-    private final ReentrantLock lock;
-    private long id;
+    private final AtomicLong id;
 
     public LongIdGenerator(long initialValue) {
-        this.lock = new ReentrantLock();
-        this.id = initialValue;
+        this.id = new AtomicLong(initialValue);
     }
 
     @Override
     public long id() {
-        lock.lock();
-        try {
-            return id++;
-        } finally {
-            lock.unlock();
-        }
+        return id.getAndIncrement();
     }
 
     @Override
     public void set(long externalId) {
-        lock.lock();
-        try {
-            id = Math.max(id, externalId);
-        } finally {
-            lock.unlock();
-        }
+        id.accumulateAndGet(externalId, Math::max);
     }
 }
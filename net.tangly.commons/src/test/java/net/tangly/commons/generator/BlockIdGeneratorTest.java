@@ -0,0 +1,65 @@
+/*
+ * Copyright 2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+
+package net.tangly.commons.generator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BlockIdGeneratorTest {
+    private static final int THREADS = 16;
+    private static final int IDS = 10_000;
+
+    @Test
+    void testUniqueIdsAcrossThreads() {
+        var generator = new BlockIdGenerator(1000, 32);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        try (var executor = Executors.newFixedThreadPool(THREADS)) {
+            IntStream.range(0, THREADS).forEach(_ -> executor.submit(() -> IntStream.range(0, IDS).forEach(_ -> ids.add(generator.id()))));
+        }
+        assertThat(ids).hasSize(THREADS * IDS).allMatch(o -> o >= 1000);
+    }
+
+    @Test
+    void testConsecutiveIdsInThread() {
+        var generator = new BlockIdGenerator(1000, 4);
+        assertThat(IntStream.range(0, 8).mapToLong(_ -> generator.id()).toArray()).containsExactly(1000, 1001, 1002, 1003, 1004, 1005, 1006, 1007);
+    }
+
+    @Test
+    void testSetExternalId() {
+        var generator = new BlockIdGenerator(1000);
+        assertThat(generator.id()).isEqualTo(1000);
+        generator.set(5000);
+        assertThat(generator.id()).isEqualTo(5000);
+        generator.set(10);
+        assertThat(generator.id()).isEqualTo(5001);
+    }
+
+    @Test
+    void testLongIdGenerator() {
+        var generator = new LongIdGenerator(1000);
+        assertThat(generator.id()).isEqualTo(1000);
+        generator.set(5000);
+        assertThat(generator.id()).isEqualTo(5000);
+        generator.set(10);
+        assertThat(generator.id()).isEqualTo(5001);
+    }
+}
@@ -50,6 +50,17 @@ public interface HasMutableTags extends HasTags {
 
     void clear();
 
+    /**
+     * Binds the entity to the tag index of its realm. Subsequent changes through {@link #add(Tag)}, {@link #remove(Tag)},
+     * {@link #update(Tag)}, {@link #tags(Collection)} and {@link #clear()} are applied to the index. The current tags are indexed by the caller. The default implementation
+     * ignores the index.
+     *
+     * @param index tag index to update or null to unbind the entity
+     * @see TagIndex
+     */
+    default void bind(TagIndex index) {
+    }
+
     default void addTags(@NotNull Iterable<Tag> tags) {
         tags.forEach(this::add);
     }
@@ -29,6 +29,7 @@ public abstract class MutableEntityExtendedImp implements HasDateRange, MutableE
     private String text;
     private final List<Comment> comments;
     private final Set<Tag> tags;
+    private transient TagIndex tagIndex;
 
     public static <T extends MutableEntityExtended> T init(T entity, String id, String name, LocalDate from, LocalDate to, String text) {
         entity.id(id);
@@ -120,21 +121,45 @@ public abstract class MutableEntityExtendedImp implements HasDateRange, MutableE
     public void tags(@NotNull Collection<Tag> tags) {
         this.tags.clear();
         this.tags.addAll(tags);
+        if (Objects.nonNull(tagIndex)) {
+            tagIndex.index(oid(), this.tags);
+        }
     }
 
     @Override
     public boolean add(@NotNull Tag tag) {
-        return tags.add(tag);
+        boolean added = tags.add(tag);
+        if (added && Objects.nonNull(tagIndex)) {
+            tagIndex.add(oid(), tag);
+        }
+        return added;
     }
 
     @Override
     public boolean remove(@NotNull Tag tag) {
-        return tags.remove(tag);
+        boolean removed = tags.remove(tag);
+        if (removed && Objects.nonNull(tagIndex)) {
+            tagIndex.remove(oid(), tag);
+        }
+        return removed;
     }
 
     @Override
     public void clear() {
         tags.clear();
+        if (Objects.nonNull(tagIndex)) {
+            tagIndex.remove(oid());
+        }
+    }
+
+    /**
+     * Binds the entity to the tag index. The index is transient and is never persisted with the entity.
+     *
+     * @param index tag index to update or null to unbind the entity
+     */
+    @Override
+    public void bind(TagIndex index) {
+        this.tagIndex = index;
     }
 
     @Override
@@ -24,12 +24,16 @@ import java.util.stream.Collectors;
  * The immutable class tag models a tag with a name and a format. Tags provide a powerful approach for multidimensional classifications of values. All fields of a tag are strings.
  * We provide the tag type to support conversions from string values to Java objects.
  * <p>A tag without a value is equivalent ot a label.</p>
+ * <p>The factory methods return canonical instances interned in the {@link TagFactory}. Parsing a textual representation already seen and formatting a
+ * canonical tag are hash lookups.</p>
  *
  * @param namespace the optional namespace in which the tag is defined
  * @param name      the name of the tag
  * @param value     the optional value of the tag
  */
 public record Tag(String namespace, @NotNull String name, String value) {
+    private static final TagFactory FACTORY = TagFactory.of();
+
     public Tag {
         Objects.requireNonNull(name);
     }
@@ -53,24 +57,45 @@ public record Tag(String namespace, @NotNull String name, String value) {
      * @see Tag#text(Collection)
      */
     public static Set<Tag> toTags(String rawTags) {
-        return Strings.isNullOrEmpty(rawTags) ? new HashSet<>() : Arrays.stream(rawTags.split(";")).map(Tag::parse).collect(Collectors.toSet());
+        Set<Tag> tags = new HashSet<>();
+        if (!Strings.isNullOrEmpty(rawTags)) {
+            int start = 0;
+            while (start < rawTags.length()) {
+                int end = rawTags.indexOf(';', start);
+                end = (end < 0) ? rawTags.length() : end;
+                if (end > start) {
+                    tags.add(parse(rawTags.substring(start, end)));
+                }
+                start = end + 1;
+            }
+        }
+        return tags;
     }
 
     public static String namespace(@NotNull String tag) {
-        return tag.contains(":") ? tag.substring(0, tag.indexOf(':')) : null;
+        return parse(tag).namespace();
     }
 
     public static String name(@NotNull String tag) {
-        return tag.substring((tag.contains(":") ? tag.indexOf(':') + 1 : 0), (tag.contains("=")) ? tag.indexOf('=') : tag.length());
+        return parse(tag).name();
     }
 
     public static String value(@NotNull String tag) {
-        return tag.contains("=") ? tag.substring(tag.indexOf('=') + 1) : null;
+        return parse(tag).value();
     }
 
     public static Tag parse(String tag) {
         Objects.requireNonNull(tag);
-        return of(namespace(tag), name(tag), value(tag));
+        return FACTORY.parse(tag);
+    }
+
+    /**
+     * Returns the factory interning the canonical tags.
+     *
+     * @return tag factory
+     */
+    public static TagFactory factory() {
+        return FACTORY;
     }
 
     public static Tag ofEmpty(String namespace, @NotNull String name) {
@@ -82,11 +107,12 @@ public record Tag(String namespace, @NotNull String name, String value) {
     }
 
     public static Tag of(@NotNull String tag, String value) {
-        return of(namespace(tag), name(tag), value);
+        Tag parsed = parse(tag);
+        return of(parsed.namespace(), parsed.name(), value);
     }
 
     public static Tag of(String namespace, @NotNull String name, String value) {
-        return new Tag(namespace, name, value);
+        return FACTORY.of(namespace, name, value);
     }
 
     /**
@@ -98,7 +124,12 @@ public record Tag(String namespace, @NotNull String name, String value) {
         return value != null;
     }
 
+    /**
+     * Returns the canonical textual representation of the tag. The representation of a canonical tag is cached in the factory.
+     *
+     * @return textual representation of the tag
+     */
     public String text() {
-        return (!Strings.isNullOrBlank(namespace()) ? "%s:".formatted(namespace()) : "") + name() + (value() != null ? "=%s".formatted(value()) : "");
+        return FACTORY.text(this);
     }
 }
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+
+package net.tangly.core;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Interning factory of tags. The factory returns one canonical instance per namespace, name and value, and caches the textual representation of each canonical
+ * tag. Entities loaded from files share the same tag instances and the same strings.
+ * <p>Textual representations are parsed in one pass over the characters. The textual representations already parsed are cached, and parsing them again is a
+ * hash lookup. The namespace is the text before the first colon preceding the first equal sign, the value is the text after the first equal sign.</p>
+ * <p>A textual representation is only cached if parsing it yields the tag. A tag with a blank namespace is formatted as a tag without namespace and is
+ * therefore not cached under its text.</p>
+ * <p>The number of canonical tags and cached textual representations is bounded through the capacity. Once the capacity is reached, new tags are created
+ * without being interned. The capacity can be adapted at runtime, for example for the factory of {@link Tag#factory()}. The factory is thread-safe.</p>
+ */
+public final class TagFactory {
+    public static final int DEFAULT_CAPACITY = 1 << 14;
+
+    private record Canonical(@NotNull Tag tag, @NotNull String text) {
+    }
+
+    private volatile int capacity;
+    private final ConcurrentMap<Tag, Canonical> tags;
+    private final ConcurrentMap<String, Tag> texts;
+
+    public TagFactory(int capacity) {
+        this.capacity = capacity;
+        this.tags = new ConcurrentHashMap<>();
+        this.texts = new ConcurrentHashMap<>();
+    }
+
+    public static TagFactory of() {
+        return new TagFactory(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Returns the canonical tag with the namespace, name and value.
+     *
+     * @param namespace optional namespace of the tag
+     * @param name      name of the tag
+     * @param value     optional value of the tag
+     * @return canonical tag instance
+     */
+    public Tag of(String namespace, @NotNull String name, String value) {
+        return intern(new Tag(namespace, name, value));
+    }
+
+    /**
+     * Returns the canonical instance of the tag. The tag becomes the canonical instance if no equal tag was interned.
+     *
+     * @param tag tag to intern
+     * @return canonical tag instance
+     */
+    public Tag intern(@NotNull Tag tag) {
+        Canonical canonical = tags.get(tag);
+        if (Objects.nonNull(canonical)) {
+            return canonical.tag();
+        }
+        if (tags.size() >= capacity) {
+            return tag;
+        }
+        canonical = tags.computeIfAbsent(tag, o -> new Canonical(o, format(o)));
+        if ((texts.size() < capacity) && scan(canonical.text()).equals(canonical.tag())) {
+            texts.putIfAbsent(canonical.text(), canonical.tag());
+        }
+        return canonical.tag();
+    }
+
+    /**
+     * Parses the textual representation of a tag and returns the canonical tag.
+     *
+     * @param text textual representation of the tag
+     * @return canonical tag instance
+     */
+    public Tag parse(@NotNull String text) {
+        Tag tag = texts.get(text);
+        if (Objects.nonNull(tag)) {
+            return tag;
+        }
+        tag = intern(scan(text));
+        if (texts.size() < capacity) {
+            texts.putIfAbsent(text, tag);
+        }
+        return tag;
+    }
+
+    /**
+     * Returns the canonical textual representation of the tag. The representation of a canonical tag is computed once.
+     *
+     * @param tag tag which textual representation is requested
+     * @return textual representation of the tag
+     */
+    public String text(@NotNull Tag tag) {
+        Canonical canonical = tags.get(tag);
+        return Objects.nonNull(canonical) ? canonical.text() : format(tag);
+    }
+
+    /**
+     * Returns the number of canonical tags.
+     *
+     * @return number of interned tags
+     */
+    public int size() {
+        return tags.size();
+    }
+
+    /**
+     * Returns the maximum number of canonical tags and of cached textual representations.
+     *
+     * @return capacity of the factory
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Sets the maximum number of canonical tags and of cached textual representations. Entries already cached above a reduced capacity are kept until the
+     * factory is cleared.
+     *
+     * @param capacity new capacity of the factory
+     */
+    public void capacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Discards all canonical tags and cached textual representations. Tags already in use stay valid.
+     */
+    public void clear() {
+        tags.clear();
+        texts.clear();
+    }
+
+    private static Tag scan(@NotNull String text) {
+        int colon = -1;
+        int equal = -1;
+        for (int i = 0; i < text.length(); ++i) {
+            char c = text.charAt(i);
+            if (c == '=') {
+                equal = i;
+                break;
+            }
+            if ((c == ':') && (colon < 0)) {
+                colon = i;
+            }
+        }
+        int end = (equal < 0) ? text.length() : equal;
+        return new Tag((colon < 0) ? null : text.substring(0, colon), text.substring(colon + 1, end), (equal < 0) ? null : text.substring(equal + 1));
+    }
+
+    private static String format(@NotNull Tag tag) {
+        boolean hasNamespace = Objects.nonNull(tag.namespace()) && !tag.namespace().isBlank();
+        if (!hasNamespace && !tag.hasValue()) {
+            return tag.name();
+        }
+        var text = new StringBuilder();
+        if (hasNamespace) {
+            text.append(tag.namespace()).append(':');
+        }
+        text.append(tag.name());
+        if (tag.hasValue()) {
+            text.append('=').append(tag.value());
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,425 @@
+/*
+ * Copyright 2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+
+package net.tangly.core;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Inverted index of the tags of the entities of a realm. The index maps the tag types, identified through their namespace and name, and the tags with a value
+ * to the set of object identifiers of the entities having them.
+ * <p>Object identifiers are mapped to dense slots, and each set is a bitmap over the slots. Filtering entities with several tags is an intersection of
+ * bitmaps, counting entities is a population count. A tag without a value is equivalent to its tag type and matches all entities having a tag with the same
+ * namespace and name regardless of the value.</p>
+ * <p>The index is updated either through entities bound with {@link HasMutableTags#bind(TagIndex)} or through a
+ * {@link net.tangly.core.providers.ProviderTagIndexed} provider. The index is a cache and is never persisted. It is rebuilt when the realm is loaded.</p>
+ */
+public final class TagIndex {
+    private final ReentrantReadWriteLock mutex;
+    private final Map<Long, Integer> slots;
+    private final List<Set<Tag>> tags;
+    private final BitSet free;
+    private long[] oids;
+    private final Map<Tag, BitSet> byType;
+    private final Map<Tag, BitSet> byValue;
+
+    public TagIndex() {
+        mutex = new ReentrantReadWriteLock();
+        slots = new HashMap<>();
+        tags = new ArrayList<>();
+        free = new BitSet();
+        oids = new long[64];
+        byType = new HashMap<>();
+        byValue = new HashMap<>();
+    }
+
+    public static TagIndex of() {
+        return new TagIndex();
+    }
+
+    /**
+     * Returns the key of the tag type of the tag. The key is a tag without value.
+     *
+     * @param tag tag which type key is requested
+     * @return key of the tag type
+     */
+    public static Tag typeOf(@NotNull Tag tag) {
+        return tag.hasValue() ? Tag.ofEmpty(tag.namespace(), tag.name()) : tag;
+    }
+
+    /**
+     * Indexes all the tags of the entity. The tags previously indexed for the entity are replaced.
+     *
+     * @param entity entity to index
+     * @param <T>    type of the entity
+     */
+    public <T extends HasOid & HasTags> void index(@NotNull T entity) {
+        index(entity.oid(), entity.tags());
+    }
+
+    /**
+     * Indexes the tags of the entity with the object identifier. The tags previously indexed for the entity are replaced. An entity without tags is removed
+     * from the index.
+     *
+     * @param oid  object identifier of the entity
+     * @param tags tags of the entity
+     */
+    public void index(long oid, @NotNull Collection<Tag> tags) {
+        execute(() -> {
+            removeSlot(oid);
+            tags.forEach(tag -> addTag(oid, tag));
+        });
+    }
+
+    /**
+     * Adds the tag to the entity with the object identifier.
+     *
+     * @param oid object identifier of the entity
+     * @param tag tag to add
+     */
+    public void add(long oid, @NotNull Tag tag) {
+        execute(() -> addTag(oid, tag));
+    }
+
+    /**
+     * Removes the tag from the entity with the object identifier. The tag type is kept if the entity still has a tag with the same namespace and name.
+     *
+     * @param oid object identifier of the entity
+     * @param tag tag to remove
+     */
+    public void remove(long oid, @NotNull Tag tag) {
+        execute(() -> {
+            Integer slot = slots.get(oid);
+            if (Objects.nonNull(slot) && tags.get(slot).remove(tag)) {
+                if (tag.hasValue()) {
+                    clear(byValue, tag, slot);
+                }
+                Tag type = typeOf(tag);
+                if (tags.get(slot).stream().noneMatch(o -> type.equals(typeOf(o)))) {
+                    clear(byType, type, slot);
+                }
+                if (tags.get(slot).isEmpty()) {
+                    release(oid, slot);
+                }
+            }
+        });
+    }
+
+    /**
+     * Removes all tags of the entity with the object identifier.
+     *
+     * @param oid object identifier of the entity
+     */
+    public void remove(long oid) {
+        execute(() -> removeSlot(oid));
+    }
+
+    public void clear() {
+        execute(() -> {
+            slots.clear();
+            tags.clear();
+            free.clear();
+            byType.clear();
+            byValue.clear();
+        });
+    }
+
+    /**
+     * Returns true if the entity has a tag with the namespace and name.
+     *
+     * @param oid       object identifier of the entity
+     * @param namespace optional namespace of the tag
+     * @param name      name of the tag
+     * @return flag indicating if the entity has the tag
+     */
+    public boolean contains(long oid, String namespace, @NotNull String name) {
+        return read(() -> {
+            Integer slot = slots.get(oid);
+            BitSet bitmap = byType.get(Tag.ofEmpty(namespace, name));
+            return Objects.nonNull(slot) && Objects.nonNull(bitmap) && bitmap.get(slot);
+        });
+    }
+
+    /**
+     * Returns the object identifiers of the entities having a tag with the namespace and name.
+     *
+     * @param namespace optional namespace of the tag
+     * @param name      name of the tag
+     * @return sorted array of object identifiers
+     */
+    public long[] oids(String namespace, @NotNull String name) {
+        return oids(Tag.ofEmpty(namespace, name));
+    }
+
+    /**
+     * Returns the object identifiers of the entities having the tag.
+     *
+     * @param tag requested tag. A tag without value matches all values
+     * @return sorted array of object identifiers
+     */
+    public long[] oids(@NotNull Tag tag) {
+        return read(() -> toOids(bitmapOf(tag).orElseGet(BitSet::new)));
+    }
+
+    /**
+     * Returns the object identifiers of the entities having all the tags.
+     *
+     * @param tags requested tags. A tag without value matches all values
+     * @return sorted array of object identifiers
+     */
+    public long[] oids(@NotNull Collection<Tag> tags) {
+        return read(() -> toOids(intersection(tags)));
+    }
+
+    /**
+     * Returns the number of entities having a tag with the namespace and name.
+     *
+     * @param namespace optional namespace of the tag
+     * @param name      name of the tag
+     * @return number of entities
+     */
+    public int count(String namespace, @NotNull String name) {
+        return count(Tag.ofEmpty(namespace, name));
+    }
+
+    /**
+     * Returns the number of entities having the tag.
+     *
+     * @param tag requested tag. A tag without value matches all values
+     * @return number of entities
+     */
+    public int count(@NotNull Tag tag) {
+        return read(() -> bitmapOf(tag).map(BitSet::cardinality).orElse(0));
+    }
+
+    /**
+     * Returns the number of entities for each tag type in use. The tag types are represented as tags without value.
+     *
+     * @return map of tag types and number of entities
+     */
+    public Map<Tag, Integer> counts() {
+        return read(() -> {
+            Map<Tag, Integer> counts = new HashMap<>();
+            byType.forEach((type, bitmap) -> counts.put(type, bitmap.cardinality()));
+            return counts;
+        });
+    }
+
+    /**
+     * Returns the number of entities having at least one tag in the namespace for each namespace in use. The facet is used to narrow tag filters.
+     *
+     * @return map of namespaces and number of entities. The null namespace is not part of the map
+     */
+    public Map<String, Integer> namespaces() {
+        return read(() -> {
+            Map<String, BitSet> namespaces = new HashMap<>();
+            byType.forEach((type, bitmap) -> {
+                if (Objects.nonNull(type.namespace())) {
+                    namespaces.computeIfAbsent(type.namespace(), _ -> new BitSet()).or(bitmap);
+                }
+            });
+            Map<String, Integer> counts = new HashMap<>();
+            namespaces.forEach((namespace, bitmap) -> counts.put(namespace, bitmap.cardinality()));
+            return counts;
+        });
+    }
+
+    /**
+     * Returns the number of entities for each tag name in use in the namespace.
+     *
+     * @param namespace optional namespace of the tags
+     * @return map of tag names and number of entities
+     */
+    public Map<String, Integer> names(String namespace) {
+        return read(() -> {
+            Map<String, Integer> counts = new HashMap<>();
+            byType.forEach((type, bitmap) -> {
+                if (Objects.equals(namespace, type.namespace())) {
+                    counts.put(type.name(), bitmap.cardinality());
+                }
+            });
+            return counts;
+        });
+    }
+
+    /**
+     * Returns the number of entities for each value of the tags with the namespace and name.
+     *
+     * @param namespace optional namespace of the tags
+     * @param name      name of the tags
+     * @return map of values and number of entities
+     */
+    public Map<String, Integer> values(String namespace, @NotNull String name) {
+        return read(() -> {
+            Map<String, Integer> counts = new HashMap<>();
+            byValue.forEach((tag, bitmap) -> {
+                if (Objects.equals(namespace, tag.namespace()) && name.equals(tag.name())) {
+                    counts.put(tag.value(), bitmap.cardinality());
+                }
+            });
+            return counts;
+        });
+    }
+
+    /**
+     * Returns the entities having all the tags. The order of the entities is preserved. All entities are returned if no tag is requested.
+     *
+     * @param entities entities to filter
+     * @param tags     requested tags. A tag without value matches all values
+     * @param <T>      type of the entities
+     * @return list of entities having all the tags
+     */
+    public <T extends HasOid> List<T> filter(@NotNull Collection<T> entities, @NotNull Collection<Tag> tags) {
+        if (tags.isEmpty()) {
+            return List.copyOf(entities);
+        }
+        return read(() -> {
+            BitSet bitmap = intersection(tags);
+            return entities.stream().filter(o -> {
+                Integer slot = slots.get(o.oid());
+                return Objects.nonNull(slot) && bitmap.get(slot);
+            }).toList();
+        });
+    }
+
+    /**
+     * Adds the number of entities of each tag type in use to the counts. The tag type is looked up in the registry once per tag type.
+     *
+     * @param registry registry of the tag types
+     * @param counts   counts to update
+     * @return the updated counts
+     */
+    public Map<TagType<?>, Integer> countTags(@NotNull TypeRegistry registry, @NotNull Map<TagType<?>, Integer> counts) {
+        counts().forEach((type, count) -> registry.find(type).ifPresent(o -> counts.merge(o, count, Integer::sum)));
+        return counts;
+    }
+
+    private void addTag(long oid, @NotNull Tag tag) {
+        int slot = slots.computeIfAbsent(oid, this::allocate);
+        if (tags.get(slot).add(tag)) {
+            byType.computeIfAbsent(typeOf(tag), _ -> new BitSet()).set(slot);
+            if (tag.hasValue()) {
+                byValue.computeIfAbsent(tag, _ -> new BitSet()).set(slot);
+            }
+        }
+    }
+
+    private void removeSlot(long oid) {
+        Integer slot = slots.get(oid);
+        if (Objects.nonNull(slot)) {
+            tags.get(slot).forEach(tag -> {
+                clear(byType, typeOf(tag), slot);
+                if (tag.hasValue()) {
+                    clear(byValue, tag, slot);
+                }
+            });
+            release(oid, slot);
+        }
+    }
+
+    private int allocate(long oid) {
+        int slot = free.nextSetBit(0);
+        if (slot >= 0) {
+            free.clear(slot);
+            tags.set(slot, new HashSet<>());
+        } else {
+            slot = tags.size();
+            tags.add(new HashSet<>());
+            if (slot == oids.length) {
+                oids = Arrays.copyOf(oids, oids.length * 2);
+            }
+        }
+        oids[slot] = oid;
+        return slot;
+    }
+
+    private void release(long oid, int slot) {
+        slots.remove(oid);
+        tags.get(slot).clear();
+        free.set(slot);
+    }
+
+    private Optional<BitSet> bitmapOf(@NotNull Tag tag) {
+        return Optional.ofNullable(tag.hasValue() ? byValue.get(tag) : byType.get(tag));
+    }
+
+    private BitSet intersection(@NotNull Collection<Tag> tags) {
+        BitSet result = null;
+        for (Tag tag : tags) {
+            BitSet bitmap = bitmapOf(tag).orElse(null);
+            if (Objects.isNull(bitmap)) {
+                return new BitSet();
+            }
+            if (Objects.isNull(result)) {
+                result = (BitSet) bitmap.clone();
+            } else {
+                result.and(bitmap);
+            }
+        }
+        if (Objects.isNull(result)) {
+            result = new BitSet();
+            result.set(0, this.tags.size());
+            result.andNot(free);
+        }
+        return result;
+    }
+
+    private long[] toOids(@NotNull BitSet bitmap) {
+        long[] result = bitmap.stream().mapToLong(slot -> oids[slot]).toArray();
+        Arrays.sort(result);
+        return result;
+    }
+
+    private static void clear(@NotNull Map<Tag, BitSet> bitmaps, @NotNull Tag key, int slot) {
+        BitSet bitmap = bitmaps.get(key);
+        if (Objects.nonNull(bitmap)) {
+            bitmap.clear(slot);
+            if (bitmap.isEmpty()) {
+                bitmaps.remove(key);
+            }
+        }
+    }
+
+    private void execute(@NotNull Runnable runnable) {
+        mutex.writeLock().lock();
+        try {
+            runnable.run();
+        } finally {
+            mutex.writeLock().unlock();
+        }
+    }
+
+    private <R> R read(@NotNull Supplier<R> query) {
+        mutex.readLock().lock();
+        try {
+            return query.get();
+        } finally {
+            mutex.readLock().unlock();
+        }
+    }
+}
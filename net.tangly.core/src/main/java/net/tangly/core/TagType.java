@@ -105,12 +105,12 @@ public record TagType<T>(String namespace, @NotNull String name, @NotNull ValueK
      */
     public Tag of(T value) {
         validateValuePresence(value);
-        return new Tag(namespace, name, (value != null) ? value.toString() : null);
+        return Tag.of(namespace, name, (value != null) ? value.toString() : null);
     }
 
     public Tag of(String value) {
         validateValuePresence(value);
-        return new Tag(namespace, name, value);
+        return Tag.of(namespace, name, value);
     }
 
     public boolean validate(@NotNull String value) {
@@ -20,14 +20,16 @@ import org.jetbrains.annotations.NotNull;
 import java.util.*;
 
 /**
- * Registry of tag types defined for a domain model.
+ * Registry of tag types defined for a domain model. Tag types are indexed by namespace and name.
  */
 public class TypeRegistry {
     private final Set<TagType<?>> tagTypes;
+    private final Map<Tag, TagType<?>> tagTypesByName;
     private final Set<CodeType<?>> codeTypes;
 
     public TypeRegistry() {
         tagTypes = new HashSet<>();
+        tagTypesByName = new HashMap<>();
         codeTypes = new HashSet<>();
     }
 
@@ -38,6 +40,7 @@ public class TypeRegistry {
      */
     public void register(@NotNull TagType<?> type) {
         tagTypes.add(type);
+        tagTypesByName.put(Tag.ofEmpty(type.namespace(), type.name()), type);
     }
 
     public Collection<TagType<?>> tagTypes() {
@@ -66,8 +69,7 @@ public class TypeRegistry {
      * @return requested tag type as optional
      */
     public <T> Optional<TagType<T>> find(String namespace, @NotNull String name) {
-        Optional<TagType<?>> optional = tagTypes.stream().filter(o -> Objects.equals(o.namespace(), namespace) && Objects.equals(o.name(), name)).findAny();
-        return optional.map(tagType -> (TagType<T>) tagType);
+        return Optional.ofNullable((TagType<T>) tagTypesByName.get(Tag.ofEmpty(namespace, name)));
     }
 
     /**
@@ -0,0 +1,300 @@
+/*
+ * Copyright 2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+
+package net.tangly.core.domain;
+
+import net.tangly.commons.logger.EventData;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous audit trail of a bounded domain. Logged events are published into a bounded lock-free ring buffer and processed by a background writer. The
+ * writer forwards the events in batches to the audit logger and appends them as JSON lines to a rolling audit file. The last events are kept in a bounded
+ * in-memory tail displayed in the user interface.
+ * <p>Informational import events are emitted once per imported row. They can be sampled to keep the audit volume flat during long-running imports. A sampling
+ * rate of <i>n</i> keeps one informational import event out of <i>n</i>. Events of other statuses are never sampled.</p>
+ * <p>If the ring buffer is full, informational events are dropped and counted. Events of other statuses wait until the writer frees a slot. Events logged
+ * after the trail is closed are written synchronously.</p>
+ */
+public final class AuditTrail implements AutoCloseable {
+    public static final int DEFAULT_CAPACITY = 8192;
+    public static final int DEFAULT_TAIL_SIZE = 1024;
+    public static final long DEFAULT_FILE_SIZE = 16L * 1024 * 1024;
+    private static final int BATCH_SIZE = 256;
+    private static final long IDLE_NANOS = 10_000_000L;
+    private static final String EXTENSION = ".jsonl";
+    private static final Logger logger = LogManager.getLogger();
+
+    private final Path file;
+    private final long maxFileSize;
+    private final int sampling;
+    private final AtomicReferenceArray<EventData> ring;
+    private final int mask;
+    private final AtomicLong head;
+    private final AtomicLong consumed;
+    private final AtomicLong infoEvents;
+    private final LongAdder sampled;
+    private final LongAdder dropped;
+    private final int tailSize;
+    private final Deque<EventData> tail;
+    private final Thread writer;
+    private volatile boolean running;
+    private volatile boolean idle;
+    private Writer out;
+    private long fileSize;
+    private int rolls;
+
+    /**
+     * Constructor of the audit trail.
+     *
+     * @param name        name of the audit trail used to name the writer thread
+     * @param file        optional audit file. No file is written if null
+     * @param capacity    capacity of the ring buffer. The capacity is rounded up to a power of two
+     * @param tailSize    number of events kept in the in-memory tail
+     * @param sampling    sampling rate of informational import events. A rate of 1 keeps all events
+     * @param maxFileSize size in bytes after which the audit file is rolled
+     */
+    public AuditTrail(@NotNull String name, Path file, int capacity, int tailSize, int sampling, long maxFileSize) {
+        this.file = file;
+        this.maxFileSize = maxFileSize;
+        this.sampling = Math.max(1, sampling);
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.ring = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.head = new AtomicLong();
+        this.consumed = new AtomicLong();
+        this.infoEvents = new AtomicLong();
+        this.sampled = new LongAdder();
+        this.dropped = new LongAdder();
+        this.tailSize = tailSize;
+        this.tail = new ArrayDeque<>(tailSize);
+        this.running = true;
+        this.writer = Thread.ofPlatform().daemon().name("audit-" + name).start(this::process);
+    }
+
+    public static AuditTrail of(@NotNull String name) {
+        return new AuditTrail(name, null, DEFAULT_CAPACITY, DEFAULT_TAIL_SIZE, 1, DEFAULT_FILE_SIZE);
+    }
+
+    /**
+     * Logs the audit event. The event is added to the tail and published to the writer unless it is sampled out.
+     *
+     * @param event event to log
+     */
+    public void log(@NotNull EventData event) {
+        if (isSampledOut(event)) {
+            sampled.increment();
+            return;
+        }
+        synchronized (tail) {
+            if (tail.size() == tailSize) {
+                tail.removeFirst();
+            }
+            tail.addLast(event);
+        }
+        while (!offer(event)) {
+            if (!running) {
+                EventData.log(event);
+                return;
+            }
+            if (event.status() == EventData.Status.INFO) {
+                dropped.increment();
+                return;
+            }
+            LockSupport.unpark(writer);
+            Thread.onSpinWait();
+        }
+        if (idle) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    /**
+     * Returns the last events logged in the trail, the oldest first.
+     *
+     * @return snapshot of the tail
+     */
+    public List<EventData> tail() {
+        synchronized (tail) {
+            return new ArrayList<>(tail);
+        }
+    }
+
+    /**
+     * Returns the number of informational import events discarded through sampling.
+     *
+     * @return number of sampled out events
+     */
+    public long sampled() {
+        return sampled.sum();
+    }
+
+    /**
+     * Returns the number of informational events dropped because the ring buffer was full.
+     *
+     * @return number of dropped events
+     */
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Waits until all published events are processed by the writer.
+     */
+    public void flush() {
+        while (running && (consumed.get() < head.get())) {
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(100_000L);
+        }
+    }
+
+    /**
+     * Processes the pending events and stops the writer. The audit file is closed.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean isSampledOut(@NotNull EventData event) {
+        return (sampling > 1) && (event.status() == EventData.Status.INFO) && EventData.IMPORT_EVENT.equals(event.event()) &&
+            (infoEvents.getAndIncrement() % sampling != 0);
+    }
+
+    private boolean offer(@NotNull EventData event) {
+        long sequence;
+        do {
+            sequence = head.get();
+            if (!running || (sequence - consumed.get() >= ring.length())) {
+                return false;
+            }
+        } while (!head.compareAndSet(sequence, sequence + 1));
+        ring.setRelease((int) (sequence & mask), event);
+        return true;
+    }
+
+    private void process() {
+        List<EventData> batch = new ArrayList<>(BATCH_SIZE);
+        while (running || (consumed.get() < head.get())) {
+            drain(batch);
+            if (batch.isEmpty()) {
+                idle = true;
+                if (running && (consumed.get() == head.get())) {
+                    LockSupport.parkNanos(this, IDLE_NANOS);
+                }
+                idle = false;
+            } else {
+                write(batch);
+                batch.clear();
+            }
+        }
+        closeFile();
+    }
+
+    private void drain(@NotNull List<EventData> batch) {
+        long sequence = consumed.get();
+        while (batch.size() < BATCH_SIZE) {
+            int index = (int) (sequence & mask);
+            EventData event = ring.getAcquire(index);
+            if (Objects.isNull(event)) {
+                break;
+            }
+            ring.setPlain(index, null);
+            batch.add(event);
+            consumed.setRelease(++sequence);
+        }
+    }
+
+    private void write(@NotNull List<EventData> batch) {
+        batch.forEach(EventData::log);
+        if (Objects.nonNull(file)) {
+            try {
+                for (EventData event : batch) {
+                    String line = toJson(event) + System.lineSeparator();
+                    output().write(line);
+                    fileSize += line.length();
+                }
+                out.flush();
+                if (fileSize >= maxFileSize) {
+                    roll();
+                }
+            } catch (IOException e) {
+                logger.atError().withThrowable(e).log("Error writing audit file {}", file);
+            }
+        }
+    }
+
+    private Writer output() throws IOException {
+        if (Objects.isNull(out)) {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            fileSize = Files.exists(file) ? Files.size(file) : 0;
+            out = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+        return out;
+    }
+
+    private void roll() throws IOException {
+        closeFile();
+        String name = file.getFileName().toString();
+        String stem = name.endsWith(EXTENSION) ? name.substring(0, name.length() - EXTENSION.length()) : name;
+        Files.move(file, file.resolveSibling("%s-%d-%d%s".formatted(stem, System.currentTimeMillis(), ++rolls, EXTENSION)));
+    }
+
+    private void closeFile() {
+        if (Objects.nonNull(out)) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                logger.atError().withThrowable(e).log("Error closing audit file {}", file);
+            }
+            out = null;
+        }
+    }
+
+    private static String toJson(@NotNull EventData event) {
+        var data = new JSONObject();
+        event.data().forEach((key, value) -> data.put(key, Objects.toString(value)));
+        var json = new JSONObject();
+        json.put("event", event.event()).put("timestamp", event.timestamp().toString()).put("domain", event.domain()).put("status", event.status().name())
+            .putOpt("text", event.text()).put("data", data);
+        if (Objects.nonNull(event.exception())) {
+            json.put("exception", event.exception().toString());
+        }
+        return json.toString();
+    }
+}
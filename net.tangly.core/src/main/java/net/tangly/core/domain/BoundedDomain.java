@@ -16,13 +16,12 @@ package net.tangly.core.domain;
 import net.tangly.commons.logger.EventData;
 import net.tangly.core.*;
 import net.tangly.core.events.EntityChangedInternalEvent;
+import net.tangly.core.events.EventBus;
 import net.tangly.core.providers.Provider;
 import org.jetbrains.annotations.NotNull;
 
+import java.nio.file.Path;
 import java.util.*;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Flow;
-import java.util.concurrent.SubmissionPublisher;
 
 /**
  * A bounded domain as defined in the DDD approach has a domain-specific model and a set of adapters.
@@ -38,6 +37,11 @@ import java.util.concurrent.SubmissionPublisher;
  * </ol>
  *
  * <p>The tenant directory provides access to tenant configuration information.</p>
+ * <p>Domain events are published on the event bus of the tenant. Each domain owns a public topic named after the domain and an internal topic with the suffix
+ * <i>.internal</i>. Repeated pending {@link EntityChangedInternalEvent} of the same entity are coalesced on the internal topic. A domain without tenant directory
+ * owns its event bus.</p>
+ * <p>Audit events are processed asynchronously through an {@link AuditTrail}. The tenant properties <i>name.audit.file</i>, <i>name.audit.tail</i> and
+ * <i>name.audit.sampling</i> configure the optional audit file, the size of the in-memory tail, and the sampling rate of informational import events.</p>
  * <p>The type registry is the source of codes and tags. These concepts support dynamic extension points into the domain.
  * Each tenant can defines code values and tags.</p>
  *
@@ -47,6 +51,10 @@ import java.util.concurrent.SubmissionPublisher;
  *            The communication is generally asynchronous
  */
 public class BoundedDomain<R extends Realm, B, P extends Port<R>> implements HasName, DomainAudit {
+    /**
+     * Delivery options of the internal topic. Pending change notifications of the same entity and operation are delivered once.
+     */
+    private static final EventBus.Options<Object> INTERNAL_OPTIONS = EventBus.Options.of().coalesced(o -> (o instanceof EntityChangedInternalEvent) ? o : null);
     private final String name;
     private final R realm;
     private final P port;
@@ -54,31 +62,42 @@ public class BoundedDomain<R extends Realm, B, P extends Port<R>> implements Has
     private final boolean enabled;
     private final TenantDirectory directory;
     private final TypeRegistry registry;
-    private final SubmissionPublisher<Object> channel;
-    private final SubmissionPublisher<Object> internalChannel;
-    private final List<EventData> auditEvents;
+    private final EventBus eventBus;
+    private final boolean ownsEventBus;
+    private final EventBus.Topic<Object> topic;
+    private final EventBus.Topic<Object> internalTopic;
+    private final AuditTrail auditTrail;
 
     /**
-     * Defines a refined event listener interface to handle events in the domain or from another domain.
+     * Defines a refined event listener interface to handle events in the domain or from another domain. The events are delivered in batches through the event
+     * bus of the tenant.
      *
-     * @see Flow.Subscriber
+     * @see EventBus.Subscriber
      */
     @FunctionalInterface
-    public interface EventListener extends Flow.Subscriber<Object> {
-        @Override
-        default void onComplete() {
+    public interface EventListener {
+        /**
+         * Returns the delivery options used when the listener subscribes to the public topic of a domain. The default options deliver all events in
+         * publication order.
+         *
+         * @return delivery options of the subscription
+         */
+        default EventBus.Options<Object> options() {
+            return EventBus.Options.of();
         }
 
-        @Override
-        default void onError(Throwable throwable) {
+        default void onSubscribe(@NotNull EventBus.Subscription subscription) {
         }
 
-        @Override
-        default void onSubscribe(Flow.Subscription subscription) {
-            subscription.request(Long.MAX_VALUE);
+        /**
+         * Processes a batch of events. The default implementation processes each event through {@link #onNext(Object)}.
+         *
+         * @param events events to process in publication order
+         */
+        default void onEvents(@NotNull List<Object> events) {
+            events.forEach(this::onNext);
         }
 
-        @Override
         void onNext(Object event);
     }
 
@@ -98,10 +117,15 @@ public class BoundedDomain<R extends Realm, B, P extends Port<R>> implements Has
         this.port = port;
         this.registry = new TypeRegistry();
         this.directory = directory;
-        channel = new SubmissionPublisher<>(Executors.newVirtualThreadPerTaskExecutor(), Flow.defaultBufferSize());
-        internalChannel = new SubmissionPublisher<>(Executors.newVirtualThreadPerTaskExecutor(), Flow.defaultBufferSize());
-        auditEvents = new ArrayList<>();
+        ownsEventBus = Objects.isNull(directory) || Objects.isNull(directory.eventBus());
+        eventBus = ownsEventBus ? EventBus.of() : directory.eventBus();
+        topic = EventBus.Topic.of(name, Object.class);
+        internalTopic = EventBus.Topic.of("%s.internal".formatted(name), Object.class);
         enabled = Objects.nonNull(directory) ? Boolean.valueOf(directory.getProperty("%s.enabled".formatted(name))): false;
+        String file = property("audit.file");
+        auditTrail = new AuditTrail(name, Objects.nonNull(file) ? Path.of(file) : null, AuditTrail.DEFAULT_CAPACITY,
+            Optional.ofNullable(property("audit.tail")).map(Integer::parseInt).orElse(AuditTrail.DEFAULT_TAIL_SIZE),
+            Optional.ofNullable(property("audit.sampling")).map(Integer::parseInt).orElse(1), AuditTrail.DEFAULT_FILE_SIZE);
     }
 
     protected static <I extends HasOid & HasMutableTags> void addTagCounts(@NotNull TypeRegistry registry, @NotNull Provider<I> provider,
@@ -109,30 +133,48 @@ public class BoundedDomain<R extends Realm, B, P extends Port<R>> implements Has
         addTagCounts(registry, provider.items(), counts);
     }
 
+    /**
+     * Adds the tag counts of the entities. The tags are first grouped by tag type, and the registry is looked up once per tag type.
+     *
+     * @param registry registry of the tag types
+     * @param entities entities which tags are counted
+     * @param counts   counts to update
+     * @param <I>      type of the entities
+     */
     protected static <I extends HasTags> void addTagCounts(@NotNull TypeRegistry registry, @NotNull List<I> entities, Map<TagType<?>, Integer> counts) {
-        entities.stream().flatMap(e -> e.tags().stream()).map(registry::find).flatMap(Optional::stream)
-            .forEach(e -> counts.merge(e, 1, (oldValue, _) -> ++oldValue));
+        Map<Tag, Integer> types = new HashMap<>();
+        entities.forEach(e -> e.tags().forEach(tag -> types.merge(TagIndex.typeOf(tag), 1, Integer::sum)));
+        types.forEach((type, count) -> registry.find(type).ifPresent(o -> counts.merge(o, count, Integer::sum)));
     }
 
     /**
-     * Subscribes to the public event channel of the domain.
+     * Subscribes to the public event topic of the domain with the delivery options of the listener.
      *
      * @param listener event listener
+     * @return subscription of the listener
      */
-    public void subscribe(@NotNull EventListener listener) {
-        channel.subscribe(listener);
+    public EventBus.Subscription subscribe(@NotNull EventListener listener) {
+        return subscribe(topic, listener, listener.options());
     }
 
     /**
-     * Subscribes to the internal event channel of the domain.
+     * Subscribes to the internal event topic of the domain. Repeated pending change notifications are coalesced.
      *
      * @param listener event listener
+     * @return subscription of the listener
      */
-    public void subscribeInternally(@NotNull EventListener listener) {
-        internalChannel.subscribe(listener);
+    public EventBus.Subscription subscribeInternally(@NotNull EventListener listener) {
+        return subscribe(internalTopic, listener, INTERNAL_OPTIONS);
     }
 
+    /**
+     * Adds the number of tagged entities per tag type to the counts. The default implementation uses the tag index of the realm if available.
+     *
+     * @param counts counts to update
+     * @return the updated counts
+     */
     public Map<TagType<?>, Integer> countTags(@NotNull Map<TagType<?>, Integer> counts) {
+        realm.tagIndex().ifPresent(o -> o.countTags(registry, counts));
         return counts;
     }
 
@@ -164,8 +206,21 @@ public class BoundedDomain<R extends Realm, B, P extends Port<R>> implements Has
         return Collections.emptyList();
     }
 
+    /**
+     * Returns the last audit events of the domain. The number of events is bounded through the in-memory tail of the audit trail.
+     *
+     * @return snapshot of the last audit events
+     */
     public List<EventData> auditEvents() {
-        return auditEvents;
+        return auditTrail.tail();
+    }
+
+    public AuditTrail auditTrail() {
+        return auditTrail;
+    }
+
+    public EventBus eventBus() {
+        return eventBus;
     }
 
     public boolean enabled() {
@@ -176,8 +231,7 @@ public class BoundedDomain<R extends Realm, B, P extends Port<R>> implements Has
 
     @Override
     public void log(@NotNull EventData auditEvent) {
-        EventData.log(auditEvent);
-        auditEvents.add(auditEvent);
+        auditTrail.log(auditEvent);
     }
 
     @Override
@@ -187,29 +241,34 @@ public class BoundedDomain<R extends Realm, B, P extends Port<R>> implements Has
 
     @Override
     public void submitInterally(@NotNull Object event) {
-        internalChannel().submit(event);
+        eventBus.publish(internalTopic, event);
     }
 
     @Override
     public void submit(@NotNull Object event) {
-        channel().submit(event);
+        eventBus.publish(topic, event);
     }
 
-
     // endregion
 
-    public SubmissionPublisher<Object> channel() {
-        return channel;
+    private EventBus.Subscription subscribe(@NotNull EventBus.Topic<Object> topic, @NotNull EventListener listener, @NotNull EventBus.Options<Object> options) {
+        EventBus.Subscription subscription = eventBus.subscribe(topic, listener::onEvents, options);
+        listener.onSubscribe(subscription);
+        return subscription;
     }
 
-    public SubmissionPublisher<Object> internalChannel() {
-        return internalChannel;
+    private String property(@NotNull String property) {
+        return Objects.nonNull(directory) ? directory.getProperty("%s.%s".formatted(name, property)) : null;
     }
 
     public void startup() {
     }
 
     public void shutdown() {
+        if (ownsEventBus) {
+            eventBus.close();
+        }
+        auditTrail.close();
         try {
             realm.close();
         } catch (Exception e) {
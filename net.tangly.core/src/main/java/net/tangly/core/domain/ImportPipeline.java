@@ -0,0 +1,180 @@
+/*
+ * Copyright 2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+package net.tangly.core.domain;
+
+import net.tangly.commons.logger.EventData;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * Import pipeline parsing independent files in parallel and merging the parsed entities sequentially into the realm.
+ * <p>The pipeline is a sequence of stages. The tasks of a stage are parsed concurrently on virtual threads. Once all tasks of the stage are parsed, their merge
+ * actions are executed on the calling thread in the declaration order of the tasks. The next stage starts after all merges of the previous stage are completed.
+ * Declare the stages so that entities are merged before the entities referencing them, for example natural entities before employees before contracts.</p>
+ * <p>A parser may read the realm but shall not modify it. Audit events logged during parsing are buffered and forwarded to the domain audit when the task is
+ * merged. Events logged during the merge are forwarded directly. The audit trail is therefore deterministic and independent of the thread scheduling.</p>
+ */
+public final class ImportPipeline {
+    /**
+     * Import task of a pipeline stage.
+     */
+    @FunctionalInterface
+    public interface ImportTask {
+        /**
+         * Parses the source of the task. The method is called concurrently with the other tasks of the same stage.
+         *
+         * @param audit domain audit sink buffering the events of the task
+         * @return the action merging the parsed entities into the realm
+         */
+        Runnable parse(@NotNull DomainAudit audit);
+    }
+
+    private record ParsedTask(@NotNull BufferedAudit audit, @NotNull Runnable merge) {
+    }
+
+    /**
+     * Domain audit buffering the logged events until it is flushed. Other operations and the events logged after the flush are forwarded to the delegate.
+     */
+    private static final class BufferedAudit implements DomainAudit {
+        private final DomainAudit delegate;
+        private final List<EventData> events;
+        private boolean flushed;
+
+        BufferedAudit(@NotNull DomainAudit delegate) {
+            this.delegate = delegate;
+            this.events = new ArrayList<>();
+        }
+
+        @Override
+        public String name() {
+            return delegate.name();
+        }
+
+        @Override
+        public void log(@NotNull EventData auditEvent) {
+            if (flushed) {
+                delegate.log(auditEvent);
+            } else {
+                events.add(auditEvent);
+            }
+        }
+
+        @Override
+        public void entityImported(@NotNull String entityName) {
+            delegate.entityImported(entityName);
+        }
+
+        @Override
+        public void submitInterally(@NotNull Object event) {
+            delegate.submitInterally(event);
+        }
+
+        @Override
+        public void submit(@NotNull Object event) {
+            delegate.submit(event);
+        }
+
+        void flush() {
+            events.forEach(delegate::log);
+            events.clear();
+            flushed = true;
+        }
+    }
+
+    private final List<List<ImportTask>> stages;
+
+    public ImportPipeline() {
+        this.stages = new ArrayList<>();
+    }
+
+    public static ImportPipeline of() {
+        return new ImportPipeline();
+    }
+
+    /**
+     * Adds a stage with the given tasks. The tasks are merged in the order of the parameters.
+     *
+     * @param tasks independent tasks of the stage
+     * @return the pipeline for chaining
+     */
+    public ImportPipeline stage(@NotNull ImportTask... tasks) {
+        stages.add(List.of(tasks));
+        return this;
+    }
+
+    /**
+     * Adds a stage with one task per file. The files are sorted to guarantee a deterministic merge order.
+     *
+     * @param files  files to import
+     * @param parser parser of a file returning the parsed result. The result is discarded if null
+     * @param merger merger of a parsed result into the realm
+     * @param <T>    type of the parsed result
+     * @return the pipeline for chaining
+     */
+    public <T> ImportPipeline stage(@NotNull Collection<Path> files, @NotNull BiFunction<DomainAudit, Path, T> parser, @NotNull Consumer<T> merger) {
+        stages.add(files.stream().sorted().map(file -> (ImportTask) audit -> {
+            T parsed = parser.apply(audit, file);
+            return () -> {
+                if (parsed != null) {
+                    merger.accept(parsed);
+                }
+            };
+        }).toList());
+        return this;
+    }
+
+    /**
+     * Executes all stages of the pipeline. An unchecked exception thrown by a parser is rethrown once all tasks of the stage are completed.
+     *
+     * @param audit domain audit sink to log the operation events
+     */
+    public void run(@NotNull DomainAudit audit) {
+        stages.forEach(stage -> run(audit, stage));
+    }
+
+    private static void run(@NotNull DomainAudit audit, @NotNull List<ImportTask> tasks) {
+        List<ParsedTask> parsed = new ArrayList<>(tasks.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<ParsedTask>> futures = tasks.stream().map(task -> executor.submit(() -> {
+                var buffer = new BufferedAudit(audit);
+                return new ParsedTask(buffer, task.parse(buffer));
+            })).toList();
+            for (Future<ParsedTask> future : futures) {
+                parsed.add(future.get());
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+        parsed.forEach(task -> {
+            task.audit().flush();
+            task.merge().run();
+        });
+    }
+}
@@ -15,10 +15,12 @@ package net.tangly.core.domain;
 
 import net.tangly.core.Entity;
 import net.tangly.core.HasOid;
+import net.tangly.core.TagIndex;
 import net.tangly.core.providers.Provider;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * The realm is responsible for the handling of entities and value objects part of the domain model.
@@ -43,6 +45,16 @@ public interface Realm {
         });
     }
 
+    /**
+     * Returns the tag index of the entities of the realm. Realms with tagged entities should decorate their providers with
+     * {@link net.tangly.core.providers.ProviderTagIndexed} sharing one index.
+     *
+     * @return optional tag index of the realm
+     */
+    default Optional<TagIndex> tagIndex() {
+        return Optional.empty();
+    }
+
     default void close() {
     }
 }
@@ -14,6 +14,7 @@
 package net.tangly.core.domain;
 
 import net.tangly.core.HasId;
+import net.tangly.core.events.EventBus;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Collection;
@@ -30,6 +31,8 @@ import java.util.Optional;
  *     also available for historical display functions. For example, a disabled user can still be the creator of an entity in a domain.</dd>
  *     <dt>Property registry</dt><dd>Simple approach to provide tenant specific information and configuration to all bounded domain. For example, the default
  *     organization date format can be defined through this mechanism.</dd>
+ *     <dt>Event bus</dt><dd>Typed topic-based event bus shared by all bounded domains of the tenant. Domains publish their events on their topics and
+ *     subscribe to the topics of other domains.</dd>
  * </dl>
  * <p>For privacy and security reasons, no communication between tenants is supported.</p>
  */
@@ -56,6 +59,13 @@ public interface TenantDirectory extends HasId {
      */
     Optional<BoundedDomain<?, ?, ?>> getBoundedDomain(@NotNull String domain);
 
+    /**
+     * Returns the event bus shared by the bounded domains of the tenant.
+     *
+     * @return event bus of the tenant
+     */
+    EventBus eventBus();
+
     /**
      * Returns the requested property from the tenant directory.
      *
@@ -56,6 +56,11 @@ public final class TsvHdl {
     public static final String TEXT = "text";
     public static final String DOMAIN = "domain";
 
+    /**
+     * Maximum number of invalid or erroneous rows individually audited per file in bulk import mode.
+     */
+    public static final int SAMPLED_IMPORT_EVENTS = 10;
+
     private TsvHdl() {
     }
 
@@ -118,7 +123,35 @@ public final class TsvHdl {
         return Strings.isNullOrBlank(value) ? null : Enum.valueOf(enumType, value);
     }
 
+    /**
+     * Imports the entities defined in the TSV file in bulk mode.
+     *
+     * @see #importEntities(DomainAudit, Path, TsvEntity, Provider, boolean)
+     */
     public static <T> void importEntities(@NotNull DomainAudit audit, @NotNull Path path, @NotNull TsvEntity<T> tsvEntity, @NotNull Provider<T> provider) {
+        importEntities(audit, path, tsvEntity, provider, true);
+    }
+
+    /**
+     * Imports the entities defined in the TSV file into the provider.
+     * <p>In bulk mode, the parsed entities are collected and stored in the provider as one {@link Provider#batch(Runnable)}. The per-row audit events
+     * are aggregated into counters. Only the first {@link #SAMPLED_IMPORT_EVENTS} invalid or erroneous rows are logged individually. An entity rejected by the
+     * provider is audited and the import continues with the next entity. Otherwise, each entity is updated in the provider and audited when its row is
+     * parsed.</p>
+     *
+     * @param audit     domain audit sink
+     * @param path      path to the TSV file
+     * @param tsvEntity TSV definition of the entity
+     * @param provider  provider in which the imported entities are stored
+     * @param bulk      flag indicating if the bulk mode is used
+     * @param <T>       type of the imported entities
+     */
+    public static <T> void importEntities(@NotNull DomainAudit audit, @NotNull Path path, @NotNull TsvEntity<T> tsvEntity, @NotNull Provider<T> provider,
+                                          boolean bulk) {
+        if (bulk) {
+            store(audit, path, tsvEntity, provider, parseEntities(audit, path, tsvEntity));
+            return;
+        }
         BiFunction<TsvEntity<T>, CSVRecord, T> lambda = (tsv, record) -> {
             T entity = tsvEntity.imports(record);
             if (!(entity instanceof MutableEntityExtended instance) || (instance.validate())) {
@@ -133,6 +166,89 @@ public final class TsvHdl {
         }
     }
 
+    /**
+     * Returns an import task parsing the entities of the TSV file and storing them in the provider when merged.
+     *
+     * @param path      path to the TSV file
+     * @param tsvEntity TSV definition of the entity
+     * @param provider  provider in which the imported entities are stored
+     * @param <T>       type of the imported entities
+     * @return import task for an import pipeline
+     * @see ImportPipeline
+     */
+    public static <T> ImportPipeline.ImportTask importTask(@NotNull Path path, @NotNull TsvEntity<T> tsvEntity, @NotNull Provider<T> provider) {
+        return audit -> {
+            List<T> entities = parseEntities(audit, path, tsvEntity);
+            return () -> store(audit, path, tsvEntity, provider, entities);
+        };
+    }
+
+    /**
+     * Parses the valid entities of the TSV file without storing them. The audit events are aggregated as described for the bulk import mode.
+     *
+     * @param audit     domain audit sink
+     * @param path      path to the TSV file
+     * @param tsvEntity TSV definition of the entity
+     * @param <T>       type of the parsed entities
+     * @return list of parsed valid entities
+     * @see #importEntities(DomainAudit, Path, TsvEntity, Provider, boolean)
+     */
+    public static <T> List<T> parseEntities(@NotNull DomainAudit audit, @NotNull Path path, @NotNull TsvEntity<T> tsvEntity) {
+        String source = path.toString();
+        String entityName = tsvEntity.clazz().getSimpleName();
+        List<T> entities = new ArrayList<>();
+        int invalids = 0;
+        int errors = 0;
+        try (Reader in = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            for (CSVRecord csv : FORMAT.parse(in)) {
+                try {
+                    T entity = tsvEntity.imports(csv);
+                    if (!(entity instanceof MutableEntityExtended instance) || (instance.validate())) {
+                        entities.add(entity);
+                    } else if (++invalids <= SAMPLED_IMPORT_EVENTS) {
+                        audit.log(EventData.IMPORT_EVENT, EventData.Status.WARNING, "%s invalid entity".formatted(entityName),
+                            Map.of("filename", source, "object", entity));
+                    }
+                } catch (Exception e) {
+                    if (++errors <= SAMPLED_IMPORT_EVENTS) {
+                        audit.log(EventData.IMPORT_EVENT, EventData.Status.ERROR, "Entity not imported from TSV file",
+                            Map.of("filename", source, "csv-record", csv), e);
+                    }
+                }
+            }
+            audit.log(EventData.IMPORT_EVENT, (invalids + errors == 0) ? EventData.Status.SUCCESS : EventData.Status.WARNING,
+                "%s imported objects".formatted(entityName), Map.of("filename", source, "count", entities.size(), "invalids", invalids, "errors", errors));
+        } catch (IOException e) {
+            audit.log(EventData.IMPORT_EVENT, EventData.Status.FAILURE, "Entities not imported from TSV file", Map.of("filename", path), e);
+        }
+        return entities;
+    }
+
+    /**
+     * Stores the parsed entities in the provider as one batch. An entity rejected by the provider, for example due to a duplicate object identifier, is
+     * audited and does not abort the storage of the remaining entities.
+     */
+    private static <T> void store(@NotNull DomainAudit audit, @NotNull Path path, @NotNull TsvEntity<T> tsvEntity, @NotNull Provider<T> provider,
+                                  @NotNull List<T> entities) {
+        String source = path.toString();
+        String entityName = tsvEntity.clazz().getSimpleName();
+        int[] errors = new int[1];
+        provider.batch(() -> entities.forEach(entity -> {
+            try {
+                provider.update(entity);
+            } catch (RuntimeException e) {
+                if (++errors[0] <= SAMPLED_IMPORT_EVENTS) {
+                    audit.log(EventData.IMPORT_EVENT, EventData.Status.ERROR, "%s entity not stored".formatted(entityName),
+                        Map.of("filename", source, "object", entity), e);
+                }
+            }
+        }));
+        if (errors[0] > 0) {
+            audit.log(EventData.IMPORT_EVENT, EventData.Status.WARNING, "%s entities not stored".formatted(entityName),
+                Map.of("filename", source, "count", entities.size() - errors[0], "errors", errors[0]));
+        }
+    }
+
     public static <T> List<TsvRelation<T>> importRelations(@NotNull DomainAudit audit, @NotNull Path path, @NotNull TsvEntity<T> tsvEntity) {
         List<TsvRelation<T>> relations = new ArrayList<>();
         BiFunction<TsvEntity<T>, CSVRecord, TsvRelation<T>> lambda = (_, record) -> {
@@ -0,0 +1,403 @@
+/*
+ * Copyright 2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+
+package net.tangly.core.events;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Typed topic-based event bus shared by the bounded domains of a tenant. Publishers post events on a topic. Each subscription of the topic has its own bounded
+ * queues and receives the events in batches on the executor of the bus.
+ * <p>A subscription defines the following delivery options:</p>
+ * <dl>
+ *     <dt>capacity and overflow policy</dt><dd>Each queue is bounded. A full queue drops the oldest or the newest event, or blocks the publisher until the
+ *     subscriber consumes events. A publisher shall never block on a queue it drains itself.</dd>
+ *     <dt>batch size</dt><dd>Maximum number of events delivered to the subscriber in one call.</dd>
+ *     <dt>lanes and ordering key</dt><dd>Events are dispatched to lanes through the hash of their ordering key. Events with the same key, for example the
+ *     events of the same entity, are delivered in publication order. Different lanes are delivered concurrently.</dd>
+ *     <dt>coalescing key</dt><dd>An event is discarded if an event with the same coalescing key is still pending in the lane. Repeated change
+ *     notifications are delivered once.</dd>
+ * </dl>
+ */
+public final class EventBus implements AutoCloseable {
+    public static final int DEFAULT_CAPACITY = 1024;
+    public static final int DEFAULT_BATCH_SIZE = 64;
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * Overflow policies of a full subscription queue.
+     */
+    public enum OverflowPolicy {DROP_OLDEST, DROP_NEWEST, BLOCK}
+
+    /**
+     * Topic of the bus. Topics are equal if their names and types are equal.
+     *
+     * @param name name of the topic
+     * @param type type of the events published on the topic
+     * @param <E>  type of the events
+     */
+    public record Topic<E>(@NotNull String name, @NotNull Class<E> type) {
+        public static <E> Topic<E> of(@NotNull String name, @NotNull Class<E> type) {
+            return new Topic<>(name, type);
+        }
+    }
+
+    /**
+     * Subscriber receiving the events of a topic in batches. The events of a lane are delivered sequentially.
+     *
+     * @param <E> type of the events
+     */
+    @FunctionalInterface
+    public interface Subscriber<E> {
+        void onEvents(@NotNull List<E> events);
+    }
+
+    /**
+     * Subscription of a subscriber to a topic.
+     */
+    public interface Subscription {
+        /**
+         * Cancels the subscription. Pending events are discarded and blocked publishers are released.
+         */
+        void cancel();
+
+        boolean isCancelled();
+
+        long delivered();
+
+        long dropped();
+
+        long coalesced();
+    }
+
+    /**
+     * Delivery options of a subscription.
+     *
+     * @param capacity      capacity of each lane queue
+     * @param batchSize     maximum number of events delivered in one call
+     * @param policy        overflow policy of a full queue
+     * @param lanes         number of lanes delivered concurrently
+     * @param orderingKey   optional extractor of the ordering key. Events without key are dispatched to the first lane
+     * @param coalescingKey optional extractor of the coalescing key. Events without key are never coalesced
+     * @param <E>           type of the events
+     */
+    public record Options<E>(int capacity, int batchSize, @NotNull OverflowPolicy policy, int lanes, Function<? super E, ?> orderingKey,
+                             Function<? super E, ?> coalescingKey) {
+        public Options {
+            if ((capacity < 1) || (batchSize < 1) || (lanes < 1)) {
+                throw new IllegalArgumentException("Capacity, batch size and lanes must be positive");
+            }
+        }
+
+        public static <E> Options<E> of() {
+            return new Options<>(DEFAULT_CAPACITY, DEFAULT_BATCH_SIZE, OverflowPolicy.BLOCK, 1, null, null);
+        }
+
+        public Options<E> capacity(int capacity, @NotNull OverflowPolicy policy) {
+            return new Options<>(capacity, batchSize, policy, lanes, orderingKey, coalescingKey);
+        }
+
+        public Options<E> batchSize(int batchSize) {
+            return new Options<>(capacity, batchSize, policy, lanes, orderingKey, coalescingKey);
+        }
+
+        public Options<E> ordered(int lanes, @NotNull Function<? super E, ?> orderingKey) {
+            return new Options<>(capacity, batchSize, policy, lanes, orderingKey, coalescingKey);
+        }
+
+        public Options<E> coalesced(@NotNull Function<? super E, ?> coalescingKey) {
+            return new Options<>(capacity, batchSize, policy, lanes, orderingKey, coalescingKey);
+        }
+    }
+
+    private final class SubscriptionImp<E> implements Subscription {
+        private final Topic<E> topic;
+        private final Subscriber<E> subscriber;
+        private final Options<E> options;
+        private final List<Lane> lanes;
+        private final LongAdder delivered;
+        private final LongAdder dropped;
+        private final LongAdder coalesced;
+        private volatile boolean cancelled;
+
+        /**
+         * Lane of a subscription. The lane is drained by at most one task at a time, guaranteeing the delivery order of its events.
+         */
+        private final class Lane implements Runnable {
+            private final ReentrantLock lock;
+            private final Condition notFull;
+            private final ArrayDeque<E> queue;
+            private final Set<Object> pending;
+            private boolean scheduled;
+
+            Lane() {
+                lock = new ReentrantLock();
+                notFull = lock.newCondition();
+                queue = new ArrayDeque<>();
+                pending = new HashSet<>();
+            }
+
+            void offer(@NotNull E event) {
+                Object key = Objects.isNull(options.coalescingKey()) ? null : options.coalescingKey().apply(event);
+                boolean schedule = false;
+                lock.lock();
+                try {
+                    if (Objects.nonNull(key) && !pending.add(key)) {
+                        coalesced.increment();
+                        return;
+                    }
+                    while (!cancelled && (queue.size() >= options.capacity())) {
+                        switch (options.policy()) {
+                            case DROP_NEWEST -> {
+                                if (Objects.nonNull(key)) {
+                                    pending.remove(key);
+                                }
+                                dropped.increment();
+                                return;
+                            }
+                            case DROP_OLDEST -> {
+                                release(queue.pollFirst());
+                                dropped.increment();
+                            }
+                            case BLOCK -> notFull.awaitUninterruptibly();
+                        }
+                    }
+                    if (cancelled) {
+                        return;
+                    }
+                    queue.addLast(event);
+                    if (!scheduled) {
+                        scheduled = true;
+                        schedule = true;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                if (schedule) {
+                    try {
+                        executor.execute(this);
+                    } catch (RejectedExecutionException e) {
+                        logger.atWarn().log("Event of topic {} published after the bus was closed", topic.name());
+                    }
+                }
+            }
+
+            @Override
+            public void run() {
+                while (true) {
+                    List<E> batch = new ArrayList<>(Math.min(options.batchSize(), DEFAULT_BATCH_SIZE));
+                    lock.lock();
+                    try {
+                        while (!cancelled && (batch.size() < options.batchSize()) && !queue.isEmpty()) {
+                            E event = queue.pollFirst();
+                            release(event);
+                            batch.add(event);
+                        }
+                        if (batch.isEmpty()) {
+                            scheduled = false;
+                            return;
+                        }
+                        notFull.signalAll();
+                    } finally {
+                        lock.unlock();
+                    }
+                    try {
+                        subscriber.onEvents(batch);
+                    } catch (RuntimeException e) {
+                        logger.atError().withThrowable(e).log("Subscriber of topic {} failed to process {} events", topic.name(), batch.size());
+                    }
+                    delivered.add(batch.size());
+                }
+            }
+
+            void clear() {
+                lock.lock();
+                try {
+                    queue.clear();
+                    pending.clear();
+                    notFull.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+
+            private void release(E event) {
+                if (Objects.nonNull(options.coalescingKey())) {
+                    Object key = options.coalescingKey().apply(event);
+                    if (Objects.nonNull(key)) {
+                        pending.remove(key);
+                    }
+                }
+            }
+        }
+
+        SubscriptionImp(@NotNull Topic<E> topic, @NotNull Subscriber<E> subscriber, @NotNull Options<E> options) {
+            this.topic = topic;
+            this.subscriber = subscriber;
+            this.options = options;
+            this.lanes = new ArrayList<>(options.lanes());
+            for (int i = 0; i < options.lanes(); ++i) {
+                lanes.add(new Lane());
+            }
+            delivered = new LongAdder();
+            dropped = new LongAdder();
+            coalesced = new LongAdder();
+        }
+
+        void offer(@NotNull E event) {
+            if (!cancelled) {
+                laneOf(event).offer(event);
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            subscriptions.getOrDefault(topic, List.of()).remove(this);
+            lanes.forEach(Lane::clear);
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public long delivered() {
+            return delivered.sum();
+        }
+
+        @Override
+        public long dropped() {
+            return dropped.sum();
+        }
+
+        @Override
+        public long coalesced() {
+            return coalesced.sum();
+        }
+
+        private Lane laneOf(@NotNull E event) {
+            if ((lanes.size() == 1) || Objects.isNull(options.orderingKey())) {
+                return lanes.getFirst();
+            }
+            return lanes.get(Math.floorMod(Objects.hashCode(options.orderingKey().apply(event)), lanes.size()));
+        }
+    }
+
+    private final ExecutorService executor;
+    private final Map<Topic<?>, List<SubscriptionImp<?>>> subscriptions;
+    private volatile boolean closed;
+
+    public EventBus() {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        subscriptions = new ConcurrentHashMap<>();
+    }
+
+    public static EventBus of() {
+        return new EventBus();
+    }
+
+    /**
+     * Subscribes to the topic with the default delivery options: one lane, blocking overflow policy, and no coalescing.
+     *
+     * @param topic      topic to subscribe to
+     * @param subscriber subscriber receiving the events
+     * @param <E>        type of the events
+     * @return subscription to cancel
+     */
+    public <E> Subscription subscribe(@NotNull Topic<E> topic, @NotNull Subscriber<E> subscriber) {
+        return subscribe(topic, subscriber, Options.of());
+    }
+
+    /**
+     * Subscribes to the topic.
+     *
+     * @param topic      topic to subscribe to
+     * @param subscriber subscriber receiving the events
+     * @param options    delivery options of the subscription
+     * @param <E>        type of the events
+     * @return subscription to cancel
+     */
+    public <E> Subscription subscribe(@NotNull Topic<E> topic, @NotNull Subscriber<E> subscriber, @NotNull Options<E> options) {
+        var subscription = new SubscriptionImp<>(topic, subscriber, options);
+        subscriptions.computeIfAbsent(topic, _ -> new CopyOnWriteArrayList<>()).add(subscription);
+        return subscription;
+    }
+
+    /**
+     * Publishes the event to all subscribers of the topic. Events published after the bus is closed are ignored.
+     *
+     * @param topic topic of the event
+     * @param event event to publish
+     * @param <E>   type of the event
+     */
+    @SuppressWarnings("unchecked")
+    public <E> void publish(@NotNull Topic<E> topic, @NotNull E event) {
+        if (!closed) {
+            E typed = topic.type().cast(event);
+            subscriptions.getOrDefault(topic, List.of()).forEach(o -> ((SubscriptionImp<E>) o).offer(typed));
+        }
+    }
+
+    /**
+     * Publishes the events in order to all subscribers of the topic.
+     *
+     * @param topic  topic of the events
+     * @param events events to publish
+     * @param <E>    type of the events
+     */
+    public <E> void publishAll(@NotNull Topic<E> topic, @NotNull Collection<? extends E> events) {
+        events.forEach(o -> publish(topic, o));
+    }
+
+    /**
+     * Returns the number of active subscriptions of the topic.
+     *
+     * @param topic topic of the subscriptions
+     * @return number of subscriptions
+     */
+    public int subscriptions(@NotNull Topic<?> topic) {
+        return subscriptions.getOrDefault(topic, List.of()).size();
+    }
+
+    /**
+     * Closes the bus. Events already published are delivered before the method returns.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        executor.close();
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+
+package net.tangly.core.providers;
+
+import net.tangly.commons.lang.ReflectionUtilities;
+import net.tangly.core.HasOid;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.NoSuchElementException;
+
+/**
+ * Assigns object identifiers to entities through method handles cached per class. The field lookup and the access check are performed once per entity class
+ * instead of once per assignment.
+ * <p>The object identifier field is often final. A variable handle does not support writing a final field, therefore a setter method handle is created from
+ * the accessible field.</p>
+ */
+final class OidSetter {
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, long.class);
+    private static final ClassValue<MethodHandle> SETTERS = new ClassValue<>() {
+        @Override
+        protected MethodHandle computeValue(Class<?> clazz) {
+            Field field = ReflectionUtilities.findField(clazz, HasOid.OID)
+                .orElseThrow(() -> new NoSuchElementException("Missing Field From %s field %s".formatted(clazz.getSimpleName(), HasOid.OID)));
+            try {
+                field.setAccessible(true);
+                return MethodHandles.lookup().unreflectSetter(field).asType(SETTER_TYPE);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    };
+
+    private OidSetter() {
+    }
+
+    /**
+     * Sets the object identifier of the entity.
+     *
+     * @param entity entity which object identifier is set
+     * @param oid    new object identifier
+     */
+    static void set(@NotNull HasOid entity, long oid) {
+        try {
+            SETTERS.get(entity.getClass()).invokeExact((Object) entity, oid);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
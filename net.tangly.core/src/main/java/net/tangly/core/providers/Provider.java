@@ -50,11 +50,11 @@ public abstract class Provider<T> {
     }
 
     public static <E extends HasOid, Long> Optional<E> findByOid(@NotNull Provider<E> provider, long oid) {
-        return provider.findBy(E::oid, oid);
+        return provider.findBy(HasOid.OID, E::oid, oid);
     }
 
     public static <E extends HasId, String> Optional<E> findById(@NotNull Provider<E> provider, @NotNull String id) {
-        return provider.findBy(E::id, id);
+        return provider.findBy(HasId.ID, E::id, id);
     }
 
     public static boolean containsById(@NotNull Provider<? extends HasId> provider, @NotNull String id) {
@@ -106,12 +106,23 @@ public abstract class Provider<T> {
     }
 
     /**
-     * Updates the data associated with all entities.
+     * Updates the data associated with all entities. The updates are performed as one batch.
      *
      * @param items entities to update
+     * @see #batch(Runnable)
      */
     public void updateAll(@NotNull Iterable<? extends T> items) {
-        items.forEach(this::update);
+        batch(() -> items.forEach(this::update));
+    }
+
+    /**
+     * Executes the operations as one batch. Providers with persistence commit all changes performed in the batch as one delta at the end of the batch. The
+     * default implementation executes the operations under the write lock of the provider.
+     *
+     * @param operations operations to perform on the provider
+     */
+    public void batch(@NotNull Runnable operations) {
+        execute(operations);
     }
 
     /**
@@ -126,6 +137,21 @@ public abstract class Provider<T> {
         return items().stream().filter(o -> value.equals(getter.apply(o))).findAny();
     }
 
+    /**
+     * Returns the first entity which property matches the value. The lookup uses the named index if the provider maintains one, otherwise it falls back to
+     * {@link #findBy(Function, Object)}. Decorators should forward the call to the decorated provider to preserve the indexes.
+     *
+     * @param name   name of the index associated with the property
+     * @param getter getter to retrieve the property
+     * @param value  value to compare with
+     * @param <U>    type of the property
+     * @return optional of the first matching entity otherwise empty
+     * @see ProviderIndexed
+     */
+    public <U> Optional<T> findBy(@NotNull String name, @NotNull Function<T, U> getter, U value) {
+        return findBy(getter, value);
+    }
+
     protected ReentrantReadWriteLock mutex() {
         return mutex;
     }
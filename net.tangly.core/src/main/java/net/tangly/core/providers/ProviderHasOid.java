@@ -14,13 +14,13 @@
 package net.tangly.core.providers;
 
 import net.tangly.commons.generator.IdGenerator;
-import net.tangly.commons.lang.ReflectionUtilities;
 import net.tangly.core.HasOid;
 import org.eclipse.store.storage.embedded.types.EmbeddedStorageManager;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 /**
  * The class is a decorator for a provider with entities having a unique object identifier which should be handled through the provider.
@@ -37,15 +37,15 @@ public class ProviderHasOid<T extends HasOid> extends Provider<T> {
     }
 
     public static <T extends HasOid> Provider<T> of(@NotNull IdGenerator generator) {
-        return new ProviderHasOid<>(generator, ProviderInMemory.of());
+        return new ProviderHasOid<>(generator, ProviderIndexed.ofOid(ProviderInMemory.of()));
     }
 
     public static <T extends HasOid> Provider<T> of(@NotNull IdGenerator generator, @NotNull Iterable<T> items) {
-        return new ProviderHasOid<>(generator, ProviderInMemory.of(items));
+        return new ProviderHasOid<>(generator, ProviderIndexed.ofOid(ProviderInMemory.of(items)));
     }
 
     public static <T extends HasOid> Provider<T> of(@NotNull IdGenerator generator, @NotNull EmbeddedStorageManager storageManager, @NotNull List<T> items) {
-        return new ProviderHasOid<>(generator, ProviderPersistence.of(storageManager, items));
+        return new ProviderHasOid<>(generator, ProviderIndexed.ofOid(ProviderPersistence.of(storageManager, items)));
     }
 
     /**
@@ -68,7 +68,7 @@ public class ProviderHasOid<T extends HasOid> extends Provider<T> {
     @Override
     public void update(@NotNull T entity) {
         if (entity.oid() == HasOid.UNDEFINED_OID) {
-            ReflectionUtilities.set(entity, "oid", generator.id());
+            OidSetter.set(entity, generator.id());
         }
         if (canBeAdded(entity)) {
             provider.update(entity);
@@ -77,6 +77,16 @@ public class ProviderHasOid<T extends HasOid> extends Provider<T> {
         }
     }
 
+    @Override
+    public <U> Optional<T> findBy(@NotNull String name, @NotNull Function<T, U> getter, U value) {
+        return provider.findBy(name, getter, value);
+    }
+
+    @Override
+    public void batch(@NotNull Runnable operations) {
+        provider.batch(operations);
+    }
+
     @Override
     public void delete(@NotNull T entity) {
         provider.delete(entity);
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+package net.tangly.core.providers;
+
+import net.tangly.core.HasId;
+import net.tangly.core.HasOid;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * The class is a decorator for a provider maintaining hash indexes on properties of the items. Each index is identified through a name and defined through a property
+ * extractor. The indexes are kept consistent through the update, delete, and delete all operations of the provider.
+ * <p>Lookups through {@link Provider#findByOid}, {@link Provider#findById} and {@link Provider#findBy(String, Function, Object)}
+ * are constant time operations if the corresponding index is declared. Otherwise, the lookup falls back to the linear search of the decorated provider.</p>
+ * <p>Items are mutable. An index key is recomputed each time an item is updated through the provider. Changing a property of an item without updating it through
+ * the provider leaves a stale key in the index.</p>
+ * <p>The indexes reference the instances managed by the decorated provider. Decorated providers define membership through equality; an operation with an
+ * instance equal to a managed one updates or removes the index entries of the managed instance.</p>
+ *
+ * @param <T> type of the items handled in the provider
+ */
+public class ProviderIndexed<T> extends Provider<T> {
+    /**
+     * Hash index of items based on the value of a property. Multiple items can share the same key. The reverse mapping from item to key is stored to remove stale
+     * keys when an item is updated or deleted.
+     *
+     * @param <T> type of the indexed items
+     */
+    private static final class Index<T> {
+        private final Function<? super T, ?> extractor;
+        private final Map<Object, List<T>> entries;
+        private final Map<T, Object> keys;
+
+        Index(@NotNull Function<? super T, ?> extractor) {
+            this.extractor = extractor;
+            this.entries = new HashMap<>();
+            this.keys = new IdentityHashMap<>();
+        }
+
+        void add(@NotNull T entity) {
+            Object key = extractor.apply(entity);
+            if (keys.containsKey(entity)) {
+                Object oldKey = keys.get(entity);
+                if (Objects.equals(oldKey, key)) {
+                    return;
+                }
+                removeEntry(oldKey, entity);
+            }
+            keys.put(entity, key);
+            if (Objects.nonNull(key)) {
+                entries.computeIfAbsent(key, _ -> new ArrayList<>(1)).add(entity);
+            }
+        }
+
+        boolean contains(@NotNull T entity) {
+            return keys.containsKey(entity);
+        }
+
+        void remove(@NotNull T entity) {
+            if (keys.containsKey(entity)) {
+                removeEntry(keys.remove(entity), entity);
+            }
+        }
+
+        Optional<T> find(Object key) {
+            List<T> items = entries.get(key);
+            return (Objects.isNull(items) || items.isEmpty()) ? Optional.empty() : Optional.of(items.getFirst());
+        }
+
+        void clear() {
+            entries.clear();
+            keys.clear();
+        }
+
+        private void removeEntry(Object key, @NotNull T entity) {
+            if (Objects.nonNull(key)) {
+                List<T> items = entries.get(key);
+                if (Objects.nonNull(items)) {
+                    items.removeIf(o -> o == entity);
+                    if (items.isEmpty()) {
+                        entries.remove(key);
+                    }
+                }
+            }
+        }
+    }
+
+    private final Provider<T> provider;
+    private final Map<String, Index<T>> indexes;
+
+    public ProviderIndexed(@NotNull Provider<T> provider) {
+        this.provider = provider;
+        this.indexes = new HashMap<>();
+    }
+
+    public static <T> ProviderIndexed<T> of(@NotNull Provider<T> provider) {
+        return new ProviderIndexed<>(provider);
+    }
+
+    /**
+     * Returns a provider with an index on the object identifier of the items.
+     *
+     * @param provider decorated provider
+     * @param <T>      type of the items handled in the provider
+     * @return indexed provider
+     */
+    public static <T extends HasOid> ProviderIndexed<T> ofOid(@NotNull Provider<T> provider) {
+        return ProviderIndexed.of(provider).index(HasOid.OID, HasOid::oid);
+    }
+
+    /**
+     * Returns a provider with an index on the external identifier of the items.
+     *
+     * @param provider decorated provider
+     * @param <T>      type of the items handled in the provider
+     * @return indexed provider
+     */
+    public static <T extends HasId> ProviderIndexed<T> ofId(@NotNull Provider<T> provider) {
+        return ProviderIndexed.of(provider).index(HasId.ID, HasId::id);
+    }
+
+    /**
+     * Declares a new index. All items already stored in the decorated provider are indexed.
+     *
+     * @param name      name of the index. The names {@link HasOid#OID} and {@link HasId#ID} are used for lookups through object identifier and identifier
+     * @param extractor extractor of the property used as key of the index
+     * @return the provider for chaining
+     */
+    public ProviderIndexed<T> index(@NotNull String name, @NotNull Function<? super T, ?> extractor) {
+        execute(() -> {
+            Index<T> index = new Index<>(extractor);
+            provider.items().forEach(index::add);
+            indexes.put(name, index);
+        });
+        return this;
+    }
+
+    /**
+     * Returns true if an index with the given name is declared.
+     *
+     * @param name name of the index
+     * @return flag indicating if the index exists
+     */
+    public boolean hasIndex(@NotNull String name) {
+        return indexes.containsKey(name);
+    }
+
+    @Override
+    public List<T> items() {
+        return provider.items();
+    }
+
+    @Override
+    public void update(@NotNull T entity) {
+        execute(() -> {
+            provider.update(entity);
+            T managed = managed(entity);
+            indexes.values().forEach(index -> index.add(managed));
+        });
+    }
+
+    @Override
+    public void updateAll(@NotNull Iterable<? extends T> items) {
+        execute(() -> {
+            provider.updateAll(items);
+            items.forEach(entity -> {
+                T managed = managed(entity);
+                indexes.values().forEach(index -> index.add(managed));
+            });
+        });
+    }
+
+    @Override
+    public void batch(@NotNull Runnable operations) {
+        execute(() -> provider.batch(operations));
+    }
+
+    @Override
+    public void delete(@NotNull T entity) {
+        execute(() -> {
+            T managed = managed(entity);
+            provider.delete(entity);
+            indexes.values().forEach(index -> index.remove(managed));
+        });
+    }
+
+    @Override
+    public void deleteAll() {
+        execute(() -> {
+            provider.deleteAll();
+            indexes.values().forEach(Index::clear);
+        });
+    }
+
+    /**
+     * Returns the instance managed by the decorated provider which is equal to the entity. An indexed instance is found in constant time, any other instance
+     * through a linear search.
+     *
+     * @param entity entity to look up
+     * @return the managed instance or the entity if no equal instance is managed
+     */
+    private T managed(@NotNull T entity) {
+        if (indexes.isEmpty() || indexes.values().iterator().next().contains(entity)) {
+            return entity;
+        }
+        return provider.items().stream().filter(entity::equals).findFirst().orElse(entity);
+    }
+
+    @Override
+    public <U> Optional<T> findBy(@NotNull String name, @NotNull Function<T, U> getter, U value) {
+        Index<T> index = indexes.get(name);
+        if (Objects.isNull(index)) {
+            return provider.findBy(name, getter, value);
+        }
+        mutex().readLock().lock();
+        try {
+            return index.find(value);
+        } finally {
+            mutex().readLock().unlock();
+        }
+    }
+}
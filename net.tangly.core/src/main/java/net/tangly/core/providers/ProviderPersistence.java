@@ -23,12 +23,19 @@ import org.eclipse.store.storage.embedded.types.EmbeddedStorageManager;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Provider where all instances are cached in memory and persisted onto the file system or a database.
  * <p>The update method uses an eager storage strategy to insure that all instance variables of a Java object are persisted. This approach is necessary due
  * to the implementation restrictions of MicroStream. The current regular store operation does not persist fields based on collections.</p>
+ * <p>The provider tracks the dirty entities and the structural changes of the list of items. The changes are committed as one delta at the end of each
+ * operation or at the end of the outermost batch, see {@link #batch(Runnable)}. Membership of an entity is defined through equality as in
+ * {@link ProviderInMemory}; updating an entity equal to a managed one marks the managed instance as dirty and does not add a duplicate. Managed instances
+ * and dirtiness are tracked through object identity because the hash code of an entity may change when the entity is edited. The equality scan over the
+ * items is only performed for instances which are not managed.</p>
  *
  * @param <T> type of the instances handled in the provider
  */
@@ -36,6 +43,10 @@ public class ProviderPersistence<T> extends Provider<T> {
     private final EmbeddedStorageManager storageManager;
     private final List<T> items;
     private final transient LockedExecutor executor = LockedExecutor.New();
+    private final Set<T> members;
+    private final Set<T> dirty;
+    private boolean structureChanged;
+    private int batchDepth;
 
     public ProviderPersistence(@NotNull EmbeddedStorageManager storageManager, @NotNull List<T> items) {
         final EmbeddedStorageFoundation<?> foundation = EmbeddedStorage.Foundation();
@@ -43,6 +54,9 @@ public class ProviderPersistence<T> extends Provider<T> {
         foundation.onConnectionFoundation(BinaryHandlersJDK17::registerJDK17TypeHandlers);
         this.storageManager = storageManager;
         this.items = items;
+        this.members = Collections.newSetFromMap(new IdentityHashMap<>());
+        members.addAll(items);
+        this.dirty = Collections.newSetFromMap(new IdentityHashMap<>());
     }
 
     public static <T> ProviderPersistence<T> of(@NotNull EmbeddedStorageManager storageManager, @NotNull List<T> items) {
@@ -62,46 +76,112 @@ public class ProviderPersistence<T> extends Provider<T> {
     @Override
     public void update(@NotNull T entity) {
         execute(() -> {
-            if (!items.contains(entity)) {
-                items.add(entity);
-                storageManager.store(entity);
-            } else {
-                Storer storer = storageManager.createEagerStorer();
-                storer.store(entity);
-                storer.commit();
-            }
-            storageManager.store(items);
+            markDirty(entity);
+            commitIfNoBatch();
         });
     }
 
     @Override
     public void updateAll(@NotNull Iterable<? extends T> entities) {
         execute(() -> {
-            Storer storer = storageManager.createEagerStorer();
-            entities.forEach(entity -> {
-                if (!items.contains(entity)) {
-                    items.add(entity);
-                } else {
-                    storer.store(entity);
-                }
-            });
-            storageManager.store(entities);
-            storageManager.store(items);
-            storer.commit();
+            entities.forEach(this::markDirty);
+            commitIfNoBatch();
         });
     }
 
     @Override
     public void delete(@NotNull T entity) {
         execute(() -> {
-            items.remove(entity);
-            storageManager.store(items);
+            int index = indexOf(entity);
+            if (index >= 0) {
+                T managed = items.remove(index);
+                members.remove(managed);
+                dirty.remove(managed);
+                structureChanged = true;
+            }
+            commitIfNoBatch();
         });
     }
 
     @Override
     public void deleteAll() {
-        items.clear();
-        storageManager.store(items);
+        execute(() -> {
+            items.clear();
+            members.clear();
+            dirty.clear();
+            structureChanged = true;
+            commitIfNoBatch();
+        });
+    }
+
+    /**
+     * Executes the operations as one batch. The dirty entities and the structural changes of the list of items are committed once at the end of the outermost
+     * batch. Nested batches are merged into the enclosing one. The changes are committed even if an operation throws an exception.
+     *
+     * @param operations operations to perform on the provider
+     */
+    @Override
+    public void batch(@NotNull Runnable operations) {
+        execute(() -> {
+            ++batchDepth;
+            try {
+                operations.run();
+            } finally {
+                if (--batchDepth == 0) {
+                    commit();
+                }
+            }
+        });
+    }
+
+    private void markDirty(@NotNull T entity) {
+        T managed = entity;
+        if (!members.contains(entity)) {
+            int index = items.indexOf(entity);
+            if (index >= 0) {
+                managed = items.get(index);
+            } else {
+                items.add(entity);
+                members.add(entity);
+                structureChanged = true;
+            }
+        }
+        dirty.add(managed);
+    }
+
+    /**
+     * Returns the position of the managed instance of the entity. A managed instance is found by identity, any other instance by equality.
+     *
+     * @param entity entity to look up
+     * @return position of the managed instance or -1 if no managed instance is equal to the entity
+     */
+    private int indexOf(@NotNull T entity) {
+        if (members.contains(entity)) {
+            for (int i = 0; i < items.size(); ++i) {
+                if (items.get(i) == entity) {
+                    return i;
+                }
+            }
+        }
+        return items.indexOf(entity);
+    }
+
+    private void commitIfNoBatch() {
+        if (batchDepth == 0) {
+            commit();
+        }
+    }
+
+    private void commit() {
+        if (!dirty.isEmpty()) {
+            Storer storer = storageManager.createEagerStorer();
+            dirty.forEach(storer::store);
+            storer.commit();
+            dirty.clear();
+        }
+        if (structureChanged) {
+            storageManager.store(items);
+            structureChanged = false;
+        }
     }
 }
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+
+package net.tangly.core.providers;
+
+import net.tangly.core.HasMutableTags;
+import net.tangly.core.HasOid;
+import net.tangly.core.HasTags;
+import net.tangly.core.TagIndex;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * The class is a decorator for a provider maintaining the tag index of the realm. Items updated through the provider are indexed, and deleted items are removed
+ * from the index. Items with mutable tags are bound to the index and propagate their tag changes without being updated through the provider.
+ * <p>Multiple providers of a realm share the same tag index. The object identifiers of the items must be unique in the realm.</p>
+ *
+ * @param <T> type of the items handled in the provider
+ * @see TagIndex
+ */
+public class ProviderTagIndexed<T extends HasOid & HasTags> extends Provider<T> {
+    private final Provider<T> provider;
+    private final TagIndex index;
+
+    public ProviderTagIndexed(@NotNull Provider<T> provider, @NotNull TagIndex index) {
+        this.provider = provider;
+        this.index = index;
+        provider.items().forEach(this::add);
+    }
+
+    public static <T extends HasOid & HasTags> ProviderTagIndexed<T> of(@NotNull Provider<T> provider, @NotNull TagIndex index) {
+        return new ProviderTagIndexed<>(provider, index);
+    }
+
+    public TagIndex index() {
+        return index;
+    }
+
+    @Override
+    public List<T> items() {
+        return provider.items();
+    }
+
+    @Override
+    public void update(@NotNull T entity) {
+        execute(() -> {
+            provider.update(entity);
+            add(entity);
+        });
+    }
+
+    @Override
+    public void updateAll(@NotNull Iterable<? extends T> items) {
+        execute(() -> {
+            provider.updateAll(items);
+            items.forEach(this::add);
+        });
+    }
+
+    @Override
+    public void batch(@NotNull Runnable operations) {
+        execute(() -> provider.batch(operations));
+    }
+
+    @Override
+    public void delete(@NotNull T entity) {
+        execute(() -> {
+            long oid = entity.oid();
+            provider.delete(entity);
+            remove(oid, entity);
+        });
+    }
+
+    @Override
+    public void deleteAll() {
+        execute(() -> {
+            provider.items().forEach(o -> remove(o.oid(), o));
+            provider.deleteAll();
+        });
+    }
+
+    @Override
+    public <U> Optional<T> findBy(@NotNull String name, @NotNull Function<T, U> getter, U value) {
+        return provider.findBy(name, getter, value);
+    }
+
+    private void add(@NotNull T entity) {
+        index.index(entity);
+        if (entity instanceof HasMutableTags tagged) {
+            tagged.bind(index);
+        }
+    }
+
+    private void remove(long oid, @NotNull T entity) {
+        if (entity instanceof HasMutableTags tagged) {
+            tagged.bind(null);
+        }
+        index.remove(oid);
+    }
+}
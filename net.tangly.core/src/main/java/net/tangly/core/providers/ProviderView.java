@@ -16,6 +16,8 @@ package net.tangly.core.providers;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
 import java.util.function.Predicate;
 
 /**
@@ -49,11 +51,21 @@ public class ProviderView<T> extends Provider<T> {
         return provider.items().stream().filter(predicate).toList();
     }
 
+    @Override
+    public <U> Optional<T> findBy(@NotNull String name, @NotNull Function<T, U> getter, U value) {
+        return provider.findBy(name, getter, value).filter(predicate);
+    }
+
     @Override
     public void update(@NotNull T entity) {
         provider.update(entity);
     }
 
+    @Override
+    public void batch(@NotNull Runnable operations) {
+        provider.batch(operations);
+    }
+
     @Override
     public void delete(@NotNull T entity) {
         provider.delete(entity);
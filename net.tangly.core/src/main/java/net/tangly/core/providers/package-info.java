@@ -20,6 +20,8 @@
  *     <dt>Provider Persistence</dt><dd>provides an implementation where the items are persisted.</dd>
  *     <dt>Provider Has Oid</dt><dd>provides a decorator for provider holding items with unique object identifiers. Such objects must implements the HasOid
  *     interface.</dd>
+ *     <dt>Provider Indexed</dt><dd>provides a decorator maintaining hash indexes on properties of the items. Lookups through an index are constant time
+ *     operations.</dd>
  * </dl>
  * <p>How can you provide basis operation for ACID transactions.</p>
  */
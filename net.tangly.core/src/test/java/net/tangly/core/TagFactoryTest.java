@@ -0,0 +1,82 @@
+/*
+ * Copyright 2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+
+package net.tangly.core;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TagFactoryTest {
+    @Test
+    void testParse() {
+        var factory = TagFactory.of();
+        assertThat(factory.parse("crm:country=CH")).isEqualTo(new Tag("crm", "country", "CH"));
+        assertThat(factory.parse("country=CH")).isEqualTo(new Tag(null, "country", "CH"));
+        assertThat(factory.parse("crm:customer")).isEqualTo(new Tag("crm", "customer", null));
+        assertThat(factory.parse("customer")).isEqualTo(new Tag(null, "customer", null));
+        assertThat(factory.parse("crm:url=https://tangly.net")).isEqualTo(new Tag("crm", "url", "https://tangly.net"));
+        assertThat(factory.parse("crm:empty=")).isEqualTo(new Tag("crm", "empty", ""));
+    }
+
+    @Test
+    void testInterning() {
+        var factory = TagFactory.of();
+        Tag tag = factory.parse("crm:country=CH");
+        assertThat(factory.parse(new String("crm:country=CH"))).isSameAs(tag);
+        assertThat(factory.of("crm", "country", "CH")).isSameAs(tag);
+        assertThat(factory.intern(new Tag("crm", "country", "CH"))).isSameAs(tag);
+        assertThat(factory.text(tag)).isEqualTo("crm:country=CH").isSameAs(factory.text(new Tag("crm", "country", "CH")));
+        assertThat(factory.size()).isEqualTo(1);
+        assertThat(factory.text(new Tag("", "label", null))).isEqualTo("label");
+    }
+
+    @Test
+    void testCapacity() {
+        var factory = new TagFactory(1);
+        Tag first = factory.of(null, "first", null);
+        Tag second = factory.of(null, "second", null);
+        assertThat(factory.size()).isEqualTo(1);
+        assertThat(factory.of(null, "first", null)).isSameAs(first);
+        assertThat(factory.of(null, "second", null)).isEqualTo(second).isNotSameAs(second);
+        assertThat(factory.text(second)).isEqualTo("second");
+    }
+
+    @Test
+    void testBlankNamespaceIsNotCachedAsText() {
+        var factory = TagFactory.of();
+        Tag blank = factory.of("", "label", null);
+        assertThat(factory.text(blank)).isEqualTo("label");
+        assertThat(factory.parse("label")).isEqualTo(new Tag(null, "label", null)).isNotEqualTo(blank);
+        assertThat(factory.of(null, "label", null)).isSameAs(factory.parse("label"));
+    }
+
+    @Test
+    void testAdaptCapacity() {
+        var factory = new TagFactory(1);
+        factory.of(null, "first", null);
+        factory.capacity(2);
+        Tag second = factory.of(null, "second", null);
+        assertThat(factory.capacity()).isEqualTo(2);
+        assertThat(factory.size()).isEqualTo(2);
+        assertThat(factory.parse("second")).isSameAs(second);
+    }
+
+    @Test
+    void testToTags() {
+        assertThat(Tag.toTags("crm:country=CH;;customer")).containsExactlyInAnyOrder(Tag.of("crm", "country", "CH"), Tag.ofEmpty("customer"));
+        assertThat(Tag.text(Tag.toTags("crm:customer"))).isEqualTo("crm:customer");
+        assertThat(Tag.toTags(null)).isEmpty();
+    }
+}
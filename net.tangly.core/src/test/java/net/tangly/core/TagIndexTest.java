@@ -0,0 +1,87 @@
+/*
+ * Copyright 2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+
+package net.tangly.core;
+
+import net.tangly.core.providers.ProviderInMemory;
+import net.tangly.core.providers.ProviderTagIndexed;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TagIndexTest {
+    private static final String NAMESPACE = "crm";
+
+    @Test
+    void testQueries() {
+        var index = TagIndex.of();
+        index.index(1, List.of(Tag.of(NAMESPACE, "country", "CH"), Tag.ofEmpty(NAMESPACE, "customer")));
+        index.index(2, List.of(Tag.of(NAMESPACE, "country", "DE"), Tag.ofEmpty(NAMESPACE, "customer")));
+        index.index(3, List.of(Tag.of(NAMESPACE, "country", "CH")));
+
+        assertThat(index.oids(NAMESPACE, "country")).containsExactly(1, 2, 3);
+        assertThat(index.oids(Tag.of(NAMESPACE, "country", "CH"))).containsExactly(1, 3);
+        assertThat(index.oids(List.of(Tag.of(NAMESPACE, "country", "CH"), Tag.ofEmpty(NAMESPACE, "customer")))).containsExactly(1);
+        assertThat(index.oids(List.of(Tag.ofEmpty(NAMESPACE, "undefined")))).isEmpty();
+        assertThat(index.count(NAMESPACE, "customer")).isEqualTo(2);
+        assertThat(index.contains(3, NAMESPACE, "customer")).isFalse();
+        assertThat(index.values(NAMESPACE, "country")).containsExactlyInAnyOrderEntriesOf(Map.of("CH", 2, "DE", 1));
+        assertThat(index.names(NAMESPACE)).containsExactlyInAnyOrderEntriesOf(Map.of("country", 3, "customer", 2));
+        assertThat(index.namespaces()).containsExactlyInAnyOrderEntriesOf(Map.of(NAMESPACE, 3));
+
+        index.remove(1, Tag.of(NAMESPACE, "country", "CH"));
+        assertThat(index.oids(NAMESPACE, "country")).containsExactly(2, 3);
+        index.remove(3);
+        assertThat(index.count(Tag.of(NAMESPACE, "country", "CH"))).isZero();
+        index.index(4, List.of(Tag.ofEmpty(NAMESPACE, "customer")));
+        assertThat(index.oids(NAMESPACE, "customer")).containsExactly(1, 2, 4);
+    }
+
+    @Test
+    void testBoundEntities() {
+        var index = TagIndex.of();
+        var entity = EntityTest.NamedEntity.of(1);
+        entity.add(Tag.of(NAMESPACE, "country", "CH"));
+        var provider = ProviderTagIndexed.of(ProviderInMemory.<EntityTest.NamedEntity>of(), index);
+        provider.update(entity);
+        assertThat(index.oids(Tag.of(NAMESPACE, "country", "CH"))).containsExactly(1);
+
+        entity.update(Tag.of(NAMESPACE, "country", "DE"));
+        assertThat(index.count(Tag.of(NAMESPACE, "country", "CH"))).isZero();
+        assertThat(index.oids(Tag.of(NAMESPACE, "country", "DE"))).containsExactly(1);
+        assertThat(index.filter(provider.items(), List.of(Tag.ofEmpty(NAMESPACE, "country")))).containsExactly(entity);
+
+        provider.delete(entity);
+        assertThat(index.counts()).isEmpty();
+        entity.add(Tag.ofEmpty(NAMESPACE, "customer"));
+        assertThat(index.counts()).isEmpty();
+    }
+
+    @Test
+    void testCountTags() {
+        var registry = new TypeRegistry();
+        TagType<String> country = TagType.ofString(NAMESPACE, "country", TagType.ValueKinds.MANDATORY);
+        registry.register(country);
+        var index = TagIndex.of();
+        index.index(1, List.of(Tag.of(NAMESPACE, "country", "CH"), Tag.ofEmpty(NAMESPACE, "unregistered")));
+        index.index(2, List.of(Tag.of(NAMESPACE, "country", "DE")));
+        Map<TagType<?>, Integer> counts = index.countTags(registry, new HashMap<>());
+        assertThat(counts).containsExactlyEntriesOf(Map.of(country, 2));
+        assertThat(registry.find(NAMESPACE, "country")).contains(country);
+    }
+}
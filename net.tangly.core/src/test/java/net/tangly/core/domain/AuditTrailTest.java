@@ -0,0 +1,92 @@
+/*
+ * Copyright 2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+
+package net.tangly.core.domain;
+
+import net.tangly.commons.logger.EventData;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditTrailTest {
+    private static final String DOMAIN = "audit";
+    private static final int SIZE = 1000;
+
+    @Test
+    void testBoundedTail() {
+        try (var trail = new AuditTrail(DOMAIN, null, 64, 16, 1, AuditTrail.DEFAULT_FILE_SIZE)) {
+            IntStream.range(0, SIZE).forEach(o -> trail.log(event(EventData.Status.SUCCESS, o)));
+            List<EventData> tail = trail.tail();
+            assertThat(tail).hasSize(16);
+            assertThat(tail.getLast().data()).containsEntry("row", SIZE - 1);
+            assertThat(trail.dropped()).isZero();
+        }
+    }
+
+    @Test
+    void testSamplingOfInfoImportEvents() {
+        try (var trail = new AuditTrail(DOMAIN, null, AuditTrail.DEFAULT_CAPACITY, SIZE, 10, AuditTrail.DEFAULT_FILE_SIZE)) {
+            IntStream.range(0, SIZE).forEach(o -> trail.log(event(EventData.Status.INFO, o)));
+            trail.log(event(EventData.Status.ERROR, SIZE));
+            assertThat(trail.tail()).hasSize(SIZE / 10 + 1);
+            assertThat(trail.sampled()).isEqualTo(SIZE - SIZE / 10);
+        }
+    }
+
+    @Test
+    void testAuditFile(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("audit.jsonl");
+        try (var trail = new AuditTrail(DOMAIN, file, AuditTrail.DEFAULT_CAPACITY, 16, 1, AuditTrail.DEFAULT_FILE_SIZE)) {
+            IntStream.range(0, SIZE).forEach(o -> trail.log(event(EventData.Status.INFO, o)));
+            trail.flush();
+        }
+        List<String> lines = Files.readAllLines(file);
+        assertThat(lines).hasSize(SIZE);
+        var json = new JSONObject(lines.getLast());
+        assertThat(json.getString("domain")).isEqualTo(DOMAIN);
+        assertThat(json.getString("status")).isEqualTo(EventData.Status.INFO.name());
+        assertThat(json.getJSONObject("data").getString("row")).isEqualTo(Integer.toString(SIZE - 1));
+    }
+
+    @Test
+    void testRollingAuditFile(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("audit.jsonl");
+        try (var trail = new AuditTrail(DOMAIN, file, AuditTrail.DEFAULT_CAPACITY, 16, 1, 1024)) {
+            IntStream.range(0, SIZE).forEach(o -> trail.log(event(EventData.Status.SUCCESS, o)));
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> rolled = files.toList();
+            assertThat(rolled).hasSizeGreaterThan(1);
+            long lines = 0;
+            for (Path o : rolled) {
+                lines += Files.readAllLines(o).size();
+            }
+            assertThat(lines).isEqualTo(SIZE);
+        }
+    }
+
+    private static EventData event(EventData.Status status, int row) {
+        return EventData.of(EventData.IMPORT_EVENT, DOMAIN, status, "imported", Map.of("row", row), null);
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+package net.tangly.core.domain;
+
+import net.tangly.commons.logger.EventData;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImportPipelineTest {
+    private static final int SIZE = 32;
+
+    @Test
+    void testMergeOrderIsDeterministic() {
+        var realm = new TestDomain.TestRealm();
+        var domain = new TestDomain.TestBoundedDomain(realm, new TestDomain.TestPort(realm));
+        List<Path> files = new ArrayList<>(IntStream.range(0, SIZE).mapToObj(o -> Path.of("%04d-efforts.yaml".formatted(o))).toList());
+        Collections.shuffle(files);
+        List<String> merged = new ArrayList<>();
+
+        ImportPipeline.of().stage(_ -> () -> merged.add("natural entities"), _ -> () -> merged.add("legal entities"))
+            .stage(_ -> () -> merged.add("employees"))
+            .stage(files, (audit, file) -> {
+                audit.log(EventData.IMPORT_EVENT, EventData.Status.INFO, "parsed", Map.of("filename", file));
+                return file.toString();
+            }, merged::add)
+            .run(domain);
+
+        assertThat(merged).hasSize(SIZE + 3);
+        assertThat(merged.subList(0, 3)).containsExactly("natural entities", "legal entities", "employees");
+        assertThat(merged.subList(3, merged.size())).isSorted();
+        assertThat(domain.auditEvents()).hasSize(SIZE);
+        assertThat(domain.auditEvents().stream().map(o -> o.data().get("filename").toString()).toList()).isSorted();
+    }
+
+    @Test
+    void testEventsLoggedDuringMergeReachDomainAudit() {
+        var realm = new TestDomain.TestRealm();
+        var domain = new TestDomain.TestBoundedDomain(realm, new TestDomain.TestPort(realm));
+
+        ImportPipeline.of().stage(audit -> {
+            audit.log(EventData.IMPORT_EVENT, EventData.Status.INFO, "parsed", Map.of());
+            return () -> audit.log(EventData.IMPORT_EVENT, EventData.Status.WARNING, "merged", Map.of());
+        }).run(domain);
+
+        assertThat(domain.auditEvents().stream().map(EventData::text).toList()).containsExactly("parsed", "merged");
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+
+package net.tangly.core.domain;
+
+import net.tangly.commons.generator.LongIdGenerator;
+import net.tangly.commons.logger.EventData;
+import net.tangly.core.HasOid;
+import net.tangly.core.providers.Provider;
+import net.tangly.core.providers.ProviderHasOid;
+import net.tangly.gleam.model.TsvEntity;
+import net.tangly.gleam.model.TsvProperty;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TsvHdlTest {
+    record Row(long oid, String name) implements HasOid {
+    }
+
+    private static TsvEntity<Row> createTsvRow() {
+        List<TsvProperty<Row, ?>> fields = List.of(TsvProperty.ofLong(HasOid.OID, Row::oid), TsvProperty.ofString(TsvHdl.NAME, Row::name));
+        return TsvEntity.of(Row.class, fields, csv -> new Row(Long.parseLong(TsvEntity.get(csv, HasOid.OID)), TsvEntity.get(csv, TsvHdl.NAME)));
+    }
+
+    @Test
+    void testBulkImportContinuesAfterDuplicateOid(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("rows.tsv");
+        Files.writeString(file, "oid\tname\n1\tfirst\n2\tsecond\n1\tduplicate\n3\tthird\n");
+        var realm = new TestDomain.TestRealm();
+        var domain = new TestDomain.TestBoundedDomain(realm, new TestDomain.TestPort(realm));
+        Provider<Row> provider = ProviderHasOid.of(new LongIdGenerator(100));
+
+        TsvHdl.importEntities(domain, file, createTsvRow(), provider);
+
+        assertThat(provider.items()).extracting(Row::name).containsExactly("first", "second", "third");
+        assertThat(domain.auditEvents()).anyMatch(o -> o.status() == EventData.Status.ERROR);
+    }
+
+    @Test
+    void testImportWithoutBulkContinuesAfterDuplicateOid(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("rows.tsv");
+        Files.writeString(file, "oid\tname\n1\tfirst\n1\tduplicate\n2\tsecond\n");
+        var realm = new TestDomain.TestRealm();
+        var domain = new TestDomain.TestBoundedDomain(realm, new TestDomain.TestPort(realm));
+        Provider<Row> provider = ProviderHasOid.of(new LongIdGenerator(100));
+
+        TsvHdl.importEntities(domain, file, createTsvRow(), provider, false);
+
+        assertThat(provider.items()).extracting(Row::name).containsExactly("first", "second");
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+
+package net.tangly.core.events;
+
+import net.tangly.core.domain.Operation;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class EventBusTest {
+    private static final EventBus.Topic<Integer> NUMBERS = EventBus.Topic.of("numbers", Integer.class);
+    private static final EventBus.Topic<EntityChangedInternalEvent> CHANGES = EventBus.Topic.of("changes", EntityChangedInternalEvent.class);
+    private static final int SIZE = 1000;
+
+    private record Keyed(int key, int sequence) {
+    }
+
+    @Test
+    void testBatchedDelivery() {
+        List<Integer> received = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger batches = new AtomicInteger();
+        EventBus.Subscription subscription;
+        try (var bus = EventBus.of()) {
+            subscription = bus.subscribe(NUMBERS, events -> {
+                assertThat(events.size()).isLessThanOrEqualTo(16);
+                batches.incrementAndGet();
+                received.addAll(events);
+            }, EventBus.Options.<Integer>of().batchSize(16));
+            bus.publishAll(NUMBERS, IntStream.range(0, SIZE).boxed().toList());
+        }
+        assertThat(received).containsExactlyElementsOf(IntStream.range(0, SIZE).boxed().toList());
+        assertThat(batches.get()).isGreaterThanOrEqualTo(SIZE / 16);
+        assertThat(subscription.delivered()).isEqualTo(SIZE);
+    }
+
+    @Test
+    void testOverflowPolicies() throws InterruptedException {
+        try (var bus = EventBus.of()) {
+            var started = new CountDownLatch(2);
+            var release = new CountDownLatch(1);
+            List<Integer> oldest = Collections.synchronizedList(new ArrayList<>());
+            List<Integer> newest = Collections.synchronizedList(new ArrayList<>());
+            EventBus.Subscriber<Integer> blocked = events -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            };
+            var dropOldest = bus.subscribe(NUMBERS, events -> {
+                blocked.onEvents(events);
+                oldest.addAll(events);
+            }, EventBus.Options.<Integer>of().capacity(4, EventBus.OverflowPolicy.DROP_OLDEST).batchSize(1));
+            var dropNewest = bus.subscribe(NUMBERS, events -> {
+                blocked.onEvents(events);
+                newest.addAll(events);
+            }, EventBus.Options.<Integer>of().capacity(4, EventBus.OverflowPolicy.DROP_NEWEST).batchSize(1));
+            bus.publish(NUMBERS, 0);
+            started.await();
+            IntStream.range(1, 11).forEach(o -> bus.publish(NUMBERS, o));
+            release.countDown();
+            await().atMost(Duration.ofSeconds(1)).until(() -> oldest.size() == 5 && newest.size() == 5);
+            assertThat(oldest).containsExactly(0, 7, 8, 9, 10);
+            assertThat(newest).containsExactly(0, 1, 2, 3, 4);
+            assertThat(dropOldest.dropped()).isEqualTo(6);
+            assertThat(dropNewest.dropped()).isEqualTo(6);
+        }
+    }
+
+    @Test
+    void testBlockingPolicyLosesNoEvents() {
+        AtomicInteger received = new AtomicInteger();
+        try (var bus = EventBus.of()) {
+            bus.subscribe(NUMBERS, events -> received.addAndGet(events.size()), EventBus.Options.<Integer>of().capacity(8, EventBus.OverflowPolicy.BLOCK));
+            IntStream.range(0, SIZE).forEach(o -> bus.publish(NUMBERS, o));
+        }
+        assertThat(received.get()).isEqualTo(SIZE);
+    }
+
+    @Test
+    void testOrderingPerKey() {
+        EventBus.Topic<Keyed> topic = EventBus.Topic.of("keyed", Keyed.class);
+        Map<Integer, List<Integer>> received = new ConcurrentHashMap<>();
+        try (var bus = EventBus.of()) {
+            bus.subscribe(topic, events -> events.forEach(o -> received.computeIfAbsent(o.key(), _ -> Collections.synchronizedList(new ArrayList<>())).add(o.sequence())),
+                EventBus.Options.<Keyed>of().batchSize(8).ordered(4, Keyed::key));
+            IntStream.range(0, SIZE).forEach(o -> bus.publish(topic, new Keyed(o % 10, o / 10)));
+        }
+        assertThat(received).hasSize(10);
+        received.values().forEach(o -> assertThat(o).containsExactlyElementsOf(IntStream.range(0, SIZE / 10).boxed().toList()));
+    }
+
+    @Test
+    void testCoalescingOfPendingEvents() throws InterruptedException {
+        List<EntityChangedInternalEvent> received = Collections.synchronizedList(new ArrayList<>());
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var first = new EntityChangedInternalEvent("domain", "Entity", Operation.ALL);
+        var second = new EntityChangedInternalEvent("domain", "Other", Operation.ALL);
+        EventBus.Subscription subscription;
+        try (var bus = EventBus.of()) {
+            subscription = bus.subscribe(CHANGES, events -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                received.addAll(events);
+            }, EventBus.Options.<EntityChangedInternalEvent>of().coalesced(o -> o));
+            bus.publish(CHANGES, first);
+            started.await();
+            IntStream.range(0, 100).forEach(_ -> {
+                bus.publish(CHANGES, first);
+                bus.publish(CHANGES, second);
+            });
+            release.countDown();
+        }
+        assertThat(received).containsExactly(first, first, second);
+        assertThat(subscription.coalesced()).isEqualTo(198);
+    }
+
+    @Test
+    void testCancelledSubscriptionReceivesNoEvents() {
+        AtomicInteger received = new AtomicInteger();
+        try (var bus = EventBus.of()) {
+            var subscription = bus.subscribe(NUMBERS, events -> received.addAndGet(events.size()));
+            assertThat(bus.subscriptions(NUMBERS)).isEqualTo(1);
+            subscription.cancel();
+            assertThat(subscription.isCancelled()).isTrue();
+            assertThat(bus.subscriptions(NUMBERS)).isZero();
+            bus.publish(NUMBERS, 1);
+        }
+        assertThat(received.get()).isZero();
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+package net.tangly.core.providers;
+
+import net.tangly.commons.generator.LongIdGenerator;
+import net.tangly.core.HasOid;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProviderIndexedTest implements ProviderTest {
+    private static final String NAME = "name";
+
+    @Test
+    void testFindByOid() {
+        var provider = ProviderIndexed.ofOid(ProviderInMemory.of(ProviderTest.simpleEntities()));
+        assertThat(provider.hasIndex(HasOid.OID)).isTrue();
+        assertThat(Provider.findByOid(provider, SIZE - 1)).isPresent();
+        assertThat(Provider.findByOid(provider, SIZE)).isNotPresent();
+    }
+
+    @Test
+    void testFindByNamedIndex() {
+        var provider = ProviderIndexed.of(ProviderInMemory.<Entity>of()).index(NAME, Entity::name);
+        provider.updateAll(ProviderTest.simpleEntities());
+        assertThat(provider.findBy(NAME, Entity::name, "name%d".formatted(SIZE - 1))).isPresent();
+        assertThat(provider.findBy(NAME, Entity::name, "name%d".formatted(SIZE))).isNotPresent();
+        assertThat(provider.findBy("undefined", Entity::name, "name0")).isPresent();
+    }
+
+    @Test
+    void testIndexConsistency() {
+        var entities = ProviderTest.simpleEntities();
+        var provider = ProviderIndexed.ofOid(ProviderInMemory.of(entities));
+        provider.delete(entities.getFirst());
+        assertThat(provider.items()).hasSize(SIZE - 1);
+        assertThat(Provider.findByOid(provider, entities.getFirst().oid())).isNotPresent();
+        provider.update(entities.getFirst());
+        assertThat(Provider.findByOid(provider, entities.getFirst().oid())).isPresent();
+        provider.deleteAll();
+        assertThat(provider.items()).isEmpty();
+        assertThat(Provider.findByOid(provider, entities.getLast().oid())).isNotPresent();
+    }
+
+    @Test
+    void testUpdateAndDeleteThroughEqualCopy() {
+        var entities = ProviderTest.simpleEntities();
+        var indexed = ProviderIndexed.ofOid(ProviderInMemory.of(entities));
+        var copy = new Entity(entities.getFirst().oid(), entities.getFirst().name());
+        indexed.update(copy);
+        assertThat(indexed.items()).hasSize(SIZE);
+        assertThat(Provider.findByOid(indexed, copy.oid())).containsSame(entities.getFirst());
+
+        var provider = new ProviderHasOid<>(new LongIdGenerator(SIZE), indexed);
+        provider.delete(copy);
+        assertThat(provider.items()).hasSize(SIZE - 1);
+        assertThat(Provider.findByOid(provider, copy.oid())).isNotPresent();
+        assertThat(provider.canBeAdded(copy)).isTrue();
+    }
+
+    @Test
+    void testOidProviderUsesIndex() {
+        var provider = ProviderHasOid.of(new LongIdGenerator(SIZE), ProviderTest.simpleEntities());
+        assertThat(Provider.findByOid(provider, SIZE - 1)).isPresent();
+        assertThat(((ProviderHasOid<Entity>) provider).canBeAdded(new Entity(SIZE - 1, "duplicate"))).isFalse();
+    }
+}
@@ -23,15 +23,38 @@ import java.nio.file.FileSystem;
 import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
 
 class ProviderPersistenceTest implements ProviderTest {
     static class Data {
         private final List<Aggregate> aggregates;
+        private final List<Editable> editables;
 
         Data() {
             aggregates = new ArrayList<>();
+            editables = new ArrayList<>();
+        }
+
+    }
+
+    static final class Editable {
+        private String name;
+
+        Editable(String name) {
+            this.name = name;
         }
 
+        @Override
+        public boolean equals(Object o) {
+            return (o instanceof Editable other) && Objects.equals(name, other.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(name);
+        }
     }
 
     @Test
@@ -45,4 +68,75 @@ class ProviderPersistenceTest implements ProviderTest {
             storageManager.close();
         }
     }
+
+    @Test
+    void testBatch() throws Exception {
+        try (FileSystem fs = Jimfs.newFileSystem(Configuration.unix())) {
+            Files.createDirectory(fs.getPath("/var/"));
+            Data data = new Data();
+            EmbeddedStorageManager storageManager = EmbeddedStorage.start(data, fs.getPath("/var/", "data"));
+            ProviderPersistence<Aggregate> provider = ProviderPersistence.of(storageManager, data.aggregates);
+            var aggregates = ProviderTest.aggregates();
+            provider.batch(() -> {
+                aggregates.forEach(provider::update);
+                aggregates.forEach(provider::update);
+                provider.delete(aggregates.getFirst());
+            });
+            assertThat(provider.items()).hasSize(SIZE - 1);
+            storageManager.close();
+
+            Data restored = new Data();
+            storageManager = EmbeddedStorage.start(restored, fs.getPath("/var/", "data"));
+            assertThat(restored.aggregates).hasSize(SIZE - 1);
+            storageManager.close();
+        }
+    }
+
+    @Test
+    void testMembershipByEquality() throws Exception {
+        try (FileSystem fs = Jimfs.newFileSystem(Configuration.unix())) {
+            Files.createDirectory(fs.getPath("/var/"));
+            Data data = new Data();
+            EmbeddedStorageManager storageManager = EmbeddedStorage.start(data, fs.getPath("/var/", "data"));
+            ProviderPersistence<Aggregate> provider = ProviderPersistence.of(storageManager, data.aggregates);
+            provider.updateAll(ProviderTest.aggregates());
+            provider.updateAll(ProviderTest.aggregates());
+            assertThat(provider.items()).hasSize(SIZE);
+            provider.delete(ProviderTest.aggregates().getFirst());
+            assertThat(provider.items()).hasSize(SIZE - 1);
+            storageManager.close();
+
+            Data restored = new Data();
+            storageManager = EmbeddedStorage.start(restored, fs.getPath("/var/", "data"));
+            assertThat(restored.aggregates).hasSize(SIZE - 1);
+            storageManager.close();
+        }
+    }
+
+    @Test
+    void testUpdateAndDeleteAfterEditOfHashedField() throws Exception {
+        try (FileSystem fs = Jimfs.newFileSystem(Configuration.unix())) {
+            Files.createDirectory(fs.getPath("/var/"));
+            Data data = new Data();
+            EmbeddedStorageManager storageManager = EmbeddedStorage.start(data, fs.getPath("/var/", "data"));
+            ProviderPersistence<Editable> provider = ProviderPersistence.of(storageManager, data.editables);
+            var first = new Editable("first");
+            var second = new Editable("second");
+            provider.update(first);
+            provider.update(second);
+            first.name = "edited";
+            provider.update(first);
+            assertThat(provider.items()).hasSize(2);
+            second.name = "edited second";
+            provider.delete(second);
+            assertThat(provider.items()).containsExactly(first);
+            storageManager.close();
+
+            Data restored = new Data();
+            storageManager = EmbeddedStorage.start(restored, fs.getPath("/var/", "data"));
+            assertThat(restored.editables).hasSize(1);
+            assertThat(restored.editables.getFirst().name).isEqualTo("edited");
+            storageManager.close();
+        }
+    }
 }
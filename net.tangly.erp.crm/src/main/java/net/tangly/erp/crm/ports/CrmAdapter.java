@@ -14,6 +14,7 @@
 package net.tangly.erp.crm.ports;
 
 import net.tangly.core.domain.DomainAudit;
+import net.tangly.core.domain.ImportPipeline;
 import net.tangly.erp.crm.domain.*;
 import net.tangly.erp.crm.services.CrmPort;
 import net.tangly.erp.crm.services.CrmRealm;
@@ -52,15 +53,13 @@ public final class CrmAdapter implements CrmPort {
     @Override
     public void importEntities(@NotNull DomainAudit audit) {
         var handler = new CrmTsvHdl(realm());
-        handler.importLeads(audit, folder.resolve(LEADS_TSV));
-        handler.importLegalEntities(audit, folder.resolve(LEGAL_ENTITIES_TSV));
-        handler.importNaturalEntities(audit, folder.resolve(NATURAL_ENTITIES_TSV));
-        handler.importEmployees(audit, folder.resolve(EMPLOYEES_TSV));
-        handler.importContracts(audit, folder.resolve(CONTRACTS_TSV));
-        handler.importContractExtensions(audit, folder.resolve(CONTRACT_EXTENSIONS_TSV));
-        handler.importOpportunities(audit, folder.resolve(OPPORTUNITIES_TSV));
-        handler.importActivities(audit, folder.resolve(ACTIVITIES_TSV));
-        handler.importComments(audit, folder.resolve(COMMENTS_TSV));
+        ImportPipeline.of()
+            .stage(handler.leadsTask(folder.resolve(LEADS_TSV)), handler.naturalEntitiesTask(folder.resolve(NATURAL_ENTITIES_TSV)),
+                handler.legalEntitiesTask(folder.resolve(LEGAL_ENTITIES_TSV)))
+            .stage(handler.employeesTask(folder.resolve(EMPLOYEES_TSV)), handler.contractsTask(folder.resolve(CONTRACTS_TSV)))
+            .stage(handler.contractExtensionsTask(folder.resolve(CONTRACT_EXTENSIONS_TSV)), handler.opportunitiesTask(folder.resolve(OPPORTUNITIES_TSV)))
+            .stage(handler.activitiesTask(folder.resolve(ACTIVITIES_TSV)), handler.commentsTask(folder.resolve(COMMENTS_TSV)))
+            .run(audit);
 
         var crmEnrichmentHdl = new CrmEnrichmentHdl(realm());
         crmEnrichmentHdl.importVCards(folder.resolve(VCARDS_FOLDER));
@@ -15,11 +15,13 @@ package net.tangly.erp.crm.ports;
 
 import net.tangly.commons.generator.IdGenerator;
 import net.tangly.commons.generator.LongIdGenerator;
+import net.tangly.core.TagIndex;
 import net.tangly.core.domain.Realm;
 import net.tangly.core.providers.Provider;
 import net.tangly.core.providers.ProviderHasOid;
 import net.tangly.core.providers.ProviderInMemory;
 import net.tangly.core.providers.ProviderPersistence;
+import net.tangly.core.providers.ProviderTagIndexed;
 import net.tangly.erp.crm.domain.*;
 import net.tangly.erp.crm.services.CrmRealm;
 import org.eclipse.store.storage.embedded.types.EmbeddedStorage;
@@ -30,6 +32,7 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 
 /**
  * Defines the customer relationship management <i>CRM</i> subsystem. The major abstractions are
@@ -76,19 +79,21 @@ public class CrmEntities implements CrmRealm {
     private final Provider<Opportunity> interactions;
     private final Provider<Activity> activities;
     private final IdGenerator generator;
+    private final TagIndex tagIndex;
     private final EmbeddedStorageManager storageManager;
 
     public CrmEntities(@NotNull Path path) {
         this.data = new Data();
         storageManager = EmbeddedStorage.start(data, path);
         generator = generator();
+        tagIndex = TagIndex.of();
 
         leads = ProviderPersistence.of(storageManager, data.leads);
-        naturalEntities = ProviderHasOid.of(generator, storageManager, data.naturalEntities);
-        legalEntities = ProviderHasOid.of(generator, storageManager, data.legalEntities);
-        employees = ProviderHasOid.of(generator, storageManager, data.employees);
+        naturalEntities = ProviderTagIndexed.of(ProviderHasOid.of(generator, storageManager, data.naturalEntities), tagIndex);
+        legalEntities = ProviderTagIndexed.of(ProviderHasOid.of(generator, storageManager, data.legalEntities), tagIndex);
+        employees = ProviderTagIndexed.of(ProviderHasOid.of(generator, storageManager, data.employees), tagIndex);
         contracts = ProviderHasOid.of(generator, storageManager, data.contracts);
-        interactions = ProviderHasOid.of(generator, storageManager, data.opportunities);
+        interactions = ProviderTagIndexed.of(ProviderHasOid.of(generator, storageManager, data.opportunities), tagIndex);
         activities = ProviderPersistence.of(storageManager, data.activities);
     }
 
@@ -96,12 +101,13 @@ public class CrmEntities implements CrmRealm {
         this.data = new Data();
         storageManager = null;
         generator = new LongIdGenerator(OID_SEQUENCE_START);
+        tagIndex = TagIndex.of();
         leads = ProviderInMemory.of(data.leads);
-        naturalEntities = ProviderHasOid.of(generator, data.naturalEntities);
-        legalEntities = ProviderHasOid.of(generator, data.legalEntities);
-        employees = ProviderHasOid.of(generator, data.employees);
+        naturalEntities = ProviderTagIndexed.of(ProviderHasOid.of(generator, data.naturalEntities), tagIndex);
+        legalEntities = ProviderTagIndexed.of(ProviderHasOid.of(generator, data.legalEntities), tagIndex);
+        employees = ProviderTagIndexed.of(ProviderHasOid.of(generator, data.employees), tagIndex);
         contracts = ProviderHasOid.of(generator, data.contracts);
-        interactions = ProviderHasOid.of(generator, data.opportunities);
+        interactions = ProviderTagIndexed.of(ProviderHasOid.of(generator, data.opportunities), tagIndex);
         activities = ProviderInMemory.of(data.activities);
     }
 
@@ -112,6 +118,11 @@ public class CrmEntities implements CrmRealm {
         }
     }
 
+    @Override
+    public Optional<TagIndex> tagIndex() {
+        return Optional.of(tagIndex);
+    }
+
     @Override
     public Provider<Lead> leads() {
         return this.leads;
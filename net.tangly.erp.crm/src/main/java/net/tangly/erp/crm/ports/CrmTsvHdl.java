@@ -16,6 +16,7 @@ package net.tangly.erp.crm.ports;
 import net.tangly.commons.lang.ReflectionUtilities;
 import net.tangly.core.*;
 import net.tangly.core.domain.DomainAudit;
+import net.tangly.core.domain.ImportPipeline;
 import net.tangly.core.domain.TsvHdl;
 import net.tangly.core.providers.Provider;
 import net.tangly.core.providers.ProviderInMemory;
@@ -60,12 +61,58 @@ public class CrmTsvHdl {
     }
 
     public void importComments(@NotNull DomainAudit audit, @NotNull Path path) {
-        var comments = TsvHdl.importRelations(audit, path, createTsvComment());
-        TsvHdl.addComments(realm.naturalEntities(), comments);
-        TsvHdl.addComments(realm.legalEntities(), comments);
-        TsvHdl.addComments(realm.employees(), comments);
-        TsvHdl.addComments(realm.contracts(), comments);
-        TsvHdl.addComments(realm.opportunities(), comments);
+        addComments(TsvHdl.importRelations(audit, path, createTsvComment()));
+    }
+
+    /**
+     * Returns the import tasks of the CRM entities for an import pipeline. The parsing of a task only reads the realm; the parsed entities are stored when the
+     * task is merged. Tasks referencing other entities must be declared in a later stage than the referenced entities.
+     *
+     * @see ImportPipeline
+     */
+    public ImportPipeline.ImportTask leadsTask(@NotNull Path path) {
+        return TsvHdl.importTask(path, createTsvLead(), realm.leads());
+    }
+
+    public ImportPipeline.ImportTask naturalEntitiesTask(@NotNull Path path) {
+        return TsvHdl.importTask(path, createTsvNaturalEntity(), realm.naturalEntities());
+    }
+
+    public ImportPipeline.ImportTask legalEntitiesTask(@NotNull Path path) {
+        return TsvHdl.importTask(path, createTsvLegalEntity(), realm.legalEntities());
+    }
+
+    public ImportPipeline.ImportTask employeesTask(@NotNull Path path) {
+        return TsvHdl.importTask(path, createTsvEmployee(), realm.employees());
+    }
+
+    public ImportPipeline.ImportTask contractsTask(@NotNull Path path) {
+        return TsvHdl.importTask(path, createTsvContract(), realm.contracts());
+    }
+
+    public ImportPipeline.ImportTask contractExtensionsTask(@NotNull Path path) {
+        return audit -> {
+            var extensions = TsvHdl.parseEntities(audit, path, createTsvContractExtension());
+            return () -> addContractExtensions(extensions);
+        };
+    }
+
+    public ImportPipeline.ImportTask opportunitiesTask(@NotNull Path path) {
+        return TsvHdl.importTask(path, createTsvOpportunity(), realm.opportunities());
+    }
+
+    public ImportPipeline.ImportTask activitiesTask(@NotNull Path path) {
+        return audit -> {
+            var activities = TsvHdl.importRelations(audit, path, createTsvActivity());
+            return () -> realm.opportunities().items().forEach(e -> addActivities(realm.opportunities(), e, activities));
+        };
+    }
+
+    public ImportPipeline.ImportTask commentsTask(@NotNull Path path) {
+        return audit -> {
+            var comments = TsvHdl.importRelations(audit, path, createTsvComment());
+            return () -> addComments(comments);
+        };
     }
 
     public void exportComments(@NotNull DomainAudit audit, @NotNull Path path) {
@@ -117,10 +164,7 @@ public class CrmTsvHdl {
     public void importContractExtensions(@NotNull DomainAudit audit, @NotNull Path path) {
         Provider<ContractExtension> extensions = new ProviderInMemory<>();
         TsvHdl.importEntities(audit, path, createTsvContractExtension(), extensions);
-        extensions.items().forEach(e -> Provider.findById(realm.contracts(), e.contractId()).ifPresent(c -> {
-            c.add(e);
-            realm.contracts().update(c);
-        }));
+        addContractExtensions(extensions.items());
     }
 
     public void exportContracts(@NotNull DomainAudit audit, @NotNull Path path) {
@@ -152,6 +196,21 @@ public class CrmTsvHdl {
         TsvHdl.exportRelations(audit, path, createTsvActivity(), activities);
     }
 
+    private void addComments(@NotNull List<TsvRelation<Comment>> comments) {
+        TsvHdl.addComments(realm.naturalEntities(), comments);
+        TsvHdl.addComments(realm.legalEntities(), comments);
+        TsvHdl.addComments(realm.employees(), comments);
+        TsvHdl.addComments(realm.contracts(), comments);
+        TsvHdl.addComments(realm.opportunities(), comments);
+    }
+
+    private void addContractExtensions(@NotNull List<ContractExtension> extensions) {
+        extensions.forEach(e -> Provider.findById(realm.contracts(), e.contractId()).ifPresent(c -> {
+            c.add(e);
+            realm.contracts().update(c);
+        }));
+    }
+
     private static <T extends HasMutableComments & HasOid> List<TsvRelation<Comment>> updateAndCollectComments(T entity) {
         List<TsvRelation<Comment>> comments = new ArrayList<>();
         entity.comments().forEach(comment -> comments.add(new TsvRelation<>(entity.oid(), comment)));
@@ -14,17 +14,14 @@
 package net.tangly.erp.crm.services;
 
 import net.tangly.core.GenderCode;
-import net.tangly.core.TagType;
 import net.tangly.core.codes.CodeType;
 import net.tangly.core.domain.BoundedDomain;
 import net.tangly.core.domain.DomainEntity;
 import net.tangly.core.domain.TenantDirectory;
 import net.tangly.erp.crm.domain.*;
 import net.tangly.erp.crm.ports.CrmAdapter;
-import org.jetbrains.annotations.NotNull;
 
 import java.util.List;
-import java.util.Map;
 
 public class CrmBoundedDomain extends BoundedDomain<CrmRealm, CrmBusinessLogic, CrmAdapter> {
     public static final String DOMAIN = "customers";
@@ -38,15 +35,6 @@ public class CrmBoundedDomain extends BoundedDomain<CrmRealm, CrmBusinessLogic,
         registry().register(CodeType.of(OpportunityCode.class));
     }
 
-    @Override
-    public Map<TagType<?>, Integer> countTags(@NotNull Map<TagType<?>, Integer> counts) {
-        addTagCounts(registry(), realm().naturalEntities(), counts);
-        addTagCounts(registry(), realm().legalEntities(), counts);
-        addTagCounts(registry(), realm().employees(), counts);
-        addTagCounts(registry(), realm().opportunities(), counts);
-        return counts;
-    }
-
     @Override
     public List<DomainEntity<?>> entities() {
         return List.of(new DomainEntity<>(DOMAIN, Lead.class, realm().leads()), new DomainEntity<>(DOMAIN, NaturalEntity.class, realm().naturalEntities()),
@@ -73,6 +73,6 @@ public class ContractExtensionsView extends ItemView<ContractExtension> {
     private void contractActivated(@NotNull ContractExtension extension) {
         var contract = Provider.findById(domain().realm().contracts(), extension.contractId());
         var event = ContractExtension.of(extension, contract.orElseThrow());
-        domain().channel().submit(event);
+        domain().submit(event);
     }
 }
@@ -111,6 +111,6 @@ class ContractsView extends EntityView<Contract> {
      */
     private void contractActivated(@NotNull Contract contract) {
         var event = Contract.of(contract);
-        domain().channel().submit(event);
+        domain().submit(event);
     }
 }
@@ -19,6 +19,7 @@ import net.tangly.core.DateRange;
 import net.tangly.core.Tag;
 import net.tangly.core.domain.Document;
 import net.tangly.core.domain.DomainAudit;
+import net.tangly.core.domain.ImportPipeline;
 import net.tangly.core.domain.Port;
 import net.tangly.core.domain.TsvHdl;
 import net.tangly.core.providers.Provider;
@@ -76,25 +77,25 @@ public class InvoicesAdapter implements InvoicesPort {
     public void importEntities(@NotNull DomainAudit audit) {
         var handler = new InvoicesTsvJsonHdl(realm());
         handler.importArticles(audit, dataFolder.resolve(ARTICLES_TSV));
+        List<Path> invoiceFiles;
         try (Stream<Path> stream = Files.walk(dataFolder)) {
-            var nrOfInvoices = new AtomicInteger();
-            var nrOfImportedInvoices = new AtomicInteger();
-            stream.filter(file -> !Files.isDirectory(file) && file.getFileName().toString().endsWith(JSON_EXT)).forEach(o -> {
-                nrOfInvoices.getAndIncrement();
-                try (Reader reader = Files.newBufferedReader(dataFolder.resolve(o))) {
-                    var invoice = handler.importInvoice(audit, reader, o.toString());
-                    if ((invoice != null)) {
-                        nrOfImportedInvoices.getAndIncrement();
-                    }
-                } catch (IOException e) {
-                    throw new UncheckedIOException(e);
-                }
-            });
-            audit.log(EventData.IMPORT_EVENT, EventData.Status.INFO, "Invoices were imported out of",
-                Map.of("nrOfImportedInvoices", Integer.toString(nrOfImportedInvoices.get()), "rootFolder", dataFolder.toString()));
+            invoiceFiles = stream.filter(file -> !Files.isDirectory(file) && file.getFileName().toString().endsWith(JSON_EXT)).toList();
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         }
+        var nrOfImportedInvoices = new AtomicInteger();
+        ImportPipeline.of().stage(invoiceFiles, (fileAudit, o) -> {
+            try (Reader reader = Files.newBufferedReader(dataFolder.resolve(o))) {
+                return handler.parseInvoice(fileAudit, reader, o.toString());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, invoice -> {
+            handler.storeInvoice(audit, invoice);
+            nrOfImportedInvoices.getAndIncrement();
+        }).run(audit);
+        audit.log(EventData.IMPORT_EVENT, EventData.Status.INFO, "Invoices were imported out of",
+            Map.of("nrOfImportedInvoices", Integer.toString(nrOfImportedInvoices.get()), "rootFolder", dataFolder.toString()));
         TsvHdl.importDocuments(audit, dataFolder.resolve(DOCUMENTS_TSV), realm().documents());
         entitiesImported(audit);
     }
@@ -71,6 +71,22 @@ public class InvoicesTsvJsonHdl {
 
 
     public Invoice importInvoice(@NotNull DomainAudit audit, @NotNull Reader reader, String source) {
+        var invoice = parseInvoice(audit, reader, source);
+        if (invoice != null) {
+            storeInvoice(audit, invoice);
+        }
+        return invoice;
+    }
+
+    /**
+     * Parses and checks an invoice without storing it in the realm. The realm is only read to resolve the referenced entities.
+     *
+     * @param audit  domain audit sink
+     * @param reader reader of the JSON invoice
+     * @param source source of the invoice
+     * @return the parsed invoice or null if the invoice is invalid
+     */
+    public Invoice parseInvoice(@NotNull DomainAudit audit, @NotNull Reader reader, String source) {
         var invoiceJson = new InvoiceJson(realm);
         var invoice = invoiceJson.imports(audit, reader, source);
         if ((invoice != null) && invoice.check()) {
@@ -78,12 +94,15 @@ public class InvoicesTsvJsonHdl {
             if (Objects.isNull(invoice.locale())) {
                 invoice.locale(Locale.ENGLISH);
             }
-            realm.invoices().update(invoice);
-            audit.log(EventData.IMPORT_EVENT, EventData.Status.SUCCESS, "Imported Invoice", Map.ofEntries(Map.entry("invoice", invoice)));
             return invoice;
         } else {
             audit.log(EventData.IMPORT_EVENT, EventData.Status.WARNING, "Invalid Invoice", Map.ofEntries(Map.entry("invoice", source)));
             return null;
         }
     }
+
+    public void storeInvoice(@NotNull DomainAudit audit, @NotNull Invoice invoice) {
+        realm.invoices().update(invoice);
+        audit.log(EventData.IMPORT_EVENT, EventData.Status.SUCCESS, "Imported Invoice", Map.ofEntries(Map.entry("invoice", invoice)));
+    }
 }
@@ -37,7 +37,7 @@ public class CmdFilesUploadInvoices extends CmdFilesUpload<InvoicesRealm, Invoic
             var handler = new InvoicesTsvJsonHdl(domain.realm());
             Set<String> files = buffer().getFiles();
             files.stream().filter(o -> o.endsWith(InvoicesAdapter.JSON_EXT)).forEach(o -> processInputStream(domain, o, handler::importInvoice));
-            domain().internalChannel().submit(new EntityChangedInternalEvent(domain().name(), Invoice.class.getSimpleName(), Operation.CREATE));
+            domain().submitInterally(new EntityChangedInternalEvent(domain().name(), Invoice.class.getSimpleName(), Operation.CREATE));
             close();
         });
     }
@@ -20,11 +20,19 @@ import org.jetbrains.annotations.NotNull;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Defines an account as seen for double entry booking ledger and legal accounting for tax ports. { id = 1, kind = ASSET, description = "Assets"}
+ * <p>Accounts are shared between user sessions. The transient balance caches are built lazily and accessed under the monitor of the account. An aggregate
+ * account acquires the monitors of its aggregated accounts while holding its own; the aggregation tree is acyclic, so locks are always taken top-down.</p>
  */
 public class Account implements HasId, HasName {
+    /**
+     * Global sequence of account modifications used to invalidate the cached balances of aggregate accounts. Any booking or change of an aggregation
+     * invalidates all aggregate caches, avoiding a walk through the aggregation tree on each query.
+     */
+    private static final AtomicLong MODIFICATIONS = new AtomicLong();
 
     /**
      * Defines the kind of the account: asset, liability, income, expense, or an aggregate one. The kind is used for computing correctly the balance.
@@ -76,6 +84,21 @@ public class Account implements HasId, HasName {
      */
     private final List<AccountEntry> entries;
 
+    /**
+     * Date-sorted entries with running balances. The cache is lazily built and never persisted.
+     */
+    private transient RunningBalances runningBalances;
+
+    /**
+     * Cached balances of an aggregate account. The cache is valid as long as the stamp of the account is unchanged.
+     */
+    private transient Map<LocalDate, BigDecimal> aggregateBalances;
+
+    /**
+     * Global modification sequence number when the cached balances were computed.
+     */
+    private transient long aggregateBalancesStamp;
+
     public Account(String id, AccountKind kind, Currency currency, String text, String ownedBy) {
         this(id, kind, null, currency, text, ownedBy);
     }
@@ -182,9 +205,8 @@ public class Account implements HasId, HasName {
      * @param date date at which the balance is computed
      * @return the balance of the account at the requested date
      */
-    public BigDecimal balance(@NotNull LocalDate date) {
-        return isAggregate() ? aggregatedAccounts.stream().map(o -> o.balance(date)).reduce(BigDecimal.ZERO, BigDecimal::add) :
-            entries.stream().filter(o -> !date.isBefore(o.date())).map(Account::booking).reduce(BigDecimal.ZERO, BigDecimal::add);
+    public synchronized BigDecimal balance(@NotNull LocalDate date) {
+        return isAggregate() ? aggregateBalance(date) : runningBalances().balance(date);
     }
 
     /**
@@ -194,18 +216,34 @@ public class Account implements HasId, HasName {
      * @param to   end date
      * @return the balance of the account between the two dates
      */
-    public BigDecimal balance(@NotNull LocalDate from, @NotNull LocalDate to) {
-        return isAggregate() ? aggregatedAccounts().stream().map(o -> o.balance(from, to)).reduce(BigDecimal.ZERO, BigDecimal::add) :
-            getEntriesFor(from, to).stream().map(Account::booking).reduce(BigDecimal.ZERO, BigDecimal::add);
+    public synchronized BigDecimal balance(@NotNull LocalDate from, @NotNull LocalDate to) {
+        if (isAggregate()) {
+            return from.isAfter(to) ? BigDecimal.ZERO : aggregateBalance(to).subtract(aggregateBalance(from.minusDays(1)));
+        }
+        return runningBalances().balance(from, to);
     }
 
-
-    public List<AccountEntry> getEntriesFor(@NotNull LocalDate from, @NotNull LocalDate to) {
-        return entries.stream().filter(o -> !from.isAfter(o.date()) && !to.isBefore(o.date())).toList();
+    /**
+     * Returns the entries with a date in the closed interval in booking order.
+     *
+     * @param from start date
+     * @param to   end date
+     * @return list of entries booked in the interval
+     */
+    public synchronized List<AccountEntry> getEntriesFor(@NotNull LocalDate from, @NotNull LocalDate to) {
+        return runningBalances().entries(from, to);
     }
 
-    public void addEntry(AccountEntry entry) {
+    public synchronized void addEntry(AccountEntry entry) {
         entries.add(entry);
+        MODIFICATIONS.incrementAndGet();
+        if (Objects.nonNull(runningBalances)) {
+            if (runningBalances.canAppend(entry.date())) {
+                runningBalances.append(entry, entries.size() - 1);
+            } else {
+                runningBalances = null;
+            }
+        }
     }
 
     @Override
@@ -215,9 +253,35 @@ public class Account implements HasId, HasName {
             """.formatted(id(), kind(), group(), currency(), name(), ownedBy(), aggregatedAccounts());
     }
 
-    public void updateAggregatedAccounts(Collection<Account> aggregatedAccounts) {
+    public synchronized void updateAggregatedAccounts(Collection<Account> aggregatedAccounts) {
         this.aggregatedAccounts.clear();
         this.aggregatedAccounts.addAll(aggregatedAccounts);
+        MODIFICATIONS.incrementAndGet();
+    }
+
+    private RunningBalances runningBalances() {
+        if (Objects.isNull(runningBalances)) {
+            runningBalances = new RunningBalances(entries, Account::booking);
+        }
+        return runningBalances;
+    }
+
+    /**
+     * Returns the cached balance of an aggregate account. The cache is invalidated when an entry is added to any account or when an aggregation is modified.
+     * The stamp is read before the balances are computed; a concurrent modification therefore invalidates the cache on the next query.
+     */
+    private BigDecimal aggregateBalance(@NotNull LocalDate date) {
+        long stamp = MODIFICATIONS.get();
+        if (Objects.isNull(aggregateBalances) || (aggregateBalancesStamp != stamp)) {
+            aggregateBalances = new HashMap<>();
+            aggregateBalancesStamp = stamp;
+        }
+        BigDecimal balance = aggregateBalances.get(date);
+        if (Objects.isNull(balance)) {
+            balance = aggregatedAccounts.stream().map(o -> o.balance(date)).reduce(BigDecimal.ZERO, BigDecimal::add);
+            aggregateBalances.put(date, balance);
+        }
+        return balance;
     }
 
     private static BigDecimal booking(@NotNull AccountEntry entry) {
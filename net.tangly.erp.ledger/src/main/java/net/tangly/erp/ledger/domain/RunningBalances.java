@@ -0,0 +1,170 @@
+/*
+ * Copyright 2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+package net.tangly.erp.ledger.domain;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Date-sorted store of the entries of an account with prefix sums of the bookings. The running balance at index <i>i</i> is the sum of the bookings of the
+ * entries from index 0 to <i>i</i>. Balance queries are binary searches on the sorted dates.
+ * <p>Entries are appended in constant amortized time if their date is not before the date of the last entry. Otherwise, the store must be rebuilt. The
+ * store is a cache and is never persisted. The store is not thread-safe; the owning account serializes the accesses.</p>
+ * <p>The booking position of each entry is kept to return entry ranges in booking order.</p>
+ */
+final class RunningBalances {
+    private static final int INITIAL_CAPACITY = 16;
+    private final Function<AccountEntry, BigDecimal> booking;
+    private long[] days;
+    private AccountEntry[] entries;
+    private BigDecimal[] balances;
+    private int[] positions;
+    private boolean inBookingOrder;
+    private int size;
+
+    RunningBalances(@NotNull Collection<AccountEntry> entries, @NotNull Function<AccountEntry, BigDecimal> booking) {
+        this.booking = booking;
+        int capacity = Math.max(INITIAL_CAPACITY, entries.size());
+        this.days = new long[capacity];
+        this.entries = new AccountEntry[capacity];
+        this.balances = new BigDecimal[capacity];
+        this.positions = new int[capacity];
+        this.inBookingOrder = true;
+        List<AccountEntry> items = List.copyOf(entries);
+        IntStream.range(0, items.size()).boxed().sorted(Comparator.comparing(items::get, Comparator.comparing(AccountEntry::date)))
+            .forEach(o -> append(items.get(o), o));
+    }
+
+    /**
+     * Returns true if the entry can be appended without breaking the date order of the store.
+     *
+     * @param date date of the entry to append
+     * @return flag indicating if the entry can be appended
+     */
+    boolean canAppend(@NotNull LocalDate date) {
+        return (size == 0) || (days[size - 1] <= date.toEpochDay());
+    }
+
+    /**
+     * Appends the entry. The caller guarantees that the date order is respected, see {@link #canAppend(LocalDate)}.
+     *
+     * @param entry    entry to append
+     * @param position position of the entry in the booking order of the account
+     */
+    void append(@NotNull AccountEntry entry, int position) {
+        if (size == days.length) {
+            int capacity = days.length * 2;
+            days = Arrays.copyOf(days, capacity);
+            entries = Arrays.copyOf(entries, capacity);
+            balances = Arrays.copyOf(balances, capacity);
+            positions = Arrays.copyOf(positions, capacity);
+        }
+        inBookingOrder = inBookingOrder && ((size == 0) || (positions[size - 1] < position));
+        positions[size] = position;
+        BigDecimal previous = (size == 0) ? BigDecimal.ZERO : balances[size - 1];
+        days[size] = entry.date().toEpochDay();
+        entries[size] = entry;
+        balances[size] = previous.add(booking.apply(entry));
+        ++size;
+    }
+
+    /**
+     * Returns the balance of all entries booked at or before the date.
+     *
+     * @param date date of the balance
+     * @return balance at the date
+     */
+    BigDecimal balance(@NotNull LocalDate date) {
+        int index = upperBound(date.toEpochDay());
+        return (index == 0) ? BigDecimal.ZERO : balances[index - 1];
+    }
+
+    /**
+     * Returns the sum of the bookings of entries with a date in the closed interval.
+     *
+     * @param from start date of the interval
+     * @param to   end date of the interval
+     * @return balance of the interval
+     */
+    BigDecimal balance(@NotNull LocalDate from, @NotNull LocalDate to) {
+        int start = lowerBound(from.toEpochDay());
+        int end = upperBound(to.toEpochDay());
+        if (start >= end) {
+            return BigDecimal.ZERO;
+        }
+        return (start == 0) ? balances[end - 1] : balances[end - 1].subtract(balances[start - 1]);
+    }
+
+    /**
+     * Returns the entries with a date in the closed interval in booking order.
+     *
+     * @param from start date of the interval
+     * @param to   end date of the interval
+     * @return unmodifiable list of entries
+     */
+    List<AccountEntry> entries(@NotNull LocalDate from, @NotNull LocalDate to) {
+        int start = lowerBound(from.toEpochDay());
+        int end = upperBound(to.toEpochDay());
+        if (start >= end) {
+            return Collections.emptyList();
+        }
+        if (inBookingOrder) {
+            return List.of(Arrays.copyOfRange(entries, start, end));
+        }
+        return IntStream.range(start, end).boxed().sorted(Comparator.comparingInt(o -> positions[o])).map(o -> entries[o]).toList();
+    }
+
+    /**
+     * Returns the index of the first entry with a day greater or equal to the given day.
+     */
+    private int lowerBound(long day) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (days[middle] < day) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the index of the first entry with a day strictly greater than the given day.
+     */
+    private int upperBound(long day) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (days[middle] <= day) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
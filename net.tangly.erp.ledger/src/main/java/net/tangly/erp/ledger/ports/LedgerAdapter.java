@@ -44,6 +44,7 @@ import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.Month;
+import java.time.Year;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Stream;
@@ -117,7 +118,7 @@ public class LedgerAdapter implements LedgerPort {
     public void exportEntities(@NotNull DomainAudit audit) {
         var handler = new LedgerTsvHdl(realm, registry);
         handler.exportChartOfAccounts(audit, dataFolder.resolve(LEDGER));
-        realm().transactions().items().stream().map(Transaction::date).map(LocalDate::getYear).distinct().forEach(o -> {
+        realm().transactions().years().stream().map(Year::getValue).forEach(o -> {
             Path journal = dataFolder.resolve(journalForYear(o));
             handler.exportJournal(audit, journal, LocalDate.of(o, Month.JANUARY, 1), LocalDate.of(o, Month.DECEMBER, 31));
             audit.log(EventData.EXPORT_EVENT, EventData.Status.SUCCESS, "Journal exported {}", Map.of("journalPath", journal.toString(), "year", o));
@@ -128,6 +129,7 @@ public class LedgerAdapter implements LedgerPort {
     @Override
     public void clearEntities(@NotNull DomainAudit audit) {
         realm().accounts().deleteAll();
+        realm().entries().deleteAll();
         Port.entitiesCleared(audit, "accounts");
         realm().transactions().deleteAll();
         Port.entitiesCleared(audit, "transactions");
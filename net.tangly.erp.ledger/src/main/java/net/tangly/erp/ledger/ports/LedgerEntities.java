@@ -16,12 +16,15 @@ package net.tangly.erp.ledger.ports;
 import net.tangly.core.domain.Document;
 import net.tangly.core.domain.RealmEclipseStore;
 import net.tangly.core.providers.Provider;
+import net.tangly.core.providers.ProviderIndexed;
 import net.tangly.core.providers.ProviderInMemory;
 import net.tangly.core.providers.ProviderPersistence;
 import net.tangly.erp.ledger.domain.Account;
-import net.tangly.erp.ledger.domain.AccountEntry;
 import net.tangly.erp.ledger.domain.Transaction;
+import net.tangly.erp.ledger.services.LedgerEntries;
+import net.tangly.erp.ledger.services.LedgerJournal;
 import net.tangly.erp.ledger.services.LedgerRealm;
+import net.tangly.erp.ledger.services.LedgerTransactions;
 import org.eclipse.store.storage.embedded.types.EmbeddedStorage;
 import org.eclipse.store.storage.embedded.types.EmbeddedStorageManager;
 import org.jetbrains.annotations.NotNull;
@@ -46,24 +49,32 @@ public class LedgerEntities implements LedgerRealm, RealmEclipseStore {
 
     private final Data data;
     private final Provider<Account> accounts;
-    private final Provider<Transaction> transactions;
+    private final LedgerTransactions transactions;
     private final Provider<Document> documents;
+    private final LedgerEntries entries;
+    private final LedgerJournal journal;
     private final EmbeddedStorageManager storageManager;
 
     public LedgerEntities(@NotNull Path path) {
         this.data = new Data();
         storageManager = EmbeddedStorage.start(data, path);
-        accounts = ProviderPersistence.of(storageManager, data.accounts);
-        transactions = ProviderPersistence.of(storageManager, data.transactions);
+        accounts = ProviderIndexed.ofId(ProviderPersistence.of(storageManager, data.accounts));
+        transactions = LedgerTransactions.of(ProviderPersistence.of(storageManager, data.transactions));
         documents = ProviderPersistence.of(storageManager, data.documents);
+        entries = LedgerEntries.of(data.accounts, data.transactions);
+        transactions.listen(entries);
+        journal = LedgerJournal.of(transactions);
     }
 
     public LedgerEntities() {
         this.data = new Data();
         storageManager = null;
-        accounts = ProviderInMemory.of(data.accounts);
-        transactions = ProviderInMemory.of(data.transactions);
+        accounts = ProviderIndexed.ofId(ProviderInMemory.of(data.accounts));
+        transactions = LedgerTransactions.of(ProviderInMemory.of(data.transactions));
         documents = ProviderInMemory.of(data.documents);
+        entries = new LedgerEntries();
+        transactions.listen(entries);
+        journal = LedgerJournal.of(transactions);
     }
 
     @Override
@@ -77,7 +88,7 @@ public class LedgerEntities implements LedgerRealm, RealmEclipseStore {
     }
 
     @Override
-    public Provider<Transaction> transactions() {
+    public LedgerTransactions transactions() {
         return transactions;
     }
 
@@ -87,8 +98,13 @@ public class LedgerEntities implements LedgerRealm, RealmEclipseStore {
     }
 
     @Override
-    public Provider<AccountEntry> entries() {
-        return ProviderInMemory.of(accounts().items().stream().flatMap(o -> o.entries().stream()).toList());
+    public LedgerEntries entries() {
+        return entries;
+    }
+
+    @Override
+    public LedgerJournal journal() {
+        return journal;
     }
 
     @Override
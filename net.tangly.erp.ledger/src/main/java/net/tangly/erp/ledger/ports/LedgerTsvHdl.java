@@ -199,48 +199,52 @@ public class LedgerTsvHdl {
     public void importJournal(@NotNull DomainAudit audit, @NotNull Reader reader, String source) {
         try {
             Iterator<CSVRecord> records = TsvHdl.FORMAT.parse(reader).iterator();
-            int counter = 0;
-            var csv = TsvHdl.nextNonEmptyRecord(records);
-            while (csv != null) {
-                String date = csv.get(DATE);
-                String[] debitValues = csv.get(ACCOUNT_DEBIT).split("-");
-                String[] creditValues = csv.get(ACCOUNT_CREDIT).split("-");
-                BigDecimal amount = TsvHdl.parseBigDecimal(csv, AMOUNT);
-                String text = csv.get(DESCRIPTION);
-                String reference = csv.get(DOC);
-                String vatCode = csv.get(VAT_CODE);
-                String dateExpected = csv.get(DATE_EXPECTED);
-                List<AccountEntry> splits = new ArrayList<>();
-                boolean isSplit = isSplit(csv);
-                if (isSplit) {
-                    csv = importSplits(records, splits);
-                }
-                try {
-                    var debitAccount = Strings.emptyToNull(debitValues[0]);
-                    var creditAccount = Strings.emptyToNull(creditValues[0]);
-                    var debit = (debitAccount != null) ?
-                        new AccountEntry(debitAccount, Dates.of(date), amount, null, null, true, of(vatCode), defineSegments(debitValues)) : null;
-                    var credit = (creditAccount != null) ?
-                        new AccountEntry(creditAccount, Dates.of(date), amount, null, null, false, of(vatCode), defineSegments(creditValues)) : null;
-                    Transaction transaction = Transaction.of(Dates.of(date), reference, text, debit, credit, Dates.of(dateExpected), splits);
-                    ledger.book(transaction);
-                    ++counter;
-                    audit.log(EventData.IMPORT_EVENT, EventData.Status.SUCCESS, "%s imported to journal".formatted(Transaction.class.getSimpleName()),
-                        Map.of(SOURCE, source, "entity", transaction));
-                } catch (NumberFormatException | DateTimeParseException e) {
-                    logger.atError().withThrowable(e).log("{}: not a legal amount {}", date, amount);
-                }
-                if (!isSplit) {
-                    csv = TsvHdl.nextNonEmptyRecord(records);
-                }
-            }
-            audit.log(EventData.IMPORT_EVENT, EventData.Status.INFO, "imported to journal", Map.of(SOURCE, source, "counter", counter));
+            ledger.bookAll(importTransactions(audit, records, source));
         } catch (IOException e) {
             audit.log(EventData.IMPORT_EVENT, EventData.Status.FAILURE, "Transactions imported from", Map.of(SOURCE, source), e);
             throw new UncheckedIOException(e);
         }
     }
 
+    private List<Transaction> importTransactions(@NotNull DomainAudit audit, @NotNull Iterator<CSVRecord> records, String source) {
+        List<Transaction> transactions = new ArrayList<>();
+        var csv = TsvHdl.nextNonEmptyRecord(records);
+        while (csv != null) {
+            String date = csv.get(DATE);
+            String[] debitValues = csv.get(ACCOUNT_DEBIT).split("-");
+            String[] creditValues = csv.get(ACCOUNT_CREDIT).split("-");
+            BigDecimal amount = TsvHdl.parseBigDecimal(csv, AMOUNT);
+            String text = csv.get(DESCRIPTION);
+            String reference = csv.get(DOC);
+            String vatCode = csv.get(VAT_CODE);
+            String dateExpected = csv.get(DATE_EXPECTED);
+            List<AccountEntry> splits = new ArrayList<>();
+            boolean isSplit = isSplit(csv);
+            if (isSplit) {
+                csv = importSplits(records, splits);
+            }
+            try {
+                var debitAccount = Strings.emptyToNull(debitValues[0]);
+                var creditAccount = Strings.emptyToNull(creditValues[0]);
+                var debit = (debitAccount != null) ?
+                    new AccountEntry(debitAccount, Dates.of(date), amount, null, null, true, of(vatCode), defineSegments(debitValues)) : null;
+                var credit = (creditAccount != null) ?
+                    new AccountEntry(creditAccount, Dates.of(date), amount, null, null, false, of(vatCode), defineSegments(creditValues)) : null;
+                Transaction transaction = Transaction.of(Dates.of(date), reference, text, debit, credit, Dates.of(dateExpected), splits);
+                transactions.add(transaction);
+                audit.log(EventData.IMPORT_EVENT, EventData.Status.SUCCESS, "%s imported to journal".formatted(Transaction.class.getSimpleName()),
+                    Map.of(SOURCE, source, "entity", transaction));
+            } catch (NumberFormatException | DateTimeParseException e) {
+                logger.atError().withThrowable(e).log("{}: not a legal amount {}", date, amount);
+            }
+            if (!isSplit) {
+                csv = TsvHdl.nextNonEmptyRecord(records);
+            }
+        }
+        audit.log(EventData.IMPORT_EVENT, EventData.Status.INFO, "imported to journal", Map.of(SOURCE, source, "counter", transactions.size()));
+        return transactions;
+    }
+
     /**
      * Exports the transactions with a date in the given time interval.
      *
@@ -319,10 +323,10 @@ public class LedgerTsvHdl {
     private static Set<Tag> defineSegments(String[] values) {
         Set<Tag> tags = new HashSet<>();
         if ((values.length > 1) && !Strings.isNullOrBlank(values[1])) {
-            tags.add(new Tag(AccountEntry.FINANCE, AccountEntry.PROJECT, values[1]));
+            tags.add(Tag.of(AccountEntry.FINANCE, AccountEntry.PROJECT, values[1]));
         }
         if ((values.length > 2) && !Strings.isNullOrBlank(values[2])) {
-            tags.add(new Tag(AccountEntry.FINANCE, AccountEntry.SEGMENT, values[2]));
+            tags.add(Tag.of(AccountEntry.FINANCE, AccountEntry.SEGMENT, values[2]));
         }
         return tags;
     }
@@ -0,0 +1,298 @@
+/*
+ * Copyright 2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+package net.tangly.erp.ledger.services;
+
+import net.tangly.core.providers.Provider;
+import net.tangly.erp.ledger.domain.Account;
+import net.tangly.erp.ledger.domain.AccountEntry;
+import net.tangly.erp.ledger.domain.Transaction;
+import net.tangly.erp.ledger.domain.VatCode;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/**
+ * Materialized view of all account entries of a ledger. The view is updated incrementally when entries are booked and maintains secondary indexes by account,
+ * by date, and by VAT code. The transaction owning an entry is also indexed.
+ * <p>Range queries on an index return the entries sorted by date without scanning or copying the whole ledger. The view is a cache of the entries stored in the
+ * accounts and is never persisted. It is rebuilt from the accounts and transactions when the ledger is loaded.</p>
+ * <p>Entries are immutable records. Membership in the view and the mapping to the owning transaction are by object identity, so two bookings with the same
+ * values are two distinct entries of their respective transactions.</p>
+ * <p>The view listens to the transactions of the ledger. When a transaction is replaced, for example to set its expected date, its entries are mapped to the
+ * new transaction. The entries stay in the view as long as they are booked in the accounts.</p>
+ */
+public class LedgerEntries extends Provider<AccountEntry> implements LedgerTransactions.Listener {
+    /**
+     * Index of entries sorted by date. Entries booked at the same date are kept in booking order.
+     */
+    private static final class DateIndex {
+        private final NavigableMap<LocalDate, List<AccountEntry>> entries = new TreeMap<>();
+
+        void add(@NotNull AccountEntry entry) {
+            entries.computeIfAbsent(entry.date(), _ -> new ArrayList<>(2)).add(entry);
+        }
+
+        void remove(@NotNull AccountEntry entry) {
+            List<AccountEntry> items = entries.get(entry.date());
+            if (Objects.nonNull(items)) {
+                items.removeIf(o -> o == entry);
+                if (items.isEmpty()) {
+                    entries.remove(entry.date());
+                }
+            }
+        }
+
+        List<AccountEntry> entries(@NotNull LocalDate from, @NotNull LocalDate to) {
+            if (from.isAfter(to)) {
+                return Collections.emptyList();
+            }
+            List<AccountEntry> result = new ArrayList<>();
+            entries.subMap(from, true, to, true).values().forEach(result::addAll);
+            return result;
+        }
+
+        boolean isEmpty() {
+            return entries.isEmpty();
+        }
+    }
+
+    private final List<AccountEntry> entries;
+    private final Set<AccountEntry> members;
+    private final DateIndex byDate;
+    private final Map<String, DateIndex> byAccount;
+    private final Map<VatCode, DateIndex> byVatCode;
+    private final Map<AccountEntry, Transaction> transactions;
+
+    public LedgerEntries() {
+        entries = new ArrayList<>();
+        members = Collections.newSetFromMap(new IdentityHashMap<>());
+        byDate = new DateIndex();
+        byAccount = new HashMap<>();
+        byVatCode = new HashMap<>();
+        transactions = new IdentityHashMap<>();
+    }
+
+    /**
+     * Creates a view containing the entries of the accounts. The owning transactions are indexed through their splits.
+     *
+     * @param accounts     accounts which entries are part of the view
+     * @param transactions transactions owning the entries
+     * @return the new view
+     */
+    public static LedgerEntries of(@NotNull Collection<Account> accounts, @NotNull Collection<Transaction> transactions) {
+        var view = new LedgerEntries();
+        view.rebuild(accounts, transactions);
+        return view;
+    }
+
+    /**
+     * Discards the content of the view and loads the entries of the accounts and the owning transactions.
+     *
+     * @param accounts     accounts which entries are part of the view
+     * @param transactions transactions owning the entries
+     */
+    public void rebuild(@NotNull Collection<Account> accounts, @NotNull Collection<Transaction> transactions) {
+        execute(() -> {
+            clear();
+            accounts.forEach(account -> account.entries().forEach(this::add));
+            transactions.forEach(transaction -> {
+                transaction.creditSplits().forEach(o -> this.transactions.put(o, transaction));
+                transaction.debitSplits().forEach(o -> this.transactions.put(o, transaction));
+            });
+        });
+    }
+
+    @Override
+    public List<AccountEntry> items() {
+        return read(() -> Collections.unmodifiableList(entries));
+    }
+
+    @Override
+    public void update(@NotNull AccountEntry entry) {
+        execute(() -> add(entry));
+    }
+
+    /**
+     * Adds an entry booked as part of the transaction.
+     *
+     * @param transaction transaction owning the entry
+     * @param entry       booked entry
+     */
+    public void update(@NotNull Transaction transaction, @NotNull AccountEntry entry) {
+        execute(() -> {
+            add(entry);
+            transactions.put(entry, transaction);
+        });
+    }
+
+    @Override
+    public void delete(@NotNull AccountEntry entry) {
+        execute(() -> {
+            if (members.remove(entry)) {
+                entries.removeIf(o -> o == entry);
+                byDate.remove(entry);
+                removeFrom(byAccount, entry.accountId(), entry);
+                if (entry.hasVatCode()) {
+                    removeFrom(byVatCode, entry.vatCode(), entry);
+                }
+                transactions.remove(entry);
+            }
+        });
+    }
+
+    @Override
+    public void deleteAll() {
+        execute(this::clear);
+    }
+
+    // region LedgerTransactions.Listener
+
+    /**
+     * Maps the entries of the transaction already part of the view to the transaction.
+     *
+     * @param transaction transaction added to the ledger
+     */
+    @Override
+    public void added(@NotNull Transaction transaction) {
+        execute(() -> {
+            transaction.creditSplits().stream().filter(members::contains).forEach(o -> transactions.put(o, transaction));
+            transaction.debitSplits().stream().filter(members::contains).forEach(o -> transactions.put(o, transaction));
+        });
+    }
+
+    /**
+     * Removes the mapping of the entries owned by the transaction. The entries of the transaction are looked up first; the whole mapping is only scanned if
+     * the transaction is an equal copy of the removed one with distinct entry instances.
+     *
+     * @param transaction transaction removed from the ledger
+     */
+    @Override
+    public void removed(@NotNull Transaction transaction) {
+        execute(() -> {
+            boolean removed = transaction.creditSplits().stream().map(o -> transactions.remove(o, transaction)).reduce(false, Boolean::logicalOr);
+            removed = transaction.debitSplits().stream().map(o -> transactions.remove(o, transaction)).reduce(removed, Boolean::logicalOr);
+            if (!removed) {
+                transactions.values().removeIf(transaction::equals);
+            }
+        });
+    }
+
+    @Override
+    public void cleared() {
+        execute(transactions::clear);
+    }
+
+    // endregion
+
+    /**
+     * Returns the entries booked in the closed date interval sorted by date.
+     *
+     * @param from start date of the interval
+     * @param to   end date of the interval
+     * @return list of entries
+     */
+    public List<AccountEntry> entries(@NotNull LocalDate from, @NotNull LocalDate to) {
+        return read(() -> byDate.entries(from, to));
+    }
+
+    /**
+     * Returns the entries booked on the account in the closed date interval sorted by date.
+     *
+     * @param accountId identifier of the account
+     * @param from      start date of the interval
+     * @param to        end date of the interval
+     * @return list of entries
+     */
+    public List<AccountEntry> entriesOf(@NotNull String accountId, @NotNull LocalDate from, @NotNull LocalDate to) {
+        return read(() -> entriesIn(byAccount.get(accountId), from, to));
+    }
+
+    /**
+     * Returns the entries with the VAT code booked in the closed date interval sorted by date.
+     *
+     * @param vatCode VAT code of the entries
+     * @param from    start date of the interval
+     * @param to      end date of the interval
+     * @return list of entries
+     */
+    public List<AccountEntry> entriesWith(@NotNull VatCode vatCode, @NotNull LocalDate from, @NotNull LocalDate to) {
+        return read(() -> entriesIn(byVatCode.get(vatCode), from, to));
+    }
+
+    /**
+     * Returns the transaction owning the entry.
+     *
+     * @param entry entry which transaction is requested
+     * @return optional transaction owning the entry
+     */
+    public Optional<Transaction> transactionOf(@NotNull AccountEntry entry) {
+        return read(() -> Optional.ofNullable(transactions.get(entry)));
+    }
+
+    private void add(@NotNull AccountEntry entry) {
+        if (members.add(entry)) {
+            entries.add(entry);
+            byDate.add(entry);
+            byAccount.computeIfAbsent(entry.accountId(), _ -> new DateIndex()).add(entry);
+            if (entry.hasVatCode()) {
+                byVatCode.computeIfAbsent(entry.vatCode(), _ -> new DateIndex()).add(entry);
+            }
+        }
+    }
+
+    private void clear() {
+        entries.clear();
+        members.clear();
+        byDate.entries.clear();
+        byAccount.clear();
+        byVatCode.clear();
+        transactions.clear();
+    }
+
+    private <K> void removeFrom(@NotNull Map<K, DateIndex> indexes, @NotNull K key, @NotNull AccountEntry entry) {
+        DateIndex index = indexes.get(key);
+        if (Objects.nonNull(index)) {
+            index.remove(entry);
+            if (index.isEmpty()) {
+                indexes.remove(key);
+            }
+        }
+    }
+
+    private static List<AccountEntry> entriesIn(DateIndex index, @NotNull LocalDate from, @NotNull LocalDate to) {
+        return Objects.isNull(index) ? Collections.emptyList() : index.entries(from, to);
+    }
+
+    private <R> R read(@NotNull Supplier<R> query) {
+        mutex().readLock().lock();
+        try {
+            return query.get();
+        } finally {
+            mutex().readLock().unlock();
+        }
+    }
+}
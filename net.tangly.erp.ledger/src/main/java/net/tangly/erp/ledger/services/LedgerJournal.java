@@ -0,0 +1,410 @@
+/*
+ * Copyright 2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+package net.tangly.erp.ledger.services;
+
+import net.tangly.erp.ledger.domain.AccountEntry;
+import net.tangly.erp.ledger.domain.Transaction;
+import net.tangly.erp.ledger.domain.VatCode;
+import org.jetbrains.annotations.NotNull;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Columnar representation of the journal used for ledger analytics. Each account entry of a booked transaction is a row. The columns are primitive arrays:
+ * <dl>
+ *     <dt>day</dt><dd>date of the transaction as epoch day.</dd>
+ *     <dt>account</dt><dd>identifier of the account encoded as an index in the dictionary of account identifiers.</dd>
+ *     <dt>amount</dt><dd>amount of the entry scaled to {@link #SCALE} decimal digits and stored as a long. Amounts with more decimal digits are rounded half even.
+ *     The rare amounts too large for a long are kept as {@link BigDecimal} outside the columns.</dd>
+ *     <dt>scale</dt><dd>scale of the amount of the entry. Results have the scale the equivalent {@link BigDecimal} computation would have.</dd>
+ *     <dt>VAT code</dt><dd>VAT code of the entry encoded as an index in the dictionary of VAT codes, -1 if the entry has no VAT code.</dd>
+ *     <dt>flags</dt><dd>debit, credit split, synthetic, and large amount flags of the entry.</dd>
+ * </dl>
+ * <p>Aggregate queries are tight loops over the arrays. Amounts are converted to {@link BigDecimal} only for the returned results, or when an intermediate
+ * result would overflow. The journal is a cache of the transactions and is never persisted.</p>
+ * <p>The journal listens to the ledger transactions. Added transactions are appended. A removed or replaced transaction marks the journal as stale, and the
+ * journal is rebuilt from the transactions on the next query. A transaction which cannot be appended also marks the journal as stale; the listener never
+ * interrupts a booking.</p>
+ * <p>Account balances are not part of the journal. They are provided by the running balances of the accounts.</p>
+ */
+public class LedgerJournal implements LedgerTransactions.Listener {
+    /**
+     * Number of decimal digits of the amounts stored in the journal.
+     */
+    public static final int SCALE = 6;
+    private static final int NONE = -1;
+    private static final byte DEBIT = 0x01;
+    private static final byte SYNTHETIC = 0x02;
+    private static final byte CREDIT_SPLIT = 0x04;
+    private static final byte LARGE = 0x08;
+    private static final int CENTS_SCALE = 2;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final long UNITS_PER_CENT = 10_000L;
+
+    /**
+     * Sum of amounts in scaled units. The sum switches to {@link BigDecimal} arithmetic if the long arithmetic would overflow, and tracks the scale of the
+     * result.
+     */
+    private static final class Sum {
+        private long units;
+        private BigDecimal overflow = BigDecimal.ZERO;
+        private int scale;
+
+        void add(long value, int scale) {
+            try {
+                units = Math.addExact(units, value);
+            } catch (ArithmeticException e) {
+                overflow = overflow.add(BigDecimal.valueOf(units, SCALE));
+                units = value;
+            }
+            this.scale = Math.max(this.scale, scale);
+        }
+
+        void add(@NotNull BigDecimal value) {
+            overflow = overflow.add(value);
+            scale = Math.max(scale, value.scale());
+        }
+
+        BigDecimal value() {
+            return overflow.add(BigDecimal.valueOf(units, SCALE)).setScale(scale, RoundingMode.UNNECESSARY);
+        }
+    }
+
+    private final ReentrantReadWriteLock mutex;
+    private final Supplier<? extends Collection<Transaction>> source;
+    private final Map<String, Integer> accountIndexes;
+    private final List<String> accountIds;
+    private final Map<VatCode, Integer> vatCodeIndexes;
+    private final List<VatCode> vatCodes;
+    private final Map<Integer, BigDecimal> largeAmounts;
+    private volatile boolean stale;
+    private int[] days;
+    private int[] accounts;
+    private long[] amounts;
+    private byte[] scales;
+    private int[] vats;
+    private byte[] flags;
+    private int size;
+
+    /**
+     * Creates an empty journal.
+     *
+     * @param source source of the transactions used to rebuild the journal when it is stale
+     */
+    public LedgerJournal(@NotNull Supplier<? extends Collection<Transaction>> source) {
+        this.source = source;
+        mutex = new ReentrantReadWriteLock();
+        accountIndexes = new HashMap<>();
+        accountIds = new ArrayList<>();
+        vatCodeIndexes = new HashMap<>();
+        vatCodes = new ArrayList<>();
+        largeAmounts = new HashMap<>();
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Creates a journal containing the entries of the transactions.
+     *
+     * @param transactions transactions to add to the journal
+     * @return the new journal
+     */
+    public static LedgerJournal of(@NotNull Collection<Transaction> transactions) {
+        var journal = new LedgerJournal(() -> transactions);
+        transactions.forEach(journal::append);
+        return journal;
+    }
+
+    /**
+     * Creates a journal containing the entries of the transactions and listening to their changes.
+     *
+     * @param transactions transactions of the ledger
+     * @return the new journal
+     */
+    public static LedgerJournal of(@NotNull LedgerTransactions transactions) {
+        var journal = new LedgerJournal(transactions::items);
+        transactions.items().forEach(journal::append);
+        transactions.listen(journal);
+        return journal;
+    }
+
+    /**
+     * Appends all entries of the booked transaction to the journal. The journal is marked as stale if the transaction cannot be appended.
+     *
+     * @param transaction booked transaction
+     */
+    public void append(@NotNull Transaction transaction) {
+        mutex.writeLock().lock();
+        try {
+            if (!stale) {
+                appendRows(transaction);
+            }
+        } catch (RuntimeException e) {
+            stale = true;
+        } finally {
+            mutex.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes all rows and dictionary entries of the journal.
+     */
+    public void clear() {
+        mutex.writeLock().lock();
+        try {
+            reset();
+            stale = false;
+        } finally {
+            mutex.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        refresh();
+        return size;
+    }
+
+    // region LedgerTransactions.Listener
+
+    @Override
+    public void added(@NotNull Transaction transaction) {
+        append(transaction);
+    }
+
+    @Override
+    public void removed(@NotNull Transaction transaction) {
+        stale = true;
+    }
+
+    @Override
+    public void cleared() {
+        clear();
+    }
+
+    // endregion
+
+    /**
+     * Returns the sales of the period subject to VAT. The sales are the credit split entries with a VAT code of the non-synthetic transactions.
+     *
+     * @param from    start of the period, open if null
+     * @param to      end of the period, open if null
+     * @param vatCode VAT code of the entries, all entries with a VAT code if null
+     * @return sum of the sales
+     */
+    public BigDecimal vatSales(LocalDate from, LocalDate to, VatCode vatCode) {
+        refresh();
+        mutex.readLock().lock();
+        try {
+            int vat = vatIndex(vatCode);
+            int fromDay = fromDay(from);
+            int toDay = toDay(to);
+            var sum = new Sum();
+            for (int i = 0; i < size; ++i) {
+                if (isVatCreditSplit(i, vat, fromDay, toDay) && ((flags[i] & SYNTHETIC) == 0)) {
+                    if ((flags[i] & LARGE) == 0) {
+                        sum.add(amounts[i], scales[i]);
+                    } else {
+                        sum.add(largeAmounts.get(i));
+                    }
+                }
+            }
+            return sum.value();
+        } finally {
+            mutex.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the VAT amount included in the credit split entries with a VAT code of the period. The VAT amount of each entry is the amount minus the net amount
+     * computed with the VAT rate of its code and rounded half up to cents.
+     *
+     * @param from    start of the period, open if null
+     * @param to      end of the period, open if null
+     * @param vatCode VAT code of the entries, all entries with a VAT code if null
+     * @return sum of the VAT amounts
+     */
+    public BigDecimal vat(LocalDate from, LocalDate to, VatCode vatCode) {
+        refresh();
+        mutex.readLock().lock();
+        try {
+            int vat = vatIndex(vatCode);
+            int fromDay = fromDay(from);
+            int toDay = toDay(to);
+            long[] numerators = new long[vatCodes.size()];
+            long[] denominators = new long[vatCodes.size()];
+            for (int i = 0; i < vatCodes.size(); ++i) {
+                // amount / (1 + rate) in cents is amount * 10^digits / ((10^digits + rate * 10^digits) * units per cent)
+                BigDecimal rate = vatCodes.get(i).vatRate();
+                int digits = Math.max(rate.scale(), 0);
+                try {
+                    numerators[i] = BigDecimal.ONE.movePointRight(digits).longValueExact();
+                    denominators[i] = Math.multiplyExact(Math.addExact(numerators[i], rate.movePointRight(digits).longValueExact()), UNITS_PER_CENT);
+                } catch (ArithmeticException e) {
+                    numerators[i] = 0;
+                }
+            }
+            var sum = new Sum();
+            for (int i = 0; i < size; ++i) {
+                if (isVatCreditSplit(i, vat, fromDay, toDay)) {
+                    int code = vats[i];
+                    int scale = Math.max(scales[i], CENTS_SCALE);
+                    try {
+                        if ((numerators[code] == 0) || ((flags[i] & LARGE) != 0)) {
+                            throw new ArithmeticException();
+                        }
+                        long net = Math.multiplyExact(divideHalfUp(Math.multiplyExact(amounts[i], numerators[code]), denominators[code]), UNITS_PER_CENT);
+                        sum.add(amounts[i] - net, scale);
+                    } catch (ArithmeticException e) {
+                        BigDecimal amount = amount(i);
+                        sum.add(amount.subtract(amount.divide(BigDecimal.ONE.add(vatCodes.get(code).vatRate()), CENTS_SCALE, RoundingMode.HALF_UP)));
+                    }
+                }
+            }
+            return sum.value();
+        } finally {
+            mutex.readLock().unlock();
+        }
+    }
+
+    private void appendRows(@NotNull Transaction transaction) {
+        int day = (int) transaction.date().toEpochDay();
+        transaction.creditSplits().forEach(o -> appendRow(day, o, transaction.synthetic(), true));
+        if (transaction.debitSplits() != transaction.creditSplits()) {
+            transaction.debitSplits().forEach(o -> appendRow(day, o, transaction.synthetic(), false));
+        }
+    }
+
+    private void appendRow(int day, @NotNull AccountEntry entry, boolean synthetic, boolean creditSplit) {
+        if (size == days.length) {
+            grow();
+        }
+        days[size] = day;
+        accounts[size] = accountIndexes.computeIfAbsent(entry.accountId(), id -> {
+            accountIds.add(id);
+            return accountIds.size() - 1;
+        });
+        scales[size] = (byte) Math.clamp(entry.amount().scale(), 0, SCALE);
+        BigDecimal amount = entry.amount().setScale(SCALE, RoundingMode.HALF_EVEN);
+        boolean large = amount.unscaledValue().bitLength() >= Long.SIZE;
+        amounts[size] = large ? 0 : amount.unscaledValue().longValue();
+        if (large) {
+            largeAmounts.put(size, amount.setScale(scales[size], RoundingMode.HALF_EVEN));
+        }
+        vats[size] = entry.hasVatCode() ? vatCodeIndexes.computeIfAbsent(entry.vatCode(), code -> {
+            vatCodes.add(code);
+            return vatCodes.size() - 1;
+        }) : NONE;
+        flags[size] = (byte) ((entry.isDebit() ? DEBIT : 0) | (synthetic ? SYNTHETIC : 0) | (creditSplit ? CREDIT_SPLIT : 0) | (large ? LARGE : 0));
+        ++size;
+    }
+
+    /**
+     * Rebuilds the journal from the source of the transactions if the journal is stale.
+     */
+    private void refresh() {
+        if (stale) {
+            mutex.writeLock().lock();
+            try {
+                if (stale) {
+                    reset();
+                    source.get().forEach(this::appendRows);
+                    stale = false;
+                }
+            } finally {
+                mutex.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Returns the amount of the row with the scale of the entry.
+     */
+    private BigDecimal amount(int row) {
+        return ((flags[row] & LARGE) == 0) ? BigDecimal.valueOf(amounts[row], SCALE).setScale(scales[row], RoundingMode.UNNECESSARY) : largeAmounts.get(row);
+    }
+
+    /**
+     * Returns true if the row is a credit split entry in the period with the requested VAT code. A negative VAT code index matches all entries with a VAT code.
+     */
+    private boolean isVatCreditSplit(int row, int vat, int fromDay, int toDay) {
+        return ((flags[row] & CREDIT_SPLIT) != 0) && (vats[row] != NONE) && ((vat == NONE) || (vats[row] == vat)) && (days[row] >= fromDay) &&
+            (days[row] <= toDay);
+    }
+
+    /**
+     * Returns the index of the VAT code, {@link #NONE} if the code is null. An unknown code is mapped to an index matching no row.
+     */
+    private int vatIndex(VatCode vatCode) {
+        return Objects.isNull(vatCode) ? NONE : vatCodeIndexes.getOrDefault(vatCode, Integer.MAX_VALUE);
+    }
+
+    private void reset() {
+        accountIndexes.clear();
+        accountIds.clear();
+        vatCodeIndexes.clear();
+        vatCodes.clear();
+        largeAmounts.clear();
+        allocate(INITIAL_CAPACITY);
+        size = 0;
+    }
+
+    private void allocate(int capacity) {
+        days = new int[capacity];
+        accounts = new int[capacity];
+        amounts = new long[capacity];
+        scales = new byte[capacity];
+        vats = new int[capacity];
+        flags = new byte[capacity];
+    }
+
+    private void grow() {
+        int capacity = days.length * 2;
+        days = Arrays.copyOf(days, capacity);
+        accounts = Arrays.copyOf(accounts, capacity);
+        amounts = Arrays.copyOf(amounts, capacity);
+        scales = Arrays.copyOf(scales, capacity);
+        vats = Arrays.copyOf(vats, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+    }
+
+    private static int fromDay(LocalDate from) {
+        return Objects.isNull(from) ? Integer.MIN_VALUE : (int) from.toEpochDay();
+    }
+
+    private static int toDay(LocalDate to) {
+        return Objects.isNull(to) ? Integer.MAX_VALUE : (int) to.toEpochDay();
+    }
+
+    /**
+     * Divides and rounds half up, meaning away from zero for ties, as {@link RoundingMode#HALF_UP} does for negative values.
+     */
+    private static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (2 * Math.abs(remainder) >= divisor) {
+            quotient += Long.signum(dividend);
+        }
+        return quotient;
+    }
+}
@@ -14,7 +14,6 @@
 package net.tangly.erp.ledger.services;
 
 import net.tangly.commons.utilities.BigDecimalUtilities;
-import net.tangly.core.DateRange;
 import net.tangly.core.domain.Document;
 import net.tangly.core.domain.Realm;
 import net.tangly.core.providers.Provider;
@@ -27,10 +26,12 @@ import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.NotNull;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 
@@ -45,12 +46,29 @@ public interface LedgerRealm extends Realm {
 
     Provider<Account> accounts();
 
-    Provider<Transaction> transactions();
+    /**
+     * Returns the transactions of the ledger partitioned by month.
+     *
+     * @return provider of the transactions
+     */
+    LedgerTransactions transactions();
 
-    Provider<AccountEntry> entries();
+    /**
+     * Returns the materialized view of all entries booked in the accounts of the ledger.
+     *
+     * @return view of the entries
+     */
+    LedgerEntries entries();
 
     Provider<Document> documents();
 
+    /**
+     * Returns the columnar journal of the ledger used for aggregate queries.
+     *
+     * @return columnar journal
+     */
+    LedgerJournal journal();
+
     default List<Account> assets() {
         return accounts().items().stream().filter(o -> Account.AccountGroup.ASSETS == o.group()).toList();
     }
@@ -68,11 +86,11 @@ public interface LedgerRealm extends Realm {
     }
 
     default List<Transaction> transactions(LocalDate from, LocalDate to) {
-        return transactions().items().stream().filter(o -> DateRange.of(from, to).isActive(o.date())).toList();
+        return transactions().items(from, to);
     }
 
     default Optional<Account> accountBy(String id) {
-        return accounts().items().stream().filter(o -> id.equals(o.id())).findAny();
+        return Provider.findById(accounts(), id);
     }
 
     default List<Account> accountsOwnedBy(String id) {
@@ -81,12 +99,37 @@ public interface LedgerRealm extends Realm {
 
     void update(@NotNull Account account);
 
+    /**
+     * Executes the operations as one batch on the accounts and transactions providers. Persistent providers commit the changes once at the end of the batch.
+     *
+     * @param operations operations to perform on the ledger such as bookings of transactions
+     */
+    default void batch(@NotNull Runnable operations) {
+        transactions().batch(() -> accounts().batch(operations));
+    }
+
     default void book(@NotNull Transaction transaction) {
-        bookTransaction(transaction);
-        Transaction vatSyntheticTransaction = computeVat(transaction);
-        if (vatSyntheticTransaction != null) {
-            bookTransaction(vatSyntheticTransaction);
-        }
+        bookAll(List.of(transaction));
+    }
+
+    /**
+     * Books the transactions and their synthetic VAT transactions as one batch. The entries are appended to the accounts resolved through the account identifier
+     * index. Each modified account is updated once per batch, and persistent providers commit the changes once at the end of the batch.
+     *
+     * @param transactions transactions to book in the given order
+     */
+    default void bookAll(@NotNull Collection<Transaction> transactions) {
+        batch(() -> {
+            Map<String, Account> modifiedAccounts = new LinkedHashMap<>();
+            transactions.forEach(transaction -> {
+                bookTransaction(transaction, modifiedAccounts);
+                Transaction vatSyntheticTransaction = computeVat(transaction);
+                if (vatSyntheticTransaction != null) {
+                    bookTransaction(vatSyntheticTransaction, modifiedAccounts);
+                }
+            });
+            modifiedAccounts.values().forEach(accounts()::update);
+        });
     }
 
     /**
@@ -136,16 +179,11 @@ public interface LedgerRealm extends Realm {
 // region VAT-computations
 
     default BigDecimal computeVatSales(LocalDate from, LocalDate to, VatCode vatCode) {
-        return transactions(from, to).stream().filter(o -> !o.synthetic()).flatMap(o -> o.creditSplits().stream())
-            .filter(o -> Objects.isNull(vatCode) ? Objects.nonNull(o.vatCode()) : vatCode.equals(o.vatCode())).map(AccountEntry::amount)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return journal().vatSales(from, to, vatCode);
     }
 
     default BigDecimal computeVat(LocalDate from, LocalDate to, VatCode vatCode) {
-        return transactions(from, to).stream().flatMap(o -> o.creditSplits().stream())
-            .filter(o -> Objects.isNull(vatCode) ? Objects.nonNull(o.vatCode()) : vatCode.equals(o.vatCode())).map(
-                o -> o.getVat().map(bigDecimal -> o.amount().subtract(o.amount().divide(BigDecimal.ONE.add(bigDecimal), 2, RoundingMode.HALF_UP)))
-                    .orElse(BigDecimal.ZERO)).reduce(BigDecimal.ZERO, BigDecimal::add);
+        return journal().vat(from, to, vatCode);
     }
 
     default BigDecimal computeDueVat(LocalDate from, LocalDate to, VatCode vatCode) {
@@ -157,17 +195,23 @@ public interface LedgerRealm extends Realm {
 
     // endregion
 
-    private void bookTransaction(@NotNull Transaction transaction) {
+    private void bookTransaction(@NotNull Transaction transaction, @NotNull Map<String, Account> modifiedAccounts) {
         transactions().update(transaction);
-        transaction.creditSplits().forEach(this::bookEntry);
-        transaction.debitSplits().forEach(this::bookEntry);
+        transaction.creditSplits().forEach(o -> bookEntry(transaction, o, modifiedAccounts));
+        transaction.debitSplits().forEach(o -> bookEntry(transaction, o, modifiedAccounts));
     }
 
-    private void bookEntry(@NotNull AccountEntry entry) {
-        Optional<Account> account = accountBy(entry.accountId());
-        account.ifPresentOrElse(o -> {
-            o.addEntry(entry);
-            accounts().update(o);
-        }, () -> logger.atError().log("account {} for entry with amount {} booked {} is undefined", entry.accountId(), entry.amount(), entry.date()));
+    private void bookEntry(@NotNull Transaction transaction, @NotNull AccountEntry entry, @NotNull Map<String, Account> modifiedAccounts) {
+        Account account = modifiedAccounts.get(entry.accountId());
+        if (Objects.isNull(account)) {
+            account = accountBy(entry.accountId()).orElse(null);
+        }
+        if (Objects.nonNull(account)) {
+            account.addEntry(entry);
+            entries().update(transaction, entry);
+            modifiedAccounts.put(account.id(), account);
+        } else {
+            logger.atError().log("account {} for entry with amount {} booked {} is undefined", entry.accountId(), entry.amount(), entry.date());
+        }
     }
 }
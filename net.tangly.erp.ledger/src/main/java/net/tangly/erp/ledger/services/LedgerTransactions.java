@@ -0,0 +1,278 @@
+/*
+ * Copyright 2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+package net.tangly.erp.ledger.services;
+
+import net.tangly.core.providers.Provider;
+import net.tangly.erp.ledger.domain.Transaction;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+/**
+ * The class is a decorator for a provider of transactions partitioning the transactions by month. Range queries only visit the partitions overlapping the
+ * requested period. Looking at the current quarter of a tenant with many years of history does not scan the older years.
+ * <p>Membership is defined through equality as in the decorated provider. The partitions are a cache of the decorated provider and are never persisted.</p>
+ * <p>A closed fiscal year can be sealed. The transactions of a sealed year are compacted into one read-only array sorted by date. A sealed segment is never
+ * modified in place; the rare correction of a closed year, for example the replacement of a transaction to populate its expected date, builds a new compact
+ * segment. Sealing is opt-in and can be undone with {@link #unseal(Year)}. The sealing of years must be reapplied when the ledger is loaded.</p>
+ * <p>Listeners are notified when a transaction is added to or removed from the provider, for example when a transaction is replaced. Derived views such as
+ * the entries view and the columnar journal stay consistent with the transactions through this mechanism.</p>
+ */
+public class LedgerTransactions extends Provider<Transaction> {
+    private static final Comparator<Transaction> BY_DATE = Comparator.comparing(Transaction::date);
+
+    /**
+     * Listener notified of the structural changes of the transactions. The listeners are called under the write lock of the provider.
+     */
+    public interface Listener {
+        void added(@NotNull Transaction transaction);
+
+        void removed(@NotNull Transaction transaction);
+
+        void cleared();
+    }
+
+    private final Provider<Transaction> provider;
+    private final NavigableMap<YearMonth, List<Transaction>> partitions;
+    private final NavigableMap<Year, Transaction[]> sealed;
+    private final Set<Transaction> members;
+    private final List<Listener> listeners;
+
+    public LedgerTransactions(@NotNull Provider<Transaction> provider) {
+        this.provider = provider;
+        this.partitions = new TreeMap<>();
+        this.sealed = new TreeMap<>();
+        this.members = new HashSet<>();
+        this.listeners = new CopyOnWriteArrayList<>();
+        provider.items().forEach(this::add);
+    }
+
+    public static LedgerTransactions of(@NotNull Provider<Transaction> provider) {
+        return new LedgerTransactions(provider);
+    }
+
+    /**
+     * Registers a listener notified of the transactions added to or removed from the provider.
+     *
+     * @param listener listener to register
+     */
+    public void listen(@NotNull Listener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public List<Transaction> items() {
+        return provider.items();
+    }
+
+    @Override
+    public void update(@NotNull Transaction transaction) {
+        execute(() -> {
+            provider.update(transaction);
+            if (add(transaction)) {
+                listeners.forEach(o -> o.added(transaction));
+            }
+        });
+    }
+
+    @Override
+    public void batch(@NotNull Runnable operations) {
+        execute(() -> provider.batch(operations));
+    }
+
+    @Override
+    public void delete(@NotNull Transaction transaction) {
+        execute(() -> {
+            provider.delete(transaction);
+            if (members.remove(transaction)) {
+                Year year = Year.from(transaction.date());
+                Transaction[] segment = sealed.get(year);
+                if (Objects.nonNull(segment)) {
+                    sealed.put(year, Arrays.stream(segment).filter(o -> !o.equals(transaction)).toArray(Transaction[]::new));
+                } else {
+                    YearMonth month = YearMonth.from(transaction.date());
+                    List<Transaction> partition = partitions.get(month);
+                    partition.remove(transaction);
+                    if (partition.isEmpty()) {
+                        partitions.remove(month);
+                    }
+                }
+                listeners.forEach(o -> o.removed(transaction));
+            }
+        });
+    }
+
+    @Override
+    public void deleteAll() {
+        execute(() -> {
+            provider.deleteAll();
+            partitions.clear();
+            sealed.clear();
+            members.clear();
+            listeners.forEach(Listener::cleared);
+        });
+    }
+
+    @Override
+    public <U> Optional<Transaction> findBy(@NotNull String name, @NotNull Function<Transaction, U> getter, U value) {
+        return provider.findBy(name, getter, value);
+    }
+
+    /**
+     * Returns the transactions with a date in the closed period. Only the partitions overlapping the period are visited. The transactions are ordered by month,
+     * and by booking order inside a month. The transactions of sealed years are ordered by date.
+     *
+     * @param from start of the period, open if null
+     * @param to   end of the period, open if null
+     * @return list of transactions of the period
+     */
+    public List<Transaction> items(LocalDate from, LocalDate to) {
+        mutex().readLock().lock();
+        try {
+            if (Objects.nonNull(from) && Objects.nonNull(to) && from.isAfter(to)) {
+                return Collections.emptyList();
+            }
+            NavigableMap<YearMonth, List<Transaction>> segments = new TreeMap<>();
+            subMap(sealed, Objects.isNull(from) ? null : Year.from(from), Objects.isNull(to) ? null : Year.from(to)).forEach(
+                (year, transactions) -> segments.put(year.atMonth(1), Arrays.asList(transactions)));
+            segments.putAll(subMap(partitions, Objects.isNull(from) ? null : YearMonth.from(from), Objects.isNull(to) ? null : YearMonth.from(to)));
+            List<Transaction> result = new ArrayList<>();
+            segments.values().forEach(partition -> partition.stream()
+                    .filter(o -> (Objects.isNull(from) || !o.date().isBefore(from)) && (Objects.isNull(to) || !o.date().isAfter(to))).forEach(result::add));
+            return result;
+        } finally {
+            mutex().readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the years with at least one booked transaction.
+     *
+     * @return sorted set of years
+     */
+    public NavigableSet<Year> years() {
+        mutex().readLock().lock();
+        try {
+            NavigableSet<Year> years = new TreeSet<>();
+            partitions.keySet().forEach(o -> years.add(Year.of(o.getYear())));
+            sealed.forEach((year, segment) -> {
+                if (segment.length > 0) {
+                    years.add(year);
+                }
+            });
+            return years;
+        } finally {
+            mutex().readLock().unlock();
+        }
+    }
+
+    /**
+     * Seals a closed fiscal year. The monthly partitions of the year are compacted into one array sorted by date. Sealing an already sealed year has no effect.
+     *
+     * @param year year to seal
+     */
+    public void seal(@NotNull Year year) {
+        execute(() -> {
+            if (!sealed.containsKey(year)) {
+                NavigableMap<YearMonth, List<Transaction>> months = partitions.subMap(year.atMonth(1), true, year.atMonth(12), true);
+                Transaction[] segment = months.values().stream().flatMap(List::stream).sorted(BY_DATE).toArray(Transaction[]::new);
+                months.clear();
+                sealed.put(year, segment);
+            }
+        });
+    }
+
+    /**
+     * Unseals a year. The transactions of the compact segment are distributed again into monthly partitions in date order. Unsealing a year which is not
+     * sealed has no effect.
+     *
+     * @param year year to unseal
+     */
+    public void unseal(@NotNull Year year) {
+        execute(() -> {
+            Transaction[] segment = sealed.remove(year);
+            if (Objects.nonNull(segment)) {
+                Arrays.stream(segment).forEach(o -> partitions.computeIfAbsent(YearMonth.from(o.date()), _ -> new ArrayList<>()).add(o));
+            }
+        });
+    }
+
+    /**
+     * Returns true if the year is sealed.
+     *
+     * @param year year to check
+     * @return flag indicating if the year is sealed
+     */
+    public boolean isSealed(@NotNull Year year) {
+        mutex().readLock().lock();
+        try {
+            return sealed.containsKey(year);
+        } finally {
+            mutex().readLock().unlock();
+        }
+    }
+
+    private boolean add(@NotNull Transaction transaction) {
+        if (members.add(transaction)) {
+            Year year = Year.from(transaction.date());
+            Transaction[] segment = sealed.get(year);
+            if (Objects.nonNull(segment)) {
+                sealed.put(year, insert(segment, transaction));
+                return true;
+            }
+            partitions.computeIfAbsent(YearMonth.from(transaction.date()), _ -> new ArrayList<>()).add(transaction);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns a new compact segment with the transaction inserted after all transactions of the same or an earlier date. The date order of the segment is kept.
+     */
+    private static Transaction[] insert(@NotNull Transaction[] segment, @NotNull Transaction transaction) {
+        int position = segment.length;
+        while ((position > 0) && segment[position - 1].date().isAfter(transaction.date())) {
+            --position;
+        }
+        Transaction[] result = new Transaction[segment.length + 1];
+        System.arraycopy(segment, 0, result, 0, position);
+        result[position] = transaction;
+        System.arraycopy(segment, position, result, position + 1, segment.length - position);
+        return result;
+    }
+
+    private static <K extends Comparable<K>, V> NavigableMap<K, V> subMap(@NotNull NavigableMap<K, V> map, K from, K to) {
+        if (Objects.isNull(from)) {
+            return Objects.isNull(to) ? map : map.headMap(to, true);
+        }
+        return Objects.isNull(to) ? map.tailMap(from, true) : map.subMap(from, true, to, true);
+    }
+}
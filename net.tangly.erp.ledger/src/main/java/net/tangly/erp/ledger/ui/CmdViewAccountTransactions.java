@@ -21,9 +21,9 @@ import com.vaadin.flow.component.formlayout.FormLayout;
 import com.vaadin.flow.component.grid.Grid;
 import com.vaadin.flow.component.textfield.BigDecimalField;
 import net.tangly.commons.lang.Strings;
-import net.tangly.core.HasDate;
 import net.tangly.erp.ledger.domain.Account;
 import net.tangly.erp.ledger.domain.AccountEntry;
+import net.tangly.erp.ledger.domain.Transaction;
 import net.tangly.erp.ledger.services.LedgerBoundedDomain;
 import net.tangly.ui.app.domain.Cmd;
 import net.tangly.ui.components.ItemView;
@@ -103,25 +103,19 @@ public class CmdViewAccountTransactions implements Cmd {
     }
 
     private String referenceFor(AccountEntry entry) {
-        return domain.realm().transactions().items().stream().filter(o -> o.creditSplits().contains(entry) || o.debitSplits().contains(entry)).findAny()
-            .orElseThrow().reference();
+        return transactionFor(entry).reference();
     }
 
     private boolean isSynthetic(AccountEntry entry) {
-        return domain.realm().transactions().items().stream().filter(o -> o.creditSplits().contains(entry) || o.debitSplits().contains(entry)).findAny()
-            .orElseThrow().synthetic();
+        return transactionFor(entry).synthetic();
     }
 
     private String textFor(AccountEntry entry) {
-        return Strings.isNullOrBlank(entry.text()) ?
-            domain.realm().transactions().items().stream().filter(o -> o.creditSplits().contains(entry) || o.debitSplits().contains(entry)).findAny()
-                .orElseThrow().text() : entry.text();
+        return Strings.isNullOrBlank(entry.text()) ? transactionFor(entry).text() : entry.text();
     }
 
     private String accountIdFor(AccountEntry entry) {
-        var transaction =
-            domain.realm().transactions().items().stream().filter(o -> o.creditSplits().contains(entry) || o.debitSplits().contains(entry)).findAny()
-                .orElseThrow();
+        var transaction = transactionFor(entry);
         if (transaction.creditSplits().contains(entry) && transaction.debitSplits().size() == 1) {
             return transaction.debitSplits().getFirst().accountId();
         } else if (transaction.debitSplits().contains(entry) && transaction.creditSplits().size() == 1) {
@@ -131,7 +125,11 @@ public class CmdViewAccountTransactions implements Cmd {
         }
     }
 
+    private Transaction transactionFor(AccountEntry entry) {
+        return domain.realm().entries().transactionOf(entry).orElseThrow();
+    }
+
     private List<AccountEntry> entries(LocalDate from, LocalDate to) {
-        return account.entries().stream().filter(new HasDate.IntervalFilter<>(from, to)).toList();
+        return domain.realm().entries().entriesOf(account.id(), from, to);
     }
 }
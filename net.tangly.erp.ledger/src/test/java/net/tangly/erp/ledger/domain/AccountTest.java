@@ -0,0 +1,89 @@
+/*
+ * Copyright 2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+
+package net.tangly.erp.ledger.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccountTest {
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+
+    @Test
+    void testRunningBalances() {
+        var account = Account.of(1000, Account.AccountKind.ASSET, "CHF", "Bank", null);
+        account.addEntry(AccountEntry.debit("1000", START, new BigDecimal("100.00"), null, null, null));
+        account.addEntry(AccountEntry.debit("1000", START.plusDays(10), new BigDecimal("50.00"), null, null, null));
+        account.addEntry(AccountEntry.credit("1000", START.plusDays(20), new BigDecimal("30.00"), null, null, null));
+
+        assertThat(account.balance(START.minusDays(1))).isEqualByComparingTo("0");
+        assertThat(account.balance(START)).isEqualByComparingTo("100");
+        assertThat(account.balance(START.plusDays(15))).isEqualByComparingTo("150");
+        assertThat(account.balance(START.plusDays(30))).isEqualByComparingTo("120");
+        assertThat(account.balance(START.plusDays(5), START.plusDays(25))).isEqualByComparingTo("20");
+        assertThat(account.balance(START.plusDays(25), START.plusDays(5))).isEqualByComparingTo("0");
+    }
+
+    @Test
+    void testBalancesAfterBookingInvalidation() {
+        var account = Account.of(1000, Account.AccountKind.ASSET, "CHF", "Bank", null);
+        account.addEntry(AccountEntry.debit("1000", START.plusDays(10), new BigDecimal("100.00"), null, null, null));
+        assertThat(account.balance(START.plusDays(30))).isEqualByComparingTo("100");
+
+        account.addEntry(AccountEntry.debit("1000", START.plusDays(20), new BigDecimal("10.00"), null, null, null));
+        assertThat(account.balance(START.plusDays(30))).isEqualByComparingTo("110");
+
+        account.addEntry(AccountEntry.credit("1000", START, new BigDecimal("5.00"), null, null, null));
+        assertThat(account.balance(START)).isEqualByComparingTo("-5");
+        assertThat(account.balance(START.plusDays(30))).isEqualByComparingTo("105");
+    }
+
+    @Test
+    void testEntriesInBookingOrder() {
+        var account = Account.of(1000, Account.AccountKind.ASSET, "CHF", "Bank", null);
+        var late = AccountEntry.debit("1000", START.plusDays(20), BigDecimal.ONE, null, "late", null);
+        var early = AccountEntry.debit("1000", START, BigDecimal.TEN, null, "early", null);
+        account.addEntry(late);
+        account.addEntry(early);
+
+        assertThat(account.getEntriesFor(START, START.plusDays(30))).containsExactly(late, early);
+        assertThat(account.getEntriesFor(START.plusDays(1), START.plusDays(30))).containsExactly(late);
+    }
+
+    @Test
+    void testAggregateBalances() {
+        var bank = Account.of(1000, Account.AccountKind.ASSET, "CHF", "Bank", "10");
+        var cash = Account.of(1010, Account.AccountKind.ASSET, "CHF", "Cash", "10");
+        var liquidity = Account.of("10", Account.AccountGroup.ASSETS, "CHF", "Liquidity", "1");
+        var assets = Account.of("1", Account.AccountGroup.ASSETS, "CHF", "Assets", null);
+        liquidity.updateAggregatedAccounts(List.of(bank, cash));
+        assets.updateAggregatedAccounts(List.of(liquidity));
+        bank.addEntry(AccountEntry.debit("1000", START, new BigDecimal("100.00"), null, null, null));
+        cash.addEntry(AccountEntry.debit("1010", START.plusDays(10), new BigDecimal("20.00"), null, null, null));
+
+        assertThat(assets.balance(START.plusDays(30))).isEqualByComparingTo("120");
+        assertThat(assets.balance(START.plusDays(5), START.plusDays(30))).isEqualByComparingTo("20");
+
+        cash.addEntry(AccountEntry.credit("1010", START.plusDays(20), new BigDecimal("5.00"), null, null, null));
+        assertThat(assets.balance(START.plusDays(30))).isEqualByComparingTo("115");
+
+        liquidity.updateAggregatedAccounts(List.of(bank));
+        assertThat(assets.balance(START.plusDays(30))).isEqualByComparingTo("100");
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+
+package net.tangly.erp.ledger.ports;
+
+import net.tangly.erp.ledger.domain.Account;
+import net.tangly.erp.ledger.domain.AccountEntry;
+import net.tangly.erp.ledger.domain.Transaction;
+import net.tangly.erp.ledger.domain.VatCode;
+import net.tangly.erp.ledger.services.LedgerRealm;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LedgerEntitiesTest {
+    private static final VatCode NORMAL = new VatCode(1, "N81", new BigDecimal("0.081"), new BigDecimal("0.062"), true);
+    private static final VatCode REDUCED = new VatCode(2, "R26", new BigDecimal("0.026"), new BigDecimal("0.012"), true);
+    private static final LocalDate FROM = LocalDate.of(2024, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2024, 12, 31);
+
+    private static Transaction sale(@NotNull String date, @NotNull String amount, @NotNull String reference, VatCode vatCode) {
+        LocalDate day = LocalDate.parse(date);
+        BigDecimal value = new BigDecimal(amount);
+        return Transaction.of(day, reference, null, AccountEntry.debit("1000", day, value, reference, null, vatCode),
+            AccountEntry.credit("3400", day, value, reference, null, vatCode), null, null);
+    }
+
+    private static LedgerRealm realm() {
+        var realm = new LedgerEntities();
+        realm.update(Account.of(1000, Account.AccountKind.ASSET, "CHF", "Bank", null));
+        realm.update(Account.of(2201, Account.AccountKind.LIABILITY, "CHF", "VAT due", null));
+        realm.update(Account.of(3400, Account.AccountKind.INCOME, "CHF", "Sales", null));
+        realm.bookAll(List.of(sale("2023-12-31", "999.99", "R-0", NORMAL), sale("2024-01-15", "1200.00", "R-1", NORMAL), sale("2024-02-01", "333.33", "R-2", REDUCED),
+            sale("2024-03-10", "50", "R-3", null), sale("2024-04-30", "1000.55", "R-4", NORMAL)));
+        return realm;
+    }
+
+    private static void assertSameVat(@NotNull LedgerRealm realm) {
+        for (VatCode vatCode : new VatCode[]{null, NORMAL, REDUCED}) {
+            List<Transaction> transactions = realm.transactions(FROM, TO);
+            assertThat(realm.computeVatSales(FROM, TO, vatCode)).isEqualTo(
+                transactions.stream().filter(o -> !o.synthetic()).flatMap(o -> o.creditSplits().stream()).filter(o -> matches(o, vatCode))
+                    .map(AccountEntry::amount).reduce(BigDecimal.ZERO, BigDecimal::add));
+            assertThat(realm.computeVat(FROM, TO, vatCode)).isEqualTo(transactions.stream().flatMap(o -> o.creditSplits().stream()).filter(o -> matches(o, vatCode))
+                .map(o -> o.getVat().map(r -> o.amount().subtract(o.amount().divide(BigDecimal.ONE.add(r), 2, RoundingMode.HALF_UP))).orElse(BigDecimal.ZERO))
+                .reduce(BigDecimal.ZERO, BigDecimal::add));
+            assertThat(realm.computeDueVat(FROM, TO, vatCode)).isEqualTo(
+                realm.accountBy(LedgerRealm.VAT_ACCOUNT).orElseThrow().getEntriesFor(FROM, TO).stream().filter(AccountEntry::isCredit)
+                    .filter(o -> matches(o, vatCode)).map(AccountEntry::amount).reduce(BigDecimal.ZERO, BigDecimal::add));
+        }
+    }
+
+    private static boolean matches(@NotNull AccountEntry entry, VatCode vatCode) {
+        return Objects.isNull(vatCode) ? Objects.nonNull(entry.vatCode()) : vatCode.equals(entry.vatCode());
+    }
+
+    @Test
+    void testVatComputations() {
+        var realm = realm();
+        assertSameVat(realm);
+        assertThat(realm.computeVatSales(FROM, TO, NORMAL)).isEqualTo(new BigDecimal("2200.55"));
+        assertThat(realm.computeDueVat(FROM, TO, NORMAL)).isEqualTo(new BigDecimal("136.43"));
+    }
+
+    @Test
+    void testVatComputationsAfterReplaceAndDelete() {
+        var realm = realm();
+        var replaced = realm.transactions().items().stream().filter(o -> "R-1".equals(o.reference()) && !o.synthetic()).findAny().orElseThrow();
+        realm.transactions().replace(replaced, sale("2024-01-15", "1300.00", "R-1", REDUCED));
+        assertSameVat(realm);
+
+        var deleted = realm.transactions().items().stream().filter(o -> "R-4".equals(o.reference()) && !o.synthetic()).findAny().orElseThrow();
+        realm.transactions().delete(deleted);
+        assertSameVat(realm);
+        assertThat(realm.computeVatSales(FROM, TO, NORMAL)).isEqualTo(BigDecimal.ZERO);
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+
+package net.tangly.erp.ledger.services;
+
+import net.tangly.core.providers.ProviderInMemory;
+import net.tangly.erp.ledger.domain.AccountEntry;
+import net.tangly.erp.ledger.domain.Transaction;
+import net.tangly.erp.ledger.domain.VatCode;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static net.tangly.erp.ledger.services.LedgerTransactionsTest.transaction;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LedgerEntriesTest {
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+    private static final LocalDate END = LocalDate.of(2024, 12, 31);
+
+    private static void book(LedgerTransactions transactions, LedgerEntries entries, Transaction transaction) {
+        transactions.update(transaction);
+        transaction.creditSplits().forEach(o -> entries.update(transaction, o));
+        transaction.debitSplits().forEach(o -> entries.update(transaction, o));
+    }
+
+    @Test
+    void testIndexes() {
+        var entries = new LedgerEntries();
+        var vatCode = new VatCode(1, "N81", new BigDecimal("0.081"), new BigDecimal("0.062"), true);
+        var early = transaction("2024-01-15", "100.00", "R-1");
+        var late = Transaction.of(LocalDate.of(2024, 3, 1), "R-2", null, AccountEntry.debit("1000", LocalDate.of(2024, 3, 1), BigDecimal.TEN, "R-2", null, null),
+            AccountEntry.credit("3400", LocalDate.of(2024, 3, 1), BigDecimal.TEN, "R-2", null, vatCode), null, null);
+        early.creditSplits().forEach(o -> entries.update(early, o));
+        early.debitSplits().forEach(o -> entries.update(early, o));
+        late.creditSplits().forEach(o -> entries.update(late, o));
+        late.debitSplits().forEach(o -> entries.update(late, o));
+
+        assertThat(entries.items()).hasSize(4);
+        assertThat(entries.entries(START, END)).hasSize(4);
+        assertThat(entries.entries(LocalDate.of(2024, 2, 1), END)).hasSize(2);
+        assertThat(entries.entriesOf("3400", START, END)).containsExactly(early.credit(), late.credit());
+        assertThat(entries.entriesOf("1000", LocalDate.of(2024, 2, 1), END)).containsExactly(late.debit());
+        assertThat(entries.entriesWith(vatCode, START, END)).containsExactly(late.credit());
+        assertThat(entries.entriesOf("9999", START, END)).isEmpty();
+
+        entries.delete(early.credit());
+        assertThat(entries.entriesOf("3400", START, END)).containsExactly(late.credit());
+        assertThat(entries.transactionOf(early.credit())).isEmpty();
+    }
+
+    @Test
+    void testEqualEntriesOfDistinctTransactions() {
+        var transactions = LedgerTransactions.of(ProviderInMemory.of());
+        var entries = new LedgerEntries();
+        transactions.listen(entries);
+        var first = transaction("2024-01-15", "100.00", "R-1");
+        var second = transaction("2024-01-15", "100.00", "R-1");
+        book(transactions, entries, first);
+        entries.update(second, second.credit());
+        entries.update(second, second.debit());
+
+        assertThat(entries.items()).hasSize(4);
+        assertThat(entries.transactionOf(first.credit()).orElseThrow()).isSameAs(first);
+        assertThat(entries.transactionOf(second.credit()).orElseThrow()).isSameAs(second);
+    }
+
+    @Test
+    void testReplacedTransactionOwnsEntries() {
+        var transactions = LedgerTransactions.of(ProviderInMemory.of());
+        var entries = new LedgerEntries();
+        transactions.listen(entries);
+        var original = transaction("2024-01-15", "100.00", "R-1");
+        book(transactions, entries, original);
+        var replacement = original.withDateExpected(LocalDate.of(2024, 2, 15));
+
+        transactions.replace(original, replacement);
+
+        assertThat(entries.items()).hasSize(2);
+        assertThat(entries.transactionOf(original.credit()).orElseThrow()).isSameAs(replacement);
+        assertThat(entries.transactionOf(original.debit()).orElseThrow()).isSameAs(replacement);
+
+        transactions.delete(replacement);
+        assertThat(entries.transactionOf(original.credit())).isEmpty();
+        assertThat(entries.entriesOf("3400", START, END)).containsExactly(original.credit());
+    }
+}
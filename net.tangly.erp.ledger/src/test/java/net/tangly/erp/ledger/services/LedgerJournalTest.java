@@ -0,0 +1,151 @@
+/*
+ * Copyright 2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+
+package net.tangly.erp.ledger.services;
+
+import net.tangly.core.providers.ProviderInMemory;
+import net.tangly.erp.ledger.domain.AccountEntry;
+import net.tangly.erp.ledger.domain.Transaction;
+import net.tangly.erp.ledger.domain.VatCode;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LedgerJournalTest {
+    static final VatCode NORMAL = new VatCode(1, "N81", new BigDecimal("0.081"), new BigDecimal("0.062"), true);
+    static final VatCode REDUCED = new VatCode(2, "R26", new BigDecimal("0.026"), new BigDecimal("0.012"), true);
+    private static final LocalDate FROM = LocalDate.of(2024, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2024, 12, 31);
+
+    static Transaction sale(@NotNull String date, @NotNull String amount, @NotNull String reference, VatCode vatCode) {
+        LocalDate day = LocalDate.parse(date);
+        BigDecimal value = new BigDecimal(amount);
+        return Transaction.of(day, reference, null, AccountEntry.debit("1000", day, value, reference, null, vatCode),
+            AccountEntry.credit("3400", day, value, reference, null, vatCode), null, null);
+    }
+
+    static Transaction splitSale(@NotNull String date, @NotNull String reference) {
+        LocalDate day = LocalDate.parse(date);
+        return Transaction.of(day, reference, null, AccountEntry.debit("1000", day, new BigDecimal("1500.55"), reference, null, null), null, null,
+            List.of(AccountEntry.credit("3400", day, new BigDecimal("1000.50"), reference, null, NORMAL),
+                AccountEntry.credit("3410", day, new BigDecimal("500.05"), reference, null, REDUCED)));
+    }
+
+    static List<Transaction> transactions() {
+        return List.of(sale("2023-12-31", "999.99", "R-0", NORMAL), sale("2024-01-15", "1200.00", "R-1", NORMAL), sale("2024-02-01", "333.33", "R-2", REDUCED),
+            sale("2024-03-10", "50", "R-3", null), splitSale("2024-04-30", "R-4"),
+            Transaction.ofSynthetic(LocalDate.parse("2024-05-31"), "3400", "2201", new BigDecimal("74.40"), null, "R-5", NORMAL, null, List.of()));
+    }
+
+    /**
+     * Sales subject to VAT as computed by the ledger realm before the introduction of the journal.
+     */
+    static BigDecimal vatSales(@NotNull Collection<Transaction> transactions, VatCode vatCode) {
+        return transactions.stream().filter(o -> !o.synthetic()).flatMap(o -> o.creditSplits().stream())
+            .filter(o -> Objects.isNull(vatCode) ? Objects.nonNull(o.vatCode()) : vatCode.equals(o.vatCode())).map(AccountEntry::amount)
+            .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    /**
+     * VAT amount as computed by the ledger realm before the introduction of the journal.
+     */
+    static BigDecimal vat(@NotNull Collection<Transaction> transactions, VatCode vatCode) {
+        return transactions.stream().flatMap(o -> o.creditSplits().stream())
+            .filter(o -> Objects.isNull(vatCode) ? Objects.nonNull(o.vatCode()) : vatCode.equals(o.vatCode()))
+            .map(o -> o.getVat().map(r -> o.amount().subtract(o.amount().divide(BigDecimal.ONE.add(r), 2, RoundingMode.HALF_UP))).orElse(BigDecimal.ZERO))
+            .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private static void assertSameVat(@NotNull LedgerJournal journal, @NotNull LedgerTransactions transactions) {
+        for (VatCode vatCode : new VatCode[]{null, NORMAL, REDUCED}) {
+            assertThat(journal.vatSales(FROM, TO, vatCode)).isEqualTo(vatSales(transactions.items(FROM, TO), vatCode));
+            assertThat(journal.vat(FROM, TO, vatCode)).isEqualTo(vat(transactions.items(FROM, TO), vatCode));
+        }
+    }
+
+    @Test
+    void testVatAsBaseline() {
+        var journal = LedgerJournal.of(transactions());
+
+        assertThat(journal.vatSales(FROM, TO, null)).isEqualTo(vatSales(transactions().stream().filter(o -> !o.date().isBefore(FROM)).toList(), null));
+        assertThat(journal.vatSales(FROM, TO, NORMAL)).isEqualTo(new BigDecimal("2200.50"));
+        assertThat(journal.vat(FROM, TO, NORMAL)).isEqualTo(vat(transactions().stream().filter(o -> !o.date().isBefore(FROM)).toList(), NORMAL));
+        assertThat(journal.vat(FROM, TO, REDUCED)).isEqualTo(vat(transactions().stream().filter(o -> !o.date().isBefore(FROM)).toList(), REDUCED));
+        assertThat(journal.vatSales(LocalDate.of(2025, 1, 1), null, null)).isEqualTo(BigDecimal.ZERO);
+        assertThat(journal.vat(LocalDate.of(2025, 1, 1), null, null)).isEqualTo(BigDecimal.ZERO);
+        assertThat(journal.vatSales(FROM, TO, new VatCode(3, "S38", new BigDecimal("0.038"), new BigDecimal("0.028"), true))).isEqualTo(BigDecimal.ZERO);
+    }
+
+    @Test
+    void testFollowsUpdatesReplacementsAndDeletions() {
+        var transactions = LedgerTransactions.of(ProviderInMemory.of());
+        transactions.updateAll(transactions());
+        var journal = LedgerJournal.of(transactions);
+        assertSameVat(journal, transactions);
+
+        transactions.update(sale("2024-06-30", "10.05", "R-6", REDUCED));
+        assertSameVat(journal, transactions);
+
+        var replaced = transactions.items().stream().filter(o -> "R-1".equals(o.reference())).findAny().orElseThrow();
+        transactions.replace(replaced, sale("2024-01-15", "1300.00", "R-1", REDUCED));
+        assertSameVat(journal, transactions);
+
+        var deleted = transactions.items().stream().filter(o -> "R-4".equals(o.reference())).findAny().orElseThrow();
+        transactions.delete(deleted);
+        assertSameVat(journal, transactions);
+        assertThat(journal.vatSales(FROM, TO, NORMAL)).isEqualTo(BigDecimal.ZERO);
+
+        transactions.update(sale("2024-07-01", "77.70", "R-7", NORMAL));
+        assertSameVat(journal, transactions);
+
+        transactions.deleteAll();
+        assertThat(journal.size()).isZero();
+        assertThat(journal.vat(FROM, TO, null)).isEqualTo(BigDecimal.ZERO);
+    }
+
+    @Test
+    void testLargeAmounts() {
+        var transactions = Stream.concat(IntStream.rangeClosed(1, 12).mapToObj(i -> sale("2024-01-%02d".formatted(i), "900000000000.00", "R-" + i, NORMAL)),
+            Stream.of(sale("2024-02-01", "123456789012.345678", "R-13", REDUCED))).toList();
+        var journal = LedgerJournal.of(transactions);
+
+        for (VatCode vatCode : new VatCode[]{null, NORMAL, REDUCED}) {
+            assertThat(journal.vatSales(FROM, TO, vatCode)).isEqualTo(vatSales(transactions, vatCode));
+            assertThat(journal.vat(FROM, TO, vatCode)).isEqualTo(vat(transactions, vatCode));
+        }
+    }
+
+    @Test
+    void testAmountsTooLargeForColumns() {
+        var transactions = LedgerTransactions.of(ProviderInMemory.of());
+        transactions.updateAll(transactions());
+        var journal = LedgerJournal.of(transactions);
+
+        transactions.update(sale("2024-06-30", "98765432109876.54", "R-6", NORMAL));
+        assertSameVat(journal, transactions);
+        transactions.update(sale("2024-07-31", "-12345678901234567.891", "R-7", null));
+        assertSameVat(journal, transactions);
+        assertThat(journal.vatSales(FROM, TO, NORMAL)).isEqualTo(new BigDecimal("98765432112077.04"));
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+
+package net.tangly.erp.ledger.services;
+
+import net.tangly.core.providers.ProviderInMemory;
+import net.tangly.erp.ledger.domain.AccountEntry;
+import net.tangly.erp.ledger.domain.Transaction;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LedgerTransactionsTest {
+    private static final class RecordingListener implements LedgerTransactions.Listener {
+        private final List<Transaction> added = new ArrayList<>();
+        private final List<Transaction> removed = new ArrayList<>();
+        private int cleared;
+
+        @Override
+        public void added(@NotNull Transaction transaction) {
+            added.add(transaction);
+        }
+
+        @Override
+        public void removed(@NotNull Transaction transaction) {
+            removed.add(transaction);
+        }
+
+        @Override
+        public void cleared() {
+            ++cleared;
+        }
+    }
+
+    static Transaction transaction(@NotNull String date, @NotNull String amount, @NotNull String reference) {
+        LocalDate day = LocalDate.parse(date);
+        BigDecimal value = new BigDecimal(amount);
+        return Transaction.of(day, reference, null, AccountEntry.debit("1000", day, value, reference, null, null),
+            AccountEntry.credit("3400", day, value, reference, null, null), null, null);
+    }
+
+    private static List<Transaction> transactions() {
+        return List.of(transaction("2023-12-31", "100.00", "R-1"), transaction("2024-01-15", "200.00", "R-2"), transaction("2024-02-01", "300.00", "R-3"),
+            transaction("2024-02-29", "400.00", "R-4"));
+    }
+
+    @Test
+    void testRangeQueries() {
+        var transactions = LedgerTransactions.of(ProviderInMemory.of());
+        transactions.updateAll(transactions());
+
+        assertThat(transactions.items(null, null)).hasSize(4);
+        assertThat(transactions.items(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31))).extracting(Transaction::reference)
+            .containsExactly("R-2", "R-3", "R-4");
+        assertThat(transactions.items(LocalDate.of(2024, 1, 16), LocalDate.of(2024, 2, 28))).extracting(Transaction::reference).containsExactly("R-3");
+        assertThat(transactions.items(null, LocalDate.of(2023, 12, 31))).extracting(Transaction::reference).containsExactly("R-1");
+        assertThat(transactions.items(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 1, 1))).isEmpty();
+        assertThat(transactions.years()).containsExactly(Year.of(2023), Year.of(2024));
+    }
+
+    @Test
+    void testMembershipByEquality() {
+        var transactions = LedgerTransactions.of(ProviderInMemory.of());
+        var listener = new RecordingListener();
+        transactions.listen(listener);
+        transactions.updateAll(transactions());
+        transactions.updateAll(transactions());
+
+        assertThat(transactions.items()).hasSize(4);
+        assertThat(transactions.items(null, null)).hasSize(4);
+        assertThat(listener.added).hasSize(4);
+
+        transactions.delete(transactions().getFirst());
+        assertThat(transactions.items()).hasSize(3);
+        assertThat(transactions.items(null, null)).extracting(Transaction::reference).containsExactly("R-2", "R-3", "R-4");
+        assertThat(transactions.years()).containsExactly(Year.of(2024));
+        assertThat(listener.removed).hasSize(1);
+    }
+
+    @Test
+    void testReplaceNotifiesListeners() {
+        var transactions = LedgerTransactions.of(ProviderInMemory.of());
+        var listener = new RecordingListener();
+        transactions.updateAll(transactions());
+        transactions.listen(listener);
+        var original = transactions.items(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31)).getFirst();
+        var replacement = original.withDateExpected(LocalDate.of(2024, 2, 15));
+
+        transactions.replace(original, replacement);
+
+        assertThat(transactions.items(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31))).containsExactly(replacement);
+        assertThat(transactions.items()).hasSize(4).contains(replacement).doesNotContain(original);
+        assertThat(listener.removed).containsExactly(original);
+        assertThat(listener.added).containsExactly(replacement);
+
+        transactions.deleteAll();
+        assertThat(transactions.items(null, null)).isEmpty();
+        assertThat(listener.cleared).isEqualTo(1);
+    }
+
+    @Test
+    void testSealedYearSupportsQueriesReplaceAndUnseal() {
+        var transactions = LedgerTransactions.of(ProviderInMemory.of());
+        var listener = new RecordingListener();
+        transactions.updateAll(transactions());
+        transactions.update(transaction("2024-01-10", "50.00", "R-5"));
+        transactions.listen(listener);
+
+        transactions.seal(Year.of(2024));
+        assertThat(transactions.isSealed(Year.of(2024))).isTrue();
+        assertThat(transactions.isSealed(Year.of(2023))).isFalse();
+        assertThat(transactions.items(null, null)).extracting(Transaction::reference).containsExactly("R-1", "R-5", "R-2", "R-3", "R-4");
+        assertThat(transactions.items(LocalDate.of(2023, 12, 1), LocalDate.of(2024, 1, 31))).extracting(Transaction::reference)
+            .containsExactly("R-1", "R-5", "R-2");
+        assertThat(transactions.years()).containsExactly(Year.of(2023), Year.of(2024));
+
+        var original = transactions.items(LocalDate.of(2024, 1, 15), LocalDate.of(2024, 1, 15)).getFirst();
+        var replacement = original.withDateExpected(LocalDate.of(2024, 3, 15));
+        transactions.replace(original, replacement);
+        assertThat(transactions.isSealed(Year.of(2024))).isTrue();
+        assertThat(transactions.items(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31))).extracting(Transaction::reference)
+            .containsExactly("R-5", "R-2", "R-3", "R-4");
+        assertThat(transactions.items(LocalDate.of(2024, 1, 15), LocalDate.of(2024, 1, 15))).containsExactly(replacement);
+        assertThat(listener.removed).containsExactly(original);
+        assertThat(listener.added).containsExactly(replacement);
+
+        transactions.delete(transaction("2024-02-01", "300.00", "R-3"));
+        assertThat(transactions.items(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31))).extracting(Transaction::reference)
+            .containsExactly("R-5", "R-2", "R-4");
+        assertThat(transactions.items()).hasSize(4);
+
+        transactions.unseal(Year.of(2024));
+        assertThat(transactions.isSealed(Year.of(2024))).isFalse();
+        assertThat(transactions.items(null, null)).extracting(Transaction::reference).containsExactly("R-1", "R-5", "R-2", "R-4");
+        transactions.update(transaction("2024-02-10", "70.00", "R-6"));
+        assertThat(transactions.items(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 29))).extracting(Transaction::reference).containsExactly("R-4", "R-6");
+    }
+}
@@ -16,13 +16,24 @@ package net.tangly.erp.products.events;
 import net.tangly.core.domain.BoundedDomain;
 import net.tangly.core.domain.Operation;
 import net.tangly.core.events.EntityChangedInternalEvent;
+import net.tangly.core.events.EventBus;
 import net.tangly.core.providers.Provider;
 import net.tangly.erp.crm.events.ContractSignedEvent;
 import net.tangly.erp.products.domain.WorkContract;
 import net.tangly.erp.products.services.ProductsBoundedDomain;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Processes the events of the CRM domain. Signed contracts create work contracts in the products domain.
+ * <p>The events are processed in batches on a few lanes. Events of the same contract are always processed in order on the same lane, avoiding duplicate work
+ * contracts. The work contracts of a batch are stored as one provider batch, and one change notification is published per batch.</p>
+ */
 public class CrmEventsProcessor implements BoundedDomain.EventListener {
+    public static final int LANES = 4;
+    public static final int BATCH_SIZE = 128;
     ProductsBoundedDomain domain;
 
     public CrmEventsProcessor(@NotNull ProductsBoundedDomain domain) {
@@ -30,19 +41,28 @@ public class CrmEventsProcessor implements BoundedDomain.EventListener {
     }
 
     @Override
-    public void onNext(@NotNull Object event) {
-        if (event instanceof ContractSignedEvent contractSignedEvent) {
-            Provider.findById(domain.realm().contracts(), contractSignedEvent.id()).ifPresentOrElse(
-                _ -> {
-                },
-                () -> {
-                    var workContract = new WorkContract(contractSignedEvent.id(), contractSignedEvent.mainContractId(),
-                        contractSignedEvent.range(), contractSignedEvent.locale(), contractSignedEvent.budgetInHours().intValue());
-                    domain.realm().contracts().update(workContract);
-                    domain.internalChannel().submit(new EntityChangedInternalEvent(ProductsBoundedDomain.DOMAIN, WorkContract.class.getSimpleName(),
-                        Operation.CREATE));
-                });
+    public EventBus.Options<Object> options() {
+        return EventBus.Options.of().batchSize(BATCH_SIZE).ordered(LANES, o -> (o instanceof ContractSignedEvent event) ? event.id() : null);
+    }
 
+    @Override
+    public void onEvents(@NotNull List<Object> events) {
+        List<WorkContract> workContracts = new ArrayList<>();
+        events.forEach(event -> {
+            if ((event instanceof ContractSignedEvent contractSignedEvent) && Provider.findById(domain.realm().contracts(), contractSignedEvent.id()).isEmpty() &&
+                workContracts.stream().noneMatch(o -> o.id().equals(contractSignedEvent.id()))) {
+                workContracts.add(new WorkContract(contractSignedEvent.id(), contractSignedEvent.mainContractId(), contractSignedEvent.range(),
+                    contractSignedEvent.locale(), contractSignedEvent.budgetInHours().intValue()));
+            }
+        });
+        if (!workContracts.isEmpty()) {
+            domain.realm().contracts().updateAll(workContracts);
+            domain.submitInterally(new EntityChangedInternalEvent(ProductsBoundedDomain.DOMAIN, WorkContract.class.getSimpleName(), Operation.CREATE));
         }
     }
+
+    @Override
+    public void onNext(@NotNull Object event) {
+        onEvents(List.of(event));
+    }
 }
@@ -26,6 +26,7 @@ import net.tangly.core.DateRange;
 import net.tangly.core.Tag;
 import net.tangly.core.domain.Document;
 import net.tangly.core.domain.DomainAudit;
+import net.tangly.core.domain.ImportPipeline;
 import net.tangly.core.domain.Port;
 import net.tangly.core.domain.TsvHdl;
 import net.tangly.core.providers.Provider;
@@ -99,23 +100,28 @@ public class ProductsAdapter implements ProductsPort {
         handler.importProducts(audit, dataFolder.resolve(PRODUCTS_TSV));
         handler.importWorkContracts(audit, dataFolder.resolve(WORK_CONTRACTS_TSV));
         handler.importAssignments(audit, dataFolder.resolve(ASSIGNMENTS_TSV));
+        List<Path> effortFiles;
         try (Stream<Path> stream = Files.walk(dataFolder)) {
-            AtomicInteger nrOfImportedEffortFiles = new AtomicInteger();
-            stream.filter(file -> !Files.isDirectory(file) && file.getFileName().toString().endsWith(YAML_EXT)).forEach(o -> {
-                try (Reader reader = Files.newBufferedReader(dataFolder.resolve(o))) {
-                    importEfforts(audit, reader, o.toString(), true);
-                    nrOfImportedEffortFiles.getAndIncrement();
-                } catch (IOException e) {
-                    throw new UncheckedIOException(e);
-                } catch (Exception e) {
-                    audit.log(EventData.IMPORT_EVENT, EventData.Status.ERROR, "Error importing efforts.", Map.of("filename", o.toString(), "exception", e));
-                }
-            });
-            audit.log(EventData.IMPORT_EVENT, EventData.Status.INFO, "Efforts were imported out of",
-                Map.of("nrOfImportedEffortFiles", Integer.toString(nrOfImportedEffortFiles.get())));
+            effortFiles = stream.filter(file -> !Files.isDirectory(file) && file.getFileName().toString().endsWith(YAML_EXT)).toList();
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         }
+        AtomicInteger nrOfImportedEffortFiles = new AtomicInteger();
+        ImportPipeline.of().stage(effortFiles, (fileAudit, o) -> {
+            try (Reader reader = Files.newBufferedReader(dataFolder.resolve(o))) {
+                return parseEfforts(fileAudit, reader, o.toString()).orElse(null);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (Exception e) {
+                fileAudit.log(EventData.IMPORT_EVENT, EventData.Status.ERROR, "Error importing efforts.", Map.of("filename", o.toString(), "exception", e));
+                return null;
+            }
+        }, efforts -> {
+            mergeEfforts(audit, efforts, true);
+            nrOfImportedEffortFiles.getAndIncrement();
+        }).run(audit);
+        audit.log(EventData.IMPORT_EVENT, EventData.Status.INFO, "Efforts were imported out of",
+            Map.of("nrOfImportedEffortFiles", Integer.toString(nrOfImportedEffortFiles.get())));
         TsvHdl.importDocuments(audit, dataFolder.resolve(DOCUMENTS_TSV), realm().documents());
         entitiesImported(audit);
     }
@@ -147,6 +153,24 @@ public class ProductsAdapter implements ProductsPort {
 
     @Override
     public void importEfforts(@NotNull DomainAudit audit, @NotNull Reader stream, @NotNull String source, boolean replace) throws IORuntimeException {
+        parseEfforts(audit, stream, source).ifPresent(o -> mergeEfforts(audit, o, replace));
+    }
+
+    /**
+     * Efforts parsed from a YAML file and not yet stored in the realm.
+     *
+     * @param source        source of the efforts
+     * @param collaborator  collaborator who performed the efforts
+     * @param assignmentOid object identifier of the assignment of the efforts
+     * @param efforts       parsed efforts compatible with the assignment
+     */
+    private record ParsedEfforts(@NotNull String source, String collaborator, long assignmentOid, @NotNull List<Effort> efforts) {
+    }
+
+    /**
+     * Parses the efforts of a YAML file. The realm is only read. Efforts outside the assignment range or in a closed period are logged and discarded.
+     */
+    private Optional<ParsedEfforts> parseEfforts(@NotNull DomainAudit audit, @NotNull Reader stream, @NotNull String source) throws IORuntimeException {
         try {
             if (ValidatorUtilities.isYamlValid(new StringReader(source), SCHEMA_FILE)) {
                 YamlMapping data = Yaml.createYamlInput(stream).readYamlMapping();
@@ -158,8 +182,9 @@ public class ProductsAdapter implements ProductsPort {
                 if (Objects.isNull(assignment)) {
                     audit.log(EventData.IMPORT_EVENT, EventData.Status.ERROR, "assignment could not be found.",
                         Map.of("filename", source, "assignmentOid", Long.toString(assignmentOid)));
-                    return;
+                    return Optional.empty();
                 }
+                List<Effort> parsed = new ArrayList<>();
                 YamlSequence efforts = data.yamlSequence("efforts");
                 efforts.children().forEach((YamlNode effort) -> {
                     LocalDate date = effort.asMapping().date("date");
@@ -182,29 +207,41 @@ public class ProductsAdapter implements ProductsPort {
                             Map.of("filename", source, "assignment", assignment, "effort", newEffort));
                         return;
                     }
-                    Optional<Effort> foundEffort = logic.findEffortFor(assignmentOid, collaborator, date);
-                    if (foundEffort.isPresent()) {
-                        if (replace) {
-                            logic.realm().efforts().delete(foundEffort.get());
-                            logic.realm().efforts().update(newEffort);
-                            audit.log(EventData.IMPORT_EVENT, EventData.Status.INFO, " effort replaced already exists.",
-                                Map.of("filename", source, "entity", newEffort));
-
-                        } else {
-                            audit.log(EventData.IMPORT_EVENT, EventData.Status.WARNING, " effort could not be imported because it " + "already exists.",
-                                Map.of("filename", source, "entity", newEffort));
-                        }
-                    } else {
-                        logic.realm().efforts().update(newEffort);
-                        audit.log(EventData.IMPORT_EVENT, EventData.Status.INFO, " effort added.", Map.of("filename", source, "entity", newEffort));
-                    }
+                    parsed.add(newEffort);
                 });
+                return Optional.of(new ParsedEfforts(source, collaborator, assignmentOid, parsed));
             }
         } catch (IOException e) {
             throw new IORuntimeException(e);
         } catch (YamlReadingException e) {
             audit.log(EventData.IMPORT_EVENT, EventData.Status.ERROR, "Error importing efforts.", Map.of("filename", source, "exception", e));
         }
+        return Optional.empty();
+    }
+
+    /**
+     * Stores the parsed efforts in the realm. An existing effort of the collaborator for the same assignment and date is replaced if requested.
+     */
+    private void mergeEfforts(@NotNull DomainAudit audit, @NotNull ParsedEfforts parsed, boolean replace) {
+        String source = parsed.source();
+        parsed.efforts().forEach(newEffort -> {
+            Optional<Effort> foundEffort = logic.findEffortFor(parsed.assignmentOid(), parsed.collaborator(), newEffort.date());
+            if (foundEffort.isPresent()) {
+                if (replace) {
+                    logic.realm().efforts().delete(foundEffort.get());
+                    logic.realm().efforts().update(newEffort);
+                    audit.log(EventData.IMPORT_EVENT, EventData.Status.INFO, " effort replaced already exists.",
+                        Map.of("filename", source, "entity", newEffort));
+
+                } else {
+                    audit.log(EventData.IMPORT_EVENT, EventData.Status.WARNING, " effort could not be imported because it " + "already exists.",
+                        Map.of("filename", source, "entity", newEffort));
+                }
+            } else {
+                logic.realm().efforts().update(newEffort);
+                audit.log(EventData.IMPORT_EVENT, EventData.Status.INFO, " effort added.", Map.of("filename", source, "entity", newEffort));
+            }
+        });
     }
 
     private List<String> processBuggyYaml(Collection<String> text) {
@@ -37,7 +37,7 @@ public class CmdFilesUploadEfforts extends CmdFilesUpload<ProductsRealm, Product
         registerAllFinishedListener(event -> {
             Set<String> files = buffer().getFiles();
             files.forEach(o -> domain.port().importEfforts(domain, new BufferedReader(new InputStreamReader(buffer().getInputStream(o))), o, true));
-            domain().internalChannel().submit(new EntityChangedInternalEvent(domain().name(), Effort.class.getSimpleName(), Operation.CREATE));
+            domain().submitInterally(new EntityChangedInternalEvent(domain().name(), Effort.class.getSimpleName(), Operation.CREATE));
             close();
         });
     }
@@ -16,9 +16,12 @@
  */
 module net.tangly.fsm {
     exports net.tangly.fsm;
+    exports net.tangly.fsm.actors;
     exports net.tangly.fsm.dsl;
     exports net.tangly.fsm.utilities;
 
+    requires java.management;
+    requires jdk.jfr;
     requires org.apache.logging.log4j;
     requires static transitive org.jetbrains.annotations;
 }
@@ -21,10 +21,26 @@ import java.util.List;
 /**
  * The event is an immutable class containing the event with payload sent to the finite state machine. The event contains all the context information necessary
  * to process the system change with the machine and the context of the machine.
+ * <p>Events without parameters are flyweights. One instance per event type is created and shared; creating such an event does not allocate memory.</p>
  *
  * @param <E> the event enumeration type uniquely identifying the event sent to the state machine
  */
 public record Event<E extends Enum<E>>(E type, List<Object> parameters) {
+    /**
+     * Shared instances of the events without parameters indexed by the ordinal of the event type.
+     */
+    private static final ClassValue<Event<?>[]> FLYWEIGHTS = new ClassValue<>() {
+        @Override
+        protected Event<?>[] computeValue(Class<?> type) {
+            Object[] constants = type.getEnumConstants();
+            Event<?>[] events = new Event<?>[constants.length];
+            for (int i = 0; i < constants.length; i++) {
+                events[i] = flyweight((Enum<?>) constants[i]);
+            }
+            return events;
+        }
+    };
+
     /**
      * Factory method to create an event.
      *
@@ -38,13 +54,19 @@ public record Event<E extends Enum<E>>(E type, List<Object> parameters) {
     }
 
     /**
-     * Factory method to create an event.
+     * Factory method to create an event without parameters. The shared flyweight instance for the event type is returned.
      *
      * @param type event type identifier
      * @param <E>  type of the event
-     * @return new event
+     * @return shared event
      */
+    @SuppressWarnings("unchecked")
     public static <E extends Enum<E>> Event<E> of(@NotNull E type) {
-        return new Event<>(type, Collections.emptyList());
+        return (Event<E>) FLYWEIGHTS.get(type.getDeclaringClass())[type.ordinal()];
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Event<?> flyweight(@NotNull Enum<?> type) {
+        return new Event(type, Collections.emptyList());
     }
 }
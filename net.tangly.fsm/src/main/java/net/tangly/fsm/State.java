@@ -129,7 +129,7 @@ public interface State<O, S extends Enum<S>, E extends Enum<E>> extends Comparab
      * @return flag indicating if the state has an exit action
      */
     default boolean hasExitAction() {
-        return Objects.nonNull(entryAction());
+        return Objects.nonNull(exitAction());
     }
 
     /**
@@ -15,6 +15,9 @@ package net.tangly.fsm;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.util.List;
+import java.util.Set;
+
 /**
  * The finite state machine executing a hierarchical finite state machine description.
  *
@@ -32,6 +35,29 @@ public interface StateMachine<O, S extends Enum<S>, E extends Enum<E>> {
      */
     boolean fire(@NotNull Event<E> event);
 
+    /**
+     * Fire the events in the order of the list. Each event is processed to completion before the next one is processed. The event handlers are notified once
+     * for the whole batch through {@link StateMachineEventHandler#processEvents(List)}. Events following an event moving the machine in a final state are not
+     * processed.
+     *
+     * @param events the events to process
+     * @return number of events which fired a transition
+     */
+    default int fireAll(@NotNull List<Event<E>> events) {
+        return fireAll(events, false);
+    }
+
+    /**
+     * Fire the events in the order of the list. Each event is processed to completion before the next one is processed. The event handlers are notified once
+     * with the processed events through {@link StateMachineEventHandler#processEvents(List)}. Events following an event moving the machine in a final state
+     * are not processed. If requested, the events following the first event not firing a transition are not processed either.
+     *
+     * @param events          the events to process
+     * @param stopAtUnhandled flag indicating if the processing stops at the first event not firing a transition
+     * @return number of events which fired a transition. If the processing stops at an unhandled event, the number is the index of this event
+     */
+    int fireAll(@NotNull List<Event<E>> events, boolean stopAtUnhandled);
+
     /**
      * Reset the state machine to his start state. All history information is erased.
      */
@@ -65,6 +91,30 @@ public interface StateMachine<O, S extends Enum<S>, E extends Enum<E>> {
      */
     boolean isAlive();
 
+    /**
+     * Return the identifiers of the active states. The first element is the root state, the last element is the deepest active state.
+     *
+     * @return ordered list of active state identifiers
+     */
+    List<S> activeStateIds();
+
+    /**
+     * Return the identifiers of the states registered in the history.
+     *
+     * @return set of history state identifiers
+     */
+    Set<S> historyStateIds();
+
+    /**
+     * Restore the configuration of the state machine. No entry or exit actions are executed and no event handler is notified. The method is used to recover
+     * a persisted machine without replaying the side effects of the original execution.
+     *
+     * @param activeStates identifiers of the active states ordered from the root state to the deepest active state
+     * @param history      identifiers of the states registered in the history
+     * @throws IllegalArgumentException if the active states are not a path from the root state of the definition
+     */
+    void restore(@NotNull List<S> activeStates, @NotNull Set<S> history);
+
     /**
      * Add an event handler.
      *
@@ -13,6 +13,7 @@
 
 package net.tangly.fsm;
 
+import java.util.List;
 import java.util.function.BiConsumer;
 
 /**
@@ -33,6 +34,19 @@ public interface StateMachineEventHandler<O, S extends Enum<S>, E extends Enum<E
     default void processEvent(Event<E> event) {
     }
 
+    /**
+     * Callback once a batch of events was processed. Only the events dispatched to the machine are notified; events following a final state or the first
+     * unhandled event when the batch stops there are not part of the list. The default implementation notifies {@link #processEvent(Event)} for each event of
+     * the list.
+     *
+     * @param events events processed in the order of the list
+     */
+    default void processEvents(List<Event<E>> events) {
+        for (int i = 0; i < events.size(); i++) {
+            processEvent(events.get(i));
+        }
+    }
+
     /**
      * The reset operation was called on the state machine.
      */
@@ -57,6 +71,16 @@ public interface StateMachineEventHandler<O, S extends Enum<S>, E extends Enum<E
     default void fireLocalTransition(Transition<O, S, E> transition, Event<E> event) {
     }
 
+    /**
+     * Callback after the guard of a transition triggered by the event was evaluated. Transitions without guard are not reported.
+     *
+     * @param transition transition which guard was evaluated
+     * @param event      event triggering the evaluation
+     * @param accepted   result of the guard evaluation
+     */
+    default void evaluateGuard(Transition<O, S, E> transition, Event<E> event, boolean accepted) {
+    }
+
     /**
      * Callback before the entry action of the state is processed.
      *
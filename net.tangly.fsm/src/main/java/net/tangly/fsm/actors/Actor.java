@@ -15,6 +15,7 @@ package net.tangly.fsm.actors;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Collection;
 import java.util.UUID;
 
 /**
@@ -47,4 +48,33 @@ public interface Actor<T> extends Runnable {
      * @param message message to process asynchronously later
      */
     void receive(@NotNull T message);
+
+    /**
+     * Receive a batch of messages for further processing. The messages are processed in the order of the collection. Implementations shall enqueue the batch
+     * in one mailbox operation.
+     *
+     * @param messages messages to process asynchronously later
+     */
+    default void receiveAll(@NotNull Collection<T> messages) {
+        messages.forEach(this::receive);
+    }
+
+    /**
+     * Return the number of messages waiting in the mailbox of the actor. The value is a gauge sampled by monitoring tools and is not exact under concurrent
+     * access.
+     *
+     * @return number of pending messages
+     */
+    default int pendingMessages() {
+        return 0;
+    }
+
+    /**
+     * Return the number of messages discarded because the mailbox of the actor was full.
+     *
+     * @return number of dropped messages
+     */
+    default long droppedMessages() {
+        return 0;
+    }
 }
@@ -18,6 +18,7 @@ import net.tangly.fsm.StateMachine;
 import net.tangly.fsm.dsl.FsmBuilder;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 
 /**
@@ -46,8 +47,29 @@ public class ActorFsm<O extends ActorFsm<O, S, E>, S extends Enum<S>, E extends
         this.fsm = builder.machine(name, (O) this);
     }
 
+    /**
+     * Return the finite state machine of the actor.
+     *
+     * @return finite state machine
+     */
+    public StateMachine<O, S, E> fsm() {
+        return fsm;
+    }
+
     @Override
     protected boolean process(@NotNull Event<E> msg) {
         return fsm.fire(msg);
     }
+
+    /**
+     * Fire the batch of events on the finite state machine in one pass. The event handlers are notified once for the batch. The actor terminates at the first
+     * event of the batch not firing a transition; the following events are not processed.
+     *
+     * @param batch events to process in the order of the list
+     * @return true if all events of the batch fired a transition
+     */
+    @Override
+    protected boolean processAll(@NotNull List<Event<E>> batch) {
+        return fsm.fireAll(batch, true) == batch.size();
+    }
 }
@@ -17,6 +17,9 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
@@ -24,6 +27,10 @@ import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 
 public abstract class ActorImp<T> implements Actor<T>, Runnable {
+    /**
+     * Maximum number of pending messages drained from the mailbox and processed as one batch.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 64;
     private static final Logger logger = LogManager.getLogger();
     private final UUID id;
     private final String name;
@@ -50,18 +57,59 @@ public abstract class ActorImp<T> implements Actor<T>, Runnable {
     public void receive(@NotNull T message) {
         try {
             messages.put(message);
-            logger.atInfo().log("Actor {} received event {}", name(), message);
+            if (logger.isTraceEnabled()) {
+                logger.trace("Actor {} received event {}", name, message);
+            }
         } catch (InterruptedException e) {
             logger.atError().withThrowable(e).log("Actor {} encountered interrupted exception", name());
             Thread.currentThread().interrupt();
         }
     }
 
+    @Override
+    public int pendingMessages() {
+        return messages.size();
+    }
+
+    @Override
+    public void receiveAll(@NotNull Collection<T> batch) {
+        messages.addAll(batch);
+        if (logger.isTraceEnabled()) {
+            logger.trace("Actor {} received {} events", name, batch.size());
+        }
+    }
+
     protected abstract boolean process(@NotNull T msg);
 
+    /**
+     * Process a batch of messages drained from the mailbox. The default implementation processes the messages one by one and stops at the first message
+     * terminating the actor.
+     *
+     * @param batch messages to process in the order of the list
+     * @return true if the actor continues processing messages, false if the actor terminates
+     */
+    protected boolean processAll(@NotNull List<T> batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            if (!process(batch.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Wait for a message and drain all pending messages up to {@link #DEFAULT_BATCH_SIZE} in one mailbox operation. The batch is processed before the next
+     * messages are drained.
+     */
     @Override
     public void run() {
-        while (process(message())) {
+        List<T> batch = new ArrayList<>(DEFAULT_BATCH_SIZE);
+        boolean continues = true;
+        while (continues) {
+            batch.add(message());
+            messages.drainTo(batch, DEFAULT_BATCH_SIZE - 1);
+            continues = processAll(batch);
+            batch.clear();
         }
     }
 
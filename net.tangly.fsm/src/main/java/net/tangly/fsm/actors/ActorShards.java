@@ -0,0 +1,166 @@
+/*
+ * Copyright 2006-2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+
+package net.tangly.fsm.actors;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Actor runtime multiplexing actors over a fixed set of shard workers. Each actor is pinned to a shard selected by its identifier. A shard worker is a platform
+ * thread processing the actors of the shard having pending messages.
+ * <p>An actor is scheduled on its shard when a message is posted to its empty mailbox. The worker drains at most a batch of messages from the mailbox and
+ * reschedules the actor if messages are still pending. Actors of a shard are therefore processed fairly, and an actor is never processed by two workers
+ * concurrently. Idle actors consume no thread and only the memory of their mailbox, enabling hundreds of thousands of actors in one virtual machine.</p>
+ * <p>Actor processing shall not block. Blocking operations stall all actors of the same shard.</p>
+ */
+public final class ActorShards implements AutoCloseable {
+    /**
+     * Default maximum number of messages processed for an actor before the worker switches to the next scheduled actor.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 64;
+
+    private static final Logger logger = LogManager.getLogger();
+
+    /**
+     * Worker thread processing the scheduled actors of a shard.
+     */
+    private static final class ShardWorker extends Thread {
+        private final Mailbox<ShardedActor<?>> scheduled;
+        private final AtomicBoolean idle;
+        private final int batchSize;
+        private volatile boolean running;
+
+        ShardWorker(@NotNull String name, int batchSize) {
+            super(name);
+            this.scheduled = Mailbox.unbounded();
+            this.idle = new AtomicBoolean();
+            this.batchSize = batchSize;
+            this.running = true;
+            setDaemon(true);
+        }
+
+        void schedule(@NotNull ShardedActor<?> actor) {
+            scheduled.offer(actor);
+            if (idle.get() && idle.compareAndSet(true, false)) {
+                LockSupport.unpark(this);
+            }
+        }
+
+        void shutdown() {
+            running = false;
+            LockSupport.unpark(this);
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                ShardedActor<?> actor = scheduled.poll();
+                if (actor != null) {
+                    try {
+                        actor.drain(batchSize);
+                    } catch (RuntimeException e) {
+                        logger.atError().withThrowable(e).log("Shard worker {} failed processing actor {}", getName(), actor.name());
+                    }
+                } else {
+                    idle.set(true);
+                    if (scheduled.isEmpty() && running) {
+                        LockSupport.park(this);
+                    }
+                    idle.set(false);
+                }
+            }
+        }
+    }
+
+    private final ShardWorker[] workers;
+
+    /**
+     * Create a runtime with one shard per available processor and the default batch size.
+     */
+    public ActorShards() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Create a runtime with the given number of shards.
+     *
+     * @param shards    number of shards and worker threads
+     * @param batchSize maximum number of messages processed for an actor before switching to the next one
+     */
+    public ActorShards(int shards, int batchSize) {
+        if ((shards <= 0) || (batchSize <= 0)) {
+            throw new IllegalArgumentException("Shards and batch size must be positive: %d, %d".formatted(shards, batchSize));
+        }
+        workers = new ShardWorker[shards];
+        for (int i = 0; i < shards; i++) {
+            workers[i] = new ShardWorker("actor-shard-%d".formatted(i), batchSize);
+            workers[i].start();
+        }
+    }
+
+    /**
+     * Return true if the current thread is a shard worker thread.
+     *
+     * @return true if called from a shard worker
+     */
+    public static boolean isWorkerThread() {
+        return Thread.currentThread() instanceof ShardWorker;
+    }
+
+    /**
+     * Return the number of shards of the runtime.
+     *
+     * @return number of shards
+     */
+    public int shards() {
+        return workers.length;
+    }
+
+    /**
+     * Return the shard index of the actor with the given identifier.
+     *
+     * @param id identifier of the actor
+     * @return index of the shard processing the actor
+     */
+    public int shardOf(@NotNull UUID id) {
+        return Math.floorMod(id.hashCode(), workers.length);
+    }
+
+    /**
+     * Stop all shard workers. Pending messages are not processed.
+     */
+    @Override
+    public void close() {
+        for (var worker : workers) {
+            worker.shutdown();
+        }
+        for (var worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    void schedule(@NotNull ShardedActor<?> actor) {
+        workers[actor.shard()].schedule(actor);
+    }
+}
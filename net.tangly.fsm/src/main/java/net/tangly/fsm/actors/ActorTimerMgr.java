@@ -13,16 +13,33 @@
 
 package net.tangly.fsm.actors;
 
+import net.tangly.fsm.utilities.LatencyHistogram;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
+/**
+ * The timer manager actor schedules timers and sends timeout messages to the client actors. Timers are stored in a hierarchical timing wheel; creating and
+ * canceling a timer are constant time operations.
+ * <p>A timer is identified by its client and its name. Creating a timer with the name of a scheduled timer of the same client replaces the scheduled timer.
+ * The manager sleeps until the next timer expires, or at most one rotation of the first level of the timing wheel.</p>
+ * <p>Timers expiring in the same tick are coalesced. If a batch builder is provided, each client receives one message containing all its timers expired
+ * in the tick instead of one message per timer.</p>
+ *
+ * @param <T> type of the messages exchanged with the client actors
+ */
 public class ActorTimerMgr<T> extends ActorImp<T> implements Actor<T> {
+    /**
+     * Default tick duration of the timing wheel.
+     */
+    public static final long DEFAULT_TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
     enum TimerCommands {
         CREATE, CANCEL, ABORT
     }
@@ -54,12 +71,35 @@ public class ActorTimerMgr<T> extends ActorImp<T> implements Actor<T> {
     public record TimerCmd<T>(TimerCommands command, Timer<T> timer) {
     }
 
+    /**
+     * A timer is identified by its client and its name.
+     */
+    private record TimerKey<T>(Actor<T> client, String name) {
+    }
+
     public ActorTimerMgr(@NotNull String name, @NotNull ExecutorService executor, @NotNull Function<T, TimerCmd<T>> extractor,
                          @NotNull Function<Timer<T>, T> builder) {
+        this(name, executor, extractor, builder, null, DEFAULT_TICK_NANOS, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Constructor of the class.
+     *
+     * @param name         name of the timer manager actor
+     * @param executor     executor running the actor
+     * @param extractor    function extracting the timer command of a message, returning null if the message is not a timer command
+     * @param builder      function building the timeout message of a timer
+     * @param batchBuilder optional function building one timeout message for all timers of a client expired in the same tick
+     * @param tick         resolution of the timers
+     * @param unit         time unit of the resolution
+     */
+    public ActorTimerMgr(@NotNull String name, @NotNull ExecutorService executor, @NotNull Function<T, TimerCmd<T>> extractor,
+                         @NotNull Function<Timer<T>, T> builder, Function<List<Timer<T>>, T> batchBuilder, long tick, @NotNull TimeUnit unit) {
         super(name, executor);
-        this.timers = new ArrayList<>();
+        this.timers = new TimingWheel<>(unit.toNanos(tick), System.nanoTime());
         this.extractor = extractor;
         this.builder = builder;
+        this.batchBuilder = batchBuilder;
     }
 
     public void createTimer(@NotNull Timer<T> timer, @NotNull Function<TimerCmd<T>, T> builder) {
@@ -70,6 +110,15 @@ public class ActorTimerMgr<T> extends ActorImp<T> implements Actor<T> {
         receive(builder.apply(new TimerCmd<>(TimerCommands.CANCEL, Timer.ofOnce(client, name, 0, TimeUnit.NANOSECONDS))));
     }
 
+    /**
+     * Return the histogram of the timer lag, the delay between the alarm time of a timer and the tick processing its expiration.
+     *
+     * @return timer lag histogram in nanoseconds
+     */
+    public LatencyHistogram timerLag() {
+        return timerLag;
+    }
+
     @Override
     protected boolean process(@NotNull T msg) {
         boolean continues = true;
@@ -97,33 +146,46 @@ public class ActorTimerMgr<T> extends ActorImp<T> implements Actor<T> {
     }
 
     private void processTimeout() {
-        long currentTime = System.nanoTime();
-        while (!timers.isEmpty() && (timers.getFirst().alarmTimeInNanoSeconds() <= currentTime)) {
-            var timer = timers.getFirst();
-            Actor.send(timer.client(), builder.apply(timer));
-            timers.remove(timer);
-            if (timer.recurring()) {
-                scheduleNextOccurrence(timer);
-            }
+        long now = System.nanoTime();
+        List<Timer<T>> expired = timers.advance(now);
+        if (expired.isEmpty()) {
+            return;
+        }
+        for (var timer : expired) {
+            timerLag.record(now - timer.alarmTimeInNanoSeconds());
+        }
+        expired.stream().filter(Timer::recurring).forEach(this::scheduleNextOccurrence);
+        if (batchBuilder == null) {
+            expired.forEach(timer -> Actor.send(timer.client(), builder.apply(timer)));
+        } else {
+            Map<Actor<T>, List<Timer<T>>> batches = new LinkedHashMap<>();
+            expired.forEach(timer -> batches.computeIfAbsent(timer.client(), _ -> new ArrayList<>()).add(timer));
+            batches.forEach((client, batch) -> Actor.send(client, batch.size() == 1 ? builder.apply(batch.getFirst()) : batchBuilder.apply(batch)));
         }
     }
 
     private void scheduleNextOccurrence(@NotNull Timer<T> timer) {
+        if (timers.isEmpty()) {
+            // an empty wheel is not advanced while the actor waits for commands
+            timers.advance(System.nanoTime());
+        }
         long alarmTime =
             timer.alarmTimeInNanoSeconds() == 0 ? System.nanoTime() + timer.delayInNanoSeconds() : timer.alarmTimeInNanoSeconds() + timer.delayInNanoSeconds();
-        timers.add(new Timer<>(timer.client(), timer.name(), alarmTime, timer.recurring(), timer.delayInNanoSeconds()));
-        Collections.sort(timers);
+        timers.schedule(new TimerKey<>(timer.client(), timer.name()),
+            new Timer<>(timer.client(), timer.name(), alarmTime, timer.recurring(), timer.delayInNanoSeconds()), alarmTime);
     }
 
     private void removeTimer(@NotNull Timer<T> timer) {
-        timers.stream().filter(o -> (o.client().equals(timer.client()) && (o.name().equals(timer.name())))).findAny().ifPresent(timers::remove);
+        timers.cancel(new TimerKey<>(timer.client(), timer.name()));
     }
 
     private long waitFor() {
-        return timers.isEmpty() ? 0 : Math.max(timers.getFirst().alarmTimeInNanoSeconds - System.nanoTime(), 1);
+        return timers.isEmpty() ? 0 : Math.max(timers.nextAdvanceNanos() - System.nanoTime(), 1);
     }
 
-    private final List<Timer<T>> timers;
+    private final TimingWheel<TimerKey<T>, Timer<T>> timers;
     private final Function<T, TimerCmd<T>> extractor;
     private final Function<Timer<T>, T> builder;
+    private final Function<List<Timer<T>>, T> batchBuilder;
+    private final LatencyHistogram timerLag = new LatencyHistogram();
 }
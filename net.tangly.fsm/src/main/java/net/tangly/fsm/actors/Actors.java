@@ -15,6 +15,8 @@ package net.tangly.fsm.actors;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -33,13 +35,18 @@ import java.util.concurrent.TimeUnit;
  *     developer can directly send a message to an actor instance if preferred./li>
  *     <li>Channels are registered to the actors library. Actors can register as providers or consumers of a channel instance. The registry provides helper methods to publish a
  *     message on a channel. Conceptually a channel is publish and subscribe topic. A channel can have multiple publishers and consumers.</li>
+ *     <li>Routing groups are registered to the actors library. A message sent to a group is routed to one member actor selected by consistent hashing of a
+ *     routing key.</li>
  * </ul>
+ * <p>Actors are indexed by identifier and by name; lookups are constant time operations.</p>
  *
  * @param <T> type of the messages exchanged between a set of actors
  */
 public class Actors<T> {
     private final Map<UUID, Actor<T>> actors;
+    private final Map<String, Actor<T>> names;
     private final Map<String, Channel<T>> channels;
+    private final Map<String, RoutingGroup<T>> groups;
     private final ExecutorService executor;
 
     static boolean awaitTermination(ExecutorService service, long timeout, @NotNull TimeUnit unit) {
@@ -64,10 +71,21 @@ public class Actors<T> {
      */
     public Actors(@NotNull ExecutorService executor) {
         actors = new ConcurrentHashMap<>();
+        names = new ConcurrentHashMap<>();
         channels = new ConcurrentHashMap<>();
+        groups = new ConcurrentHashMap<>();
         this.executor = executor;
     }
 
+    /**
+     * Return the registered actors. The collection is a live view.
+     *
+     * @return registered actors
+     */
+    public Collection<Actor<T>> actors() {
+        return Collections.unmodifiableCollection(actors.values());
+    }
+
     public ExecutorService executor() {
         return executor;
     }
@@ -79,8 +97,23 @@ public class Actors<T> {
      * @param id      identifier of the actor
      */
     public void sendTo(@NotNull T message, @NotNull UUID id) {
-        if (actors.containsKey(id)) {
-            actors.get(id).receive(message);
+        var actor = actors.get(id);
+        if (actor != null) {
+            actor.receive(message);
+        }
+    }
+
+    /**
+     * Send a message to the actor of the routing group in charge of the routing key. If no group could be found, the request is discarded.
+     *
+     * @param message message to send
+     * @param group   name of the routing group
+     * @param key     routing key selecting the actor
+     */
+    public void routeTo(@NotNull T message, @NotNull String group, @NotNull Object key) {
+        var routingGroup = groups.get(group);
+        if (routingGroup != null) {
+            routingGroup.route(key, message);
         }
     }
 
@@ -92,7 +125,18 @@ public class Actors<T> {
      */
     void publish(@NotNull T message, @NotNull String channel) {
         var handler = channelNamed(channel);
-        handler.ifPresent(o -> o.publisher().submit(message));
+        handler.ifPresent(o -> o.publish(message));
+    }
+
+    /**
+     * Send a batch of messages through the channel with the given name. Each subscriber receives the batch in one mailbox operation. If no channel could be
+     * found, the request is discarded.
+     *
+     * @param messages messages sent on the channel
+     * @param channel  external identifier of the channel to use
+     */
+    void publishAll(@NotNull Collection<T> messages, @NotNull String channel) {
+        channelNamed(channel).ifPresent(o -> o.publishAll(messages));
     }
 
     /**
@@ -102,7 +146,7 @@ public class Actors<T> {
      * @return the requested actor if found
      */
     public Optional<Actor<T>> actorNamed(@NotNull String name) {
-        return actors.values().stream().filter(o -> name.equals(o.name())).findAny();
+        return Optional.ofNullable(names.get(name));
     }
 
     /**
@@ -116,12 +160,35 @@ public class Actors<T> {
     }
 
     /**
-     * Register the actor in the pool of known actors and activate it by submitting it to the executor.
+     * Return the routing group with the given name.
+     *
+     * @param name name of the group to be found
+     * @return the requested group if found
+     */
+    public Optional<RoutingGroup<T>> groupNamed(@NotNull String name) {
+        return Optional.ofNullable(groups.get(name));
+    }
+
+    /**
+     * Register the actor in the pool of known actors and activate it by submitting it to the executor. An actor registered later with the same name replaces
+     * the actor in the name index.
      *
      * @param actor actor to register
      */
     public void register(@NotNull Actor<T> actor) {
         actors.put(actor.id(), actor);
+        names.put(actor.name(), actor);
+    }
+
+    /**
+     * Register the actor in the pool of known actors and add it to the routing group. The group is created if it does not exist.
+     *
+     * @param actor actor to register
+     * @param group name of the routing group
+     */
+    public void registerInGroup(@NotNull Actor<T> actor, @NotNull String group) {
+        register(actor);
+        groups.computeIfAbsent(group, RoutingGroup::new).add(actor);
     }
 
     /**
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2006-2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+
+package net.tangly.fsm.actors;
+
+import net.tangly.fsm.utilities.LatencyHistogram;
+import org.jetbrains.annotations.NotNull;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The metrics sample the mailbox gauges of the registered actors and the timer lag of a timer manager. Gauges are read from the actors when the metrics are
+ * queried; the actors do not record anything on the message path.
+ *
+ * @param <T> type of the messages exchanged between the actors
+ */
+public class ActorsMetrics<T> implements ActorsMetricsMXBean, AutoCloseable {
+    private final String name;
+    private final Actors<T> actors;
+    private final LatencyHistogram timerLag;
+    private ObjectName objectName;
+
+    /**
+     * Constructor of the class.
+     *
+     * @param name   name of the metrics used in the JMX object name
+     * @param actors actors which mailboxes are sampled
+     */
+    public ActorsMetrics(@NotNull String name, @NotNull Actors<T> actors) {
+        this(name, actors, null);
+    }
+
+    /**
+     * Constructor of the class.
+     *
+     * @param name     name of the metrics used in the JMX object name
+     * @param actors   actors which mailboxes are sampled
+     * @param timerMgr timer manager which lag is reported, can be null
+     */
+    public ActorsMetrics(@NotNull String name, @NotNull Actors<T> actors, ActorTimerMgr<T> timerMgr) {
+        this.name = name;
+        this.actors = actors;
+        this.timerLag = (timerMgr != null) ? timerMgr.timerLag() : new LatencyHistogram();
+    }
+
+    /**
+     * Register the metrics as JMX bean with the name {@code net.tangly.fsm:type=Actors,name=<name>}.
+     */
+    public synchronized void register() {
+        if (objectName == null) {
+            try {
+                objectName = new ObjectName("net.tangly.fsm:type=Actors,name=" + ObjectName.quote(name));
+                ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+            } catch (JMException e) {
+                objectName = null;
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * Unregister the metrics from JMX.
+     */
+    @Override
+    public synchronized void close() {
+        if (objectName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            } catch (JMException e) {
+                throw new IllegalStateException(e);
+            } finally {
+                objectName = null;
+            }
+        }
+    }
+
+    @Override
+    public int getActors() {
+        return actors.actors().size();
+    }
+
+    @Override
+    public long getPendingMessages() {
+        long pending = 0;
+        for (var actor : actors.actors()) {
+            pending += actor.pendingMessages();
+        }
+        return pending;
+    }
+
+    @Override
+    public int getMaxPendingMessages() {
+        int max = 0;
+        for (var actor : actors.actors()) {
+            max = Math.max(max, actor.pendingMessages());
+        }
+        return max;
+    }
+
+    @Override
+    public long getDroppedMessages() {
+        long dropped = 0;
+        for (var actor : actors.actors()) {
+            dropped += actor.droppedMessages();
+        }
+        return dropped;
+    }
+
+    @Override
+    public Map<String, Integer> getMailboxDepths() {
+        Map<String, Integer> depths = new TreeMap<>();
+        actors.actors().forEach(actor -> depths.put(actor.name(), actor.pendingMessages()));
+        return depths;
+    }
+
+    @Override
+    public long getP99TimerLagNanos() {
+        return timerLag.percentile(99);
+    }
+
+    @Override
+    public long getMaxTimerLagNanos() {
+        return timerLag.max();
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2006-2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+
+package net.tangly.fsm.actors;
+
+import java.util.Map;
+
+/**
+ * Management interface exposing the mailbox gauges of the actors and the timer lag of the timer manager through JMX.
+ */
+public interface ActorsMetricsMXBean {
+    int getActors();
+
+    long getPendingMessages();
+
+    int getMaxPendingMessages();
+
+    long getDroppedMessages();
+
+    Map<String, Integer> getMailboxDepths();
+
+    long getP99TimerLagNanos();
+
+    long getMaxTimerLagNanos();
+}
@@ -17,6 +17,8 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.Flow;
 import java.util.concurrent.SubmissionPublisher;
 
@@ -25,18 +27,26 @@ import java.util.concurrent.SubmissionPublisher;
  * The implementation uses the flow interface of the standard Java API.
  * <p> The channel provides the communication medium between publishers and subscribers.
  * Subscribers are asynchronous objects.</p>
+ * <p>Messages flow through the channel in batches. A batch published on the channel is delivered to each subscriber actor in one mailbox operation. Subscribers
+ * request batches in bulk and replenish their demand when half of it is consumed, instead of requesting one message at a time.</p>
  *
  * @param <T> type of the messages handled by the channel
  */
 public class Channel<T> implements AutoCloseable {
+    /**
+     * Default number of batches requested by a subscriber.
+     */
+    public static final int DEFAULT_DEMAND = 64;
     private final String name;
-    private final SubmissionPublisher<T> publisher;
+    private final int demand;
+    private final SubmissionPublisher<List<T>> publisher;
 
-    static class ActorSubscriber<T> implements Flow.Subscriber<T> {
+    static class ActorSubscriber<T> implements Flow.Subscriber<List<T>> {
         private static final Logger logger = LogManager.getLogger();
         private final Actor<T> actor;
         private final Channel<T> channel;
         private Flow.Subscription subscription;
+        private int consumed;
 
         public ActorSubscriber(@NotNull Actor<T> actor, @NotNull Channel<T> channel) {
             this.actor = actor;
@@ -47,14 +57,23 @@ public class Channel<T> implements AutoCloseable {
         public void onSubscribe(@NotNull Flow.Subscription subscription) {
             logger.atInfo().log("actor {} is subscribed to channel {}", actor.name(), channel.name());
             this.subscription = subscription;
-            subscription.request(1);
+            subscription.request(channel.demand);
         }
 
         @Override
-        public void onNext(@NotNull T message) {
-            logger.atInfo().log("actor {} received message {} from channel {}", actor.name(), message, channel.name());
-            actor.receive(message);
-            subscription.request(1);
+        public void onNext(@NotNull List<T> messages) {
+            if (logger.isTraceEnabled()) {
+                logger.trace("actor {} received {} messages from channel {}", actor.name(), messages.size(), channel.name());
+            }
+            if (messages.size() == 1) {
+                actor.receive(messages.getFirst());
+            } else {
+                actor.receiveAll(messages);
+            }
+            if (++consumed >= Math.max(channel.demand / 2, 1)) {
+                subscription.request(consumed);
+                consumed = 0;
+            }
         }
 
         @Override
@@ -69,8 +88,21 @@ public class Channel<T> implements AutoCloseable {
     }
 
     public Channel(@NotNull String name) {
-        this.name = name;
+        this(name, DEFAULT_DEMAND);
+    }
 
+    /**
+     * Constructor of the class.
+     *
+     * @param name   name of the channel
+     * @param demand number of batches requested in advance by each subscriber
+     */
+    public Channel(@NotNull String name, int demand) {
+        if (demand <= 0) {
+            throw new IllegalArgumentException("Demand must be positive: %d".formatted(demand));
+        }
+        this.name = name;
+        this.demand = demand;
         publisher = new SubmissionPublisher<>();
     }
 
@@ -78,10 +110,6 @@ public class Channel<T> implements AutoCloseable {
         return name;
     }
 
-    public SubmissionPublisher<T> publisher() {
-        return publisher;
-    }
-
     /**
      * Subscribe an actor to the channel. The actor will receive messages from the channel.
      *
@@ -97,7 +125,18 @@ public class Channel<T> implements AutoCloseable {
      * @param message message to dispatch
      */
     public void publish(@NotNull T message) {
-        publisher.submit(message);
+        publisher.submit(List.of(message));
+    }
+
+    /**
+     * Dispatch a batch of messages to all subscribers of the channel. Each subscriber receives the batch in one mailbox operation.
+     *
+     * @param messages messages to dispatch in order
+     */
+    public void publishAll(@NotNull Collection<T> messages) {
+        if (!messages.isEmpty()) {
+            publisher.submit(List.copyOf(messages));
+        }
     }
 
     @Override
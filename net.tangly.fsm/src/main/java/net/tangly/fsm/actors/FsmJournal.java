@@ -0,0 +1,179 @@
+/*
+ * Copyright 2006-2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+
+package net.tangly.fsm.actors;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of finite state machine transitions stored in a memory-mapped file. Each record contains the sequence number, the event type, and the
+ * configuration of the machine after the event was processed.
+ * <p>A record is the length of its payload, the payload, and the CRC32 checksum of the payload. Reading stops at the first empty or corrupted record;
+ * a record torn by a crash is therefore ignored. The mapping is doubled when the journal is full.</p>
+ * <p>The journal is positioned after its last valid record when opened; appended records follow the records written before.</p>
+ * <p>Written records survive a crash of the virtual machine because they are stored in the page cache of the operating system. Call {@link #force()} to
+ * write them to the storage device. The class is not thread-safe and is owned by one actor.</p>
+ */
+final class FsmJournal implements AutoCloseable {
+    /**
+     * Journal record.
+     *
+     * @param sequence     sequence number of the record
+     * @param event        ordinal of the event type
+     * @param activeStates ordinals of the active states ordered from the root state to the deepest active state
+     * @param history      ordinals of the history states
+     */
+    record Record(long sequence, int event, int[] activeStates, int[] history) {
+    }
+
+    private final FileChannel channel;
+    private final int initialCapacity;
+    private final CRC32 crc;
+    private MappedByteBuffer buffer;
+
+    FsmJournal(@NotNull Path path, int initialCapacity) {
+        try {
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.initialCapacity = initialCapacity;
+            this.crc = new CRC32();
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(channel.size(), initialCapacity));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        read();
+    }
+
+    /**
+     * Read all valid records of the journal and position the journal after the last valid record.
+     *
+     * @return the valid records in the order of writing
+     */
+    List<Record> read() {
+        List<Record> records = new ArrayList<>();
+        buffer.position(0);
+        while (buffer.remaining() >= Integer.BYTES) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            if ((length <= 0) || (length + Integer.BYTES > buffer.remaining()) || !isValid(start + Integer.BYTES, length)) {
+                buffer.position(start);
+                break;
+            }
+            long sequence = buffer.getLong();
+            int event = buffer.getInt();
+            int[] activeStates = readInts();
+            int[] history = readInts();
+            records.add(new Record(sequence, event, activeStates, history));
+            buffer.position(start + Integer.BYTES + length + Integer.BYTES);
+        }
+        return records;
+    }
+
+    /**
+     * Append a record to the journal.
+     *
+     * @param sequence     sequence number of the record
+     * @param event        ordinal of the event type
+     * @param activeStates ordinals of the active states
+     * @param history      ordinals of the history states
+     */
+    void append(long sequence, int event, int @NotNull [] activeStates, int @NotNull [] history) {
+        int length = Long.BYTES + Integer.BYTES + Integer.BYTES * (2 + activeStates.length + history.length);
+        ensureCapacity(Integer.BYTES + length + Integer.BYTES);
+        int start = buffer.position();
+        buffer.putInt(length);
+        buffer.putLong(sequence);
+        buffer.putInt(event);
+        writeInts(activeStates);
+        writeInts(history);
+        buffer.putInt(checksum(start + Integer.BYTES, length));
+    }
+
+    /**
+     * Discard all records of the journal. The method is called after a snapshot was written.
+     */
+    void reset() {
+        try {
+            buffer.force();
+            channel.truncate(0);
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, initialCapacity);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Write the records to the storage device.
+     */
+    void force() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() {
+        try {
+            buffer.force();
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private boolean isValid(int offset, int length) {
+        return checksum(offset, length) == buffer.getInt(offset + length);
+    }
+
+    private int checksum(int offset, int length) {
+        crc.reset();
+        crc.update(buffer.slice(offset, length));
+        return (int) crc.getValue();
+    }
+
+    private int[] readInts() {
+        int[] values = new int[buffer.getInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = buffer.getInt();
+        }
+        return values;
+    }
+
+    private void writeInts(int @NotNull [] values) {
+        buffer.putInt(values.length);
+        for (int value : values) {
+            buffer.putInt(value);
+        }
+    }
+
+    private void ensureCapacity(int bytes) {
+        if (buffer.remaining() < bytes) {
+            try {
+                int position = buffer.position();
+                long capacity = Math.max((long) buffer.capacity() * 2, (long) position + bytes);
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+                buffer.position(position);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
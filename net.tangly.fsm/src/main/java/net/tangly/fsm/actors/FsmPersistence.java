@@ -0,0 +1,229 @@
+/*
+ * Copyright 2006-2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+
+package net.tangly.fsm.actors;
+
+import net.tangly.fsm.Event;
+import net.tangly.fsm.StateMachine;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Event-sourced persistence of a finite state machine. Each processed event is appended to a memory-mapped journal with the configuration of the machine
+ * after the event. Periodically a snapshot of the active states and history states is written and the journal is discarded.
+ * <p>Recovery loads the snapshot and replays the tail of the journal. The journal records the configuration reached by each event; replaying a record restores
+ * the configuration without evaluating guards or executing actions. Side effects of the original execution are therefore never repeated, and recovery time is
+ * proportional to the size of the tail and not to the lifetime of the machine.</p>
+ * <p>The sequence number of the last persisted event is loaded when the persistence is created. Events recorded without a prior recovery are appended
+ * after the persisted events and continue their sequence.</p>
+ * <p>States and events are persisted by ordinal. Reordering the enumeration constants invalidates persisted data. Event parameters are not persisted.</p>
+ *
+ * @param <S> the state enumeration type uniquely identifying a state in the state machine
+ * @param <E> the event enumeration type uniquely identifying the event sent to the state machine
+ */
+public class FsmPersistence<S extends Enum<S>, E extends Enum<E>> implements AutoCloseable {
+    /**
+     * Persisted configuration of the machine.
+     *
+     * @param activeStates active states ordered from the root state to the deepest active state
+     * @param history      history states
+     */
+    private record Configuration<S>(@NotNull List<S> activeStates, @NotNull Set<S> history) {
+    }
+
+    /**
+     * Default number of events between two snapshots.
+     */
+    public static final int DEFAULT_SNAPSHOT_INTERVAL = 10_000;
+    private static final int MAGIC = 0x46534d53;
+    private static final int JOURNAL_CAPACITY = 1 << 20;
+    private final Path snapshot;
+    private final Class<S> stateType;
+    private final int snapshotInterval;
+    private final FsmJournal journal;
+    private long sequence;
+    private int eventsSinceSnapshot;
+
+    /**
+     * Constructor of the class.
+     *
+     * @param directory        directory containing the journal and snapshot files
+     * @param name             name of the persisted machine, used as base name of the files
+     * @param stateType        enumeration type of the states
+     * @param snapshotInterval number of events between two snapshots
+     */
+    public FsmPersistence(@NotNull Path directory, @NotNull String name, @NotNull Class<S> stateType, int snapshotInterval) {
+        if (snapshotInterval <= 0) {
+            throw new IllegalArgumentException("Snapshot interval must be positive: %d".formatted(snapshotInterval));
+        }
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.snapshot = directory.resolve(name + ".snapshot");
+        this.stateType = stateType;
+        this.snapshotInterval = snapshotInterval;
+        this.journal = new FsmJournal(directory.resolve(name + ".journal"), JOURNAL_CAPACITY);
+        load();
+    }
+
+    /**
+     * Recover the configuration of the machine from the snapshot and the journal. The machine is not modified if nothing was persisted.
+     *
+     * @param machine machine to recover
+     * @return true if a persisted configuration was restored
+     */
+    public boolean recover(@NotNull StateMachine<?, S, E> machine) {
+        var configuration = load();
+        if (configuration != null) {
+            machine.restore(configuration.activeStates(), configuration.history());
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Record the event processed by the machine and the reached configuration. A snapshot is written when the snapshot interval is reached.
+     *
+     * @param event   processed event
+     * @param machine machine after processing the event
+     */
+    public void record(@NotNull Event<E> event, @NotNull StateMachine<?, S, E> machine) {
+        journal.append(++sequence, event.type().ordinal(), ordinals(machine.activeStateIds()), ordinals(machine.historyStateIds()));
+        if (++eventsSinceSnapshot >= snapshotInterval) {
+            snapshot(machine);
+        }
+    }
+
+    /**
+     * Write a snapshot of the configuration of the machine and discard the journal. The snapshot is written to a temporary file and atomically moved.
+     *
+     * @param machine machine to snapshot
+     */
+    public void snapshot(@NotNull StateMachine<?, S, E> machine) {
+        Path temporary = snapshot.resolveSibling(snapshot.getFileName() + ".tmp");
+        try {
+            try (var out = new DataOutputStream(Files.newOutputStream(temporary))) {
+                out.writeInt(MAGIC);
+                out.writeLong(sequence);
+                writeInts(out, ordinals(machine.activeStateIds()));
+                writeInts(out, ordinals(machine.historyStateIds()));
+            }
+            Files.move(temporary, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        journal.reset();
+        eventsSinceSnapshot = 0;
+    }
+
+    /**
+     * Return the sequence number of the last recorded event.
+     *
+     * @return sequence number
+     */
+    public long sequence() {
+        return sequence;
+    }
+
+    /**
+     * Write the journal to the storage device.
+     */
+    public void force() {
+        journal.force();
+    }
+
+    @Override
+    public void close() {
+        journal.close();
+    }
+
+    /**
+     * Load the snapshot and the journal, and set the sequence number to the last persisted event.
+     *
+     * @return the persisted configuration or null if nothing was persisted
+     */
+    private Configuration<S> load() {
+        Configuration<S> configuration = null;
+        sequence = 0;
+        eventsSinceSnapshot = 0;
+        if (Files.exists(snapshot)) {
+            try (var in = new DataInputStream(Files.newInputStream(snapshot))) {
+                if (in.readInt() != MAGIC) {
+                    throw new IllegalStateException("Invalid snapshot file %s".formatted(snapshot));
+                }
+                sequence = in.readLong();
+                configuration = new Configuration<>(states(readInts(in)), history(readInts(in)));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        for (var record : journal.read()) {
+            if (record.sequence() > sequence) {
+                sequence = record.sequence();
+                configuration = new Configuration<>(states(record.activeStates()), history(record.history()));
+                ++eventsSinceSnapshot;
+            }
+        }
+        return configuration;
+    }
+
+    private List<S> states(int @NotNull [] ordinals) {
+        S[] constants = stateType.getEnumConstants();
+        List<S> states = new ArrayList<>(ordinals.length);
+        for (int ordinal : ordinals) {
+            states.add(constants[ordinal]);
+        }
+        return states;
+    }
+
+    private Set<S> history(int @NotNull [] ordinals) {
+        Set<S> states = EnumSet.noneOf(stateType);
+        states.addAll(states(ordinals));
+        return states;
+    }
+
+    private static int[] ordinals(@NotNull Iterable<? extends Enum<?>> states) {
+        List<Integer> ordinals = new ArrayList<>();
+        states.forEach(o -> ordinals.add(o.ordinal()));
+        return ordinals.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int[] readInts(@NotNull DataInputStream in) throws IOException {
+        int[] values = new int[in.readInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.readInt();
+        }
+        return values;
+    }
+
+    private static void writeInts(@NotNull DataOutputStream out, int @NotNull [] values) throws IOException {
+        out.writeInt(values.length);
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+}
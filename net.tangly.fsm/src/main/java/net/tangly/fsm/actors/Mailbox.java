@@ -0,0 +1,257 @@
+/*
+ * Copyright 2006-2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+
+package net.tangly.fsm.actors;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Lock-free multiple producers single consumer mailbox of an actor. Any thread can post messages; only the thread processing the actor shall poll them.
+ * <p>The mailbox is a linked list of nodes. A producer appends its node with one atomic exchange, the consumer removes nodes without any atomic operation. A
+ * bounded mailbox applies its overflow policy when a producer posts a message to a full mailbox.</p>
+ *
+ * @param <T> type of the messages
+ */
+public final class Mailbox<T> {
+    /**
+     * Back-pressure policy applied when a message is posted to a full bounded mailbox.
+     */
+    public enum Overflow {
+        /**
+         * The producer is parked until the consumer has freed a slot. Producers running on a shard worker are never parked to avoid deadlocks between actors
+         * of the same shard; their message is accepted above the capacity.
+         */
+        BLOCK,
+        /**
+         * The message is discarded and counted as dropped.
+         */
+        DROP,
+        /**
+         * The message is rejected with a {@link RejectedExecutionException}.
+         */
+        FAIL
+    }
+
+    private static final class Node<T> {
+        private T item;
+        private volatile Node<T> next;
+
+        Node(T item) {
+            this.item = item;
+        }
+    }
+
+    private static final long PARK_NANOS = 10_000;
+    private final int capacity;
+    private final Overflow overflow;
+    private final AtomicReference<Node<T>> head;
+    private final AtomicInteger size;
+    private final AtomicLong dropped;
+    private Node<T> tail;
+
+    private Mailbox(int capacity, @NotNull Overflow overflow) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Mailbox capacity must be positive: %d".formatted(capacity));
+        }
+        this.capacity = capacity;
+        this.overflow = overflow;
+        this.tail = new Node<>(null);
+        this.head = new AtomicReference<>(tail);
+        this.size = new AtomicInteger();
+        this.dropped = new AtomicLong();
+    }
+
+    /**
+     * Create an unbounded mailbox.
+     *
+     * @param <T> type of the messages
+     * @return new mailbox
+     */
+    public static <T> Mailbox<T> unbounded() {
+        return new Mailbox<>(Integer.MAX_VALUE, Overflow.FAIL);
+    }
+
+    /**
+     * Create a bounded mailbox.
+     *
+     * @param capacity maximum number of pending messages
+     * @param overflow policy applied when the mailbox is full
+     * @param <T>      type of the messages
+     * @return new mailbox
+     */
+    public static <T> Mailbox<T> bounded(int capacity, @NotNull Overflow overflow) {
+        return new Mailbox<>(capacity, overflow);
+    }
+
+    /**
+     * Post a message to the mailbox. The method can be called by any thread.
+     *
+     * @param message message to post
+     * @return true if the message was accepted, false if it was dropped
+     * @throws RejectedExecutionException if the mailbox is full and the overflow policy is {@link Overflow#FAIL}
+     */
+    public boolean offer(@NotNull T message) {
+        if (!reserve()) {
+            return false;
+        }
+        var node = new Node<>(message);
+        head.getAndSet(node).next = node;
+        return true;
+    }
+
+    /**
+     * Post a batch of messages to the mailbox. The accepted messages are appended as one chain with a single atomic operation and are therefore never interleaved
+     * with messages of other producers. The overflow policy is applied to each message of the batch.
+     * <p>A producer about to be parked by the {@link Overflow#BLOCK} policy first appends the messages accepted so far. Reserved messages are invisible to the
+     * consumer until appended; a batch larger than the capacity would otherwise fill the mailbox and park the producer forever. The batch is then appended in
+     * several chains.</p>
+     *
+     * @param messages messages to post in order
+     * @return number of accepted messages
+     * @throws RejectedExecutionException if the mailbox is full and the overflow policy is {@link Overflow#FAIL}. The messages accepted before the overflow
+     *                                    are posted
+     */
+    public int offerAll(@NotNull Collection<T> messages) {
+        Node<T> first = null;
+        Node<T> last = null;
+        int accepted = 0;
+        try {
+            for (T message : messages) {
+                if ((first != null) && mustPark()) {
+                    head.getAndSet(last).next = first;
+                    first = null;
+                    last = null;
+                }
+                if (reserve()) {
+                    var node = new Node<>(message);
+                    if (first == null) {
+                        first = node;
+                    } else {
+                        last.next = node;
+                    }
+                    last = node;
+                    ++accepted;
+                }
+            }
+        } finally {
+            if (first != null) {
+                head.getAndSet(last).next = first;
+            }
+        }
+        return accepted;
+    }
+
+    /**
+     * Retrieve and remove the oldest message. The method shall only be called by the consumer thread.
+     *
+     * @return the oldest message or null if the mailbox is empty
+     */
+    public T poll() {
+        Node<T> next = tail.next;
+        if (next == null) {
+            return null;
+        }
+        T item = next.item;
+        next.item = null;
+        tail = next;
+        size.decrementAndGet();
+        return item;
+    }
+
+    /**
+     * Return true if no message is pending. A message being appended by a producer may not yet be visible.
+     *
+     * @return true if the mailbox is empty
+     */
+    public boolean isEmpty() {
+        return tail.next == null;
+    }
+
+    /**
+     * Return the number of pending messages.
+     *
+     * @return number of pending messages
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Return the capacity of the mailbox.
+     *
+     * @return maximum number of pending messages
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Return the overflow policy of the mailbox.
+     *
+     * @return policy applied when the mailbox is full
+     */
+    public Overflow overflow() {
+        return overflow;
+    }
+
+    /**
+     * Return the number of messages discarded because the mailbox was full.
+     *
+     * @return number of dropped messages
+     */
+    public long dropped() {
+        return dropped.get();
+    }
+
+    private boolean mustPark() {
+        return (overflow == Overflow.BLOCK) && (size.get() >= capacity) && !ActorShards.isWorkerThread();
+    }
+
+    private boolean reserve() {
+        if (capacity == Integer.MAX_VALUE) {
+            size.incrementAndGet();
+            return true;
+        }
+        while (true) {
+            int current = size.get();
+            if (current < capacity) {
+                if (size.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            } else {
+                switch (overflow) {
+                    case DROP -> {
+                        dropped.incrementAndGet();
+                        return false;
+                    }
+                    case FAIL -> throw new RejectedExecutionException("Mailbox is full: capacity %d".formatted(capacity));
+                    case BLOCK -> {
+                        if (ActorShards.isWorkerThread()) {
+                            size.incrementAndGet();
+                            return true;
+                        }
+                        LockSupport.parkNanos(PARK_NANOS);
+                    }
+                }
+            }
+        }
+    }
+}
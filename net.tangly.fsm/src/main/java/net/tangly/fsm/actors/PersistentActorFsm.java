@@ -0,0 +1,82 @@
+/*
+ * Copyright 2006-2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+
+package net.tangly.fsm.actors;
+
+import net.tangly.fsm.Event;
+import net.tangly.fsm.dsl.FsmBuilder;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * A local actor with a persistent finite state machine. The configuration of the machine is recovered from its persistence store when the actor is created,
+ * and each processed event is recorded. A restarted actor resumes its workflow in the state reached before the restart.
+ * <p>Recovery restores the active states and history states without executing any action. The context of the actor is not persisted; actors with a context
+ * relevant to their behavior must persist it themselves.</p>
+ *
+ * @param <O> the class of the instance owning the finite state machine instance
+ * @param <S> the state enumeration type uniquely identifying a state in the state machine
+ * @param <E> the event enumeration type uniquely identifying the event sent to the state machine
+ */
+public class PersistentActorFsm<O extends PersistentActorFsm<O, S, E>, S extends Enum<S>, E extends Enum<E>> extends ActorFsm<O, S, E> {
+    private final FsmPersistence<S, E> persistence;
+
+    /**
+     * Constructor of the class.
+     *
+     * @param builder     builder to create the finite state machine of the local actor
+     * @param name        name of the local actor
+     * @param executor    executor running the actor
+     * @param persistence persistence store of the finite state machine
+     */
+    public PersistentActorFsm(@NotNull FsmBuilder<O, S, E> builder, @NotNull String name, ExecutorService executor, @NotNull FsmPersistence<S, E> persistence) {
+        super(builder, name, executor);
+        this.persistence = persistence;
+        persistence.recover(fsm());
+    }
+
+    /**
+     * Return the persistence store of the finite state machine.
+     *
+     * @return persistence store
+     */
+    public FsmPersistence<S, E> persistence() {
+        return persistence;
+    }
+
+    @Override
+    protected boolean process(@NotNull Event<E> msg) {
+        boolean continues = super.process(msg);
+        persistence.record(msg, fsm());
+        return continues;
+    }
+
+    /**
+     * Process the events one by one because the configuration reached by each event is recorded in the journal.
+     *
+     * @param batch events to process in the order of the list
+     * @return true if the actor continues processing messages, false if the actor terminates
+     */
+    @Override
+    protected boolean processAll(@NotNull List<Event<E>> batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            if (!process(batch.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
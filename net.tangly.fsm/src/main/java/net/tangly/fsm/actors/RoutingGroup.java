@@ -0,0 +1,141 @@
+/*
+ * Copyright 2006-2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+
+package net.tangly.fsm.actors;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Routing group distributing messages over its member actors with consistent hashing. Messages with the same routing key are always sent to the same actor
+ * while the membership is stable. Adding or removing an actor only moves the keys of the neighbouring segments of the hash ring.
+ * <p>Each actor is placed on the ring with several virtual nodes to balance the load. The ring is copied on membership changes; routing is lock-free.</p>
+ *
+ * @param <T> type of the messages routed to the actors
+ */
+public class RoutingGroup<T> {
+    /**
+     * Default number of virtual nodes of an actor on the hash ring.
+     */
+    public static final int DEFAULT_VIRTUAL_NODES = 64;
+    private final String name;
+    private final int virtualNodes;
+    private volatile NavigableMap<Integer, Actor<T>> ring;
+
+    public RoutingGroup(@NotNull String name) {
+        this(name, DEFAULT_VIRTUAL_NODES);
+    }
+
+    /**
+     * Constructor of the class.
+     *
+     * @param name         name of the group
+     * @param virtualNodes number of virtual nodes of each actor on the hash ring
+     */
+    public RoutingGroup(@NotNull String name, int virtualNodes) {
+        if (virtualNodes <= 0) {
+            throw new IllegalArgumentException("Virtual nodes must be positive: %d".formatted(virtualNodes));
+        }
+        this.name = name;
+        this.virtualNodes = virtualNodes;
+        this.ring = new TreeMap<>();
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Add an actor to the group.
+     *
+     * @param actor actor to add
+     */
+    public synchronized void add(@NotNull Actor<T> actor) {
+        NavigableMap<Integer, Actor<T>> updated = new TreeMap<>(ring);
+        for (int i = 0; i < virtualNodes; i++) {
+            updated.putIfAbsent(position(actor.id(), i), actor);
+        }
+        ring = updated;
+    }
+
+    /**
+     * Remove an actor from the group.
+     *
+     * @param actor actor to remove
+     */
+    public synchronized void remove(@NotNull Actor<T> actor) {
+        NavigableMap<Integer, Actor<T>> updated = new TreeMap<>(ring);
+        updated.values().removeIf(o -> o.id().equals(actor.id()));
+        ring = updated;
+    }
+
+    /**
+     * Return the actor in charge of the routing key.
+     *
+     * @param key routing key
+     * @return the actor in charge of the key if the group is not empty
+     */
+    public Optional<Actor<T>> actorFor(@NotNull Object key) {
+        NavigableMap<Integer, Actor<T>> current = ring;
+        if (current.isEmpty()) {
+            return Optional.empty();
+        }
+        Map.Entry<Integer, Actor<T>> entry = current.ceilingEntry(mix(key.hashCode()));
+        return Optional.of((entry != null) ? entry.getValue() : current.firstEntry().getValue());
+    }
+
+    /**
+     * Send the message to the actor in charge of the routing key. The message is discarded if the group is empty.
+     *
+     * @param key     routing key
+     * @param message message to send
+     * @return true if the message was sent
+     */
+    public boolean route(@NotNull Object key, @NotNull T message) {
+        var actor = actorFor(key);
+        actor.ifPresent(o -> o.receive(message));
+        return actor.isPresent();
+    }
+
+    /**
+     * Return the number of actors of the group.
+     *
+     * @return number of actors
+     */
+    public int size() {
+        return (int) ring.values().stream().map(Actor::id).distinct().count();
+    }
+
+    private static int position(@NotNull UUID id, int virtualNode) {
+        return mix(id.hashCode() * 31 + virtualNode);
+    }
+
+    /**
+     * Finalization step of the MurmurHash3 algorithm spreading the bits of hash codes over the ring.
+     */
+    private static int mix(int hash) {
+        int h = hash;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
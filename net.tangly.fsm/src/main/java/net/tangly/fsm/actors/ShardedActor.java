@@ -0,0 +1,214 @@
+/*
+ * Copyright 2006-2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+
+package net.tangly.fsm.actors;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Actor processed by the shard workers of an {@link ActorShards} runtime. The actor has no dedicated thread; it is scheduled on its shard when a message is
+ * posted to its empty mailbox.
+ * <p>Messages are traced at trace level. The trace is gated by the logger level and does not allocate memory when the level is disabled.</p>
+ *
+ * @param <T> message type handle in the actor
+ */
+public abstract class ShardedActor<T> implements Actor<T> {
+    private static final Logger logger = LogManager.getLogger();
+    private final UUID id;
+    private final String name;
+    private final ActorShards shards;
+    private final int shard;
+    private final Mailbox<T> mailbox;
+    private final AtomicBoolean scheduled;
+    private final List<T> batch;
+    private volatile boolean terminated;
+
+    /**
+     * Constructor of an actor with an unbounded mailbox.
+     *
+     * @param name   name of the actor
+     * @param shards runtime processing the actor
+     */
+    protected ShardedActor(@NotNull String name, @NotNull ActorShards shards) {
+        this(name, shards, Mailbox.unbounded());
+    }
+
+    /**
+     * Constructor of an actor with the given mailbox.
+     *
+     * @param name    name of the actor
+     * @param shards  runtime processing the actor
+     * @param mailbox mailbox of the actor, bounded mailboxes provide back-pressure to producers
+     */
+    protected ShardedActor(@NotNull String name, @NotNull ActorShards shards, @NotNull Mailbox<T> mailbox) {
+        this.id = UUID.randomUUID();
+        this.name = name;
+        this.shards = shards;
+        this.shard = shards.shardOf(id);
+        this.mailbox = mailbox;
+        this.scheduled = new AtomicBoolean();
+        this.batch = new ArrayList<>();
+    }
+
+    @Override
+    public UUID id() {
+        return id;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public void receive(@NotNull T message) {
+        if (logger.isTraceEnabled()) {
+            logger.trace("Actor {} received message {}", name, message);
+        }
+        if (!terminated && mailbox.offer(message)) {
+            schedule();
+        }
+    }
+
+    @Override
+    public void receiveAll(@NotNull Collection<T> messages) {
+        if (logger.isTraceEnabled()) {
+            logger.trace("Actor {} received {} messages", name, messages.size());
+        }
+        if (!terminated && (mailbox.overflow() == Mailbox.Overflow.BLOCK)) {
+            // a blocked producer needs the actor to be scheduled to free slots, the messages are posted and scheduled one by one
+            messages.forEach(this::receive);
+        } else if (!terminated) {
+            try {
+                mailbox.offerAll(messages);
+            } finally {
+                // a failing mailbox posts the messages accepted before the overflow and then throws
+                if (!mailbox.isEmpty()) {
+                    schedule();
+                }
+            }
+        }
+    }
+
+    /**
+     * Schedule the actor on its shard worker. Messages are always processed by the shard worker, never by the calling thread.
+     */
+    @Override
+    public void run() {
+        schedule();
+    }
+
+    @Override
+    public int pendingMessages() {
+        return mailbox.size();
+    }
+
+    @Override
+    public long droppedMessages() {
+        return mailbox.dropped();
+    }
+
+    /**
+     * Return true if the actor has terminated. A terminated actor discards all received messages.
+     *
+     * @return true if the actor has terminated
+     */
+    public boolean isTerminated() {
+        return terminated;
+    }
+
+    /**
+     * Return the mailbox of the actor.
+     *
+     * @return mailbox of the actor
+     */
+    public Mailbox<T> mailbox() {
+        return mailbox;
+    }
+
+    /**
+     * Process a message. The method is never called concurrently for the same actor.
+     *
+     * @param msg message to process
+     * @return true if the actor continues processing messages, false if the actor terminates
+     */
+    protected abstract boolean process(@NotNull T msg);
+
+    /**
+     * Process a batch of messages drained from the mailbox. The method is never called concurrently for the same actor. The default implementation processes
+     * the messages one by one and stops at the first message terminating the actor.
+     *
+     * @param batch messages to process in the order of the list
+     * @return true if the actor continues processing messages, false if the actor terminates
+     */
+    protected boolean processAll(@NotNull List<T> batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            T message = batch.get(i);
+            try {
+                if (!process(message)) {
+                    return false;
+                }
+            } catch (RuntimeException e) {
+                logger.atError().withThrowable(e).log("Actor {} failed processing message {}", name, message);
+            }
+        }
+        return true;
+    }
+
+    int shard() {
+        return shard;
+    }
+
+    /**
+     * Drain at most the given number of pending messages, process them as one batch, and reschedule the actor if messages are still pending. The batch list is
+     * reused between drains; the actor is always drained by the worker of its shard.
+     *
+     * @param batchSize maximum number of messages to process
+     */
+    void drain(int batchSize) {
+        for (int i = 0; i < batchSize; i++) {
+            T message = mailbox.poll();
+            if (message == null) {
+                break;
+            }
+            batch.add(message);
+        }
+        if (!terminated && !batch.isEmpty()) {
+            try {
+                terminated = !processAll(batch);
+            } catch (RuntimeException e) {
+                logger.atError().withThrowable(e).log("Actor {} failed processing {} messages", name, batch.size());
+            }
+        }
+        batch.clear();
+        scheduled.set(false);
+        if (!mailbox.isEmpty()) {
+            schedule();
+        }
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            shards.schedule(this);
+        }
+    }
+}
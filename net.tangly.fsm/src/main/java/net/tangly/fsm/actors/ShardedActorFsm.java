@@ -0,0 +1,83 @@
+/*
+ * Copyright 2006-2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+
+package net.tangly.fsm.actors;
+
+import net.tangly.fsm.Event;
+import net.tangly.fsm.StateMachine;
+import net.tangly.fsm.dsl.FsmBuilder;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * Actor driven by a finite state machine and processed by the shard workers of an {@link ActorShards} runtime. The actor terminates when its finite state
+ * machine reaches a final state. The machine uses the compiled definition of the builder, shared by all actors created with the same builder.
+ *
+ * @param <O> the class of the instance owning the finite state machine instance
+ * @param <S> the state enumeration type uniquely identifying a state in the state machine
+ * @param <E> the event enumeration type uniquely identifying the event sent to the state machine
+ */
+public class ShardedActorFsm<O extends ShardedActorFsm<O, S, E>, S extends Enum<S>, E extends Enum<E>> extends ShardedActor<Event<E>> {
+    /**
+     * The final state machine defining the behavior of the actor class.
+     */
+    private final StateMachine<O, S, E> fsm;
+
+    /**
+     * Constructor of the class.
+     *
+     * @param builder builder to create the finite state machine of the actor
+     * @param name    name of the actor
+     * @param shards  runtime processing the actor
+     */
+    public ShardedActorFsm(@NotNull FsmBuilder<O, S, E> builder, @NotNull String name, @NotNull ActorShards shards) {
+        this(builder, name, shards, Mailbox.unbounded());
+    }
+
+    /**
+     * Constructor of the class.
+     *
+     * @param builder builder to create the finite state machine of the actor
+     * @param name    name of the actor
+     * @param shards  runtime processing the actor
+     * @param mailbox mailbox of the actor
+     */
+    @SuppressWarnings("unchecked")
+    public ShardedActorFsm(@NotNull FsmBuilder<O, S, E> builder, @NotNull String name, @NotNull ActorShards shards, @NotNull Mailbox<Event<E>> mailbox) {
+        super(name, shards, mailbox);
+        this.fsm = builder.compiledMachine(name, (O) this);
+    }
+
+    /**
+     * Return the finite state machine of the actor.
+     *
+     * @return finite state machine
+     */
+    public StateMachine<O, S, E> fsm() {
+        return fsm;
+    }
+
+    @Override
+    protected boolean process(@NotNull Event<E> msg) {
+        fsm.fire(msg);
+        return fsm.isAlive();
+    }
+
+    @Override
+    protected boolean processAll(@NotNull List<Event<E>> batch) {
+        fsm.fireAll(batch);
+        return fsm.isAlive();
+    }
+}
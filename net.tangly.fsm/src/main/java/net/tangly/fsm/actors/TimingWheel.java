@@ -0,0 +1,224 @@
+/*
+ * Copyright 2006-2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+
+package net.tangly.fsm.actors;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hierarchical timing wheel scheduling values at a deadline. Scheduling and canceling a value are constant time operations.
+ * <p>Time is divided in ticks. The wheel has {@value #LEVELS} levels of {@value #SLOTS} slots. The first level holds the values expiring in the next
+ * {@value #SLOTS} ticks, each higher level covers a {@value #SLOTS} times larger range. When the lower level wraps around, the values of the current slot of
+ * the next level are cascaded down. Values with a deadline beyond the range of the wheel are parked in the last level and cascaded until they expire.</p>
+ * <p>All values expiring in the same tick are coalesced and returned together. The class is not thread-safe and is owned by the timer manager actor.</p>
+ *
+ * @param <K> type of the keys identifying the scheduled values
+ * @param <V> type of the scheduled values
+ */
+final class TimingWheel<K, V> {
+    static final int LEVELS = 4;
+    static final int SLOTS = 256;
+    private static final int BITS = 8;
+    private static final int MASK = SLOTS - 1;
+    private static final long RANGE = 1L << (BITS * LEVELS);
+
+    private static final class Entry<K, V> {
+        private final K key;
+        private final V value;
+        private final long deadline;
+        private Entry<K, V> previous;
+        private Entry<K, V> next;
+        private Entry<K, V>[] slots;
+        private int slot;
+
+        Entry(@NotNull K key, @NotNull V value, long deadline) {
+            this.key = key;
+            this.value = value;
+            this.deadline = deadline;
+        }
+    }
+
+    private final long tickNanos;
+    private final long originNanos;
+    private final Entry<K, V>[][] wheels;
+    private final Map<K, Entry<K, V>> index;
+    private long currentTick;
+
+    /**
+     * Constructor of the class.
+     *
+     * @param tickNanos   duration of a tick in nanoseconds
+     * @param originNanos time of the first tick in nanoseconds
+     */
+    @SuppressWarnings("unchecked")
+    TimingWheel(long tickNanos, long originNanos) {
+        if (tickNanos <= 0) {
+            throw new IllegalArgumentException("Tick duration must be positive: %d".formatted(tickNanos));
+        }
+        this.tickNanos = tickNanos;
+        this.originNanos = originNanos;
+        this.wheels = new Entry[LEVELS][SLOTS];
+        this.index = new HashMap<>();
+    }
+
+    /**
+     * Schedule the value at the deadline. A value scheduled with the same key is replaced. A deadline in the past expires at the next tick.
+     *
+     * @param key           key identifying the value
+     * @param value         value to schedule
+     * @param deadlineNanos deadline of the value in nanoseconds
+     */
+    void schedule(@NotNull K key, @NotNull V value, long deadlineNanos) {
+        cancel(key);
+        var entry = new Entry<>(key, value, Math.max(Math.ceilDiv(deadlineNanos - originNanos, tickNanos), currentTick + 1));
+        index.put(key, entry);
+        insert(entry);
+    }
+
+    /**
+     * Cancel the value scheduled with the key.
+     *
+     * @param key key identifying the value
+     * @return true if a scheduled value was canceled
+     */
+    boolean cancel(@NotNull K key) {
+        var entry = index.remove(key);
+        if (entry != null) {
+            unlink(entry);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Advance the wheel to the given time and return the values expired since the last advance. Values are returned in the order of their deadline tick.
+     *
+     * @param nowNanos current time in nanoseconds
+     * @return the expired values, empty if none expired
+     */
+    List<V> advance(long nowNanos) {
+        long targetTick = Math.floorDiv(nowNanos - originNanos, tickNanos);
+        List<V> expired = new ArrayList<>();
+        while (currentTick < targetTick) {
+            if (index.isEmpty()) {
+                currentTick = targetTick;
+                break;
+            }
+            ++currentTick;
+            cascade();
+            expire(expired);
+        }
+        return expired;
+    }
+
+    /**
+     * Return the time in nanoseconds at which the wheel shall be advanced next. It is the tick of the first occupied slot of the first level, or the end of
+     * the current rotation of the first level if no slot before it is occupied. Values of higher levels expire after the end of the rotation and are cascaded
+     * then. The owner of the wheel therefore sleeps until the next expiration or at most one rotation instead of waking up at every tick.
+     *
+     * @return time of the next advance
+     */
+    long nextAdvanceNanos() {
+        long rotationEnd = (currentTick | MASK) + 1;
+        for (long tick = currentTick + 1; tick < rotationEnd; ++tick) {
+            if (wheels[0][(int) (tick & MASK)] != null) {
+                return originNanos + tick * tickNanos;
+            }
+        }
+        return originNanos + rotationEnd * tickNanos;
+    }
+
+    boolean isEmpty() {
+        return index.isEmpty();
+    }
+
+    int size() {
+        return index.size();
+    }
+
+    private void insert(@NotNull Entry<K, V> entry) {
+        long delta = entry.deadline - currentTick;
+        long placement = (delta >= RANGE) ? currentTick + RANGE - 1 : entry.deadline;
+        int level = 0;
+        while ((level < LEVELS - 1) && (placement - currentTick >= (1L << (BITS * (level + 1))))) {
+            ++level;
+        }
+        link(entry, wheels[level], (int) ((placement >>> (BITS * level)) & MASK));
+    }
+
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            if (((currentTick >>> (BITS * (level - 1))) & MASK) != 0) {
+                break;
+            }
+            int slot = (int) ((currentTick >>> (BITS * level)) & MASK);
+            Entry<K, V> entry = wheels[level][slot];
+            wheels[level][slot] = null;
+            while (entry != null) {
+                var next = entry.next;
+                entry.previous = null;
+                entry.next = null;
+                insert(entry);
+                entry = next;
+            }
+        }
+    }
+
+    private void expire(@NotNull List<V> expired) {
+        int slot = (int) (currentTick & MASK);
+        Entry<K, V> entry = wheels[0][slot];
+        wheels[0][slot] = null;
+        while (entry != null) {
+            var next = entry.next;
+            entry.previous = null;
+            entry.next = null;
+            if (entry.deadline <= currentTick) {
+                index.remove(entry.key);
+                expired.add(entry.value);
+            } else {
+                insert(entry);
+            }
+            entry = next;
+        }
+    }
+
+    private void link(@NotNull Entry<K, V> entry, @NotNull Entry<K, V>[] slots, int slot) {
+        entry.slots = slots;
+        entry.slot = slot;
+        entry.previous = null;
+        entry.next = slots[slot];
+        if (slots[slot] != null) {
+            slots[slot].previous = entry;
+        }
+        slots[slot] = entry;
+    }
+
+    private void unlink(@NotNull Entry<K, V> entry) {
+        if (entry.previous != null) {
+            entry.previous.next = entry.next;
+        } else {
+            entry.slots[entry.slot] = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.previous = entry.previous;
+        }
+        entry.previous = null;
+        entry.next = null;
+    }
+}
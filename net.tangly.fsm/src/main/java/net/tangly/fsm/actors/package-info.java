@@ -14,6 +14,11 @@
 /**
  * <p>The package provides actor abstractions to run a set of finite state machines as processes and exchange messages between actors.</p>
  * <p>Communication between actors is implemented with the reactive abstractions provided in the standard API.</p>
+ * <p>Two runtimes are provided. An {@link net.tangly.fsm.actors.ActorImp} owns a task blocked on its queue of messages. A
+ * {@link net.tangly.fsm.actors.ShardedActor} is multiplexed with other actors over the shard workers of an {@link net.tangly.fsm.actors.ActorShards} runtime
+ * and has a lock-free, optionally bounded {@link net.tangly.fsm.actors.Mailbox}.</p>
+ * <p>A {@link net.tangly.fsm.actors.PersistentActorFsm} journals its state machine with {@link net.tangly.fsm.actors.FsmPersistence} and recovers its
+ * configuration after a restart.</p>
  */
 
 package net.tangly.fsm.actors;
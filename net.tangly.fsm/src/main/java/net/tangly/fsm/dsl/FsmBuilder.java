@@ -72,6 +72,17 @@ public interface FsmBuilder<O, S extends Enum<S>, E extends Enum<E>> {
      */
     StateMachine<O, S, E> machine(String name, O owner);
 
+    /**
+     * Create an instance of the state machine based on the compiled definition of the state machine available to the builder. The definition is compiled
+     * into per-state dispatch tables keyed by event type and precomputed state hierarchies. Firing an event is a table lookup followed by the guard checks. The
+     * compiled definition is shared between all machines created until the definition is modified.
+     *
+     * @param name  human-readable name of the finite state machine instance
+     * @param owner instance owning the finite state machine
+     * @return the state machine instance
+     */
+    StateMachine<O, S, E> compiledMachine(String name, O owner);
+
     /**
      * Add a new state to the root state.
      *
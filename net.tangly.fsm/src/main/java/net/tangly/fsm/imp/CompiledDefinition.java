@@ -0,0 +1,219 @@
+/*
+ * Copyright 2006-2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+
+package net.tangly.fsm.imp;
+
+import net.tangly.fsm.State;
+import net.tangly.fsm.Transition;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Compiled form of a finite state machine definition. The definition tree is traversed once and the dispatch tables and state hierarchies are precomputed.
+ * <ul>
+ * <li>Each state has a table mapping an event type to the transitions triggered by the event. Firing an event is a table lookup followed by the evaluation of
+ * the guards.</li>
+ * <li>Each state knows the path of states from the root state to itself, its substates, and its initial substate.</li>
+ * <li>Each transition knows the path to its target state and the depth of the deepest common ancestor of its source and target states. The exit and entry
+ * sequences of a transition are derived from these values without searching the definition tree.</li>
+ * </ul>
+ * <p>The compiled definition is immutable and is shared between all machines created from the same definition. The lookup methods return precomputed arrays
+ * and never allocate memory. The returned arrays shall not be modified.</p>
+ *
+ * @param <O> the class of the instance owning the finite state machine instance
+ * @param <S> the state enumeration type uniquely identifying a state in the state machine
+ * @param <E> the event enumeration type uniquely identifying the event sent to the state machine
+ */
+final class CompiledDefinition<O, S extends Enum<S>, E extends Enum<E>> {
+    /**
+     * Transition with the precomputed hierarchy information.
+     *
+     * @param transition  transition of the definition
+     * @param targetPath  states from the root state to the target state of the transition
+     * @param commonDepth depth of the deepest common ancestor of the source and target states in the target path. The target state is never the common
+     *                    ancestor
+     * @param <O>         the class of the instance owning the finite state machine instance
+     * @param <S>         the state enumeration type uniquely identifying a state in the state machine
+     * @param <E>         the event enumeration type uniquely identifying the event sent to the state machine
+     */
+    record Dispatch<O, S extends Enum<S>, E extends Enum<E>>(@NotNull Transition<O, S, E> transition, @NotNull State<O, S, E>[] targetPath,
+                                                              int commonDepth) {
+    }
+
+    private static final Dispatch<?, ?, ?>[] NO_DISPATCHES = new Dispatch<?, ?, ?>[0];
+
+    private final State<O, S, E> root;
+    private final Map<S, State<O, S, E>[]> paths;
+    private final Map<S, State<O, S, E>[]> substates;
+    private final Map<S, State<O, S, E>> initialStates;
+    private final Map<S, Map<E, Dispatch<O, S, E>[]>> transitions;
+    private final Map<S, Map<E, Dispatch<O, S, E>[]>> localTransitions;
+
+    private CompiledDefinition(@NotNull State<O, S, E> root) {
+        Class<S> stateType = root.id().getDeclaringClass();
+        this.root = root;
+        this.paths = new EnumMap<>(stateType);
+        this.substates = new EnumMap<>(stateType);
+        this.initialStates = new EnumMap<>(stateType);
+        this.transitions = new EnumMap<>(stateType);
+        this.localTransitions = new EnumMap<>(stateType);
+    }
+
+    /**
+     * Compiles the finite state machine definition.
+     *
+     * @param root root state of the definition
+     * @param <O>  the class of the instance owning the finite state machine instance
+     * @param <S>  the state enumeration type uniquely identifying a state in the state machine
+     * @param <E>  the event enumeration type uniquely identifying the event sent to the state machine
+     * @return the compiled definition
+     */
+    static <O, S extends Enum<S>, E extends Enum<E>> CompiledDefinition<O, S, E> of(@NotNull State<O, S, E> root) {
+        var definition = new CompiledDefinition<>(root);
+        definition.collectPaths(root, new ArrayList<>());
+        Class<E> eventType = eventType(root);
+        if (Objects.nonNull(eventType)) {
+            definition.collectTransitions(root, eventType);
+        }
+        return definition;
+    }
+
+    State<O, S, E> root() {
+        return root;
+    }
+
+    /**
+     * Return the transitions of the state triggered by the event type.
+     *
+     * @param state     state owning the transitions
+     * @param eventType type of the event
+     * @return the compiled transitions, empty if no transition is triggered by the event type
+     */
+    Dispatch<O, S, E>[] transitions(@NotNull State<O, S, E> state, @NotNull E eventType) {
+        return lookup(transitions, state, eventType);
+    }
+
+    /**
+     * Return the local transitions of the state triggered by the event type.
+     *
+     * @param state     state owning the local transitions
+     * @param eventType type of the event
+     * @return the compiled local transitions, empty if no local transition is triggered by the event type
+     */
+    Dispatch<O, S, E>[] localTransitions(@NotNull State<O, S, E> state, @NotNull E eventType) {
+        return lookup(localTransitions, state, eventType);
+    }
+
+    /**
+     * Return the states from the root state to the given state.
+     *
+     * @param state state which path is requested
+     * @return path of the state, the first element is the root state and the last element is the state
+     */
+    State<O, S, E>[] path(@NotNull State<O, S, E> state) {
+        return paths.get(state.id());
+    }
+
+    /**
+     * Return the substates of the given state.
+     *
+     * @param state state which substates are requested
+     * @return substates of the state, empty if the state is not composite
+     */
+    State<O, S, E>[] substates(@NotNull State<O, S, E> state) {
+        return substates.get(state.id());
+    }
+
+    /**
+     * Return the initial substate of the given state.
+     *
+     * @param state state which initial substate is requested
+     * @return the initial substate if defined otherwise null
+     */
+    State<O, S, E> initialState(@NotNull State<O, S, E> state) {
+        return initialStates.get(state.id());
+    }
+
+    /**
+     * Return the state with the given identifier.
+     *
+     * @param stateId identifier of the state
+     * @return the state if defined otherwise null
+     */
+    State<O, S, E> state(@NotNull S stateId) {
+        State<O, S, E>[] path = paths.get(stateId);
+        return Objects.isNull(path) ? null : path[path.length - 1];
+    }
+
+    @SuppressWarnings("unchecked")
+    private Dispatch<O, S, E>[] lookup(@NotNull Map<S, Map<E, Dispatch<O, S, E>[]>> tables, @NotNull State<O, S, E> state, @NotNull E eventType) {
+        Map<E, Dispatch<O, S, E>[]> table = tables.get(state.id());
+        Dispatch<O, S, E>[] dispatches = Objects.isNull(table) ? null : table.get(eventType);
+        return Objects.isNull(dispatches) ? (Dispatch<O, S, E>[]) NO_DISPATCHES : dispatches;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void collectPaths(@NotNull State<O, S, E> state, @NotNull List<State<O, S, E>> path) {
+        path.addLast(state);
+        paths.put(state.id(), path.toArray(State[]::new));
+        substates.put(state.id(), state.substates().stream().sorted().toArray(State[]::new));
+        Optional.ofNullable(state.initialState()).ifPresent(o -> initialStates.put(state.id(), o));
+        state.substates().forEach(o -> collectPaths(o, path));
+        path.removeLast();
+    }
+
+    private void collectTransitions(@NotNull State<O, S, E> state, @NotNull Class<E> eventType) {
+        if (!state.transitions().isEmpty()) {
+            transitions.put(state.id(), table(state.transitions(), eventType));
+        }
+        if (!state.localTransitions().isEmpty()) {
+            localTransitions.put(state.id(), table(state.localTransitions(), eventType));
+        }
+        state.substates().forEach(o -> collectTransitions(o, eventType));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<E, Dispatch<O, S, E>[]> table(@NotNull Collection<Transition<O, S, E>> transitions, @NotNull Class<E> eventType) {
+        Map<E, List<Dispatch<O, S, E>>> dispatches = new EnumMap<>(eventType);
+        transitions.forEach(transition -> dispatches.computeIfAbsent(transition.eventId(), _ -> new ArrayList<>()).add(dispatch(transition)));
+        Map<E, Dispatch<O, S, E>[]> table = new EnumMap<>(eventType);
+        dispatches.forEach((event, list) -> table.put(event, list.toArray(Dispatch[]::new)));
+        return table;
+    }
+
+    private Dispatch<O, S, E> dispatch(@NotNull Transition<O, S, E> transition) {
+        State<O, S, E>[] sourcePath = path(transition.source());
+        State<O, S, E>[] targetPath = path(transition.target());
+        int depth = 0;
+        while ((depth + 1 < sourcePath.length) && (depth + 1 < targetPath.length - 1) && (sourcePath[depth + 1] == targetPath[depth + 1])) {
+            ++depth;
+        }
+        return new Dispatch<>(transition, targetPath, depth);
+    }
+
+    private static <O, S extends Enum<S>, E extends Enum<E>> Class<E> eventType(@NotNull State<O, S, E> state) {
+        var transition = state.transitions().stream().findAny().or(() -> state.localTransitions().stream().findAny());
+        if (transition.isPresent()) {
+            return transition.get().eventId().getDeclaringClass();
+        }
+        return state.substates().stream().map(CompiledDefinition::eventType).filter(Objects::nonNull).findAny().orElse(null);
+    }
+}
@@ -45,6 +45,7 @@ public class DefinitionBuilder<O, S extends Enum<S>, E extends Enum<E>>
     private String description;
     private String actionDescription;
     private String guardDescription;
+    private CompiledDefinition<O, S, E> compiled;
 
     /**
      * Constructor of the class. Creates a finite state machine builder with the given root state identifier.
@@ -69,6 +70,14 @@ public class DefinitionBuilder<O, S extends Enum<S>, E extends Enum<E>>
         return new StateMachineImp<>(name, definition(), owner);
     }
 
+    @Override
+    public StateMachine<O, S, E> compiledMachine(String name, O owner) {
+        if (compiled == null) {
+            compiled = CompiledDefinition.of(root);
+        }
+        return new StateMachineImp<>(name, compiled, owner);
+    }
+
     @Override
     public StateBuilder<O, S, E> in(@NotNull S stateId) {
         if (!states.containsKey(stateId)) {
@@ -93,6 +102,7 @@ public class DefinitionBuilder<O, S extends Enum<S>, E extends Enum<E>>
         state.setDescription(description);
         states.put(stateId, state);
         context.addSubstate(state);
+        compiled = null;
         context = state;
         return this;
     }
@@ -144,6 +154,7 @@ public class DefinitionBuilder<O, S extends Enum<S>, E extends Enum<E>>
             context.addTransition(transition);
         }
         resetTransactionContext();
+        compiled = null;
         return this;
     }
 
@@ -164,6 +175,7 @@ public class DefinitionBuilder<O, S extends Enum<S>, E extends Enum<E>>
     @Override
     public SubStateBuilder<O, S, E> hasHistory(boolean hasHistory) {
         context.setHasHistory(hasHistory);
+        compiled = null;
         return this;
     }
 
@@ -175,6 +187,7 @@ public class DefinitionBuilder<O, S extends Enum<S>, E extends Enum<E>>
     @Override
     public SubStateBuilder<O, S, E> isInitial(boolean initial) {
         context.setInitial(initial);
+        compiled = null;
         return this;
     }
 
@@ -18,26 +18,32 @@ import net.tangly.fsm.State;
 import net.tangly.fsm.StateMachineEventHandler;
 import net.tangly.fsm.Transition;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.Arrays;
+import java.util.List;
 import java.util.function.BiConsumer;
 
 /**
  * Helper class to manage a set of state machine event handler implemented as a classical facade.
+ * <p>The handlers are stored in a copy-on-write array. Notifications iterate over the array without allocating memory and are skipped when no handler is
+ * registered. Registering and removing handlers are rare operations and copy the array.</p>
+ * <p>The array is published through a volatile field, and registrations are serialized. A handler registered by another thread, for example a monitoring
+ * thread, is seen by the thread firing events, and concurrent registrations are not lost.</p>
  *
  * @param <O> the class of the instance owning the finite state machine instance
  * @param <S> the state enumeration type uniquely identifying a state in the state machine
  * @param <E> the event enumeration type uniquely identifying the event sent to the state machine
  */
 class StateMachineEventHandlerHelper<O, S extends Enum<S>, E extends Enum<E>> implements StateMachineEventHandler<O, S, E> {
+    private static final StateMachineEventHandler<?, ?, ?>[] NO_HANDLERS = new StateMachineEventHandler<?, ?, ?>[0];
 
-    private final Set<StateMachineEventHandler<O, S, E>> handlers;
+    private volatile StateMachineEventHandler<O, S, E>[] handlers;
 
     /**
      * Default constructor of the class.
      */
+    @SuppressWarnings("unchecked")
     StateMachineEventHandlerHelper() {
-        handlers = new HashSet<>();
+        handlers = (StateMachineEventHandler<O, S, E>[]) NO_HANDLERS;
     }
 
     /**
@@ -45,8 +51,12 @@ class StateMachineEventHandlerHelper<O, S extends Enum<S>, E extends Enum<E>> im
      *
      * @param handler handler to addToRoot to the managed set.
      */
-    void addEventHandler(StateMachineEventHandler<O, S, E> handler) {
-        handlers.add(handler);
+    synchronized void addEventHandler(StateMachineEventHandler<O, S, E> handler) {
+        if (!isRegistered(handler)) {
+            var extended = Arrays.copyOf(handlers, handlers.length + 1);
+            extended[handlers.length] = handler;
+            handlers = extended;
+        }
     }
 
     /**
@@ -54,8 +64,11 @@ class StateMachineEventHandlerHelper<O, S extends Enum<S>, E extends Enum<E>> im
      *
      * @param handler handler to remove from the managed set.
      */
-    void removeEventHandler(StateMachineEventHandler<O, S, E> handler) {
-        handlers.remove(handler);
+    @SuppressWarnings("unchecked")
+    synchronized void removeEventHandler(StateMachineEventHandler<O, S, E> handler) {
+        if (isRegistered(handler)) {
+            handlers = Arrays.stream(handlers).filter(o -> !o.equals(handler)).toArray(StateMachineEventHandler[]::new);
+        }
     }
 
     /**
@@ -65,56 +78,95 @@ class StateMachineEventHandlerHelper<O, S extends Enum<S>, E extends Enum<E>> im
      * @return true if the handler is registered otherwise false
      */
     boolean isRegistered(StateMachineEventHandler<O, S, E> handler) {
-        return handlers.contains(handler);
+        for (var registered : handlers) {
+            if (registered.equals(handler)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     @Override
     public void processEvent(Event<E> event) {
-        handlers.forEach(handler -> handler.processEvent(event));
+        for (var handler : handlers) {
+            handler.processEvent(event);
+        }
+    }
+
+    @Override
+    public void processEvents(List<Event<E>> events) {
+        for (var handler : handlers) {
+            handler.processEvents(events);
+        }
     }
 
     @Override
     public void wasReset() {
-        handlers.forEach(StateMachineEventHandler::wasReset);
+        for (var handler : handlers) {
+            handler.wasReset();
+        }
     }
 
     @Override
     public void fireLocalTransition(Transition<O, S, E> transition, Event<E> event) {
-        handlers.forEach(handler -> handler.fireLocalTransition(transition, event));
+        for (var handler : handlers) {
+            handler.fireLocalTransition(transition, event);
+        }
+    }
+
+    @Override
+    public void evaluateGuard(Transition<O, S, E> transition, Event<E> event, boolean accepted) {
+        for (var handler : handlers) {
+            handler.evaluateGuard(transition, event, accepted);
+        }
     }
 
     @Override
     public void fireTransition(Transition<O, S, E> transition, Event<E> event) {
-        handlers.forEach(handler -> handler.fireTransition(transition, event));
+        for (var handler : handlers) {
+            handler.fireTransition(transition, event);
+        }
     }
 
     @Override
     public void executeEntryAction(State<O, S, E> state, Event<E> event) {
-        handlers.forEach(handler -> handler.executeEntryAction(state, event));
+        for (var handler : handlers) {
+            handler.executeEntryAction(state, event);
+        }
     }
 
     @Override
     public void executeExitAction(State<O, S, E> state, Event<E> event) {
-        handlers.forEach(handler -> handler.executeExitAction(state, event));
+        for (var handler : handlers) {
+            handler.executeExitAction(state, event);
+        }
     }
 
     @Override
     public void enterState(State<O, S, E> state) {
-        handlers.forEach(handler -> handler.enterState(state));
+        for (var handler : handlers) {
+            handler.enterState(state);
+        }
     }
 
     @Override
     public void exitState(State<O, S, E> state) {
-        handlers.forEach(handler -> handler.exitState(state));
+        for (var handler : handlers) {
+            handler.exitState(state);
+        }
     }
 
     @Override
     public void throwException(Transition<O, S, E> transition, Event<E> event, Exception e) {
-        handlers.forEach(handler -> handler.throwException(transition, event, e));
+        for (var handler : handlers) {
+            handler.throwException(transition, event, e);
+        }
     }
 
     @Override
     public void throwException(State<O, S, E> state, BiConsumer<O, Event<E>> action, Event<E> event, Exception e) {
-        handlers.forEach(handler -> handler.throwException(state, action, event, e));
+        for (var handler : handlers) {
+            handler.throwException(state, action, event, e);
+        }
     }
 }
@@ -37,6 +37,11 @@ class StateMachineImp<O, S extends Enum<S>, E extends Enum<E>> implements StateM
      */
     private final State<O, S, E> root;
 
+    /**
+     * Compiled definition of the finite state machine. If null the transitions are searched in the definition tree.
+     */
+    private final CompiledDefinition<O, S, E> compiled;
+
     /**
      * instance owning the finite state machine instance.
      */
@@ -50,12 +55,13 @@ class StateMachineImp<O, S extends Enum<S>, E extends Enum<E>> implements StateM
     /**
      * List of active states, the head contains the root state, the tail contains the deepest state.
      */
-    private final Deque<State<O, S, E>> activeStates;
+    private final List<State<O, S, E>> activeStates;
 
     /**
-     * List of all states with active history in the state machine.
+     * Set of all states with active history in the state machine. The set is a bitset indexed by the ordinal of the state identifiers and is updated without
+     * allocating memory.
      */
-    private final Set<State<O, S, E>> history;
+    private final BitSet history;
 
     /**
      * Constructor of the class.
@@ -65,11 +71,27 @@ class StateMachineImp<O, S extends Enum<S>, E extends Enum<E>> implements StateM
      * @param owner instance owning the finite state machine
      */
     StateMachineImp(String name, @NotNull State<O, S, E> root, O owner) {
+        this(name, root, null, owner);
+    }
+
+    /**
+     * Constructor of the class. The machine uses the dispatch tables of the compiled definition to process events.
+     *
+     * @param name     human-readable name of the finite state machine instance
+     * @param compiled compiled definition of the finite state machine
+     * @param owner    instance owning the finite state machine
+     */
+    StateMachineImp(String name, @NotNull CompiledDefinition<O, S, E> compiled, O owner) {
+        this(name, compiled.root(), compiled, owner);
+    }
+
+    private StateMachineImp(String name, @NotNull State<O, S, E> root, CompiledDefinition<O, S, E> compiled, O owner) {
         this.name = name;
         this.root = root;
+        this.compiled = compiled;
         this.owner = owner;
-        activeStates = new ArrayDeque<>();
-        history = new HashSet<>();
+        activeStates = new ArrayList<>();
+        history = new BitSet(root.id().getDeclaringClass().getEnumConstants().length);
         helper = new StateMachineEventHandlerHelper<>();
         initialize();
     }
@@ -83,6 +105,31 @@ class StateMachineImp<O, S extends Enum<S>, E extends Enum<E>> implements StateM
     @Override
     public boolean fire(@NotNull Event<E> event) {
         helper.processEvent(event);
+        return dispatch(event);
+    }
+
+    @Override
+    public int fireAll(@NotNull List<Event<E>> events, boolean stopAtUnhandled) {
+        int fired = 0;
+        int dispatched = 0;
+        try {
+            while ((dispatched < events.size()) && isAlive()) {
+                if (dispatch(events.get(dispatched++))) {
+                    ++fired;
+                } else if (stopAtUnhandled) {
+                    break;
+                }
+            }
+        } finally {
+            helper.processEvents((dispatched == events.size()) ? events : events.subList(0, dispatched));
+        }
+        return fired;
+    }
+
+    private boolean dispatch(@NotNull Event<E> event) {
+        if (compiled != null) {
+            return fireCompiled(event);
+        }
         boolean fired = fireLocalTransition(event);
         if (!fired) {
             fired = fireTransition(event);
@@ -97,11 +144,10 @@ class StateMachineImp<O, S extends Enum<S>, E extends Enum<E>> implements StateM
 
     private boolean fireLocalTransition(@NotNull Event<E> event) {
         boolean fired = false;
-        for (var iter = activeStates.descendingIterator(); iter.hasNext(); ) {
-            State<O, S, E> state = iter.next();
-            for (var transition : state.localTransitions()) {
+        for (int i = activeStates.size() - 1; i >= 0; i--) {
+            for (var transition : activeStates.get(i).localTransitions()) {
                 try {
-                    if (transition.evaluate(owner, event)) {
+                    if (evaluate(transition, event)) {
                         fired = true;
                         helper.fireLocalTransition(transition, event);
                         fireTransition(transition, event);
@@ -117,11 +163,10 @@ class StateMachineImp<O, S extends Enum<S>, E extends Enum<E>> implements StateM
 
     private boolean fireTransition(@NotNull Event<E> event) {
         boolean fired = false;
-        for (Iterator<State<O, S, E>> iter = activeStates.descendingIterator(); iter.hasNext(); ) {
-            var state = iter.next();
-            for (var transition : state.transitions()) {
+        for (int i = activeStates.size() - 1; i >= 0; i--) {
+            for (var transition : activeStates.get(i).transitions()) {
                 try {
-                    if (transition.evaluate(owner, event)) {
+                    if (evaluate(transition, event)) {
                         fired = true;
                         var hierarchy = getHierarchyToFirstActiveStaterFor(transition.target());
                         exitStatesToCommonAncestor(event, hierarchy.getFirst());
@@ -142,6 +187,100 @@ class StateMachineImp<O, S extends Enum<S>, E extends Enum<E>> implements StateM
         return fired;
     }
 
+    /**
+     * Fire the event using the dispatch tables of the compiled definition. The semantic is the same as for the definition tree: the first local transition of
+     * each active state is fired, and if none was fired, the first transition found from the deepest active state upward is fired.
+     * <p>The method does not allocate memory. The active states are traversed by index, the dispatch tables and state hierarchies are precomputed arrays, and
+     * the history is a bitset.</p>
+     *
+     * @param event event to process
+     * @return flag indicating if a transition was fired
+     */
+    private boolean fireCompiled(@NotNull Event<E> event) {
+        boolean fired = false;
+        for (int i = activeStates.size() - 1; i >= 0; i--) {
+            for (var dispatch : compiled.localTransitions(activeStates.get(i), event.type())) {
+                var transition = dispatch.transition();
+                try {
+                    if (isEnabled(transition, event)) {
+                        fired = true;
+                        helper.fireLocalTransition(transition, event);
+                        executeAction(transition, event);
+                        break;
+                    }
+                } catch (Exception e) {
+                    helper.throwException(transition, event, e);
+                }
+            }
+        }
+        if (fired) {
+            return true;
+        }
+        for (int i = activeStates.size() - 1; i >= 0; i--) {
+            for (var dispatch : compiled.transitions(activeStates.get(i), event.type())) {
+                var transition = dispatch.transition();
+                try {
+                    if (isEnabled(transition, event)) {
+                        State<O, S, E>[] path = dispatch.targetPath();
+                        int depth = commonDepth(dispatch);
+                        exitStatesToCommonAncestor(event, path[depth]);
+                        helper.fireTransition(transition, event);
+                        executeAction(transition, event);
+                        enterStates(event, path, depth + 1);
+                        initiateStateWithHistory(event, activeStates.getLast());
+                        return true;
+                    }
+                } catch (Exception e) {
+                    helper.throwException(transition, event, e);
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean evaluate(@NotNull Transition<O, S, E> transition, @NotNull Event<E> event) {
+        boolean enabled = transition.evaluate(owner, event);
+        if (transition.hasGuard() && (transition.eventId() == event.type())) {
+            helper.evaluateGuard(transition, event, enabled);
+        }
+        return enabled;
+    }
+
+    private boolean isEnabled(@NotNull Transition<O, S, E> transition, @NotNull Event<E> event) {
+        if (!transition.hasGuard()) {
+            return true;
+        }
+        boolean enabled = transition.guard().test(owner, event);
+        helper.evaluateGuard(transition, event, enabled);
+        return enabled;
+    }
+
+    private void executeAction(@NotNull Transition<O, S, E> transition, @NotNull Event<E> event) {
+        try {
+            if (transition.hasAction()) {
+                transition.action().accept(owner, event);
+            }
+        } catch (Exception e) {
+            helper.throwException(transition, event, e);
+        }
+    }
+
+    /**
+     * Return the depth of the deepest active state being an ancestor of the target state of the transition. The precomputed common depth of the source and
+     * target states is extended with the active substates of the source state.
+     *
+     * @param dispatch compiled transition
+     * @return depth of the common ancestor in the target path
+     */
+    private int commonDepth(@NotNull CompiledDefinition.Dispatch<O, S, E> dispatch) {
+        State<O, S, E>[] path = dispatch.targetPath();
+        int depth = dispatch.commonDepth();
+        while ((depth + 1 < path.length - 1) && (depth + 1 < activeStates.size()) && (activeStates.get(depth + 1) == path[depth + 1])) {
+            ++depth;
+        }
+        return depth;
+    }
+
     private void fireTransition(@NotNull Transition<O, S, E> transition, @NotNull Event<E> event) {
         try {
             transition.execute(owner, event);
@@ -162,7 +301,46 @@ class StateMachineImp<O, S extends Enum<S>, E extends Enum<E>> implements StateM
 
     @Override
     public boolean isAlive() {
-        return activeStates.stream().filter(o -> o != root).noneMatch(State::isFinal);
+        for (int i = 1; i < activeStates.size(); i++) {
+            if (activeStates.get(i).isFinal()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public List<S> activeStateIds() {
+        List<S> ids = new ArrayList<>(activeStates.size());
+        activeStates.forEach(o -> ids.add(o.id()));
+        return ids;
+    }
+
+    @Override
+    public Set<S> historyStateIds() {
+        S[] ids = root.id().getDeclaringClass().getEnumConstants();
+        Set<S> states = EnumSet.noneOf(root.id().getDeclaringClass());
+        history.stream().forEach(o -> states.add(ids[o]));
+        return states;
+    }
+
+    @Override
+    public void restore(@NotNull List<S> activeStates, @NotNull Set<S> history) {
+        if (activeStates.isEmpty() || (activeStates.getFirst() != root.id())) {
+            throw new IllegalArgumentException("Active states must start with the root state: %s".formatted(activeStates));
+        }
+        List<State<O, S, E>> states = new ArrayList<>(activeStates.size());
+        states.add(root);
+        for (int i = 1; i < activeStates.size(); i++) {
+            S id = activeStates.get(i);
+            var state = states.getLast().substates().stream().filter(o -> o.id() == id).findAny()
+                .orElseThrow(() -> new IllegalArgumentException("State %s is not a substate of %s".formatted(id, states.getLast().id())));
+            states.add(state);
+        }
+        this.activeStates.clear();
+        this.activeStates.addAll(states);
+        this.history.clear();
+        history.forEach(o -> this.history.set(o.ordinal()));
     }
 
     @Override
@@ -183,7 +361,7 @@ class StateMachineImp<O, S extends Enum<S>, E extends Enum<E>> implements StateM
     @Override
     public String toString() {
         return new StringJoiner(", ", "%s[".formatted(this.getClass().getSimpleName()), "]").add("name=%s".formatted(name))
-            .add("activeStates=%s".formatted(activeStates)).add("history=%s".formatted(history)).toString();
+            .add("activeStates=%s".formatted(activeStates)).add("history=%s".formatted(historyStates())).toString();
     }
 
     /**
@@ -201,7 +379,10 @@ class StateMachineImp<O, S extends Enum<S>, E extends Enum<E>> implements StateM
      * @return the history states as an unmodifiable collection
      */
     Collection<State<O, S, E>> historyStates() {
-        return Collections.unmodifiableCollection(history);
+        S[] ids = root.id().getDeclaringClass().getEnumConstants();
+        List<State<O, S, E>> states = new ArrayList<>(history.cardinality());
+        history.stream().forEach(o -> root.findBy(ids[o]).ifPresent(states::add));
+        return Collections.unmodifiableCollection(states);
     }
 
     /**
@@ -234,8 +415,8 @@ class StateMachineImp<O, S extends Enum<S>, E extends Enum<E>> implements StateM
             helper.exitState(state);
             activeStates.removeLast();
             if ((leaf != null) && state.hasHistory()) {
-                history.add(leaf);
-                history.add(state);
+                history.set(leaf.id().ordinal());
+                history.set(state.id().ordinal());
             }
             leaf = state;
             state = activeStates.getLast();
@@ -259,32 +440,75 @@ class StateMachineImp<O, S extends Enum<S>, E extends Enum<E>> implements StateM
             } catch (Exception e) {
                 helper.throwException(state, state.exitAction(), event, e);
             }
-            history.remove(state);
+            history.clear(state.id().ordinal());
+        }
+    }
+
+    /**
+     * Walk down the precomputed path of the target state starting at the given depth.
+     *
+     * @param event event triggering the state machine change
+     * @param path  path of states from the root state to the target state of the fired transition
+     * @param from  depth of the first state to enter
+     */
+    private void enterStates(@NotNull Event<E> event, @NotNull State<O, S, E>[] path, int from) {
+        for (int i = from; i < path.length; i++) {
+            var state = path[i];
+            helper.enterState(state);
+            activeStates.addLast(state);
+            helper.executeEntryAction(state, event);
+            try {
+                state.executeEntryAction(owner, event);
+            } catch (Exception e) {
+                helper.throwException(state, state.entryAction(), event, e);
+            }
+            history.clear(state.id().ordinal());
         }
     }
 
     private void initiateStateWithHistory(@NotNull Event<E> event, @NotNull State<O, S, E> state) {
         var node = state;
-        while ((node != null) && node.isComposite()) {
+        while ((node != null) && isComposite(node)) {
             if (node.hasHistory()) {
-                Set<State<O, S, E>> historyStates = new HashSet<>(node.substates());
-                historyStates.retainAll(history);
-                if (historyStates.isEmpty()) {
-                    node = node.initialState();
-                } else {
-                    node = historyStates.iterator().next();
-                }
+                var historyState = historyState(node);
+                node = (historyState != null) ? historyState : initialState(node);
             } else {
-                node = node.initialState();
+                node = initialState(node);
             }
             if (node != null) {
                 node.executeEntryAction(owner, event);
                 activeStates.addLast(node);
-                history.remove(node);
+                history.clear(node.id().ordinal());
             }
         }
     }
 
+    /**
+     * Return the substate of the given state registered in the history.
+     *
+     * @param state composite state with history
+     * @return the substate in the history if found otherwise null
+     */
+    private State<O, S, E> historyState(@NotNull State<O, S, E> state) {
+        if (compiled != null) {
+            for (var substate : compiled.substates(state)) {
+                if (history.get(substate.id().ordinal())) {
+                    return substate;
+                }
+            }
+            return null;
+        }
+        return state.substates().stream().filter(o -> history.get(o.id().ordinal())).findAny().orElse(null);
+    }
+
+    private boolean isComposite(@NotNull State<O, S, E> state) {
+        return (compiled != null) ? (compiled.substates(state).length > 0) : state.isComposite();
+    }
+
+    private State<O, S, E> initialState(@NotNull State<O, S, E> state) {
+        return (compiled != null) ? compiled.initialState(state) : state.initialState();
+    }
+
     /**
      * Return the common ancestor between the current active objects and given state.
      *
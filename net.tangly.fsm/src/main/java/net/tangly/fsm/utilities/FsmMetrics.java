@@ -0,0 +1,344 @@
+/*
+ * Copyright 2006-2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+
+package net.tangly.fsm.utilities;
+
+import net.tangly.fsm.Event;
+import net.tangly.fsm.State;
+import net.tangly.fsm.StateMachine;
+import net.tangly.fsm.StateMachineEventHandler;
+import net.tangly.fsm.Transition;
+import jdk.jfr.FlightRecorder;
+import org.jetbrains.annotations.NotNull;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * The metrics collect counters and fire latencies of a set of finite state machine instances. One metrics instance is typically shared by all machines of the
+ * same definition, for example all actors of a kind.
+ * <p>Counters are striped adders and latencies are recorded in a {@link LatencyHistogram}; recording never allocates memory. The metrics are sampled by
+ * readers through JMX or by the flight recorder with a periodic {@link FsmStatisticsEvent}.</p>
+ *
+ * @param <O> the class of the instance owning the finite state machine instance
+ * @param <S> the state enumeration type uniquely identifying a state in the state machine
+ * @param <E> the event enumeration type uniquely identifying the event sent to the state machine
+ */
+public class FsmMetrics<O, S extends Enum<S>, E extends Enum<E>> implements StateMachineEventHandler<O, S, E>, FsmMetricsMXBean, AutoCloseable {
+    /**
+     * Decorator of a state machine measuring the latency and outcome of fired events.
+     */
+    private record MeteredStateMachine<O, S extends Enum<S>, E extends Enum<E>>(StateMachine<O, S, E> machine, FsmMetrics<O, S, E> metrics)
+        implements StateMachine<O, S, E> {
+        @Override
+        public boolean fire(@NotNull Event<E> event) {
+            long start = System.nanoTime();
+            boolean fired = machine.fire(event);
+            metrics.recordFire(System.nanoTime() - start, fired);
+            return fired;
+        }
+
+        @Override
+        public int fireAll(@NotNull List<Event<E>> events, boolean stopAtUnhandled) {
+            long start = System.nanoTime();
+            int fired = machine.fireAll(events, stopAtUnhandled);
+            // when stopping at an unhandled event, all processed events fired a transition except the last one if the machine is still alive
+            int processed = stopAtUnhandled ? (machine.isAlive() ? Math.min(fired + 1, events.size()) : fired) : events.size();
+            metrics.recordFires(System.nanoTime() - start, processed, fired);
+            return fired;
+        }
+
+        @Override
+        public void reset() {
+            machine.reset();
+        }
+
+        @Override
+        public String name() {
+            return machine.name();
+        }
+
+        @Override
+        public State<O, S, E> root() {
+            return machine.root();
+        }
+
+        @Override
+        public O context() {
+            return machine.context();
+        }
+
+        @Override
+        public boolean isAlive() {
+            return machine.isAlive();
+        }
+
+        @Override
+        public List<S> activeStateIds() {
+            return machine.activeStateIds();
+        }
+
+        @Override
+        public Set<S> historyStateIds() {
+            return machine.historyStateIds();
+        }
+
+        @Override
+        public void restore(@NotNull List<S> activeStates, @NotNull Set<S> history) {
+            machine.restore(activeStates, history);
+        }
+
+        @Override
+        public void addEventHandler(@NotNull StateMachineEventHandler<O, S, E> handler) {
+            machine.addEventHandler(handler);
+        }
+
+        @Override
+        public void removeEventHandler(@NotNull StateMachineEventHandler<O, S, E> handler) {
+            machine.removeEventHandler(handler);
+        }
+
+        @Override
+        public boolean isRegistered(@NotNull StateMachineEventHandler<O, S, E> handler) {
+            return machine.isRegistered(handler);
+        }
+    }
+
+    private final String name;
+    private final LongAdder events;
+    private final LongAdder transitions;
+    private final LongAdder localTransitions;
+    private final LongAdder unhandledEvents;
+    private final LongAdder guardEvaluations;
+    private final LongAdder rejectedGuards;
+    private final LongAdder exceptions;
+    private final LatencyHistogram fireLatency;
+    private final Runnable flightRecorderHook;
+    private ObjectName objectName;
+
+    /**
+     * Constructor of the class.
+     *
+     * @param name name of the metrics used in JMX object names and flight recorder events
+     */
+    public FsmMetrics(@NotNull String name) {
+        this.name = name;
+        events = new LongAdder();
+        transitions = new LongAdder();
+        localTransitions = new LongAdder();
+        unhandledEvents = new LongAdder();
+        guardEvaluations = new LongAdder();
+        rejectedGuards = new LongAdder();
+        exceptions = new LongAdder();
+        fireLatency = new LatencyHistogram();
+        flightRecorderHook = this::emitStatistics;
+    }
+
+    /**
+     * Instrument the state machine. The metrics are registered as event handler of the machine, and the returned decorator measures the latency of each fired
+     * event. Fire events through the returned decorator to record latencies and unhandled events.
+     *
+     * @param machine machine to instrument
+     * @return the instrumented machine
+     */
+    public StateMachine<O, S, E> instrument(@NotNull StateMachine<O, S, E> machine) {
+        machine.addEventHandler(this);
+        return new MeteredStateMachine<>(machine, this);
+    }
+
+    /**
+     * Register the metrics as JMX bean with the name {@code net.tangly.fsm:type=StateMachine,name=<name>} and as periodic flight recorder event.
+     */
+    public synchronized void register() {
+        if (objectName == null) {
+            try {
+                objectName = new ObjectName("net.tangly.fsm:type=StateMachine,name=" + ObjectName.quote(name));
+                ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+            } catch (JMException e) {
+                objectName = null;
+                throw new IllegalStateException(e);
+            }
+            FlightRecorder.addPeriodicEvent(FsmStatisticsEvent.class, flightRecorderHook);
+        }
+    }
+
+    /**
+     * Unregister the metrics from JMX and the flight recorder.
+     */
+    @Override
+    public synchronized void close() {
+        if (objectName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            } catch (JMException e) {
+                throw new IllegalStateException(e);
+            } finally {
+                objectName = null;
+                FlightRecorder.removePeriodicEvent(flightRecorderHook);
+            }
+        }
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public LatencyHistogram fireLatency() {
+        return fireLatency;
+    }
+
+    // region StateMachineEventHandler
+
+    @Override
+    public void fireTransition(Transition<O, S, E> transition, Event<E> event) {
+        transitions.increment();
+    }
+
+    @Override
+    public void fireLocalTransition(Transition<O, S, E> transition, Event<E> event) {
+        localTransitions.increment();
+    }
+
+    @Override
+    public void evaluateGuard(Transition<O, S, E> transition, Event<E> event, boolean accepted) {
+        guardEvaluations.increment();
+        if (!accepted) {
+            rejectedGuards.increment();
+        }
+    }
+
+    @Override
+    public void throwException(Transition<O, S, E> transition, Event<E> event, Exception e) {
+        exceptions.increment();
+    }
+
+    @Override
+    public void throwException(State<O, S, E> state, BiConsumer<O, Event<E>> action, Event<E> event, Exception e) {
+        exceptions.increment();
+    }
+
+    // endregion
+
+    // region FsmMetricsMXBean
+
+    @Override
+    public long getEvents() {
+        return events.sum();
+    }
+
+    @Override
+    public long getTransitions() {
+        return transitions.sum();
+    }
+
+    @Override
+    public long getLocalTransitions() {
+        return localTransitions.sum();
+    }
+
+    @Override
+    public long getUnhandledEvents() {
+        return unhandledEvents.sum();
+    }
+
+    @Override
+    public long getGuardEvaluations() {
+        return guardEvaluations.sum();
+    }
+
+    @Override
+    public long getRejectedGuards() {
+        return rejectedGuards.sum();
+    }
+
+    @Override
+    public long getExceptions() {
+        return exceptions.sum();
+    }
+
+    @Override
+    public double getMeanFireLatencyNanos() {
+        return fireLatency.mean();
+    }
+
+    @Override
+    public long getP50FireLatencyNanos() {
+        return fireLatency.percentile(50);
+    }
+
+    @Override
+    public long getP99FireLatencyNanos() {
+        return fireLatency.percentile(99);
+    }
+
+    @Override
+    public long getP999FireLatencyNanos() {
+        return fireLatency.percentile(99.9);
+    }
+
+    @Override
+    public long getMaxFireLatencyNanos() {
+        return fireLatency.max();
+    }
+
+    @Override
+    public void reset() {
+        events.reset();
+        transitions.reset();
+        localTransitions.reset();
+        unhandledEvents.reset();
+        guardEvaluations.reset();
+        rejectedGuards.reset();
+        exceptions.reset();
+        fireLatency.reset();
+    }
+
+    // endregion
+
+    void recordFire(long nanos, boolean fired) {
+        events.increment();
+        if (!fired) {
+            unhandledEvents.increment();
+        }
+        fireLatency.record(nanos);
+    }
+
+    void recordFires(long nanos, int events, int fired) {
+        if (events > 0) {
+            this.events.add(events);
+            unhandledEvents.add(events - fired);
+            fireLatency.record(nanos / events, events);
+        }
+    }
+
+    private void emitStatistics() {
+        var event = new FsmStatisticsEvent();
+        event.metrics = name;
+        event.events = getEvents();
+        event.transitions = getTransitions();
+        event.localTransitions = getLocalTransitions();
+        event.unhandledEvents = getUnhandledEvents();
+        event.guardEvaluations = getGuardEvaluations();
+        event.exceptions = getExceptions();
+        event.p50FireLatency = getP50FireLatencyNanos();
+        event.p99FireLatency = getP99FireLatencyNanos();
+        event.maxFireLatency = getMaxFireLatencyNanos();
+        event.commit();
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2006-2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+
+package net.tangly.fsm.utilities;
+
+/**
+ * Management interface exposing the metrics of a set of finite state machines through JMX.
+ */
+public interface FsmMetricsMXBean {
+    long getEvents();
+
+    long getTransitions();
+
+    long getLocalTransitions();
+
+    long getUnhandledEvents();
+
+    long getGuardEvaluations();
+
+    long getRejectedGuards();
+
+    long getExceptions();
+
+    double getMeanFireLatencyNanos();
+
+    long getP50FireLatencyNanos();
+
+    long getP99FireLatencyNanos();
+
+    long getP999FireLatencyNanos();
+
+    long getMaxFireLatencyNanos();
+
+    void reset();
+}
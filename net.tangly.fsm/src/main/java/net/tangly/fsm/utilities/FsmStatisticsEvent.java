@@ -0,0 +1,68 @@
+/*
+ * Copyright 2006-2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+
+package net.tangly.fsm.utilities;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Periodic flight recorder event sampling the metrics of a set of finite state machines. The event is emitted by the flight recorder on its own thread and adds
+ * no cost to event processing.
+ */
+@Name("net.tangly.fsm.Statistics")
+@Label("FSM Statistics")
+@Category({"tangly", "FSM"})
+@Description("Counters and fire latency percentiles of finite state machines")
+@Period("1 s")
+@StackTrace(false)
+class FsmStatisticsEvent extends jdk.jfr.Event {
+    @Label("Metrics")
+    String metrics;
+
+    @Label("Events")
+    long events;
+
+    @Label("Transitions")
+    long transitions;
+
+    @Label("Local Transitions")
+    long localTransitions;
+
+    @Label("Unhandled Events")
+    long unhandledEvents;
+
+    @Label("Guard Evaluations")
+    long guardEvaluations;
+
+    @Label("Exceptions")
+    long exceptions;
+
+    @Label("P50 Fire Latency")
+    @Timespan(Timespan.NANOSECONDS)
+    long p50FireLatency;
+
+    @Label("P99 Fire Latency")
+    @Timespan(Timespan.NANOSECONDS)
+    long p99FireLatency;
+
+    @Label("Max Fire Latency")
+    @Timespan(Timespan.NANOSECONDS)
+    long maxFireLatency;
+}
@@ -65,9 +65,7 @@ public abstract class Generator<O, S extends Enum<S>, E extends Enum<E>> {
     protected Generator(@NotNull FsmBuilder<O, S, E> builder, @NotNull String name) {
         this.builder = builder;
         this.name = name;
-        this.comparator = Comparator.comparing(Transition<O, S, E>::source).thenComparing(Transition::target).thenComparing(Transition::eventId)
-            .thenComparing(Comparator.nullsLast(Comparator.comparing(Transition::guardDescription)))
-            .thenComparing(Comparator.nullsLast(Comparator.comparing(Transition::actionDescription)));
+        this.comparator = transitionOrder();
         this.states = new HashSet<>();
         getAllStates(this.states, builder.definition());
     }
@@ -140,6 +138,21 @@ public abstract class Generator<O, S extends Enum<S>, E extends Enum<E>> {
         return comparator;
     }
 
+    /**
+     * Return the order of transitions used by all generators. Transitions are ordered by source state, target state, event, guard description, and action
+     * description.
+     *
+     * @param <O> the class of the instance owning the finite state machine instance
+     * @param <S> enumeration type for the identifiers of states
+     * @param <E> enumeration type for the identifiers of events
+     * @return comparator of transitions
+     */
+    protected static <O, S extends Enum<S>, E extends Enum<E>> Comparator<Transition<O, S, E>> transitionOrder() {
+        return Comparator.comparing(Transition<O, S, E>::source).thenComparing(Transition::target).thenComparing(Transition::eventId)
+            .thenComparing(Comparator.nullsLast(Comparator.comparing(Transition::guardDescription)))
+            .thenComparing(Comparator.nullsLast(Comparator.comparing(Transition::actionDescription)));
+    }
+
     protected Optional<State<O, S, E>> findOwner(State<O, S, E> state) {
         return states.stream().filter(o -> o.substates().contains(state)).findAny();
     }
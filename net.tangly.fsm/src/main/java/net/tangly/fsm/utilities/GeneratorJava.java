@@ -0,0 +1,448 @@
+/*
+ * Copyright 2006-2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+
+package net.tangly.fsm.utilities;
+
+import net.tangly.fsm.State;
+import net.tangly.fsm.Transition;
+import net.tangly.fsm.dsl.FsmBuilder;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Generator of a specialized Java class implementing the finite state machine. The deepest active state is stored as an int field, and events are dispatched
+ * with a switch over the deepest active state and the event. The active states, the common ancestors of transitions, and the sequences of exit and entry
+ * actions are resolved at generation time. Only the history states and the guards are evaluated at runtime.
+ * <p>Guards and actions are lambdas and cannot be written as source code. The generated class binds them once in its constructor from the definition of the
+ * machine and stores them in final fields; the dispatch code calls them directly. The definition passed to the constructor must have the same structure as the
+ * definition used to generate the class. Transitions of a state are bound in the order of {@link #transitionOrder()}.</p>
+ * <p>The generated machine has the semantics of the interpreted machine. Event handlers are not supported and exceptions thrown by guards and actions are
+ * propagated to the caller.</p>
+ *
+ * @param <O> the class of the instance owning the finite state machine instance
+ * @param <S> enumeration type for the identifiers of states
+ * @param <E> enumeration type for the identifiers of events
+ */
+public class GeneratorJava<O, S extends Enum<S>, E extends Enum<E>> extends Generator<O, S, E> {
+    private final String packageName;
+    private final String ownerType;
+    private final String stateType;
+    private final String eventType;
+    private final String eventParameter;
+    private final State<O, S, E> root;
+    private final List<State<O, S, E>> sortedStates;
+    private final Map<Transition<O, S, E>, Integer> indexes;
+
+    /**
+     * Constructor of the class. The name of the finite state machine description is the simple name of the generated class.
+     *
+     * @param builder     the finite state machine builder containing the machine to generate
+     * @param name        name of the generated class
+     * @param packageName package of the generated class
+     * @param ownerClass  class of the instance owning the finite state machine instance
+     * @param eventClass  enumeration class of the event identifiers
+     * @see Generator#Generator(FsmBuilder, String)
+     */
+    public GeneratorJava(@NotNull FsmBuilder<O, S, E> builder, @NotNull String name, @NotNull String packageName, @NotNull Class<O> ownerClass,
+                         @NotNull Class<E> eventClass) {
+        super(builder, name);
+        this.packageName = packageName;
+        this.root = builder.definition();
+        this.ownerType = ownerClass.getCanonicalName();
+        this.stateType = root.id().getDeclaringClass().getCanonicalName();
+        this.eventType = eventClass.getCanonicalName();
+        this.eventParameter = "Event<%s>".formatted(eventType);
+        this.sortedStates = states.stream().sorted(Comparator.comparing(State::id)).toList();
+        this.indexes = new HashMap<>();
+        sortedStates.forEach(state -> {
+            transitions(state, true).forEach(o -> indexes.put(o, indexes.size()));
+            transitions(state, false).forEach(o -> indexes.put(o, indexes.size()));
+        });
+    }
+
+    /**
+     * Return the transition of the state at the given position. The method is used by the generated classes to bind the guards and actions of the definition.
+     *
+     * @param definition root state of the finite state machine definition
+     * @param stateId    identifier of the source state of the transition
+     * @param local      flag indicating if the transition is a local transition
+     * @param index      position of the transition in the order of {@link #transitionOrder()}
+     * @param <O>        the class of the instance owning the finite state machine instance
+     * @param <S>        enumeration type for the identifiers of states
+     * @param <E>        enumeration type for the identifiers of events
+     * @return the requested transition
+     * @throws IllegalArgumentException if the definition does not contain the transition
+     */
+    public static <O, S extends Enum<S>, E extends Enum<E>> Transition<O, S, E> transition(@NotNull State<O, S, E> definition, @NotNull S stateId,
+                                                                                            boolean local, int index) {
+        var state = definition.findBy(stateId).orElseThrow(() -> new IllegalArgumentException("Unknown state %s".formatted(stateId)));
+        List<Transition<O, S, E>> transitions = transitions(state, local);
+        if (index >= transitions.size()) {
+            throw new IllegalArgumentException("State %s has no transition at position %d".formatted(stateId, index));
+        }
+        return transitions.get(index);
+    }
+
+    @Override
+    public void generate(@NotNull PrintWriter writer) {
+        try (writer) {
+            writeHeader(writer);
+            writeFields(writer);
+            writeConstructor(writer);
+            writeApi(writer);
+            sortedStates.forEach(state -> writeFireIn(state, writer));
+            writeDescend(writer);
+            writeEnter(writer);
+            writer.println("}");
+            writer.flush();
+        }
+    }
+
+    @Override
+    public String extension() {
+        return "java";
+    }
+
+    private void writeHeader(@NotNull PrintWriter writer) {
+        writer.append("package ").append(packageName).println(";");
+        writer.println();
+        writer.println("import net.tangly.fsm.Event;");
+        writer.println("import net.tangly.fsm.State;");
+        writer.println("import net.tangly.fsm.utilities.GeneratorJava;");
+        writer.println();
+        writer.println("import java.util.Arrays;");
+        writer.println("import java.util.function.BiConsumer;");
+        writer.println("import java.util.function.BiPredicate;");
+        writer.println();
+        writer.println("/**");
+        writer.append(" * Finite state machine ").append(name()).println(" generated from its definition. Do not edit the class, regenerate it.");
+        writer.println(" */");
+        writer.append("public final class ").append(name()).println(" {");
+    }
+
+    private void writeFields(@NotNull PrintWriter writer) {
+        indent(writer, 1).append("private static final ").append(stateType).append("[] STATES = ").append(stateType).println(".values();");
+        indent(writer, 1).append("private final ").append(ownerType).println(" owner;");
+        indent(writer, 1).println("private final boolean[] history;");
+        indent(writer, 1).println("private int state;");
+        sortedStates.forEach(state -> {
+            if (state.hasEntryAction()) {
+                indent(writer, 1).append("private final BiConsumer<").append(ownerType).append(", ").append(eventParameter).append("> ").append(entry(state))
+                    .println(";");
+            }
+            if (state.hasExitAction()) {
+                indent(writer, 1).append("private final BiConsumer<").append(ownerType).append(", ").append(eventParameter).append("> ").append(exit(state))
+                    .println(";");
+            }
+        });
+        boundTransitions().forEach(transition -> {
+            if (transition.hasGuard()) {
+                indent(writer, 1).append("private final BiPredicate<").append(ownerType).append(", ").append(eventParameter).append("> ").append(guard(transition))
+                    .println(";");
+            }
+            if (transition.hasAction()) {
+                indent(writer, 1).append("private final BiConsumer<").append(ownerType).append(", ").append(eventParameter).append("> ")
+                    .append(action(transition)).println(";");
+            }
+        });
+        writer.println();
+    }
+
+    private void writeConstructor(@NotNull PrintWriter writer) {
+        indent(writer, 1).append("public ").append(name()).append("(State<").append(ownerType).append(", ").append(stateType).append(", ").append(eventType)
+            .append("> definition, ").append(ownerType).println(" owner) {");
+        indent(writer, 2).println("this.owner = owner;");
+        indent(writer, 2).println("this.history = new boolean[STATES.length];");
+        sortedStates.forEach(state -> {
+            if (state.hasEntryAction()) {
+                indent(writer, 2).append(entry(state)).append(" = ").append(stateOf(state)).println(".entryAction();");
+            }
+            if (state.hasExitAction()) {
+                indent(writer, 2).append(exit(state)).append(" = ").append(stateOf(state)).println(".exitAction();");
+            }
+        });
+        sortedStates.forEach(state -> {
+            bind(state, true, writer);
+            bind(state, false, writer);
+        });
+        indent(writer, 2).println("reset();");
+        indent(writer, 1).println("}");
+        writer.println();
+    }
+
+    private void bind(@NotNull State<O, S, E> state, boolean local, @NotNull PrintWriter writer) {
+        List<Transition<O, S, E>> transitions = transitions(state, local);
+        for (int i = 0; i < transitions.size(); i++) {
+            var transition = transitions.get(i);
+            String lookup = "GeneratorJava.transition(definition, %s.%s, %b, %d)".formatted(stateType, getStateName(state), local, i);
+            if (transition.hasGuard()) {
+                indent(writer, 2).append(guard(transition)).append(" = ").append(lookup).println(".guard();");
+            }
+            if (transition.hasAction()) {
+                indent(writer, 2).append(action(transition)).append(" = ").append(lookup).println(".action();");
+            }
+        }
+    }
+
+    private void writeApi(@NotNull PrintWriter writer) {
+        indent(writer, 1).append("public ").append(ownerType).println(" context() {");
+        indent(writer, 2).println("return owner;");
+        indent(writer, 1).println("}");
+        writer.println();
+        indent(writer, 1).append("public ").append(stateType).println(" state() {");
+        indent(writer, 2).println("return STATES[state];");
+        indent(writer, 1).println("}");
+        writer.println();
+        indent(writer, 1).println("public boolean isAlive() {");
+        String finals = sortedStates.stream().filter(o -> path(o).stream().skip(1).anyMatch(State::isFinal)).map(this::getStateId)
+            .collect(Collectors.joining(", "));
+        if (finals.isEmpty()) {
+            indent(writer, 2).println("return true;");
+        } else {
+            indent(writer, 2).append("return switch (state) {").println();
+            indent(writer, 3).append("case ").append(finals).println(" -> false;");
+            indent(writer, 3).println("default -> true;");
+            indent(writer, 2).println("};");
+        }
+        indent(writer, 1).println("}");
+        writer.println();
+        indent(writer, 1).println("public void reset() {");
+        indent(writer, 2).println("Arrays.fill(history, false);");
+        indent(writer, 2).append("state = ").append(getStateId(root)).println(";");
+        indent(writer, 2).println("descend(null);");
+        indent(writer, 1).println("}");
+        writer.println();
+        indent(writer, 1).append("public boolean fire(").append(eventParameter).println(" event) {");
+        indent(writer, 2).println("return switch (state) {");
+        sortedStates.stream().filter(this::handlesEvents).forEach(
+            state -> indent(writer, 3).append("case ").append(getStateId(state)).append(" -> ").append(fireIn(state)).println("(event);"));
+        indent(writer, 3).println("default -> false;");
+        indent(writer, 2).println("};");
+        indent(writer, 1).println("}");
+        writer.println();
+    }
+
+    /**
+     * Write the dispatch method for the given state being the deepest active state. The local transitions of all active states are evaluated first; the first
+     * enabled local transition of each active state is fired. If no local transition was fired, the first enabled transition from the deepest active state
+     * upward is fired.
+     */
+    private void writeFireIn(@NotNull State<O, S, E> state, @NotNull PrintWriter writer) {
+        if (!handlesEvents(state)) {
+            return;
+        }
+        List<State<O, S, E>> path = path(state);
+        List<State<O, S, E>> upward = path.reversed();
+        Set<E> events = upward.stream().flatMap(o -> allTransitions(o).stream()).map(Transition::eventId)
+            .collect(Collectors.toCollection(TreeSet::new));
+        indent(writer, 1).append("private boolean ").append(fireIn(state)).append("(").append(eventParameter).println(" event) {");
+        indent(writer, 2).println("switch (event.type().ordinal()) {");
+        for (E event : events) {
+            indent(writer, 3).append("case ").append(Integer.toString(event.ordinal())).append(" -> { // ").append(event.name()).println();
+            boolean hasLocals = upward.stream().anyMatch(o -> !transitionsFor(o, true, event).isEmpty());
+            if (hasLocals) {
+                indent(writer, 4).println("boolean fired = false;");
+                upward.forEach(o -> writeLocalTransitions(transitionsFor(o, true, event), writer));
+                indent(writer, 4).println("if (fired) {");
+                indent(writer, 5).println("return true;");
+                indent(writer, 4).println("}");
+            }
+            boolean unconditional = false;
+            for (var source : upward) {
+                for (var transition : transitionsFor(source, false, event)) {
+                    if (transition.hasGuard()) {
+                        indent(writer, 4).append("if (").append(guard(transition)).println(".test(owner, event)) {");
+                        writeTransition(path, transition, 5, writer);
+                        indent(writer, 5).println("return true;");
+                        indent(writer, 4).println("}");
+                    } else {
+                        writeTransition(path, transition, 4, writer);
+                        indent(writer, 4).println("return true;");
+                        unconditional = true;
+                        break;
+                    }
+                }
+                if (unconditional) {
+                    break;
+                }
+            }
+            indent(writer, 3).println("}");
+        }
+        indent(writer, 3).println("default -> {");
+        indent(writer, 3).println("}");
+        indent(writer, 2).println("}");
+        indent(writer, 2).println("return false;");
+        indent(writer, 1).println("}");
+        writer.println();
+    }
+
+    private void writeLocalTransitions(@NotNull List<Transition<O, S, E>> transitions, @NotNull PrintWriter writer) {
+        boolean first = true;
+        for (var transition : transitions) {
+            if (transition.hasGuard()) {
+                indent(writer, 4).append(first ? "if (" : "} else if (").append(guard(transition)).println(".test(owner, event)) {");
+            } else {
+                indent(writer, 4).println(first ? "{" : "} else {");
+            }
+            if (transition.hasAction()) {
+                indent(writer, 5).append(action(transition)).println(".accept(owner, event);");
+            }
+            indent(writer, 5).println("fired = true;");
+            first = false;
+            if (!transition.hasGuard()) {
+                break;
+            }
+        }
+        if (!first) {
+            indent(writer, 4).println("}");
+        }
+    }
+
+    /**
+     * Write the exit actions up to the common ancestor, the action of the transition, and the entry actions down to the target state. The common ancestor is
+     * the deepest active state containing the target state and different from the target state.
+     */
+    private void writeTransition(@NotNull List<State<O, S, E>> active, @NotNull Transition<O, S, E> transition, int depth, @NotNull PrintWriter writer) {
+        List<State<O, S, E>> target = path(transition.target());
+        int ancestor = 0;
+        while ((ancestor + 1 < target.size()) && (ancestor + 1 < active.size()) && (active.get(ancestor + 1) == target.get(ancestor + 1)) &&
+            (target.get(ancestor + 1) != transition.target())) {
+            ++ancestor;
+        }
+        for (int i = active.size() - 1; i > ancestor; i--) {
+            var state = active.get(i);
+            if (state.hasExitAction()) {
+                indent(writer, depth).append(exit(state)).println(".accept(owner, event);");
+            }
+            if ((i < active.size() - 1) && state.hasHistory()) {
+                indent(writer, depth).append("history[").append(getStateId(active.get(i + 1))).println("] = true;");
+                indent(writer, depth).append("history[").append(getStateId(state)).println("] = true;");
+            }
+        }
+        if (transition.hasAction()) {
+            indent(writer, depth).append(action(transition)).println(".accept(owner, event);");
+        }
+        for (int i = ancestor + 1; i < target.size(); i++) {
+            var state = target.get(i);
+            if (state.hasEntryAction()) {
+                indent(writer, depth).append(entry(state)).println(".accept(owner, event);");
+            }
+            indent(writer, depth).append("history[").append(getStateId(state)).println("] = false;");
+        }
+        indent(writer, depth).append("state = ").append(getStateId(transition.target())).append("; // ").append(getStateName(transition.target())).println();
+        if (transition.target().isComposite()) {
+            indent(writer, depth).println("descend(event);");
+        }
+    }
+
+    /**
+     * Write the method entering the substates of the deepest active state. The substate registered in the history is entered if the state has history,
+     * otherwise the initial substate is entered.
+     */
+    private void writeDescend(@NotNull PrintWriter writer) {
+        indent(writer, 1).append("private void descend(").append(eventParameter).println(" event) {");
+        indent(writer, 2).println("while (true) {");
+        indent(writer, 3).println("int next = switch (state) {");
+        sortedStates.stream().filter(State::isComposite).forEach(state -> {
+            StringBuilder next = new StringBuilder();
+            if (state.hasHistory()) {
+                state.substates().stream().sorted(Comparator.comparing(State::id))
+                    .forEach(o -> next.append("history[").append(getStateId(o)).append("] ? ").append(getStateId(o)).append(" : "));
+            }
+            next.append((state.initialState() != null) ? getStateId(state.initialState()) : "-1");
+            indent(writer, 4).append("case ").append(getStateId(state)).append(" -> ").append(next).append("; // ").append(getStateName(state)).println();
+        });
+        indent(writer, 4).println("default -> -1;");
+        indent(writer, 3).println("};");
+        indent(writer, 3).println("if (next < 0) {");
+        indent(writer, 4).println("return;");
+        indent(writer, 3).println("}");
+        indent(writer, 3).println("state = next;");
+        indent(writer, 3).println("enter(event);");
+        indent(writer, 2).println("}");
+        indent(writer, 1).println("}");
+        writer.println();
+    }
+
+    private void writeEnter(@NotNull PrintWriter writer) {
+        indent(writer, 1).append("private void enter(").append(eventParameter).println(" event) {");
+        indent(writer, 2).println("switch (state) {");
+        sortedStates.stream().filter(State::hasEntryAction)
+            .forEach(state -> indent(writer, 3).append("case ").append(getStateId(state)).append(" -> ").append(entry(state)).println(".accept(owner, event);"));
+        indent(writer, 3).println("default -> {");
+        indent(writer, 3).println("}");
+        indent(writer, 2).println("}");
+        indent(writer, 2).println("history[state] = false;");
+        indent(writer, 1).println("}");
+    }
+
+    private boolean handlesEvents(@NotNull State<O, S, E> state) {
+        return path(state).stream().anyMatch(o -> !allTransitions(o).isEmpty());
+    }
+
+    private List<State<O, S, E>> path(@NotNull State<O, S, E> state) {
+        return (state == root) ? List.of(root) : List.copyOf(root.getHierarchyFor(state));
+    }
+
+    private List<Transition<O, S, E>> boundTransitions() {
+        return indexes.entrySet().stream().sorted(Map.Entry.comparingByValue()).map(Map.Entry::getKey).toList();
+    }
+
+    private List<Transition<O, S, E>> allTransitions(@NotNull State<O, S, E> state) {
+        List<Transition<O, S, E>> transitions = new ArrayList<>(transitions(state, true));
+        transitions.addAll(transitions(state, false));
+        return transitions;
+    }
+
+    private List<Transition<O, S, E>> transitionsFor(@NotNull State<O, S, E> state, boolean local, @NotNull E event) {
+        return transitions(state, local).stream().filter(o -> o.eventId() == event).toList();
+    }
+
+    private static <O, S extends Enum<S>, E extends Enum<E>> List<Transition<O, S, E>> transitions(@NotNull State<O, S, E> state, boolean local) {
+        return (local ? state.localTransitions() : state.transitions()).stream().sorted(transitionOrder()).toList();
+    }
+
+    private String stateOf(@NotNull State<O, S, E> state) {
+        return "definition.findBy(%s.%s).orElseThrow()".formatted(stateType, getStateName(state));
+    }
+
+    private String fireIn(@NotNull State<O, S, E> state) {
+        return "fireIn" + getStateName(state);
+    }
+
+    private String entry(@NotNull State<O, S, E> state) {
+        return "entry" + getStateName(state);
+    }
+
+    private String exit(@NotNull State<O, S, E> state) {
+        return "exit" + getStateName(state);
+    }
+
+    private String guard(@NotNull Transition<O, S, E> transition) {
+        return "guard" + indexes.get(transition);
+    }
+
+    private String action(@NotNull Transition<O, S, E> transition) {
+        return "action" + indexes.get(transition);
+    }
+}
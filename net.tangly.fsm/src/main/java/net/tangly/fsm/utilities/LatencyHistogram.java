@@ -0,0 +1,152 @@
+/*
+ * Copyright 2006-2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+
+package net.tangly.fsm.utilities;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of latencies in nanoseconds with a log-linear bucket layout similar to HdrHistogram. Values below {@value #SUB_BUCKETS} are counted
+ * exactly; larger values are counted in buckets with a relative width of at most 1/{@value #HALF_SUB_BUCKETS}, meaning a precision better than 7%.
+ * <p>Recording a value is a few arithmetic operations and one atomic increment; it never allocates memory and can be called concurrently from any thread.
+ * Percentiles are computed on demand by the reader.</p>
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HALF_SUB_BUCKETS = SUB_BUCKETS / 2;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS + 1) * HALF_SUB_BUCKETS + HALF_SUB_BUCKETS;
+
+    private final AtomicLongArray counts;
+    private final LongAdder count;
+    private final LongAdder sum;
+    private final AtomicLong max;
+
+    public LatencyHistogram() {
+        counts = new AtomicLongArray(BUCKETS);
+        count = new LongAdder();
+        sum = new LongAdder();
+        max = new AtomicLong();
+    }
+
+    /**
+     * Record a latency. Negative values are recorded as zero.
+     *
+     * @param nanos latency in nanoseconds
+     */
+    public void record(long nanos) {
+        record(nanos, 1);
+    }
+
+    /**
+     * Record the same latency several times, for example the mean latency of the events of a batch. Negative values are recorded as zero.
+     *
+     * @param nanos latency in nanoseconds
+     * @param times number of occurrences of the latency
+     */
+    public void record(long nanos, int times) {
+        long value = Math.max(nanos, 0);
+        counts.addAndGet(index(value), times);
+        count.add(times);
+        sum.add(value * times);
+        long current = max.get();
+        while ((value > current) && !max.compareAndSet(current, value)) {
+            current = max.get();
+        }
+    }
+
+    /**
+     * Return the number of recorded values.
+     *
+     * @return number of recorded values
+     */
+    public long count() {
+        return count.sum();
+    }
+
+    /**
+     * Return the largest recorded value.
+     *
+     * @return largest value in nanoseconds
+     */
+    public long max() {
+        return max.get();
+    }
+
+    /**
+     * Return the mean of the recorded values.
+     *
+     * @return mean in nanoseconds, zero if no value was recorded
+     */
+    public double mean() {
+        long n = count.sum();
+        return (n == 0) ? 0 : (double) sum.sum() / n;
+    }
+
+    /**
+     * Return the value at the given percentile. The value is the upper bound of the bucket containing the percentile.
+     *
+     * @param percentile percentile between 0 and 100
+     * @return value at the percentile in nanoseconds, zero if no value was recorded
+     */
+    public long percentile(double percentile) {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts.get(i);
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.clamp(percentile, 0.0, 100.0) / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(upperBound(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Discard all recorded values.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.reset();
+        sum.reset();
+        max.set(0);
+    }
+
+    static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - (SUB_BUCKET_BITS - 1);
+        return shift * HALF_SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    static long upperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / HALF_SUB_BUCKETS - 1;
+        long subBucket = (index % HALF_SUB_BUCKETS) + HALF_SUB_BUCKETS;
+        return (shift >= Long.SIZE - SUB_BUCKET_BITS - 1) ? Long.MAX_VALUE : ((subBucket + 1) << shift) - 1;
+    }
+}
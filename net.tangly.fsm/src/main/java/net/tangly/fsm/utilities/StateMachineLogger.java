@@ -17,6 +17,7 @@ import net.tangly.fsm.*;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.List;
 import java.util.Objects;
 import java.util.function.BiConsumer;
 
@@ -32,6 +33,11 @@ public record StateMachineLogger<O, S extends Enum<S>, E extends Enum<E>>(StateM
         logger.atDebug().log("machine [{}] Process Event : event->{}", machine, event);
     }
 
+    @Override
+    public void processEvents(List<Event<E>> events) {
+        logger.atDebug().log("machine [{}] Process Events : events->{}", machine, events);
+    }
+
     @Override
     public void wasReset() {
         logger.atDebug().log("machine [{}] reset machine : <none>", machine);
@@ -42,6 +48,11 @@ public record StateMachineLogger<O, S extends Enum<S>, E extends Enum<E>>(StateM
         logger.atDebug().log("machine [{}]: event->{}, fire local transition {} ", machine, event, transition);
     }
 
+    @Override
+    public void evaluateGuard(Transition<O, S, E> transition, Event<E> event, boolean accepted) {
+        logger.atDebug().log("machine [{}]: event->{}, guard of transition {} evaluated to {}", machine, event, transition, accepted);
+    }
+
     @Override
     public void fireTransition(Transition<O, S, E> transition, Event<E> event) {
         logger.atDebug().log("machine [{}]: event->{}, fire transition->{}", machine, event, transition);
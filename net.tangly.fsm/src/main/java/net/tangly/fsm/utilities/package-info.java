@@ -12,6 +12,7 @@
  */
 
 /**
- * Provides utilities to validate and to generate description in textual and graphical forms of finite state machine descriptions.
+ * Provides utilities to validate and to generate description in textual and graphical forms of finite state machine descriptions. The Java generator emits
+ * a specialized class dispatching events with switches over the states and events of a machine.
  */
 package net.tangly.fsm.utilities;
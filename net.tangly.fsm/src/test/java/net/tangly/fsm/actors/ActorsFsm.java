@@ -18,6 +18,7 @@ import net.tangly.fsm.dsl.FsmBuilder;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -102,6 +103,25 @@ class Client extends ActorFsm<Client, ClientStates, Events> {
     }
 }
 
+class Counter extends ActorFsm<Counter, ServerStates, Events> {
+    int nrRequests;
+
+    private static FsmBuilder<Counter, ServerStates, Events> buildFsm() {
+        FsmBuilder<Counter, ServerStates, Events> builder = FsmBuilder.of(ServerStates.Root);
+        builder.root().add(ServerStates.WaitingForRequest).isInitial();
+        builder.in(ServerStates.WaitingForRequest).onLocal(Events.Request).execute(Counter::processRequest).build();
+        return builder;
+    }
+
+    Counter(String name, ExecutorService executor) {
+        super(buildFsm(), name, executor);
+    }
+
+    private void processRequest(Event<Events> event) {
+        nrRequests++;
+    }
+}
+
 /**
  * The class shows how to implement a finite state machine context using the quasar library to exchange events between active state machine instances.
  */
@@ -126,6 +146,27 @@ class ActorTest {
         assertThat(((Server) actors.actorNamed(SERVER).get()).nrRequests).isEqualTo(1);
     }
 
+    /**
+     * Sends a batch containing an event without transition. The actor terminates at the unhandled event and does not process the following events.
+     */
+    @Test
+    void stopAtUnhandledEventOfBatch() throws InterruptedException {
+        ExecutorService service = Executors.newSingleThreadExecutor();
+        var started = new CountDownLatch(1);
+        service.submit(() -> {
+            started.await();
+            return null;
+        });
+        var counter = new Counter("counter", service);
+        counter.receiveAll(List.of(Event.of(Events.Request), Event.of(Events.Request), Event.of(Events.Response), Event.of(Events.Request)));
+        started.countDown();
+
+        service.shutdown();
+        assertThat(service.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(counter.nrRequests).isEqualTo(2);
+        assertThat(counter.pendingMessages()).isZero();
+    }
+
     /**
      * Sends a request from a thousand clients to one server and waits for all answers.
      */
@@ -16,12 +16,19 @@ package net.tangly.fsm.actors;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
+import java.util.UUID;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.IntStream;
 
+import static org.awaitility.Awaitility.await;
+
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 
 class ActorsTest {
@@ -126,6 +133,93 @@ class ActorsTest {
         }
     }
 
+    /**
+     * Actor recording the received messages and the number of mailbox operations.
+     */
+    static class RecordingActor implements Actor<Message> {
+        private final UUID id = UUID.randomUUID();
+        private final String name;
+        private final List<Message> messages = new ArrayList<>();
+        private int operations;
+
+        RecordingActor(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public UUID id() {
+            return id;
+        }
+
+        @Override
+        public synchronized void receive(@NotNull Message message) {
+            ++operations;
+            messages.add(message);
+        }
+
+        @Override
+        public synchronized void receiveAll(@NotNull Collection<Message> batch) {
+            ++operations;
+            messages.addAll(batch);
+        }
+
+        @Override
+        public void run() {
+        }
+
+        synchronized int received() {
+            return messages.size();
+        }
+
+        synchronized int operations() {
+            return operations;
+        }
+    }
+
+    @Test
+    void routeWithConsistentHashing() {
+        Actors<Message> actors = new Actors<>();
+        List<RecordingActor> members = IntStream.range(0, 8).mapToObj(i -> new RecordingActor("member-%d".formatted(i))).toList();
+        members.forEach(o -> actors.registerInGroup(o, "group"));
+        var group = actors.groupNamed("group").orElseThrow();
+        assertThat(group.size()).isEqualTo(8);
+        assertThat(actors.actorNamed("member-3")).contains(members.get(3));
+
+        IntStream.range(0, 1000).forEach(i -> actors.routeTo(new Message("route", i), "group", "key-%d".formatted(i % 100)));
+        assertThat(members.stream().mapToInt(RecordingActor::received).sum()).isEqualTo(1000);
+        assertThat(members.stream().filter(o -> o.received() > 0).count()).isGreaterThan(4);
+
+        var owner = group.actorFor("key-42").orElseThrow();
+        group.remove(members.stream().filter(o -> o != owner).findFirst().orElseThrow());
+        assertThat(group.size()).isEqualTo(7);
+        assertThat(group.actorFor("key-42")).contains(owner);
+    }
+
+    @Test
+    void publishBatchesOnChannel() {
+        Actors<Message> actors = new Actors<>();
+        actors.createAndRegister(CHANNEL);
+        var one = new RecordingActor(ONE);
+        var two = new RecordingActor(TWO);
+        actors.register(one, CHANNEL);
+        actors.register(two, CHANNEL);
+
+        actors.publishAll(IntStream.range(0, 100).mapToObj(i -> new Message("batch", i)).toList(), CHANNEL);
+        actors.publish(new Message("single", 100), CHANNEL);
+
+        await().atMost(Duration.ofSeconds(1)).untilAsserted(() -> {
+            assertThat(one.received()).isEqualTo(101);
+            assertThat(two.received()).isEqualTo(101);
+        });
+        assertThat(one.operations()).isEqualTo(2);
+        assertThat(two.operations()).isEqualTo(2);
+    }
+
     @Test
     void runWithStandaloneActors() {
         ExecutorService service = Executors.newVirtualThreadPerTaskExecutor();
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2021-2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+
+package net.tangly.fsm.actors;
+
+import net.tangly.fsm.Event;
+import net.tangly.fsm.StateMachine;
+import net.tangly.fsm.imp.FsmBbv;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FsmPersistenceTest {
+    private static final String NAME = "bbv";
+
+    @Test
+    void recoverFromJournal() throws IOException {
+        Path directory = Files.createTempDirectory("tangly-fsm");
+        StateMachine<FsmBbv, FsmBbv.States, FsmBbv.Events> machine = FsmBbv.build().machine(NAME, new FsmBbv());
+        try (var persistence = new FsmPersistence<FsmBbv.States, FsmBbv.Events>(directory, NAME, FsmBbv.States.class, 1000)) {
+            assertThat(persistence.recover(machine)).isFalse();
+            fire(persistence, machine, FsmBbv.Events.TogglePower, FsmBbv.Events.ToggleMode, FsmBbv.Events.StationLost, FsmBbv.Events.TogglePower);
+            assertThat(persistence.sequence()).isEqualTo(4);
+        }
+
+        StateMachine<FsmBbv, FsmBbv.States, FsmBbv.Events> recovered = FsmBbv.build().machine(NAME, new FsmBbv());
+        try (var persistence = new FsmPersistence<FsmBbv.States, FsmBbv.Events>(directory, NAME, FsmBbv.States.class, 1000)) {
+            assertThat(persistence.recover(recovered)).isTrue();
+            assertThat(persistence.sequence()).isEqualTo(4);
+            assertThat(recovered.activeStateIds()).containsExactly(FsmBbv.States.Root, FsmBbv.States.Off);
+            assertThat(recovered.historyStateIds()).containsExactlyInAnyOrderElementsOf(machine.historyStateIds());
+
+            recovered.fire(Event.of(FsmBbv.Events.TogglePower));
+            assertThat(recovered.activeStateIds()).containsExactly(FsmBbv.States.Root, FsmBbv.States.On, FsmBbv.States.FM, FsmBbv.States.AutoTune);
+        }
+    }
+
+    @Test
+    void recoverFromSnapshotAndJournalTail() throws IOException {
+        Path directory = Files.createTempDirectory("tangly-fsm");
+        StateMachine<FsmBbv, FsmBbv.States, FsmBbv.Events> machine = FsmBbv.build().compiledMachine(NAME, new FsmBbv());
+        var random = new Random(42);
+        FsmBbv.Events[] events = FsmBbv.Events.values();
+        try (var persistence = new FsmPersistence<FsmBbv.States, FsmBbv.Events>(directory, NAME, FsmBbv.States.class, 16)) {
+            for (int i = 0; i < 1000; i++) {
+                fire(persistence, machine, events[random.nextInt(events.length)]);
+            }
+        }
+        assertThat(directory.resolve(NAME + ".snapshot")).exists();
+
+        StateMachine<FsmBbv, FsmBbv.States, FsmBbv.Events> recovered = FsmBbv.build().compiledMachine(NAME, new FsmBbv());
+        try (var persistence = new FsmPersistence<FsmBbv.States, FsmBbv.Events>(directory, NAME, FsmBbv.States.class, 16)) {
+            assertThat(persistence.recover(recovered)).isTrue();
+            assertThat(persistence.sequence()).isEqualTo(1000);
+            assertThat(recovered.activeStateIds()).containsExactlyElementsOf(machine.activeStateIds());
+            assertThat(recovered.historyStateIds()).containsExactlyInAnyOrderElementsOf(machine.historyStateIds());
+        }
+    }
+
+    @Test
+    void recordWithoutRecoverAppendsToJournal() throws IOException {
+        Path directory = Files.createTempDirectory("tangly-fsm");
+        StateMachine<FsmBbv, FsmBbv.States, FsmBbv.Events> machine = FsmBbv.build().machine(NAME, new FsmBbv());
+        try (var persistence = new FsmPersistence<FsmBbv.States, FsmBbv.Events>(directory, NAME, FsmBbv.States.class, 1000)) {
+            fire(persistence, machine, FsmBbv.Events.TogglePower, FsmBbv.Events.ToggleMode, FsmBbv.Events.StationLost);
+        }
+        try (var persistence = new FsmPersistence<FsmBbv.States, FsmBbv.Events>(directory, NAME, FsmBbv.States.class, 1000)) {
+            assertThat(persistence.sequence()).isEqualTo(3);
+            fire(persistence, machine, FsmBbv.Events.TogglePower);
+            assertThat(persistence.sequence()).isEqualTo(4);
+        }
+
+        StateMachine<FsmBbv, FsmBbv.States, FsmBbv.Events> recovered = FsmBbv.build().machine(NAME, new FsmBbv());
+        try (var persistence = new FsmPersistence<FsmBbv.States, FsmBbv.Events>(directory, NAME, FsmBbv.States.class, 1000)) {
+            assertThat(persistence.sequence()).isEqualTo(4);
+            assertThat(persistence.recover(recovered)).isTrue();
+            assertThat(persistence.sequence()).isEqualTo(4);
+            assertThat(recovered.activeStateIds()).containsExactlyElementsOf(machine.activeStateIds());
+            assertThat(recovered.historyStateIds()).containsExactlyInAnyOrderElementsOf(machine.historyStateIds());
+        }
+    }
+
+    @SafeVarargs
+    private static void fire(FsmPersistence<FsmBbv.States, FsmBbv.Events> persistence, StateMachine<FsmBbv, FsmBbv.States, FsmBbv.Events> machine,
+                             FsmBbv.Events... events) {
+        List.of(events).forEach(type -> {
+            var event = Event.of(type);
+            machine.fire(event);
+            persistence.record(event, machine);
+        });
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2021-2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+
+package net.tangly.fsm.actors;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.awaitility.Awaitility.await;
+
+class ShardedActorsTest {
+    record Message(String command, Integer payload) {
+    }
+
+    static class PeerActor extends ShardedActor<Message> {
+        private final CountDownLatch done;
+        private PeerActor peer;
+        private int counter;
+
+        PeerActor(String name, ActorShards shards, CountDownLatch done) {
+            super(name, shards);
+            this.done = done;
+        }
+
+        void peer(PeerActor peer) {
+            this.peer = peer;
+        }
+
+        @Override
+        protected boolean process(@NotNull Message msg) {
+            if (msg.payload() < 20) {
+                counter++;
+                peer.receive(new Message(msg.command(), msg.payload() + 1));
+                return true;
+            } else {
+                done.countDown();
+                peer.receive(msg);
+                return false;
+            }
+        }
+    }
+
+    static class CountingActor extends ShardedActor<Message> {
+        private final AtomicInteger processed;
+        private final CountDownLatch done;
+        private int counter;
+
+        CountingActor(String name, ActorShards shards, Mailbox<Message> mailbox, AtomicInteger processed, CountDownLatch done) {
+            super(name, shards, mailbox);
+            this.processed = processed;
+            this.done = done;
+        }
+
+        @Override
+        protected boolean process(@NotNull Message msg) {
+            counter++;
+            processed.incrementAndGet();
+            done.countDown();
+            return true;
+        }
+    }
+
+    @Test
+    void runPingPongActors() throws InterruptedException {
+        try (var shards = new ActorShards(2, 4)) {
+            var done = new CountDownLatch(2);
+            var one = new PeerActor("One", shards, done);
+            var two = new PeerActor("Two", shards, done);
+            one.peer(two);
+            two.peer(one);
+
+            one.receive(new Message("do", 0));
+
+            assertThat(done.await(1, TimeUnit.SECONDS)).isTrue();
+            assertThat(one.counter).isEqualTo(10);
+            assertThat(two.counter).isEqualTo(10);
+            await().atMost(Duration.ofSeconds(1)).until(() -> one.isTerminated() && two.isTerminated());
+        }
+    }
+
+    @Test
+    void runManyActorsOnFewShards() throws InterruptedException {
+        final int actorsCount = 1000;
+        final int messages = 100;
+        try (var shards = new ActorShards(4, 16)) {
+            var processed = new AtomicInteger();
+            var done = new CountDownLatch(actorsCount * messages);
+            var actors = IntStream.range(0, actorsCount)
+                .mapToObj(i -> new CountingActor("actor-%d".formatted(i), shards, Mailbox.unbounded(), processed, done)).toList();
+
+            IntStream.range(0, messages).forEach(i -> actors.forEach(actor -> actor.receive(new Message("count", i))));
+
+            assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(processed.get()).isEqualTo(actorsCount * messages);
+            assertThat(actors).allMatch(actor -> actor.counter == messages);
+        }
+    }
+
+    @Test
+    void applyOverflowPolicies() {
+        Mailbox<Message> dropping = Mailbox.bounded(2, Mailbox.Overflow.DROP);
+        assertThat(dropping.offer(new Message("one", 1))).isTrue();
+        assertThat(dropping.offer(new Message("two", 2))).isTrue();
+        assertThat(dropping.offer(new Message("three", 3))).isFalse();
+        assertThat(dropping.size()).isEqualTo(2);
+        assertThat(dropping.dropped()).isEqualTo(1);
+        assertThat(dropping.poll().payload()).isEqualTo(1);
+        assertThat(dropping.offer(new Message("four", 4))).isTrue();
+
+        Mailbox<Message> failing = Mailbox.bounded(1, Mailbox.Overflow.FAIL);
+        failing.offer(new Message("one", 1));
+        assertThatExceptionOfType(RejectedExecutionException.class).isThrownBy(() -> failing.offer(new Message("two", 2)));
+    }
+
+    @Test
+    void processAcceptedMessagesOfFailingBatch() throws InterruptedException {
+        try (var shards = new ActorShards(1, 16)) {
+            var processed = new AtomicInteger();
+            var done = new CountDownLatch(2);
+            var actor = new CountingActor("actor", shards, Mailbox.bounded(2, Mailbox.Overflow.FAIL), processed, done);
+
+            assertThatExceptionOfType(RejectedExecutionException.class).isThrownBy(
+                () -> actor.receiveAll(List.of(new Message("one", 1), new Message("two", 2), new Message("three", 3))));
+
+            assertThat(done.await(1, TimeUnit.SECONDS)).isTrue();
+            assertThat(processed.get()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void offerBatchLargerThanBlockingMailbox() throws InterruptedException {
+        final int messages = 10;
+        Mailbox<Message> blocking = Mailbox.bounded(2, Mailbox.Overflow.BLOCK);
+        var producer = Thread.ofPlatform().daemon().start(
+            () -> blocking.offerAll(IntStream.range(0, messages).mapToObj(i -> new Message("count", i)).toList()));
+        List<Integer> received = new ArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while ((received.size() < messages) && (System.nanoTime() < deadline)) {
+            Message message = blocking.poll();
+            if (message != null) {
+                received.add(message.payload());
+            }
+        }
+        producer.join(1000);
+        assertThat(producer.isAlive()).isFalse();
+        assertThat(received).isEqualTo(IntStream.range(0, messages).boxed().toList());
+    }
+
+    @Test
+    void processBatchLargerThanBlockingMailbox() throws InterruptedException {
+        final int messages = 10;
+        try (var shards = new ActorShards(1, 16)) {
+            var processed = new AtomicInteger();
+            var done = new CountDownLatch(messages);
+            var actor = new CountingActor("actor", shards, Mailbox.bounded(2, Mailbox.Overflow.BLOCK), processed, done);
+
+            actor.receiveAll(IntStream.range(0, messages).mapToObj(i -> new Message("count", i)).toList());
+
+            assertThat(done.await(1, TimeUnit.SECONDS)).isTrue();
+            assertThat(processed.get()).isEqualTo(messages);
+        }
+    }
+}
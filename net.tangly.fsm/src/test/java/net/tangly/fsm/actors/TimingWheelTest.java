@@ -0,0 +1,123 @@
+/*
+ * Copyright 2021-2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+
+package net.tangly.fsm.actors;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+    private static final long TICK = 1_000;
+
+    @Test
+    void expireInDeadlineOrder() {
+        TimingWheel<String, String> wheel = new TimingWheel<>(TICK, 0);
+        wheel.schedule("c", "c", 300 * TICK);
+        wheel.schedule("a", "a", 10 * TICK);
+        wheel.schedule("b", "b", 10 * TICK);
+        wheel.schedule("d", "d", 70_000 * TICK);
+        assertThat(wheel.size()).isEqualTo(4);
+
+        assertThat(wheel.advance(9 * TICK)).isEmpty();
+        assertThat(wheel.advance(10 * TICK)).containsExactlyInAnyOrder("a", "b");
+        assertThat(wheel.advance(299 * TICK)).isEmpty();
+        assertThat(wheel.advance(300 * TICK)).containsExactly("c");
+        assertThat(wheel.advance(69_999 * TICK)).isEmpty();
+        assertThat(wheel.advance(70_000 * TICK)).containsExactly("d");
+        assertThat(wheel.isEmpty()).isTrue();
+    }
+
+    @Test
+    void cancelAndReplaceTimers() {
+        TimingWheel<String, String> wheel = new TimingWheel<>(TICK, 0);
+        wheel.schedule("a", "first", 10 * TICK);
+        wheel.schedule("a", "second", 20 * TICK);
+        wheel.schedule("b", "b", 15 * TICK);
+        assertThat(wheel.cancel("b")).isTrue();
+        assertThat(wheel.cancel("b")).isFalse();
+        assertThat(wheel.advance(15 * TICK)).isEmpty();
+        assertThat(wheel.advance(20 * TICK)).containsExactly("second");
+    }
+
+    @Test
+    void expireLateAndPastDeadlines() {
+        TimingWheel<String, String> wheel = new TimingWheel<>(TICK, 0);
+        wheel.advance(100 * TICK);
+        wheel.schedule("past", "past", 50 * TICK);
+        assertThat(wheel.advance(101 * TICK)).containsExactly("past");
+        wheel.schedule("far", "far", (1L << 33) * TICK);
+        assertThat(wheel.advance(1_000_000 * TICK)).isEmpty();
+        assertThat(wheel.size()).isEqualTo(1);
+    }
+
+    @Test
+    void expireRandomDeadlinesExactlyOnce() {
+        TimingWheel<Integer, Long> wheel = new TimingWheel<>(TICK, 0);
+        var random = new Random(42);
+        List<Long> deadlines = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            long deadline = random.nextLong(1, 200_000) * TICK;
+            deadlines.add(deadline);
+            wheel.schedule(i, deadline, deadline);
+        }
+        List<Long> expired = new ArrayList<>();
+        for (long now = 0; now <= 200_000 * TICK; now += 997 * TICK) {
+            long current = now;
+            var values = wheel.advance(now);
+            assertThat(values).allMatch(o -> o <= current);
+            expired.addAll(values);
+        }
+        expired.addAll(wheel.advance(200_000 * TICK));
+        assertThat(expired).containsExactlyInAnyOrderElementsOf(deadlines);
+        assertThat(wheel.isEmpty()).isTrue();
+    }
+
+    @Test
+    void advanceOnlyAtNextExpirationOrRotation() {
+        TimingWheel<String, String> wheel = new TimingWheel<>(TICK, 0);
+        wheel.schedule("a", "a", 10 * TICK);
+        wheel.schedule("b", "b", 1_000 * TICK);
+        assertThat(wheel.nextAdvanceNanos()).isEqualTo(10 * TICK);
+        assertThat(wheel.advance(10 * TICK)).containsExactly("a");
+        assertThat(wheel.nextAdvanceNanos()).isEqualTo(TimingWheel.SLOTS * TICK);
+    }
+
+    @Test
+    void expireOnTimeWhenAdvancedAtNextAdvance() {
+        TimingWheel<Integer, Long> wheel = new TimingWheel<>(TICK, 0);
+        var random = new Random(42);
+        List<Long> deadlines = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            long deadline = random.nextLong(1, 200_000 * TICK);
+            deadlines.add(deadline);
+            wheel.schedule(i, deadline, deadline);
+        }
+        List<Long> expired = new ArrayList<>();
+        int advances = 0;
+        while (!wheel.isEmpty()) {
+            long now = wheel.nextAdvanceNanos();
+            var values = wheel.advance(now);
+            assertThat(values).allMatch(o -> (o <= now) && (o > now - TICK));
+            expired.addAll(values);
+            ++advances;
+        }
+        assertThat(expired).containsExactlyInAnyOrderElementsOf(deadlines);
+        assertThat(advances).isLessThanOrEqualTo(100 + 200_000 / TimingWheel.SLOTS + 1);
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2006-2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+
+package net.tangly.fsm.imp;
+
+import net.tangly.fsm.Event;
+import net.tangly.fsm.State;
+import net.tangly.fsm.StateMachine;
+import net.tangly.fsm.StateMachineEventHandler;
+import net.tangly.fsm.dsl.FsmBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The test class verifies that a machine using the compiled definition behaves exactly as a machine interpreting the definition tree.
+ */
+class CompiledFsmTest {
+    private static final int EVENTS = 1000;
+
+    @Test
+    void compiledBbvMachineTest() {
+        FsmBuilder<FsmBbv, FsmBbv.States, FsmBbv.Events> builder = FsmBbv.build();
+        var interpreted = (StateMachineImp<FsmBbv, FsmBbv.States, FsmBbv.Events>) builder.machine("interpreted", new FsmBbv());
+        var compiled = (StateMachineImp<FsmBbv, FsmBbv.States, FsmBbv.Events>) builder.compiledMachine("compiled", new FsmBbv());
+        var random = new Random(42);
+        FsmBbv.Events[] events = FsmBbv.Events.values();
+        assertThat(compiled.context().consumeLog()).isEqualTo(interpreted.context().consumeLog());
+        for (int i = 0; i < EVENTS; i++) {
+            boolean maintenance = random.nextInt(8) == 0;
+            interpreted.context().setMaintenance(maintenance);
+            compiled.context().setMaintenance(maintenance);
+            var event = Event.of(events[random.nextInt(events.length)]);
+            assertThat(compiled.fire(event)).isEqualTo(interpreted.fire(event));
+            assertThat(compiled.context().consumeLog()).isEqualTo(interpreted.context().consumeLog());
+            assertSameStates(compiled, interpreted);
+        }
+    }
+
+    @Test
+    void compiledNestedMachineTest() {
+        FsmBuilder<FsmTest, FsmTest.States, FsmTest.Events> builder = FsmTest.build();
+        var interpreted = (StateMachineImp<FsmTest, FsmTest.States, FsmTest.Events>) builder.machine("interpreted", null);
+        var compiled = (StateMachineImp<FsmTest, FsmTest.States, FsmTest.Events>) builder.compiledMachine("compiled", null);
+        var random = new Random(42);
+        FsmTest.Events[] events = FsmTest.Events.values();
+        for (int i = 0; i < EVENTS; i++) {
+            var event = Event.of(events[random.nextInt(events.length)]);
+            assertThat(compiled.fire(event)).isEqualTo(interpreted.fire(event));
+            assertSameStates(compiled, interpreted);
+            if (!compiled.isAlive()) {
+                compiled.reset();
+                interpreted.reset();
+            }
+        }
+    }
+
+    @Test
+    void compiledDefinitionUpdatedTest() {
+        FsmBuilder<FsmTest, FsmTest.States, FsmTest.Events> builder = FsmTest.build();
+        StateMachine<FsmTest, FsmTest.States, FsmTest.Events> before = builder.compiledMachine("before", null);
+        builder.in(FsmTest.States.C).on(FsmTest.Events.C_C).to(FsmTest.States.A).build();
+        StateMachine<FsmTest, FsmTest.States, FsmTest.Events> after = builder.compiledMachine("after", null);
+        before.fire(Event.of(FsmTest.Events.A_C));
+        after.fire(Event.of(FsmTest.Events.A_C));
+        assertThat(before.fire(Event.of(FsmTest.Events.C_C))).isFalse();
+        assertThat(after.fire(Event.of(FsmTest.Events.C_C))).isTrue();
+    }
+
+    @Test
+    void fireAllTest() {
+        FsmBuilder<FsmBbv, FsmBbv.States, FsmBbv.Events> builder = FsmBbv.build();
+        var single = (StateMachineImp<FsmBbv, FsmBbv.States, FsmBbv.Events>) builder.compiledMachine("single", new FsmBbv());
+        var batched = (StateMachineImp<FsmBbv, FsmBbv.States, FsmBbv.Events>) builder.compiledMachine("batched", new FsmBbv());
+        List<List<Event<FsmBbv.Events>>> notified = new ArrayList<>();
+        batched.addEventHandler(new StateMachineEventHandler<>() {
+            @Override
+            public void processEvents(List<Event<FsmBbv.Events>> events) {
+                notified.add(events);
+            }
+        });
+        var random = new Random(42);
+        FsmBbv.Events[] events = FsmBbv.Events.values();
+        List<Event<FsmBbv.Events>> batch = new ArrayList<>();
+        for (int i = 0; i < EVENTS; i++) {
+            batch.add(Event.of(events[random.nextInt(events.length)]));
+        }
+        int fired = 0;
+        for (var event : batch) {
+            fired += single.fire(event) ? 1 : 0;
+        }
+        assertThat(batched.fireAll(batch)).isEqualTo(fired);
+        assertThat(batched.context().consumeLog()).isEqualTo(single.context().consumeLog());
+        assertSameStates(batched, single);
+        assertThat(notified).containsExactly(batch);
+    }
+
+    @Test
+    void fireAllNotifiesProcessedEventsTest() {
+        var machine = FsmTest.build().compiledMachine("batched", null);
+        List<List<Event<FsmTest.Events>>> notified = new ArrayList<>();
+        machine.addEventHandler(new StateMachineEventHandler<>() {
+            @Override
+            public void processEvents(List<Event<FsmTest.Events>> events) {
+                notified.add(List.copyOf(events));
+            }
+        });
+        List<Event<FsmTest.Events>> unhandled = List.of(Event.of(FsmTest.Events.AA_AB), Event.of(FsmTest.Events.AB_AA), Event.of(FsmTest.Events.BB_C),
+            Event.of(FsmTest.Events.AA_AB));
+        assertThat(machine.fireAll(unhandled, true)).isEqualTo(2);
+        assertThat(machine.isAlive()).isTrue();
+
+        List<Event<FsmTest.Events>> terminated = List.of(Event.of(FsmTest.Events.AA_AB), Event.of(FsmTest.Events.A_C), Event.of(FsmTest.Events.AB_AA));
+        assertThat(machine.fireAll(terminated)).isEqualTo(2);
+        assertThat(machine.isAlive()).isFalse();
+        assertThat(notified).containsExactly(unhandled.subList(0, 3), terminated.subList(0, 2));
+    }
+
+    private static <O, S extends Enum<S>, E extends Enum<E>> void assertSameStates(StateMachineImp<O, S, E> compiled, StateMachineImp<O, S, E> interpreted) {
+        assertThat(ids(compiled.activeStates())).containsExactlyElementsOf(ids(interpreted.activeStates()));
+        assertThat(ids(compiled.historyStates())).containsExactlyInAnyOrderElementsOf(ids(interpreted.historyStates()));
+    }
+
+    private static <O, S extends Enum<S>, E extends Enum<E>> List<S> ids(Iterable<State<O, S, E>> states) {
+        List<S> ids = new ArrayList<>();
+        states.forEach(o -> ids.add(o.id()));
+        return ids;
+    }
+}
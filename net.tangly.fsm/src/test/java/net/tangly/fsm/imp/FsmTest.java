@@ -329,4 +329,32 @@ public class FsmTest {
         assertThat(checker.checkStateIdUsedOnce(builder.definition())).isEmpty();
         assertThat(checker.checkStateWithAfferentTransitionHasInitialState(builder.definition())).isEmpty();
     }
+
+    /**
+     * Tests that events without parameters are shared flyweights and events with parameters are distinct instances.
+     */
+    @Test
+    void eventFlyweightTest() {
+        assertThat(Event.of(Events.A_C)).isSameAs(Event.of(Events.A_C));
+        assertThat(Event.of(Events.A_C)).isNotSameAs(Event.of(Events.AA_AB));
+        assertThat(Event.of(Events.A_C).parameters()).isEmpty();
+        assertThat(Event.of(Events.A_C, "parameter")).isNotEqualTo(Event.of(Events.A_C));
+    }
+
+    /**
+     * Tests the registration and removal of event handlers.
+     */
+    @Test
+    void eventHandlerRegistrationTest() {
+        var fsm = build().machine("test-fsm", this);
+        var handler = mock(StateMachineEventHandler.class);
+        fsm.addEventHandler(handler);
+        fsm.addEventHandler(handler);
+        fsm.fire(Event.of(Events.AA_AB));
+        verify(handler, times(1)).processEvent(Event.of(Events.AA_AB));
+        fsm.removeEventHandler(handler);
+        assertThat(fsm.isRegistered(handler)).isFalse();
+        fsm.fire(Event.of(Events.AB_AA));
+        verify(handler, never()).processEvent(Event.of(Events.AB_AA));
+    }
 }
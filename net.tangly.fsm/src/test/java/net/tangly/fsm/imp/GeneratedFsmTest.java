@@ -0,0 +1,108 @@
+/*
+ * Copyright 2006-2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+
+package net.tangly.fsm.imp;
+
+import net.tangly.fsm.Event;
+import net.tangly.fsm.State;
+import net.tangly.fsm.dsl.FsmBuilder;
+import net.tangly.fsm.utilities.GeneratorJava;
+import org.junit.jupiter.api.Test;
+
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The test class generates the Java source of finite state machines, compiles it, and verifies that the generated machine behaves as the interpreted one.
+ */
+class GeneratedFsmTest {
+    private static final String PACKAGE = "net.tangly.fsm.imp";
+    private static final int EVENTS = 1000;
+
+    @Test
+    void generatedBbvMachineTest() throws Exception {
+        FsmBuilder<FsmBbv, FsmBbv.States, FsmBbv.Events> builder = FsmBbv.build();
+        Class<?> generatedClass = compile(new GeneratorJava<>(builder, "FsmBbvMachine", PACKAGE, FsmBbv.class, FsmBbv.Events.class));
+        var interpreted = (StateMachineImp<FsmBbv, FsmBbv.States, FsmBbv.Events>) builder.machine("interpreted", new FsmBbv());
+        var owner = new FsmBbv();
+        Object generated = generatedClass.getConstructor(State.class, FsmBbv.class).newInstance(builder.definition(), owner);
+        Method fire = generatedClass.getMethod("fire", Event.class);
+        Method state = generatedClass.getMethod("state");
+        assertThat(owner.consumeLog()).isEqualTo(interpreted.context().consumeLog());
+        var random = new Random(42);
+        FsmBbv.Events[] events = FsmBbv.Events.values();
+        for (int i = 0; i < EVENTS; i++) {
+            boolean maintenance = random.nextInt(8) == 0;
+            interpreted.context().setMaintenance(maintenance);
+            owner.setMaintenance(maintenance);
+            var event = Event.of(events[random.nextInt(events.length)]);
+            assertThat(fire.invoke(generated, event)).isEqualTo(interpreted.fire(event));
+            assertThat(owner.consumeLog()).isEqualTo(interpreted.context().consumeLog());
+            assertThat(state.invoke(generated)).isEqualTo(interpreted.activeStateIds().getLast());
+        }
+    }
+
+    @Test
+    void generatedNestedMachineTest() throws Exception {
+        FsmBuilder<FsmTest, FsmTest.States, FsmTest.Events> builder = FsmTest.build();
+        Class<?> generatedClass = compile(new GeneratorJava<>(builder, "FsmTestMachine", PACKAGE, FsmTest.class, FsmTest.Events.class));
+        var interpreted = builder.machine("interpreted", null);
+        Object generated = generatedClass.getConstructor(State.class, FsmTest.class).newInstance(builder.definition(), null);
+        Method fire = generatedClass.getMethod("fire", Event.class);
+        Method state = generatedClass.getMethod("state");
+        Method isAlive = generatedClass.getMethod("isAlive");
+        Method reset = generatedClass.getMethod("reset");
+        var random = new Random(42);
+        FsmTest.Events[] events = FsmTest.Events.values();
+        for (int i = 0; i < EVENTS; i++) {
+            var event = Event.of(events[random.nextInt(events.length)]);
+            assertThat(fire.invoke(generated, event)).isEqualTo(interpreted.fire(event));
+            assertThat(state.invoke(generated)).isEqualTo(interpreted.activeStateIds().getLast());
+            assertThat(isAlive.invoke(generated)).isEqualTo(interpreted.isAlive());
+            if (!interpreted.isAlive()) {
+                interpreted.reset();
+                reset.invoke(generated);
+            }
+        }
+    }
+
+    /**
+     * Compile the generated class and define it in the package of the test, so that it can access the package-private enumerations of the test machines.
+     */
+    private static Class<?> compile(GeneratorJava<?, ?, ?> generator) throws IOException, IllegalAccessException {
+        Path directory = Files.createTempDirectory("fsm-generated");
+        Path source = directory.resolve(generator.name() + "." + generator.extension());
+        try (var writer = new PrintWriter(Files.newBufferedWriter(source))) {
+            generator.generate(writer);
+        }
+        String classpath = Stream.of(System.getProperty("java.class.path"), System.getProperty("jdk.module.path")).filter(Objects::nonNull)
+            .collect(Collectors.joining(File.pathSeparator));
+        int result = ToolProvider.getSystemJavaCompiler().run(null, null, null, "--enable-preview", "--release", Integer.toString(Runtime.version().feature()),
+            "-classpath", classpath, "-d", directory.toString(), source.toString());
+        assertThat(result).isZero();
+        return MethodHandles.lookup().defineClass(Files.readAllBytes(directory.resolve(PACKAGE.replace('.', '/')).resolve(generator.name() + ".class")));
+    }
+}
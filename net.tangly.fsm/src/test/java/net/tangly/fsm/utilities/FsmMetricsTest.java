@@ -0,0 +1,77 @@
+/*
+ * Copyright 2006-2024 Marcel Baumann
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ *          https://apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations under the License.
+ *
+ */
+
+
+package net.tangly.fsm.utilities;
+
+import net.tangly.fsm.Event;
+import net.tangly.fsm.StateMachine;
+import net.tangly.fsm.imp.FsmBbv;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+import static org.assertj.core.api.Assertions.withPercentage;
+
+class FsmMetricsTest {
+    @Test
+    void recordLatenciesTest() {
+        var histogram = new LatencyHistogram();
+        for (long i = 1; i <= 10_000; i++) {
+            histogram.record(i * 1_000);
+        }
+        assertThat(histogram.count()).isEqualTo(10_000);
+        assertThat(histogram.max()).isEqualTo(10_000_000);
+        assertThat(histogram.mean()).isCloseTo(5_000_500.0, offset(1.0));
+        assertThat((double) histogram.percentile(50)).isCloseTo(5_000_000.0, withPercentage(7));
+        assertThat((double) histogram.percentile(99)).isCloseTo(9_900_000.0, withPercentage(7));
+        assertThat(histogram.percentile(100)).isGreaterThanOrEqualTo(histogram.percentile(99));
+        histogram.reset();
+        assertThat(histogram.count()).isZero();
+        assertThat(histogram.percentile(99)).isZero();
+    }
+
+    @Test
+    void countGuardsAndTransitionsTest() {
+        var metrics = new FsmMetrics<FsmBbv, FsmBbv.States, FsmBbv.Events>("bbv");
+        StateMachine<FsmBbv, FsmBbv.States, FsmBbv.Events> machine = metrics.instrument(FsmBbv.build().compiledMachine("bbv", new FsmBbv()));
+        assertThat(machine.fire(Event.of(FsmBbv.Events.TogglePower))).isTrue();
+        assertThat(metrics.getEvents()).isEqualTo(1);
+        assertThat(metrics.getTransitions()).isEqualTo(1);
+        assertThat(metrics.getGuardEvaluations()).isEqualTo(2);
+        assertThat(metrics.getRejectedGuards()).isEqualTo(1);
+        assertThat(metrics.getUnhandledEvents()).isZero();
+    }
+
+    @Test
+    void countUnhandledEventsTest() {
+        var metrics = new FsmMetrics<FsmBbv, FsmBbv.States, FsmBbv.Events>("bbv");
+        StateMachine<FsmBbv, FsmBbv.States, FsmBbv.Events> machine = metrics.instrument(FsmBbv.build().machine("bbv", new FsmBbv()));
+        var random = new Random(42);
+        FsmBbv.Events[] events = FsmBbv.Events.values();
+        int unhandled = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (!machine.fire(Event.of(events[random.nextInt(events.length)]))) {
+                ++unhandled;
+            }
+        }
+        assertThat(metrics.getEvents()).isEqualTo(1000);
+        assertThat(metrics.getUnhandledEvents()).isEqualTo(unhandled);
+        assertThat(metrics.getTransitions() + metrics.getLocalTransitions()).isGreaterThanOrEqualTo(1000 - unhandled);
+        assertThat(metrics.fireLatency().count()).isEqualTo(1000);
+        metrics.reset();
+        assertThat(metrics.getEvents()).isZero();
+    }
+}
@@ -25,13 +25,13 @@ import net.tangly.core.domain.AccessRightsCode;
 import net.tangly.core.domain.BoundedDomain;
 import net.tangly.core.domain.User;
 import net.tangly.core.events.EntityChangedInternalEvent;
+import net.tangly.core.events.EventBus;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.Flow;
 
 /**
  * Define the interface for the visualization of a bounded domain. The user interface is a set of views to display entities, commands, and dialogs to modify entities.
@@ -54,7 +54,7 @@ public abstract class BoundedDomainUi<T extends BoundedDomain<?, ?, ?>> implemen
     private AccessRights rights;
     private LazyReference<?> currentView;
     private final Map<Class<?>, LazyReference<? extends View>> views;
-    private Flow.Subscription subscription;
+    private EventBus.Subscription subscription;
 
     public BoundedDomainUi(@NotNull T domain) {
         this.domain = domain;
@@ -132,9 +132,8 @@ public abstract class BoundedDomainUi<T extends BoundedDomain<?, ?, ?>> implemen
     // region EventListener
 
     @Override
-    public void onSubscribe(Flow.Subscription subscription) {
+    public void onSubscribe(@NotNull EventBus.Subscription subscription) {
         this.subscription = subscription;
-        subscription.request(Long.MAX_VALUE);
     }
 
     @Override
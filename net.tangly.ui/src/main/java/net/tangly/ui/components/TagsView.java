@@ -19,12 +19,17 @@ import com.vaadin.flow.component.grid.Grid;
 import com.vaadin.flow.component.grid.HeaderRow;
 import com.vaadin.flow.component.textfield.TextField;
 import net.tangly.core.Tag;
+import net.tangly.core.TagIndex;
 import net.tangly.core.TagType;
 import net.tangly.core.providers.ProviderInMemory;
 import net.tangly.ui.app.domain.BoundedDomainUi;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 /**
  * The tags view is a Crud view with all the tags defined for an entity. Edition functions are provided to add, delete, and view individual comments. Update function is not
@@ -38,6 +43,8 @@ import java.util.Objects;
  *     <dt>update</dt><dd>Only the value of the tag can be edited. The namespace and name of the tag are read-only.The operation can be accepted or canceled.</dd>
  *     <dt>delete</dt><dd>The selected tag is removed.The operation can be accepted or canceled.</dd>
  * </dl>
+ * <p>The namespace and name filters are facets. They propose the namespaces and names in use in the realm with the number of tagged entities. The facets are
+ * retrieved from the tag index of the realm. The tag types of the registry are proposed if the realm has no tag index.</p>
  */
 public class TagsView extends ItemView<Tag> {
     private static final String NAMESPACE = "namespace";
@@ -124,7 +131,7 @@ public class TagsView extends ItemView<Tag> {
          */
         @Override
         protected Tag createOrUpdateInstance(Tag entity) {
-            Tag tag = new Tag(namespace.getValue(), name.getValue(), value.getValue());
+            Tag tag = Tag.of(namespace.getValue(), name.getValue(), value.getValue());
             view().provider().replace(entity, tag);
             return tag;
         }
@@ -189,9 +196,55 @@ public class TagsView extends ItemView<Tag> {
 
         if (filter() instanceof TagFilter filter) {
             HeaderRow headerRow = createHeaderRow();
-            headerRow.getCell(grid.getColumnByKey(NAMESPACE)).setComponent(createTextFilterField(filter::namespace));
-            headerRow.getCell(grid.getColumnByKey(NAME)).setComponent(createTextFilterField(filter::name));
+            ComboBox<String> names = createFacetFilterField(filter::name);
+            ComboBox<String> namespaces = createFacetFilterField(namespace -> {
+                filter.namespace(namespace);
+                names.clear();
+                facets(names, nameFacets(namespace));
+            });
+            facets(namespaces, namespaceFacets());
+            facets(names, nameFacets(null));
+            headerRow.getCell(grid.getColumnByKey(NAMESPACE)).setComponent(namespaces);
+            headerRow.getCell(grid.getColumnByKey(NAME)).setComponent(names);
             headerRow.getCell(grid.getColumnByKey(VALUE)).setComponent(createTextFilterField(filter::value));
         }
     }
+
+    private Optional<TagIndex> tagIndex() {
+        return Optional.ofNullable(domain()).flatMap(o -> o.realm().tagIndex());
+    }
+
+    private Map<String, Integer> namespaceFacets() {
+        return tagIndex().map(TagIndex::namespaces).orElseGet(
+            () -> Optional.ofNullable(registry()).stream().flatMap(o -> o.namespaces().stream()).filter(Objects::nonNull).distinct()
+                .collect(Collectors.toMap(o -> o, _ -> 0)));
+    }
+
+    /**
+     * Returns the facet counts of the tag names in the namespace. The names of all namespaces are returned if no namespace is selected.
+     */
+    private Map<String, Integer> nameFacets(String namespace) {
+        if (Objects.isNull(namespace)) {
+            return tagIndex().map(o -> o.counts().entrySet().stream().collect(Collectors.toMap(e -> e.getKey().name(), Map.Entry::getValue, Integer::sum)))
+                .orElseGet(() -> Optional.ofNullable(registry()).stream().flatMap(o -> o.tagTypes().stream()).map(TagType::name).distinct()
+                    .collect(Collectors.toMap(o -> o, _ -> 0)));
+        }
+        return tagIndex().map(o -> o.names(namespace)).orElseGet(
+            () -> Optional.ofNullable(registry()).stream().flatMap(o -> o.tagNamesForNamespace(namespace).stream()).distinct()
+                .collect(Collectors.toMap(o -> o, _ -> 0)));
+    }
+
+    private static void facets(@NotNull ComboBox<String> field, @NotNull Map<String, Integer> facets) {
+        field.setItems(facets.keySet().stream().sorted().toList());
+        field.setItemLabelGenerator(o -> facets.getOrDefault(o, 0) > 0 ? "%s (%d)".formatted(o, facets.get(o)) : o);
+    }
+
+    private static ComboBox<String> createFacetFilterField(@NotNull Consumer<String> consumer) {
+        var field = new ComboBox<String>();
+        field.setClearButtonVisible(true);
+        field.setAllowCustomValue(false);
+        field.setWidthFull();
+        field.addValueChangeListener(e -> consumer.accept(e.getValue()));
+        return field;
+    }
 }